@@ -17,6 +17,8 @@ plugins {
     id("org.jetbrains.qodana") version "0.1.13"
     // Gradle Kover Plugin
     id("org.jetbrains.kotlinx.kover") version "0.6.1"
+    // Gradle JMH Plugin
+    id("me.champeau.jmh") version "0.7.1"
 }
 
 group = properties("pluginGroup").get()
@@ -37,6 +39,9 @@ dependencies {
     compileOnly("org.projectlombok:lombok:1.18.28")
     annotationProcessor("org.projectlombok:lombok:1.18.28");
     testAnnotationProcessor("org.projectlombok:lombok:1.18.28");
+    testImplementation("junit:junit:4.13.2")
+    // the IntelliJ Platform is compileOnly, the benchmarked classes only need its annotations
+    jmhCompileOnly("org.jetbrains:annotations:24.0.1")
 }
 
 // Configure Gradle IntelliJ Plugin - read more: https://plugins.jetbrains.com/docs/intellij/tools-gradle-intellij-plugin.html
@@ -63,6 +68,16 @@ qodana {
     showReport.set(environment("QODANA_SHOW_REPORT").map { it.toBoolean() }.getOrElse(false))
 }
 
+// Configure Gradle JMH Plugin - read more: https://github.com/melix/jmh-gradle-plugin
+// Run with ./gradlew jmh, e.g. -Pjmh.includes=AntPathBenchmark.match
+jmh {
+    jmhVersion.set("1.36")
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    includes.set(properties("jmh.includes").map { listOf(it) })
+}
+
 // Configure Gradle Kover Plugin - read more: https://github.com/Kotlin/kotlinx-kover#configuration
 kover.xmlReport {
     onCheck.set(true)
@@ -0,0 +1,180 @@
+package jiux.net.plugin.restful.common.spring;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * {@link AntPathMatcher} against the precompiled {@link AntPathPattern} and
+ * {@link PathTrie} over a generated corpus of endpoint templates, shaped like those of a
+ * large Spring project: versioned paths, template variables, regex and extension
+ * segments, {@code *} and {@code **}.
+ * <p>
+ * Each invocation handles the next template of the corpus, half of the paths matching it
+ * and half the path of a sibling endpoint, which fails deep in the path.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AntPathBenchmark {
+
+  private static final String[] RESOURCES = {
+    "users",
+    "orders",
+    "products",
+    "invoices",
+    "carts",
+    "payments",
+    "shipments",
+    "reviews",
+    "categories",
+    "inventory",
+    "accounts",
+    "sessions",
+    "reports",
+    "notifications",
+    "coupons",
+  };
+
+  private static final String[] SHAPES = {
+    "/api/v1/%s/%s",
+    "/api/v1/%s/%s/{id}",
+    "/api/v1/%s/%s/{id}/items",
+    "/api/v1/%s/%s/{id}/items/{itemId}",
+    "/api/v1/%s/%s/search",
+    "/api/v2/%s/%s/{id:\\d+}",
+    "/api/v1/%s/%s/{id}/export.{format}",
+    "/api/v1/%s/%s/*/summary",
+    "/internal/%s/%s/**",
+    "/api/v1/%s/%s/{id}/history/{version}",
+  };
+
+  @Param({ "100", "1000", "10000" })
+  public int endpoints;
+
+  private String[] myPatterns;
+  private AntPathPattern[] myCompiled;
+  /**
+   * For template i, a path it matches at even i and a path of the next template at odd i.
+   */
+  private String[] myPaths;
+  private String[] myMatchingPaths;
+  private PathTrie<String> myTrie;
+  private AntPathMatcher myMatcher;
+  private int myNext;
+
+  @Setup
+  public void setUp() {
+    myPatterns = new String[endpoints];
+    myCompiled = new AntPathPattern[endpoints];
+    myMatchingPaths = new String[endpoints];
+    myPaths = new String[endpoints];
+    myTrie = new PathTrie<>();
+    for (int i = 0; i < endpoints; i++) {
+      String module = "svc" + i / (SHAPES.length * RESOURCES.length);
+      String resource = RESOURCES[(i / SHAPES.length) % RESOURCES.length];
+      myPatterns[i] = String.format(SHAPES[i % SHAPES.length], module, resource);
+      myCompiled[i] = AntPathPattern.compile(myPatterns[i]);
+      myMatchingPaths[i] = toConcretePath(myPatterns[i], i);
+      myTrie.add(myPatterns[i], myPatterns[i]);
+    }
+    for (int i = 0; i < endpoints; i++) {
+      myPaths[i] = i % 2 == 0 ? myMatchingPaths[i] : myMatchingPaths[(i + 1) % endpoints];
+    }
+    myMatcher = new AntPathMatcher();
+  }
+
+  private static String toConcretePath(String pattern, int seed) {
+    return pattern
+      .replaceAll("\\{[^}/]+}", String.valueOf(1000 + seed))
+      .replace("/**", "/reports/2024/q1")
+      .replace("/*/", "/latest/");
+  }
+
+  private int next() {
+    int index = myNext;
+    myNext = index + 1 == endpoints ? 0 : index + 1;
+    return index;
+  }
+
+  @Benchmark
+  public boolean matchAntPathMatcher() {
+    int i = next();
+    return myMatcher.match(myPatterns[i], myPaths[i]);
+  }
+
+  @Benchmark
+  public boolean matchAntPathPattern() {
+    int i = next();
+    return myCompiled[i].matches(myPaths[i]);
+  }
+
+  @Benchmark
+  public Map<String, String> extractUriTemplateVariablesAntPathMatcher() {
+    int i = next();
+    Map<String, String> variables = new LinkedHashMap<>();
+    return myMatcher.doMatch(myPatterns[i], myMatchingPaths[i], true, variables)
+      ? variables
+      : null;
+  }
+
+  @Benchmark
+  public Map<String, String> extractUriTemplateVariablesAntPathPattern() {
+    int i = next();
+    return myCompiled[i].extractUriTemplateVariables(myMatchingPaths[i]);
+  }
+
+  /**
+   * Ranks two templates for the path of the first, as done for every pair of candidates.
+   */
+  @Benchmark
+  public int compare() {
+    int i = next();
+    return new AntPathMatcher.AntPatternComparator(myMatchingPaths[i])
+      .compare(myPatterns[i], myPatterns[(i + 1) % endpoints]);
+  }
+
+  /**
+   * All the templates matching a pasted url, most specific first, by scanning the corpus.
+   */
+  @Benchmark
+  public List<String> lookupAntPathMatcher() {
+    String path = myMatchingPaths[next()];
+    List<String> result = new ArrayList<>();
+    for (String pattern : myPatterns) {
+      if (myMatcher.match(pattern, path)) {
+        result.add(pattern);
+      }
+    }
+    result.sort(new AntPathMatcher.AntPatternComparator(path));
+    return result;
+  }
+
+  @Benchmark
+  public List<String> lookupAntPathPattern() {
+    String path = myMatchingPaths[next()];
+    List<String> result = new ArrayList<>();
+    for (AntPathPattern pattern : myCompiled) {
+      if (pattern.matches(path)) {
+        result.add(pattern.getPattern());
+      }
+    }
+    result.sort(new AntPathMatcher.AntPatternComparator(path));
+    return result;
+  }
+
+  @Benchmark
+  public List<String> lookupPathTrie() {
+    return myTrie.match(myMatchingPaths[next()]);
+  }
+}
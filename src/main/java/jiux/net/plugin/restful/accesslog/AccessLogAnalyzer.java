@@ -0,0 +1,304 @@
+package jiux.net.plugin.restful.accesslog;
+
+import com.google.common.io.CountingInputStream;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.zip.GZIPInputStream;
+import jiux.net.plugin.restful.common.spring.PathTrie;
+import jiux.net.plugin.restful.method.HttpMethod;
+import jiux.net.plugin.restful.navigation.action.RestServiceItem;
+import jiux.net.plugin.utils.ToolkitUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Maps the requests of an access log to the endpoints of the project. The file is read
+ * line by line and matched in chunks on a pool of threads; at most a few chunks are held in
+ * memory at a time, so the size of the log does not matter.
+ * <p>
+ * A line may be a bare {@code METHOD /path?query} or a line of the common or combined log
+ * format, where the request is the quoted {@code "METHOD /path HTTP/1.1"}. Host and query
+ * are stripped as in Go to Service, then the url is matched against the endpoint templates
+ * with Ant path semantics, the most specific template with the same http method winning.
+ */
+public final class AccessLogAnalyzer {
+
+  public static final int MAX_UNMATCHED_URLS = 10_000;
+  private static final int CHUNK_LINES = 8192;
+  private static final int MAX_METHOD_LENGTH = 7;
+
+  private static final Map<String, HttpMethod> METHODS = new HashMap<>();
+
+  static {
+    for (HttpMethod method : HttpMethod.values()) {
+      METHODS.put(method.name(), method);
+    }
+  }
+
+  private final PathTrie<RestServiceItem> myTrie;
+
+  public AccessLogAnalyzer(@NotNull PathTrie<RestServiceItem> trie) {
+    myTrie = trie;
+  }
+
+  /**
+   * Must not be called in a read action, the trie is read without one.
+   *
+   * @param file a plain text log, or a gzip compressed one if named {@code *.gz}
+   */
+  @NotNull
+  public AccessLogReport analyze(@NotNull Path file, @NotNull ProgressIndicator indicator)
+    throws IOException {
+    long start = System.nanoTime();
+    int threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+    ExecutorService executor = AppExecutorUtil.createBoundedApplicationPoolExecutor(
+      "AccessLogAnalyzer",
+      threads
+    );
+    Semaphore inFlight = new Semaphore(threads * 2);
+    Tally total = new Tally();
+    List<Future<?>> futures = new ArrayList<>();
+
+    long size = Math.max(1, Files.size(file));
+    indicator.setIndeterminate(false);
+    try (
+      CountingInputStream counting = new CountingInputStream(Files.newInputStream(file));
+      BufferedReader reader = new BufferedReader(
+        new InputStreamReader(open(file, counting), StandardCharsets.UTF_8)
+      )
+    ) {
+      List<String> chunk = new ArrayList<>(CHUNK_LINES);
+      String line;
+      while ((line = reader.readLine()) != null) {
+        chunk.add(line);
+        if (chunk.size() == CHUNK_LINES) {
+          futures.add(submit(executor, inFlight, chunk, total, indicator));
+          chunk = new ArrayList<>(CHUNK_LINES);
+          indicator.setFraction(Math.min(1d, (double) counting.getCount() / size));
+        }
+      }
+      if (!chunk.isEmpty()) {
+        futures.add(submit(executor, inFlight, chunk, total, indicator));
+      }
+      for (Future<?> future : futures) {
+        waitFor(future, indicator);
+      }
+    } finally {
+      futures.forEach(future -> future.cancel(false));
+      executor.shutdown();
+    }
+
+    return total.toReport(file.toString(), (System.nanoTime() - start) / 1e6);
+  }
+
+  private static InputStream open(Path file, InputStream in) throws IOException {
+    return file.getFileName().toString().endsWith(".gz") ? new GZIPInputStream(in) : in;
+  }
+
+  private Future<?> submit(
+    ExecutorService executor,
+    Semaphore inFlight,
+    List<String> chunk,
+    Tally total,
+    ProgressIndicator indicator
+  ) {
+    // keeps the reader from running ahead of the workers
+    try {
+      while (!inFlight.tryAcquire(100, TimeUnit.MILLISECONDS)) {
+        indicator.checkCanceled();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ProcessCanceledException(e);
+    }
+    return executor.submit(() -> {
+      try {
+        if (!indicator.isCanceled()) {
+          total.merge(match(chunk));
+        }
+      } finally {
+        inFlight.release();
+      }
+    });
+  }
+
+  private static void waitFor(Future<?> future, ProgressIndicator indicator) {
+    while (true) {
+      indicator.checkCanceled();
+      try {
+        future.get(100, TimeUnit.MILLISECONDS);
+        return;
+      } catch (TimeoutException ignored) {
+        // check for cancellation again
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new ProcessCanceledException(e);
+      } catch (ExecutionException e) {
+        throw new IllegalStateException(e.getCause());
+      }
+    }
+  }
+
+  private Tally match(List<String> lines) {
+    Tally tally = new Tally();
+    for (String line : lines) {
+      Request request = parseRequest(line);
+      if (request == null) {
+        tally.skippedLines++;
+        continue;
+      }
+      tally.requests++;
+      String url = ToolkitUtil.removeRedundancyMarkup(request.url);
+      RestServiceItem item = match(request.method, url);
+      if (item != null) {
+        tally.hits.computeIfAbsent(item, i -> new long[1])[0]++;
+      } else {
+        tally.unmatched.computeIfAbsent(url, u -> new long[1])[0]++;
+      }
+    }
+    return tally;
+  }
+
+  @Nullable
+  private RestServiceItem match(@Nullable HttpMethod method, String url) {
+    for (RestServiceItem item : myTrie.match(url)) {
+      if (method == null || item.getMethod() == null || item.getMethod() == method) {
+        return item;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Finds the first http method token followed by a url, or takes a line starting with a
+   * url as a request of any method.
+   */
+  @Nullable
+  static Request parseRequest(String line) {
+    int length = line.length();
+    int start = skipSeparators(line, 0);
+    int end = skipToken(line, start);
+    if (start < length && (line.charAt(start) == '/' || line.startsWith("http", start))) {
+      return new Request(null, line.substring(start, end));
+    }
+    while (start < length) {
+      if (end - start <= MAX_METHOD_LENGTH && Character.isUpperCase(line.charAt(start))) {
+        HttpMethod method = METHODS.get(line.substring(start, end));
+        int urlStart = skipSeparators(line, end);
+        if (method != null && urlStart < length) {
+          return new Request(method, line.substring(urlStart, skipToken(line, urlStart)));
+        }
+      }
+      start = skipSeparators(line, end);
+      end = skipToken(line, start);
+    }
+    return null;
+  }
+
+  private static int skipSeparators(String line, int index) {
+    while (index < line.length() && isSeparator(line.charAt(index))) {
+      index++;
+    }
+    return index;
+  }
+
+  private static int skipToken(String line, int index) {
+    while (index < line.length() && !isSeparator(line.charAt(index))) {
+      index++;
+    }
+    return index;
+  }
+
+  private static boolean isSeparator(char c) {
+    return c == ' ' || c == '\t' || c == '"';
+  }
+
+  static final class Request {
+
+    @Nullable
+    final HttpMethod method;
+
+    final String url;
+
+    Request(@Nullable HttpMethod method, String url) {
+      this.method = method;
+      this.url = url;
+    }
+  }
+
+  /**
+   * Counts of one chunk, or of the whole log once merged.
+   */
+  private static final class Tally {
+
+    final Map<RestServiceItem, long[]> hits = new IdentityHashMap<>();
+    final Map<String, long[]> unmatched = new HashMap<>();
+    long unmatchedOverflow;
+    long requests;
+    long skippedLines;
+
+    synchronized void merge(Tally chunk) {
+      requests += chunk.requests;
+      skippedLines += chunk.skippedLines;
+      chunk.hits.forEach((item, count) ->
+        hits.computeIfAbsent(item, i -> new long[1])[0] += count[0]
+      );
+      chunk.unmatched.forEach((url, count) -> {
+        long[] total = unmatched.get(url);
+        if (total != null) {
+          total[0] += count[0];
+        } else if (unmatched.size() < MAX_UNMATCHED_URLS) {
+          unmatched.put(url, new long[] { count[0] });
+        } else {
+          unmatchedOverflow += count[0];
+        }
+      });
+    }
+
+    synchronized AccessLogReport toReport(String file, double elapsedMs) {
+      List<AccessLogReport.EndpointHits> endpoints = new ArrayList<>(hits.size());
+      hits.forEach((item, count) ->
+        endpoints.add(new AccessLogReport.EndpointHits(item, count[0]))
+      );
+      endpoints.sort(
+        Comparator.comparingLong(AccessLogReport.EndpointHits::getCount).reversed()
+      );
+
+      List<AccessLogReport.UnmatchedUrl> urls = new ArrayList<>(unmatched.size());
+      unmatched.forEach((url, count) ->
+        urls.add(new AccessLogReport.UnmatchedUrl(url, count[0]))
+      );
+      urls.sort(Comparator.comparingLong(AccessLogReport.UnmatchedUrl::getCount).reversed());
+
+      return new AccessLogReport(
+        file,
+        requests,
+        skippedLines,
+        endpoints,
+        urls,
+        unmatchedOverflow,
+        elapsedMs
+      );
+    }
+  }
+}
@@ -0,0 +1,144 @@
+package jiux.net.plugin.restful.accesslog;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import jiux.net.plugin.restful.navigation.action.RestServiceItem;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Requests of one access log aggregated per endpoint. Endpoints are also looked up by
+ * {@link RestServiceItem#getIdentity()}, so the hits still show on the items of a later
+ * refresh.
+ */
+public final class AccessLogReport {
+
+  private final String file;
+  private final long requests;
+  private final long skippedLines;
+  private final long matched;
+  private final List<EndpointHits> endpoints;
+  private final List<UnmatchedUrl> unmatched;
+  private final long unmatchedOverflow;
+  private final double elapsedMs;
+  private final Map<String, Long> hitsByKey = new HashMap<>();
+
+  AccessLogReport(
+    String file,
+    long requests,
+    long skippedLines,
+    List<EndpointHits> endpoints,
+    List<UnmatchedUrl> unmatched,
+    long unmatchedOverflow,
+    double elapsedMs
+  ) {
+    this.file = file;
+    this.requests = requests;
+    this.skippedLines = skippedLines;
+    this.endpoints = Collections.unmodifiableList(endpoints);
+    this.unmatched = Collections.unmodifiableList(unmatched);
+    this.unmatchedOverflow = unmatchedOverflow;
+    this.elapsedMs = elapsedMs;
+
+    long matchedCount = 0;
+    for (EndpointHits endpoint : endpoints) {
+      matchedCount += endpoint.count;
+      hitsByKey.merge(endpoint.item.getIdentity(), endpoint.count, Long::sum);
+    }
+    this.matched = matchedCount;
+  }
+
+  public long getHits(@NotNull RestServiceItem item) {
+    return hitsByKey.getOrDefault(item.getIdentity(), 0L);
+  }
+
+  /**
+   * @return share of all requests of the log, between 0 and 1
+   */
+  public double getShare(long count) {
+    return requests == 0 ? 0d : (double) count / requests;
+  }
+
+  public String getFile() {
+    return file;
+  }
+
+  /**
+   * Lines a request was found in.
+   */
+  public long getRequests() {
+    return requests;
+  }
+
+  public long getSkippedLines() {
+    return skippedLines;
+  }
+
+  public long getMatched() {
+    return matched;
+  }
+
+  /**
+   * Most hits first.
+   */
+  public List<EndpointHits> getEndpoints() {
+    return endpoints;
+  }
+
+  /**
+   * Most hits first, at most {@link AccessLogAnalyzer#MAX_UNMATCHED_URLS} distinct urls.
+   */
+  public List<UnmatchedUrl> getUnmatched() {
+    return unmatched;
+  }
+
+  /**
+   * Unmatched requests whose url did not fit into {@link #getUnmatched()}.
+   */
+  public long getUnmatchedOverflow() {
+    return unmatchedOverflow;
+  }
+
+  public double getElapsedMs() {
+    return elapsedMs;
+  }
+
+  public static final class EndpointHits {
+
+    private final RestServiceItem item;
+    private final long count;
+
+    EndpointHits(RestServiceItem item, long count) {
+      this.item = item;
+      this.count = count;
+    }
+
+    public RestServiceItem getItem() {
+      return item;
+    }
+
+    public long getCount() {
+      return count;
+    }
+  }
+
+  public static final class UnmatchedUrl {
+
+    private final String url;
+    private final long count;
+
+    UnmatchedUrl(String url, long count) {
+      this.url = url;
+      this.count = count;
+    }
+
+    public String getUrl() {
+      return url;
+    }
+
+    public long getCount() {
+      return count;
+    }
+  }
+}
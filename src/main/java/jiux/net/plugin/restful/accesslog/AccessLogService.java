@@ -0,0 +1,55 @@
+package jiux.net.plugin.restful.accesslog;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Disposer;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import jiux.net.plugin.restful.navigation.action.RestServiceItem;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Holds the report of the last analyzed access log, shown in the access log tab and as hit
+ * counts in the navigator tree.
+ */
+@Service(Service.Level.PROJECT)
+public final class AccessLogService {
+
+  private final List<Runnable> myListeners = new CopyOnWriteArrayList<>();
+  private volatile AccessLogReport myReport;
+
+  public static AccessLogService getInstance(Project p) {
+    return p.getService(AccessLogService.class);
+  }
+
+  @Nullable
+  public AccessLogReport getReport() {
+    return myReport;
+  }
+
+  /**
+   * @param report null to clear the last report
+   */
+  public void setReport(@Nullable AccessLogReport report) {
+    myReport = report;
+    myListeners.forEach(Runnable::run);
+  }
+
+  /**
+   * @return hits of the endpoint in the last report, 0 if there is none
+   */
+  public long getHits(@NotNull RestServiceItem item) {
+    AccessLogReport report = myReport;
+    return report != null ? report.getHits(item) : 0;
+  }
+
+  /**
+   * @param listener called on the thread setting the report
+   */
+  public void addListener(@NotNull Runnable listener, @NotNull Disposable parent) {
+    myListeners.add(listener);
+    Disposer.register(parent, () -> myListeners.remove(listener));
+  }
+}
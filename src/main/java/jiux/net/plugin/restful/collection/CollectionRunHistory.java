@@ -0,0 +1,110 @@
+package jiux.net.plugin.restful.collection;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.components.PersistentStateComponent;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.components.State;
+import com.intellij.openapi.components.Storage;
+import com.intellij.openapi.components.StoragePathMacros;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Disposer;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * What each saved request answered in the last run, which the next run is compared to,
+ * and the result of the last run of the session.
+ */
+@Service(Service.Level.PROJECT)
+@State(
+  name = "RestServicesCollectionRuns",
+  storages = @Storage(StoragePathMacros.WORKSPACE_FILE)
+)
+public final class CollectionRunHistory
+  implements PersistentStateComponent<CollectionRunHistory.HistoryState> {
+
+  private final List<Runnable> myListeners = new CopyOnWriteArrayList<>();
+  private HistoryState myState = new HistoryState();
+  private volatile CollectionRunResult myLastRun;
+
+  public static CollectionRunHistory getInstance(Project p) {
+    return p.getService(CollectionRunHistory.class);
+  }
+
+  /**
+   * @param key of the endpoint, see {@link SavedRequest#getKey()}
+   * @return null if the request was never run
+   */
+  @Nullable
+  public synchronized Baseline getBaseline(@NotNull String key) {
+    return myState.baselines.get(key);
+  }
+
+  /**
+   * Keeps the run as the baseline of its requests, and as the last run.
+   */
+  public void add(@NotNull CollectionRunResult result) {
+    synchronized (this) {
+      for (CollectionRunResult.Entry entry : result.getEntries()) {
+        Baseline baseline = new Baseline();
+        baseline.status = entry.getStatus();
+        baseline.latencyMs = entry.getLatencyMs();
+        baseline.size = entry.getSize();
+        baseline.time = result.getTime();
+        myState.baselines.put(entry.getRequest().getKey(), baseline);
+      }
+    }
+    myLastRun = result;
+    myListeners.forEach(Runnable::run);
+  }
+
+  @Nullable
+  public CollectionRunResult getLastRun() {
+    return myLastRun;
+  }
+
+  /**
+   * @param listener called on the thread adding the run
+   */
+  public void addListener(@NotNull Runnable listener, @NotNull Disposable parent) {
+    myListeners.add(listener);
+    Disposer.register(parent, () -> myListeners.remove(listener));
+  }
+
+  @NotNull
+  @Override
+  public synchronized HistoryState getState() {
+    return myState;
+  }
+
+  @Override
+  public synchronized void loadState(@NotNull HistoryState state) {
+    myState = state;
+  }
+
+  public static final class HistoryState {
+
+    public Map<String, Baseline> baselines = new TreeMap<>();
+  }
+
+  /**
+   * One request of the previous run.
+   */
+  public static final class Baseline {
+
+    /**
+     * -1 if no response was received.
+     */
+    public int status;
+    public double latencyMs;
+    public long size;
+    /**
+     * When the run started, in milliseconds since the epoch.
+     */
+    public long time;
+  }
+}
@@ -0,0 +1,198 @@
+package jiux.net.plugin.restful.collection;
+
+import java.util.Collections;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Result of a run of saved requests, each compared to the previous run.
+ */
+public final class CollectionRunResult {
+
+  private final String title;
+  private final long time;
+  private final double elapsedMs;
+  private final int parallelism;
+  private final int repetitions;
+  private final LatencyThreshold threshold;
+  private final boolean cancelled;
+  private final List<Entry> entries;
+
+  CollectionRunResult(
+    String title,
+    long time,
+    double elapsedMs,
+    int parallelism,
+    int repetitions,
+    LatencyThreshold threshold,
+    boolean cancelled,
+    List<Entry> entries
+  ) {
+    this.title = title;
+    this.time = time;
+    this.elapsedMs = elapsedMs;
+    this.parallelism = parallelism;
+    this.repetitions = repetitions;
+    this.threshold = threshold;
+    this.cancelled = cancelled;
+    this.entries = Collections.unmodifiableList(entries);
+  }
+
+  /**
+   * What was run, e.g. the name of the module.
+   */
+  @NotNull
+  public String getTitle() {
+    return title;
+  }
+
+  /**
+   * When the run started, in milliseconds since the epoch.
+   */
+  public long getTime() {
+    return time;
+  }
+
+  public double getElapsedMs() {
+    return elapsedMs;
+  }
+
+  public int getParallelism() {
+    return parallelism;
+  }
+
+  public int getRepetitions() {
+    return repetitions;
+  }
+
+  @NotNull
+  public LatencyThreshold getThreshold() {
+    return threshold;
+  }
+
+  /**
+   * Whether the run was stopped before all the requests were sent; those not done are
+   * missing from the entries.
+   */
+  public boolean isCancelled() {
+    return cancelled;
+  }
+
+  /**
+   * In the order of the requests.
+   */
+  @NotNull
+  public List<Entry> getEntries() {
+    return entries;
+  }
+
+  public long countFailed() {
+    return entries.stream().filter(Entry::isFailed).count();
+  }
+
+  public long countRegressions() {
+    return entries.stream().filter(Entry::isRegression).count();
+  }
+
+  /**
+   * One saved request: the median latency of its repetitions, the status and size of the
+   * last one.
+   */
+  public static final class Entry {
+
+    private final SavedRequest request;
+    private final int status;
+    private final double latencyMs;
+    private final long size;
+    private final String error;
+    private final CollectionRunHistory.Baseline previous;
+    private final boolean regression;
+
+    Entry(
+      SavedRequest request,
+      int status,
+      double latencyMs,
+      long size,
+      @Nullable String error,
+      @Nullable CollectionRunHistory.Baseline previous,
+      @NotNull LatencyThreshold threshold
+    ) {
+      this.request = request;
+      this.status = status;
+      this.latencyMs = latencyMs;
+      this.size = size;
+      this.error = error;
+      this.previous = previous;
+      // latencies of different outcomes, e.g. a fast 500, are not compared
+      this.regression =
+        previous != null &&
+        status >= 0 &&
+        previous.status == status &&
+        threshold.isExceeded(previous.latencyMs, latencyMs);
+    }
+
+    @NotNull
+    public SavedRequest getRequest() {
+      return request;
+    }
+
+    /**
+     * -1 if no response was received.
+     */
+    public int getStatus() {
+      return status;
+    }
+
+    public double getLatencyMs() {
+      return latencyMs;
+    }
+
+    /**
+     * Of the body, in bytes.
+     */
+    public long getSize() {
+      return size;
+    }
+
+    /**
+     * Why no response was received, null if one was.
+     */
+    @Nullable
+    public String getError() {
+      return error;
+    }
+
+    /**
+     * @return null if the request was not run before
+     */
+    @Nullable
+    public CollectionRunHistory.Baseline getPrevious() {
+      return previous;
+    }
+
+    public boolean isFailed() {
+      return status < 0 || status >= 400;
+    }
+
+    public boolean isStatusChanged() {
+      return previous != null && previous.status != status;
+    }
+
+    /**
+     * Slower than in the previous run beyond the threshold, with the same status.
+     */
+    public boolean isRegression() {
+      return regression;
+    }
+
+    /**
+     * @return NaN if there is no previous response to compare to
+     */
+    public double getLatencyDeltaMs() {
+      return previous != null && previous.status >= 0 && status >= 0
+        ? latencyMs - previous.latencyMs
+        : Double.NaN;
+    }
+  }
+}
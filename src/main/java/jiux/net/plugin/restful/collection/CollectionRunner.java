@@ -0,0 +1,225 @@
+package jiux.net.plugin.restful.collection;
+
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+import jiux.net.plugin.restful.http.HttpEngine;
+import jiux.net.plugin.restful.http.HttpSession;
+import jiux.net.plugin.restful.http.RequestTimeouts;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Sends saved requests, a bounded number at once, and compares each to the previous run.
+ * Every request is sent a number of times in a row and its median latency kept, so that
+ * the connect of the first one or a single slow response is no regression.
+ * <p>
+ * The requests go through sessions of the HTTP engine of their module, see
+ * {@link HttpSession}, with as many connections as requests in flight over HTTP/1.1, so
+ * that they do not wait for the connections of the tool window. Bodies are counted, not
+ * kept.
+ */
+public final class CollectionRunner {
+
+  private final String myTitle;
+  private final List<SavedRequest> myRequests;
+  private final Function<String, RequestTimeouts> myTimeouts;
+  /**
+   * Of each request.
+   */
+  private final List<HttpEngine> myEngines = new ArrayList<>();
+  private final Function<String, CollectionRunHistory.Baseline> myBaselines;
+  private final int myParallelism;
+  private final int myRepetitions;
+  private final LatencyThreshold myThreshold;
+
+  /**
+   * @param timeouts of the requests to a module, by module name
+   * @param engines of the requests to a module, by module name
+   * @param baselines of the previous run, by request key
+   */
+  public CollectionRunner(
+    @NotNull String title,
+    @NotNull List<SavedRequest> requests,
+    @NotNull Function<String, RequestTimeouts> timeouts,
+    @NotNull Function<String, HttpEngine> engines,
+    @NotNull Function<String, CollectionRunHistory.Baseline> baselines,
+    int parallelism,
+    int repetitions,
+    @NotNull LatencyThreshold threshold
+  ) {
+    myTitle = title;
+    myRequests = new ArrayList<>(requests);
+    myTimeouts = timeouts;
+    for (SavedRequest request : myRequests) {
+      myEngines.add(engines.apply(request.getModuleName()));
+    }
+    myBaselines = baselines;
+    myParallelism = Math.max(1, Math.min(parallelism, requests.size()));
+    myRepetitions = Math.max(1, repetitions);
+    myThreshold = threshold;
+  }
+
+  /**
+   * Blocks until all requests are done, or the indicator is cancelled; the result then
+   * covers the requests done so far.
+   */
+  @NotNull
+  public CollectionRunResult run(@NotNull ProgressIndicator indicator) {
+    Run run = new Run(indicator);
+    ExecutorService executor = AppExecutorUtil.createBoundedApplicationPoolExecutor(
+      "RestServices Saved Requests",
+      myParallelism
+    );
+    CountDownLatch workersDone = new CountDownLatch(myParallelism);
+    Map<HttpEngine, HttpSession> sessions = new EnumMap<>(HttpEngine.class);
+    for (HttpEngine engine : myEngines) {
+      sessions.computeIfAbsent(engine, e -> e.openSession(myParallelism));
+    }
+    long start = System.nanoTime();
+    try {
+      for (int i = 0; i < myParallelism; i++) {
+        executor.execute(() -> {
+          try {
+            run.work(sessions);
+          } finally {
+            workersDone.countDown();
+          }
+        });
+      }
+      while (!workersDone.await(100, TimeUnit.MILLISECONDS)) {
+        if (indicator.isCanceled() && !run.stopped) {
+          run.stopped = true;
+          // unblocks the workers waiting for a response
+          sessions.values().forEach(HttpSession::close);
+        }
+      }
+    } catch (InterruptedException e) {
+      run.stopped = true;
+      Thread.currentThread().interrupt();
+    } finally {
+      sessions.values().forEach(HttpSession::close);
+      executor.shutdownNow();
+    }
+    return run.toResult((System.nanoTime() - start) / 1_000_000d);
+  }
+
+  /**
+   * State shared by the workers of one run.
+   */
+  private final class Run {
+
+    private final ProgressIndicator myIndicator;
+    private final long myStartMillis = System.currentTimeMillis();
+    private final AtomicInteger myNext = new AtomicInteger();
+    private final AtomicInteger myDone = new AtomicInteger();
+    private final AtomicReferenceArray<CollectionRunResult.Entry> myEntries =
+      new AtomicReferenceArray<>(myRequests.size());
+    private volatile boolean stopped;
+
+    Run(ProgressIndicator indicator) {
+      myIndicator = indicator;
+    }
+
+    void work(Map<HttpEngine, HttpSession> sessions) {
+      for (
+        int index = myNext.getAndIncrement();
+        index < myRequests.size() && !stopped;
+        index = myNext.getAndIncrement()
+      ) {
+        CollectionRunResult.Entry entry = send(
+          myRequests.get(index),
+          sessions.get(myEngines.get(index))
+        );
+        if (stopped) {
+          return;
+        }
+        myEntries.set(index, entry);
+        int done = myDone.incrementAndGet();
+        myIndicator.setFraction((double) done / myRequests.size());
+        myIndicator.setText2(done + " / " + myRequests.size() + " requests");
+      }
+    }
+
+    private CollectionRunResult.Entry send(SavedRequest saved, HttpSession session) {
+      double[] latencies = new double[myRepetitions];
+      int status = -1;
+      long size = 0;
+      for (int i = 0; i < myRepetitions && !stopped; i++) {
+        HttpRequestBase request;
+        try {
+          request = saved.compose();
+        } catch (RuntimeException e) {
+          // e.g. an invalid url
+          return failed(saved, e.toString());
+        }
+        if (request == null) {
+          return failed(saved, "Unsupported method");
+        }
+        RequestTimeouts timeouts = myTimeouts.apply(saved.getModuleName());
+        long start = System.nanoTime();
+        try {
+          HttpSession.Response response = session.send(request, timeouts);
+          latencies[i] = (System.nanoTime() - start) / 1_000_000d;
+          status = response.getStatus();
+          size = response.getSize();
+        } catch (IOException | RuntimeException e) {
+          return failed(saved, e.toString());
+        }
+      }
+      Arrays.sort(latencies);
+      return new CollectionRunResult.Entry(
+        saved,
+        status,
+        latencies[latencies.length / 2],
+        size,
+        null,
+        myBaselines.apply(saved.getKey()),
+        myThreshold
+      );
+    }
+
+    private CollectionRunResult.Entry failed(SavedRequest saved, String error) {
+      return new CollectionRunResult.Entry(
+        saved,
+        -1,
+        0,
+        0,
+        error,
+        myBaselines.apply(saved.getKey()),
+        myThreshold
+      );
+    }
+
+    CollectionRunResult toResult(double elapsedMs) {
+      List<CollectionRunResult.Entry> entries = new ArrayList<>();
+      for (int i = 0; i < myEntries.length(); i++) {
+        CollectionRunResult.Entry entry = myEntries.get(i);
+        if (entry != null) {
+          entries.add(entry);
+        }
+      }
+      return new CollectionRunResult(
+        myTitle,
+        myStartMillis,
+        elapsedMs,
+        myParallelism,
+        myRepetitions,
+        myThreshold,
+        stopped,
+        entries
+      );
+    }
+  }
+}
@@ -0,0 +1,38 @@
+package jiux.net.plugin.restful.collection;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * How much slower than in the previous run a request may get before it is flagged as a
+ * regression. Both bounds must be exceeded, so that a fast request is not flagged for a
+ * millisecond of noise.
+ */
+public final class LatencyThreshold {
+
+  private final int percent;
+  private final int minMs;
+
+  public LatencyThreshold(int percent, int minMs) {
+    this.percent = Math.max(0, percent);
+    this.minMs = Math.max(0, minMs);
+  }
+
+  public boolean isExceeded(double previousMs, double latencyMs) {
+    double delta = latencyMs - previousMs;
+    return delta > previousMs * percent / 100 && delta >= minMs;
+  }
+
+  public int getPercent() {
+    return percent;
+  }
+
+  public int getMinMs() {
+    return minMs;
+  }
+
+  @NotNull
+  @Override
+  public String toString() {
+    return percent + "% and " + minMs + " ms";
+  }
+}
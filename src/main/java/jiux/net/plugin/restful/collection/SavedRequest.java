@@ -0,0 +1,69 @@
+package jiux.net.plugin.restful.collection;
+
+import java.util.Map;
+import jiux.net.plugin.restful.common.Constants;
+import jiux.net.plugin.restful.common.RequestHelper;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A request saved with Save Url Request, see
+ * {@link jiux.net.plugin.restful.navigator.RestServicesRequestState}, with the endpoint
+ * it was saved for.
+ */
+public final class SavedRequest {
+
+  private final String key;
+  private final String moduleName;
+  private final String method;
+  private final String url;
+  private final String params;
+  private final String headers;
+  private final String body;
+
+  /**
+   * @param key of the endpoint, {@code RestServiceItem#getKey()}
+   * @param saved the texts of the request panel, by {@link Constants} name
+   */
+  public SavedRequest(
+    @NotNull String key,
+    @NotNull String moduleName,
+    @NotNull String method,
+    @NotNull String url,
+    @NotNull Map<String, String> saved
+  ) {
+    this.key = key;
+    this.moduleName = moduleName;
+    this.method = method;
+    this.url = url;
+    this.params = saved.get(Constants.REQ_PARAM_NAME);
+    this.headers = saved.get(Constants.REQ_HEADER_NAME);
+    this.body = saved.get(Constants.REQ_BODY_NAME);
+  }
+
+  /**
+   * A new request each time, one is not sent twice.
+   *
+   * @return null if the method is not supported
+   */
+  @Nullable
+  HttpRequestBase compose() {
+    return RequestHelper.composeRequest(url, method, params, headers, body);
+  }
+
+  @NotNull
+  public String getKey() {
+    return key;
+  }
+
+  @NotNull
+  public String getModuleName() {
+    return moduleName;
+  }
+
+  @NotNull
+  public String getLabel() {
+    return method + " " + url;
+  }
+}
@@ -1,41 +1,82 @@
 package jiux.net.plugin.restful.common;
 
+import com.intellij.psi.JavaPsiFacade;
 import com.intellij.psi.PsiAnnotation;
 import com.intellij.psi.PsiAnnotationMemberValue;
 import com.intellij.psi.PsiArrayInitializerMemberValue;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiExpression;
 import com.intellij.psi.PsiLiteralExpression;
+import com.intellij.psi.PsiNameValuePair;
 import com.intellij.psi.PsiReferenceExpression;
+import com.intellij.util.IncorrectOperationException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+/**
+ * Reads annotation values from the stub of the annotation where there is one, so that
+ * literal values never load the AST of the file. Only non-literal values, such as
+ * constant references, are resolved, and only by the {@code getEvaluated...} methods.
+ */
 public class PsiAnnotationHelper {
 
+  /**
+   * Non-literal values are returned as written, e.g. {@code RequestMethod.GET}. Safe to use
+   * while indexing.
+   */
   @NotNull
   public static List<String> getAnnotationAttributeValues(
     PsiAnnotation annotation,
     String attr
+  ) {
+    return getAnnotationAttributeValues(annotation, attr, false);
+  }
+
+  /**
+   * Like {@link #getAnnotationAttributeValues(PsiAnnotation, String)}, but constant
+   * expressions are evaluated. Resolves references, so it must not be used while indexing.
+   */
+  @NotNull
+  public static List<String> getEvaluatedAttributeValues(
+    PsiAnnotation annotation,
+    String attr
+  ) {
+    return getAnnotationAttributeValues(annotation, attr, true);
+  }
+
+  @NotNull
+  private static List<String> getAnnotationAttributeValues(
+    PsiAnnotation annotation,
+    String attr,
+    boolean evaluate
   ) {
     List<String> values = new ArrayList<>();
     if (annotation == null) {
       return values;
     }
-    PsiAnnotationMemberValue value = annotation.findDeclaredAttributeValue(attr);
+    PsiAnnotationMemberValue value = findDetachedAttributeValue(annotation, attr);
 
     // class com.intellij.psi.impl.source.tree.java.PsiLiteralExpressionImpl
     // class com.intellij.psi.impl.source.tree.java.PsiArrayInitializerMemberValueImpl
-    if (value instanceof PsiReferenceExpression) {
-      PsiReferenceExpression expression = (PsiReferenceExpression) value;
-      values.add(expression.getText());
-    } else if (value instanceof PsiLiteralExpression) {
-      //            values.add(psiNameValuePair.getLiteralValue());
-      values.add(((PsiLiteralExpression) value).getValue().toString());
-    } else if (value instanceof PsiArrayInitializerMemberValue) {
+    if (value instanceof PsiArrayInitializerMemberValue) {
       PsiAnnotationMemberValue[] initializers =
         ((PsiArrayInitializerMemberValue) value).getInitializers();
 
       for (PsiAnnotationMemberValue initializer : initializers) {
-        values.add(initializer.getText().replaceAll("\\\"", ""));
+        String text = getValue(initializer, evaluate);
+        if (text != null) {
+          values.add(text);
+        }
+      }
+    } else if (value != null) {
+      String text = getValue(value, evaluate);
+      if (text != null) {
+        values.add(text);
       }
     }
 
@@ -52,4 +93,100 @@ public class PsiAnnotationHelper {
     }
     return null;
   }
+
+  public static String getEvaluatedAttributeValue(PsiAnnotation annotation, String attr) {
+    List<String> values = getEvaluatedAttributeValues(annotation, attr);
+    if (!values.isEmpty()) {
+      return values.get(0);
+    }
+    return null;
+  }
+
+  /**
+   * @return the text of every value of the attributes that is not a literal, these are
+   * returned as written by {@link #getAnnotationAttributeValues(PsiAnnotation, String)}
+   */
+  @NotNull
+  public static Set<String> getNonLiteralValues(PsiAnnotation annotation, String... attrs) {
+    if (annotation == null) {
+      return Collections.emptySet();
+    }
+    Set<String> texts = new HashSet<>();
+    for (String attr : attrs) {
+      PsiAnnotationMemberValue value = findDetachedAttributeValue(annotation, attr);
+      PsiAnnotationMemberValue[] values = value instanceof PsiArrayInitializerMemberValue
+        ? ((PsiArrayInitializerMemberValue) value).getInitializers()
+        : new PsiAnnotationMemberValue[] { value };
+      for (PsiAnnotationMemberValue member : values) {
+        if (member != null && !(member instanceof PsiLiteralExpression)) {
+          texts.add(member.getText());
+        }
+      }
+    }
+    return texts;
+  }
+
+  /**
+   * Evaluates a constant expression kept as text, e.g. a path stored by the endpoint index,
+   * as if it were written at {@code context}.
+   *
+   * @return null if the text is not a constant expression
+   */
+  @Nullable
+  public static String evaluateConstantExpression(
+    @NotNull String text,
+    @NotNull PsiElement context
+  ) {
+    JavaPsiFacade facade = JavaPsiFacade.getInstance(context.getProject());
+    try {
+      PsiExpression expression = facade
+        .getElementFactory()
+        .createExpressionFromText(text, context);
+      Object value = facade
+        .getConstantEvaluationHelper()
+        .computeConstantExpression(expression);
+      return value != null ? value.toString() : null;
+    } catch (IncorrectOperationException e) {
+      return null;
+    }
+  }
+
+  /**
+   * For a stub based annotation the detached value is parsed from the stub text, the AST
+   * of the file stays unloaded.
+   */
+  @Nullable
+  private static PsiAnnotationMemberValue findDetachedAttributeValue(
+    PsiAnnotation annotation,
+    String attr
+  ) {
+    for (PsiNameValuePair pair : annotation.getParameterList().getAttributes()) {
+      String name = pair.getName();
+      if (attr.equals(name) || (name == null && "value".equals(attr))) {
+        return pair.getDetachedValue();
+      }
+    }
+    return null;
+  }
+
+  @Nullable
+  private static String getValue(PsiAnnotationMemberValue value, boolean evaluate) {
+    if (value instanceof PsiLiteralExpression) {
+      Object literal = ((PsiLiteralExpression) value).getValue();
+      return literal != null ? literal.toString() : null;
+    }
+    if (evaluate && value instanceof PsiExpression) {
+      Object constant = JavaPsiFacade
+        .getInstance(value.getProject())
+        .getConstantEvaluationHelper()
+        .computeConstantExpression(value);
+      if (constant != null) {
+        return constant.toString();
+      }
+    }
+    if (value instanceof PsiReferenceExpression) {
+      return value.getText();
+    }
+    return value.getText().replaceAll("\\\"", "");
+  }
 }
@@ -1,234 +1,261 @@
 package jiux.net.plugin.restful.common;
 
-import java.io.IOException;
-import java.nio.charset.Charset;
+import java.net.URI;
 import java.nio.charset.StandardCharsets;
-import java.security.KeyManagementException;
-import java.security.KeyStoreException;
-import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
-import jiux.net.plugin.utils.JsonUtils;
-import org.apache.commons.collections.CollectionUtils;
-import org.apache.commons.httpclient.params.HttpMethodParams;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import jiux.net.plugin.restful.http.HttpEngine;
+import jiux.net.plugin.restful.http.HttpResult;
+import jiux.net.plugin.restful.http.RequestTimeouts;
+import jiux.net.plugin.restful.http.RestHttpClient;
+import jiux.net.plugin.utils.ToolkitUtil;
+import org.apache.commons.lang.StringUtils;
 import org.apache.http.HttpEntity;
-import org.apache.http.client.ClientProtocolException;
 import org.apache.http.client.entity.UrlEncodedFormEntity;
 import org.apache.http.client.methods.*;
-import org.apache.http.config.Registry;
-import org.apache.http.config.RegistryBuilder;
-import org.apache.http.conn.socket.ConnectionSocketFactory;
-import org.apache.http.conn.socket.PlainConnectionSocketFactory;
-import org.apache.http.conn.ssl.NoopHostnameVerifier;
-import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
-import org.apache.http.conn.ssl.TrustSelfSignedStrategy;
 import org.apache.http.entity.StringEntity;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
-import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.message.BasicNameValuePair;
-import org.apache.http.ssl.SSLContextBuilder;
-import org.apache.http.util.EntityUtils;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public class RequestHelper {
 
-  public static String request(String url, String method, Map<String, String> headerMap)
-    throws ClientProtocolException {
+  /**
+   * Sends the request in the background, several can be in flight at once.
+   *
+   * @return completes with the response, or an error result if none was received; cancel
+   * it to abort the request
+   */
+  @NotNull
+  public static CompletableFuture<HttpResult> request(
+    String url,
+    String method,
+    Map<String, String> headerMap,
+    @NotNull RequestTimeouts timeouts
+  ) {
     if (method == null) {
-      return "method is null";
+      return CompletableFuture.completedFuture(HttpResult.error("method is null"));
     }
-    if (!url.startsWith("http://") && !url.startsWith("https://")) {
-      url = "http://" + url;
+    HttpRequestBase httpMethod = newRequest(url, method, headerMap, null);
+    if (httpMethod == null) {
+      return CompletableFuture.completedFuture(
+        HttpResult.error("not supported method : " + method + ".")
+      );
+    }
+    return send(httpMethod, timeouts);
+  }
+
+  /**
+   * Builds the request without sending it, e.g. to send it several times.
+   *
+   * @param jsonBody if not blank, sent as JSON by any method but TRACE, which must not
+   * have a body
+   * @return null if the method is not supported
+   */
+  @Nullable
+  public static HttpRequestBase newRequest(
+    String url,
+    String method,
+    Map<String, String> headerMap,
+    @Nullable String jsonBody
+  ) {
+    if (method == null) {
+      return null;
     }
+    url = completed(url);
+    boolean json = StringUtils.isNotBlank(jsonBody);
 
+    HttpRequestBase httpMethod;
     switch (method.toUpperCase()) {
       case "GET":
-        return get(url, headerMap);
+        httpMethod = json ? new JsonRequest(HttpGet.METHOD_NAME, url) : get(url);
+        break;
       case "POST":
-        return post(url, headerMap);
+        httpMethod = json ? new HttpPost(url) : post(url);
+        break;
       case "PUT":
-        return put(url, headerMap);
+        httpMethod = put(url);
+        break;
       case "DELETE":
-        return delete(url, headerMap);
+        httpMethod = json ? new JsonRequest(HttpDelete.METHOD_NAME, url) : delete(url);
+        break;
+      case "PATCH":
+        httpMethod = new HttpPatch(url);
+        break;
+      case "HEAD":
+        httpMethod =
+          json ? new JsonRequest(HttpHead.METHOD_NAME, url) : new HttpHead(url);
+        break;
+      case "OPTIONS":
+        httpMethod =
+          json ? new JsonRequest(HttpOptions.METHOD_NAME, url) : new HttpOptions(url);
+        break;
+      case "TRACE":
+        httpMethod = new HttpTrace(url);
+        break;
       default:
-        return "not supported method : " + method + ".";
+        return null;
     }
-  }
-
-  public static String get(String url, Map<String, String> headerMap) {
-    CloseableHttpResponse response = null;
-    CloseableHttpClient httpClient = createHttpsClient();
-    HttpGet httpMethod = new HttpGet(completed(url));
-    String result = null;
-    try {
-      if (headerMap != null && headerMap.size() > 0) {
-        headerMap.forEach(httpMethod::addHeader);
-      }
-
-      response = httpClient.execute(httpMethod);
-      HttpEntity entity = response.getEntity();
-      result = toString(entity);
-    } catch (IOException e) {
-      result = "There was an error accessing to URL: " + url + "\n\n" + e.toString();
-      e.printStackTrace();
-    } finally {
-      release(response, httpClient);
+    if (headerMap != null && headerMap.size() > 0) {
+      headerMap.forEach(httpMethod::addHeader);
     }
-
-    return result;
-  }
-
-  public static String post(String url, Map<String, String> headerMap) {
-    List<BasicNameValuePair> params = new ArrayList<>();
-
-    String result = null;
-
-    CloseableHttpResponse response = null;
-    CloseableHttpClient httpClient = createHttpsClient();
-    try {
-      HttpEntity httpEntity;
-      httpEntity = new UrlEncodedFormEntity(params, StandardCharsets.UTF_8);
-      HttpPost httpMethod = new HttpPost(completed(url));
-
-      if (headerMap != null && headerMap.size() > 0) {
-        headerMap.forEach(httpMethod::addHeader);
-      }
-
-      httpMethod.setEntity(httpEntity);
-
-      response = httpClient.execute(httpMethod);
-
-      HttpEntity entity = response.getEntity();
-      result = toString(entity);
-    } catch (IOException e) {
-      result = "There was an error accessing to URL: " + url + "\n\n" + e.toString();
-      e.printStackTrace();
-    } finally {
-      release(response, httpClient);
+    if (json && httpMethod instanceof HttpEntityEnclosingRequestBase) {
+      setJsonEntity((HttpEntityEnclosingRequestBase) httpMethod, jsonBody);
     }
-
-    return result;
+    return httpMethod;
   }
 
-  public static String put(String url, Map<String, String> headerMap)
-    throws ClientProtocolException {
-    String result;
-
-    CloseableHttpResponse response = null;
-    CloseableHttpClient httpClient = createHttpsClient();
-    try {
-      HttpPut httpMethod = new HttpPut(completed(url));
-
-      if (headerMap != null && headerMap.size() > 0) {
-        headerMap.forEach(httpMethod::addHeader);
+  /**
+   * Builds the request as entered in the request panel: path variables and parameters
+   * applied to the url, headers, and the JSON body if any. Texts hold one
+   * {@code name : value} per line.
+   *
+   * @return null if the method is not supported
+   */
+  @Nullable
+  public static HttpRequestBase composeRequest(
+    String url,
+    String method,
+    @Nullable String paramsText,
+    @Nullable String headerText,
+    @Nullable String body
+  ) {
+    if (paramsText != null) {
+      Map<String, String> paramMap = ToolkitUtil.textToParamMap(paramsText);
+      if (paramMap.size() > 0) {
+        // set PathVariable value to request URI
+        for (String key : paramMap.keySet()) {
+          url = url.replaceFirst("\\{(" + key + "[\\s\\S]*?)}", paramMap.get(key));
+        }
       }
 
-      response = httpClient.execute(httpMethod);
-
-      HttpEntity entity = response.getEntity();
-      result = toString(entity);
-      // System.out.println(response.getStatusLine().getStatusCode());
-    } catch (IOException e) {
-      result = "There was an error accessing to URL: " + url + "\n\n" + e.toString();
-      e.printStackTrace();
-    } finally {
-      release(response, httpClient);
+      String params = ToolkitUtil.textToRequestParam(paramsText);
+      if (params.length() != 0) {
+        if (url.contains("?")) {
+          url += "&" + params;
+        } else {
+          url += "?" + params;
+        }
+      }
     }
 
-    return result;
+    Map<String, String> headerMap = headerText != null
+      ? ToolkitUtil.textToHeaderMap(headerText)
+      : null;
+    return newRequest(url, method, headerMap, body);
   }
 
-  public static String delete(String url, Map<String, String> headerMap)
-    throws ClientProtocolException {
-    if (!url.startsWith("http://") && !url.startsWith("https://")) {
-      url = "http://" + url;
-    }
-
-    String result;
-
-    CloseableHttpResponse response = null;
-    CloseableHttpClient httpClient = createHttpsClient();
-    try {
-      HttpDelete httpMethod = new HttpDelete(url);
+  private static HttpRequestBase get(String url) {
+    return new HttpGet(completed(url));
+  }
 
-      if (headerMap != null && headerMap.size() > 0) {
-        headerMap.forEach(httpMethod::addHeader);
-      }
+  private static HttpRequestBase post(String url) {
+    List<BasicNameValuePair> params = new ArrayList<>();
 
-      response = httpClient.execute(httpMethod);
+    HttpEntity httpEntity;
+    httpEntity = new UrlEncodedFormEntity(params, StandardCharsets.UTF_8);
+    HttpPost httpMethod = new HttpPost(completed(url));
+    httpMethod.setEntity(httpEntity);
+    return httpMethod;
+  }
 
-      HttpEntity entity = response.getEntity();
-      result = toString(entity);
-    } catch (IOException e) {
-      result = "There was an error accessing to URL: " + url + "\n\n" + e.toString();
-      e.printStackTrace();
-    } finally {
-      release(response, httpClient);
-    }
+  private static HttpRequestBase put(String url) {
+    return new HttpPut(completed(url));
+  }
 
-    return result;
+  private static HttpRequestBase delete(String url) {
+    return new HttpDelete(completed(url));
   }
 
-  public static String postRequestBodyWithJson(String url, String json) {
-    return postRequestBodyWithJson(url, json, new LinkedHashMap<>());
+  @NotNull
+  public static CompletableFuture<HttpResult> postRequestBodyWithJson(
+    String url,
+    String json,
+    Map<String, String> headerMap,
+    @NotNull RequestTimeouts timeouts
+  ) {
+    return send(jsonPost(url, json, headerMap), timeouts);
   }
 
-  public static String postRequestBodyWithJson(
+  private static HttpRequestBase jsonPost(
     String url,
     String json,
     Map<String, String> headerMap
   ) {
-    CloseableHttpResponse response = null;
-    CloseableHttpClient httpClient = createHttpsClient();
-
     HttpPost postMethod = new HttpPost(completed(url));
 
-    String result = null;
-    try {
-      StringEntity httpEntity = new StringEntity(json);
+    if (headerMap != null && headerMap.size() > 0) {
+      headerMap.forEach(postMethod::addHeader);
+    }
 
-      httpEntity.setContentType("application/json");
-      httpEntity.setContentEncoding("UTF-8");
+    setJsonEntity(postMethod, json);
+    return postMethod;
+  }
 
-      if (headerMap != null && headerMap.size() > 0) {
-        headerMap.forEach(postMethod::addHeader);
-      }
+  private static void setJsonEntity(HttpEntityEnclosingRequestBase request, String json) {
+    StringEntity httpEntity = new StringEntity(json, StandardCharsets.UTF_8);
 
-      postMethod.addHeader("Content-type", "application/json; charset=utf-8");
-      postMethod.setHeader("Accept", "application/json");
+    httpEntity.setContentType("application/json");
+    httpEntity.setContentEncoding("UTF-8");
 
-      //            postMethod.setEntity(new StringEntity(parameters, Charset.forName("UTF-8")));
-      postMethod.setEntity(httpEntity);
+    request.addHeader("Content-type", "application/json; charset=utf-8");
+    request.setHeader("Accept", "application/json");
 
-      response = httpClient.execute(postMethod);
-      result = toString(response.getEntity());
-    } catch (IOException e) {
-      result = "There was an error accessing to URL: " + url + "\n\n" + e.toString();
-    } finally {
-      release(response, httpClient);
-    }
+    request.setEntity(httpEntity);
+  }
 
-    return result;
+  /**
+   * Sends the request through the shared {@link RestHttpClient}, whose pooled connections
+   * outlive the request. The body is left as received, see
+   * {@link jiux.net.plugin.restful.http.ResponseFormatter}.
+   *
+   * @return cancel it to abort the request
+   */
+  @NotNull
+  public static CompletableFuture<HttpResult> send(
+    @NotNull HttpRequestBase request,
+    @NotNull RequestTimeouts timeouts
+  ) {
+    return send(request, timeouts, HttpEngine.APACHE);
   }
 
-  private static void release(
-    CloseableHttpResponse response,
-    CloseableHttpClient httpClient
+  /**
+   * Sends the request through the shared client of the engine, see
+   * {@link #send(HttpRequestBase, RequestTimeouts)}.
+   *
+   * @return cancel it to abort the request
+   */
+  @NotNull
+  public static CompletableFuture<HttpResult> send(
+    @NotNull HttpRequestBase request,
+    @NotNull RequestTimeouts timeouts,
+    @NotNull HttpEngine engine
   ) {
-    if (response != null) {
-      try {
-        response.close();
-      } catch (IOException ignored) {}
-    }
-    if (httpClient != null) {
-      try {
-        httpClient.close();
-      } catch (IOException ignored) {}
-    }
+    CompletableFuture<HttpResult> sent = engine.executeAsync(request, timeouts);
+    CompletableFuture<HttpResult> result = sent.handle((response, error) -> {
+      if (error == null) {
+        return response;
+      }
+      Throwable cause = error instanceof CompletionException && error.getCause() != null
+        ? error.getCause()
+        : error;
+      return HttpResult.error(
+        "There was an error accessing to URL: " +
+        request.getURI() +
+        "\n\n" +
+        cause.toString()
+      );
+    });
+    // cancelling the handled result aborts the request
+    result.whenComplete((response, error) -> {
+      if (result.isCancelled()) {
+        sent.cancel(true);
+      }
+    });
+    return result;
   }
 
   private static String completed(String url) {
@@ -238,50 +265,22 @@ public class RequestHelper {
     return url;
   }
 
-  @NotNull
-  private static String toString(HttpEntity entity) {
-    String result = null;
-    try {
-      result = EntityUtils.toString(entity, StandardCharsets.UTF_8);
-    } catch (IOException e) {
-      e.printStackTrace();
-    }
-
-    if (result != null && JsonUtils.isValidJson(result)) {
-      return JsonUtils.format(result);
-    }
-
-    return "";
-  }
+  /**
+   * A GET, HEAD, OPTIONS or DELETE with a body, which {@link HttpGet} and the others do
+   * not have. Some servers read it, e.g. the search API of Elasticsearch.
+   */
+  private static final class JsonRequest extends HttpEntityEnclosingRequestBase {
 
-  public static CloseableHttpClient createHttpsClient() {
-    try {
-      SSLContextBuilder builder = new SSLContextBuilder();
-      builder.loadTrustMaterial(null, new TrustSelfSignedStrategy());
+    private final String myMethod;
 
-      SSLConnectionSocketFactory sslcsf = new SSLConnectionSocketFactory(
-        builder.build(),
-        SSLConnectionSocketFactory.ALLOW_ALL_HOSTNAME_VERIFIER
-      );
-
-      Registry<ConnectionSocketFactory> registry = RegistryBuilder
-        .<ConnectionSocketFactory>create()
-        .register("http", new PlainConnectionSocketFactory())
-        .register("https", sslcsf)
-        .build();
-      PoolingHttpClientConnectionManager cm = new PoolingHttpClientConnectionManager(
-        registry
-      );
-      cm.setMaxTotal(2000);
+    JsonRequest(String method, String url) {
+      myMethod = method;
+      setURI(URI.create(url));
+    }
 
-      CloseableHttpClient httpClient = HttpClients
-        .custom()
-        .setSSLSocketFactory(sslcsf)
-        .setConnectionManager(cm)
-        .build();
-      return httpClient;
-    } catch (Exception e) {
-      throw new RuntimeException(e);
+    @Override
+    public String getMethod() {
+      return myMethod;
     }
   }
 }
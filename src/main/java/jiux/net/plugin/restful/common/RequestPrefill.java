@@ -0,0 +1,97 @@
+package jiux.net.plugin.restful.common;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import jiux.net.plugin.restful.common.spring.AntPathPattern;
+import jiux.net.plugin.utils.ToolkitUtil;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Request parameters taken from a concrete url, e.g. one pasted into Go to Service: the
+ * path variables, extracted with the url template of the endpoint, then the query
+ * parameters.
+ */
+public final class RequestPrefill {
+
+  private final Map<String, String> params;
+
+  private RequestPrefill(Map<String, String> params) {
+    this.params = Collections.unmodifiableMap(params);
+  }
+
+  /**
+   * @param template compiled url template of the endpoint the url was matched to
+   * @param url concrete url, with or without host and query string
+   */
+  @NotNull
+  public static RequestPrefill of(@NotNull AntPathPattern template, @NotNull String url) {
+    Map<String, String> params = new LinkedHashMap<>();
+    Map<String, String> variables = template.extractUriTemplateVariables(
+      ToolkitUtil.removeRedundancyMarkup(url)
+    );
+    if (variables != null) {
+      params.putAll(variables);
+    }
+
+    int queryStart = url.indexOf('?');
+    if (queryStart >= 0) {
+      int queryEnd = url.indexOf('#', queryStart);
+      String query = url.substring(
+        queryStart + 1,
+        queryEnd < 0 ? url.length() : queryEnd
+      );
+      for (String pair : query.split("&")) {
+        if (pair.isEmpty()) {
+          continue;
+        }
+        int separator = pair.indexOf('=');
+        String name = separator < 0 ? pair : pair.substring(0, separator);
+        String value = separator < 0 ? "" : pair.substring(separator + 1);
+        params.putIfAbsent(decode(name), decode(value));
+      }
+    }
+    return new RequestPrefill(params);
+  }
+
+  private static String decode(String value) {
+    try {
+      return URLDecoder.decode(value, StandardCharsets.UTF_8);
+    } catch (IllegalArgumentException e) {
+      // malformed escape, keep it as pasted
+      return value;
+    }
+  }
+
+  public boolean isEmpty() {
+    return params.isEmpty();
+  }
+
+  /**
+   * Path variables first, then query parameters.
+   */
+  @NotNull
+  public Map<String, String> getParams() {
+    return params;
+  }
+
+  /**
+   * @param generated parameters generated from the handler, as {@code name=value&...}
+   * @return the generated parameters in their order with the values of the url, followed
+   * by the parameters of the url the handler does not declare
+   */
+  @NotNull
+  public Map<String, String> applyTo(@NotNull String generated) {
+    Map<String, String> merged = new LinkedHashMap<>();
+    for (String pair : generated.split("&")) {
+      int separator = pair.indexOf('=');
+      if (separator > 0) {
+        merged.put(pair.substring(0, separator), pair.substring(separator + 1));
+      }
+    }
+    merged.putAll(params);
+    return merged;
+  }
+}
@@ -4,16 +4,34 @@ import com.intellij.openapi.diagnostic.Logger;
 import com.intellij.openapi.module.Module;
 import com.intellij.openapi.module.ModuleManager;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
 import com.intellij.psi.PsiMethod;
+import com.intellij.psi.SmartPointerManager;
+import com.intellij.psi.SmartPsiElementPointer;
+import com.intellij.psi.search.GlobalSearchScope;
+import com.intellij.util.indexing.FileBasedIndex;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import jiux.net.plugin.restful.common.resolver.JakartaResolver;
-import jiux.net.plugin.restful.common.resolver.JaxrsResolver;
+import java.util.Map;
+import jiux.net.plugin.restful.common.resolver.BaseServiceResolver;
 import jiux.net.plugin.restful.common.resolver.ServiceResolver;
-import jiux.net.plugin.restful.common.resolver.SpringResolver;
+import jiux.net.plugin.restful.common.spring.RequestMappingAnnotationHelper;
+import jiux.net.plugin.restful.diagnostics.ModuleStats;
+import jiux.net.plugin.restful.index.RestEndpointIndex;
+import jiux.net.plugin.restful.index.RestEndpointRecord;
+import jiux.net.plugin.restful.method.HttpMethod;
+import jiux.net.plugin.restful.method.RequestPath;
 import jiux.net.plugin.restful.navigation.action.RestServiceItem;
 import jiux.net.plugin.restful.navigator.RestServiceProject;
+import jiux.net.plugin.restful.service.RestEndpointCache;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public class ServiceHelper {
 
@@ -32,63 +50,204 @@ public class ServiceHelper {
 
     Module[] modules = ModuleManager.getInstance(project).getModules();
     for (Module module : modules) {
-      List<RestServiceItem> restServices = buildRestServiceItemListUsingResolver(module);
-      if (!restServices.isEmpty()) {
-        serviceProjectList.add(new RestServiceProject(module, restServices));
+      RestServiceProject serviceProject = buildRestServiceProject(module);
+      if (serviceProject != null) {
+        serviceProjectList.add(serviceProject);
       }
     }
 
     return serviceProjectList;
   }
 
-  public static List<RestServiceItem> buildRestServiceItemListUsingResolver(
-    Module module
+  /**
+   * @return the endpoints of one module, or {@code null} if it declares none
+   */
+  @Nullable
+  public static RestServiceProject buildRestServiceProject(Module module) {
+    return buildRestServiceProject(module, null);
+  }
+
+  @Nullable
+  public static RestServiceProject buildRestServiceProject(
+    Module module,
+    @Nullable ModuleStats stats
   ) {
-    List<RestServiceItem> itemList = new ArrayList<>();
+    if (module.isDisposed()) {
+      return null;
+    }
+    long start = System.nanoTime();
+    List<RestServiceItem> restServices = RestEndpointCache
+      .getInstance(module.getProject())
+      .getServiceItems(module, stats);
+    if (stats != null) {
+      stats.setWallNanos(System.nanoTime() - start);
+      stats.setItemCount(restServices.size());
+    }
+    if (restServices.isEmpty()) {
+      return null;
+    }
+    // the tree edits its copy incrementally, the cached list stays untouched
+    return new RestServiceProject(module, new ArrayList<>(restServices));
+  }
 
-    SpringResolver springResolver = new SpringResolver(module);
-    JaxrsResolver jaxrsResolver = new JaxrsResolver(module);
-    JakartaResolver jakartaResolver = new JakartaResolver(module);
+  /**
+   * Reads the endpoints of a module from {@link RestEndpointIndex}; only the handler PSI is
+   * looked up, through stubs.
+   */
+  public static List<RestServiceItem> buildRestServiceItemListUsingIndex(
+    Module module,
+    @Nullable ModuleStats stats
+  ) {
+    List<RestServiceItem> itemList = new ArrayList<>();
 
-    ServiceResolver[] resolvers = { springResolver, jaxrsResolver, jakartaResolver };
+    PsiManager psiManager = PsiManager.getInstance(module.getProject());
+    GlobalSearchScope scope = GlobalSearchScope.moduleScope(module);
+    FileBasedIndex fileBasedIndex = FileBasedIndex.getInstance();
+    for (ServiceResolver resolver : RestEndpointIndex.getResolvers()) {
+      long start = System.nanoTime();
+      long[] buildNanos = { 0 };
+      int sizeBefore = itemList.size();
+      fileBasedIndex.processValues(
+        RestEndpointIndex.NAME,
+        resolver.getId(),
+        null,
+        (file, records) -> {
+          long buildStart = System.nanoTime();
+          PsiFile psiFile = psiManager.findFile(file);
+          if (psiFile != null) {
+            itemList.addAll(createRestServiceItems(module, psiFile, records, resolver));
+          }
+          buildNanos[0] += System.nanoTime() - buildStart;
+          return true;
+        },
+        scope
+      );
+      if (stats != null) {
+        stats
+          .getResolver(resolver.getId())
+          .add(
+            System.nanoTime() - start - buildNanos[0],
+            buildNanos[0],
+            itemList.size() - sizeBefore
+          );
+      }
+    }
 
-    for (ServiceResolver resolver : resolvers) {
-      List<RestServiceItem> allSupportedServiceItemsInModule =
-        resolver.findAllSupportedServiceItemsInModule();
+    return itemList;
+  }
 
-      itemList.addAll(allSupportedServiceItemsInModule);
+  /**
+   * Re-reads the endpoints of a single file, used for incremental updates.
+   */
+  @NotNull
+  public static List<RestServiceItem> buildRestServiceItemListForFile(
+    @NotNull Module module,
+    @NotNull VirtualFile file
+  ) {
+    Project project = module.getProject();
+    PsiFile psiFile = PsiManager.getInstance(project).findFile(file);
+    if (psiFile == null) {
+      return Collections.emptyList();
     }
 
+    Map<String, List<RestEndpointRecord>> fileData = FileBasedIndex
+      .getInstance()
+      .getFileData(RestEndpointIndex.NAME, file, project);
+
+    List<RestServiceItem> itemList = new ArrayList<>();
+    for (ServiceResolver resolver : RestEndpointIndex.getResolvers()) {
+      List<RestEndpointRecord> records = fileData.get(resolver.getId());
+      if (records != null) {
+        itemList.addAll(createRestServiceItems(module, psiFile, records, resolver));
+      }
+    }
     return itemList;
   }
 
   @NotNull
-  public static List<RestServiceItem> buildRestServiceItemListUsingResolver(
-    Project project
+  private static List<RestServiceItem> createRestServiceItems(
+    Module module,
+    PsiFile psiFile,
+    List<RestEndpointRecord> records,
+    ServiceResolver resolver
   ) {
     List<RestServiceItem> itemList = new ArrayList<>();
+    for (RestEndpointRecord record : records) {
+      itemList.addAll(createRestServiceItems(module, psiFile, record, resolver));
+    }
+    return itemList;
+  }
 
-    SpringResolver springResolver = new SpringResolver(project);
-    JaxrsResolver jaxrsResolver = new JaxrsResolver(project);
-    JakartaResolver jakartaResolver = new JakartaResolver(project);
-
-    Module[] modules = ModuleManager.getInstance(project).getModules();
+  @NotNull
+  private static List<RestServiceItem> createRestServiceItems(
+    Module module,
+    PsiFile psiFile,
+    RestEndpointRecord record,
+    ServiceResolver resolver
+  ) {
+    PsiElement handler = RestEndpointIndex.findHandler(psiFile, record);
+    if (handler == null) {
+      return Collections.emptyList();
+    }
 
-    if (modules.length > 1) {
-      //multiple modules
-      for (Module module : modules) {
-        itemList.addAll(buildRestServiceItemListUsingResolver(module));
+    List<String> classPaths = new ArrayList<>();
+    PsiClass containingClass = handler instanceof PsiMethod
+      ? ((PsiMethod) handler).getContainingClass()
+      : null;
+    if (record.isInheritClassPath() && containingClass != null) {
+      // the mapping is declared on a super class, which indexing cannot resolve
+      for (RequestPath requestPath : RequestMappingAnnotationHelper.getRequestPaths(
+        containingClass
+      )) {
+        classPaths.add(requestPath.getPath());
       }
+    } else if (record.isClassPathExpression()) {
+      classPaths.add(evaluatePath(record.getClassPath(), handler));
     } else {
-      ServiceResolver[] resolvers = { springResolver, jaxrsResolver, jakartaResolver };
-      for (ServiceResolver resolver : resolvers) {
-        List<RestServiceItem> allSupportedServiceItemsInProject =
-          resolver.findAllSupportedServiceItemsInProject();
-
-        itemList.addAll(allSupportedServiceItemsInProject);
-      }
+      classPaths.add(record.getClassPath());
     }
+    String methodPath = record.isMethodPathExpression()
+      ? evaluatePath(record.getMethodPath(), handler)
+      : record.getMethodPath();
+
+    RestEndpointCache store = RestEndpointCache.getInstance(module.getProject());
+    SmartPsiElementPointer<PsiElement> pointer = SmartPointerManager.createPointer(handler);
+    String moduleName = store.intern(module.getName());
+    HttpMethod method = record.getMethod() != null
+      ? HttpMethod.getByRequestMethod(record.getMethod())
+      : null;
+    String urlSuffix = store.intern(BaseServiceResolver.buildRequestPathSuffix(methodPath));
+    String className = store.intern(StringUtil.getShortName(record.getClassName()));
+    String methodName = store.intern(record.getMethodName());
+
+    List<RestServiceItem> items = new ArrayList<>(classPaths.size());
+    for (String classPath : classPaths) {
+      items.add(
+        new RestServiceItem(
+          pointer,
+          moduleName,
+          method,
+          store.intern(BaseServiceResolver.buildRequestPathPrefix(classPath)),
+          urlSuffix,
+          resolver.isUrlWithoutReqMethod(),
+          className,
+          methodName
+        )
+      );
+    }
+    return items;
+  }
 
-    return itemList;
+  /**
+   * Paths referencing constants are indexed as written. They are evaluated in the scope of
+   * the handler, which reads the constant initializers from stubs; the text is kept if it
+   * cannot be evaluated, e.g. for Kotlin handlers.
+   */
+  private static String evaluatePath(String expression, PsiElement handler) {
+    if (!(handler instanceof PsiMethod)) {
+      return expression;
+    }
+    String value = PsiAnnotationHelper.evaluateConstantExpression(expression, handler);
+    return value != null ? value : expression;
   }
 }
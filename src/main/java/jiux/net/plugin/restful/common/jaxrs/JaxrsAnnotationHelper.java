@@ -17,7 +17,7 @@ import org.apache.commons.lang.StringUtils;
 public class JaxrsAnnotationHelper {
 
   private static String getWsPathValue(PsiAnnotation annotation) {
-    String value = PsiAnnotationHelper.getAnnotationAttributeValue(annotation, "value");
+    String value = PsiAnnotationHelper.getEvaluatedAttributeValue(annotation, "value");
 
     return value != null ? value : "";
   }
@@ -56,7 +56,7 @@ public class JaxrsAnnotationHelper {
     PsiAnnotation annotation = Objects
       .requireNonNull(psiClass.getModifierList())
       .findAnnotation(JaxrsPathAnnotation.PATH.getQualifiedName());
-    String path = PsiAnnotationHelper.getAnnotationAttributeValue(annotation, "value");
+    String path = PsiAnnotationHelper.getEvaluatedAttributeValue(annotation, "value");
     return path != null ? path : "";
   }
 
@@ -1,70 +1,45 @@
 package jiux.net.plugin.restful.common.resolver;
 
-import com.intellij.openapi.module.Module;
-import com.intellij.openapi.project.Project;
-import com.intellij.psi.PsiAnnotation;
-import com.intellij.psi.PsiClass;
-import com.intellij.psi.PsiElement;
-import com.intellij.psi.PsiMethod;
-import com.intellij.psi.PsiModifierList;
-import com.intellij.psi.impl.java.stubs.index.JavaAnnotationIndex;
-import com.intellij.psi.search.GlobalSearchScope;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import jiux.net.plugin.restful.annotations.JakartaHttpMethodAnnotation;
 import jiux.net.plugin.restful.annotations.JakartaPathAnnotation;
-import jiux.net.plugin.restful.common.jakarta.JakartaAnnotationHelper;
-import jiux.net.plugin.restful.method.RequestPath;
-import jiux.net.plugin.restful.navigation.action.RestServiceItem;
+import org.jetbrains.annotations.NotNull;
 
-public class JakartaResolver extends BaseServiceResolver {
+public class JakartaResolver extends JaxrsResolver {
 
-  public JakartaResolver(Module module) {
-    myModule = module;
-  }
+  private static final Map<String, String> HTTP_METHODS = new LinkedHashMap<>();
 
-  public JakartaResolver(Project project) {
-    myProject = project;
+  static {
+    for (JakartaHttpMethodAnnotation annotation : JakartaHttpMethodAnnotation.values()) {
+      HTTP_METHODS.put(annotation.getQualifiedName(), annotation.methodName());
+    }
   }
 
+  @NotNull
   @Override
-  public List<RestServiceItem> getRestServiceItemList(
-    Project project,
-    GlobalSearchScope globalSearchScope
-  ) {
-    List<RestServiceItem> itemList = new ArrayList<>();
-    Collection<PsiAnnotation> psiAnnotations = JavaAnnotationIndex
-      .getInstance()
-      .get(JakartaPathAnnotation.PATH.getShortName(), project, globalSearchScope);
-
-    for (PsiAnnotation psiAnnotation : psiAnnotations) {
-      PsiModifierList psiModifierList = (PsiModifierList) psiAnnotation.getParent();
-      PsiElement psiElement = psiModifierList.getParent();
-
-      if (!(psiElement instanceof PsiClass)) {
-        continue;
-      }
+  public String getId() {
+    return "jakarta";
+  }
 
-      PsiClass psiClass = (PsiClass) psiElement;
-      PsiMethod[] psiMethods = psiClass.getMethods();
+  @NotNull
+  @Override
+  public String[] getTextMarkers() {
+    return new String[] { "jakarta.ws.rs" };
+  }
 
-      String classUriPath = JakartaAnnotationHelper.getClassUriPath(psiClass);
-      System.out.println("classUriPath->" + classUriPath);
+  @Override
+  public boolean isUrlWithoutReqMethod() {
+    return false;
+  }
 
-      for (PsiMethod psiMethod : psiMethods) {
-        RequestPath[] methodUriPaths = JakartaAnnotationHelper.getRequestPaths(psiMethod);
+  @Override
+  protected String getPathAnnotation() {
+    return JakartaPathAnnotation.PATH.getQualifiedName();
+  }
 
-        for (RequestPath methodUriPath : methodUriPaths) {
-          RestServiceItem item = createRestServiceItem(
-            psiMethod,
-            classUriPath,
-            methodUriPath,
-            false
-          );
-          itemList.add(item);
-        }
-      }
-    }
-    return itemList;
+  @Override
+  protected Map<String, String> getHttpMethods() {
+    return HTTP_METHODS;
   }
 }
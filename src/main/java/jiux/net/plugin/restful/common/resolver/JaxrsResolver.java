@@ -1,68 +1,99 @@
 package jiux.net.plugin.restful.common.resolver;
 
-import com.intellij.openapi.module.Module;
-import com.intellij.openapi.project.Project;
 import com.intellij.psi.PsiAnnotation;
 import com.intellij.psi.PsiClass;
-import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiMethod;
 import com.intellij.psi.PsiModifierList;
-import com.intellij.psi.impl.java.stubs.index.JavaAnnotationIndex;
-import com.intellij.psi.search.GlobalSearchScope;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import jiux.net.plugin.restful.annotations.JaxrsHttpMethodAnnotation;
 import jiux.net.plugin.restful.annotations.JaxrsPathAnnotation;
-import jiux.net.plugin.restful.common.jaxrs.JaxrsAnnotationHelper;
-import jiux.net.plugin.restful.method.RequestPath;
-import jiux.net.plugin.restful.navigation.action.RestServiceItem;
+import jiux.net.plugin.restful.common.PsiAnnotationHelper;
+import org.jetbrains.annotations.NotNull;
 
 public class JaxrsResolver extends BaseServiceResolver {
 
-  public JaxrsResolver(Module module) {
-    myModule = module;
-  }
+  private static final Map<String, String> HTTP_METHODS = new LinkedHashMap<>();
 
-  public JaxrsResolver(Project project) {
-    myProject = project;
+  static {
+    for (JaxrsHttpMethodAnnotation annotation : JaxrsHttpMethodAnnotation.values()) {
+      HTTP_METHODS.put(annotation.getQualifiedName(), annotation.methodName());
+    }
   }
 
+  @NotNull
   @Override
-  public List<RestServiceItem> getRestServiceItemList(
-    Project project,
-    GlobalSearchScope globalSearchScope
-  ) {
-    List<RestServiceItem> itemList = new ArrayList<>();
-    Collection<PsiAnnotation> psiAnnotations = JavaAnnotationIndex
-      .getInstance()
-      .get(JaxrsPathAnnotation.PATH.getShortName(), project, globalSearchScope);
+  public String getId() {
+    return "jaxrs";
+  }
 
-    for (PsiAnnotation psiAnnotation : psiAnnotations) {
-      PsiModifierList psiModifierList = (PsiModifierList) psiAnnotation.getParent();
-      PsiElement psiElement = psiModifierList.getParent();
+  @NotNull
+  @Override
+  public String[] getTextMarkers() {
+    return new String[] { "javax.ws.rs" };
+  }
 
-      if (!(psiElement instanceof PsiClass)) {
-        continue;
-      }
+  protected String getPathAnnotation() {
+    return JaxrsPathAnnotation.PATH.getQualifiedName();
+  }
 
-      PsiClass psiClass = (PsiClass) psiElement;
-      PsiMethod[] psiMethods = psiClass.getMethods();
+  /**
+   * @return http method annotation qualified name to method name
+   */
+  protected Map<String, String> getHttpMethods() {
+    return HTTP_METHODS;
+  }
 
-      String classUriPath = JaxrsAnnotationHelper.getClassUriPath(psiClass);
+  @Override
+  public void resolve(@NotNull PsiClass psiClass, @NotNull ServiceResolveContext context) {
+    PsiModifierList modifierList = psiClass.getModifierList();
+    if (modifierList == null) {
+      return;
+    }
+    String pathAnnotation = getPathAnnotation();
+    PsiAnnotation classPathAnnotation = findAnnotation(
+      modifierList.getAnnotations(),
+      pathAnnotation,
+      context
+    );
+    if (classPathAnnotation == null) {
+      return;
+    }
+    String classPath = getPath(classPathAnnotation);
+    int classFlags = isExpression(classPathAnnotation)
+      ? ServiceResolveContext.CLASS_PATH_EXPRESSION
+      : 0;
 
-      for (PsiMethod psiMethod : psiMethods) {
-        RequestPath[] methodUriPaths = JaxrsAnnotationHelper.getRequestPaths(psiMethod);
+    for (PsiMethod psiMethod : psiClass.getMethods()) {
+      PsiAnnotation[] annotations = psiMethod.getModifierList().getAnnotations();
+      PsiAnnotation methodPathAnnotation = findAnnotation(
+        annotations,
+        pathAnnotation,
+        context
+      );
+      String path = methodPathAnnotation == null
+        ? psiMethod.getName()
+        : getPath(methodPathAnnotation);
+      int flags = isExpression(methodPathAnnotation)
+        ? classFlags | ServiceResolveContext.METHOD_PATH_EXPRESSION
+        : classFlags;
 
-        for (RequestPath methodUriPath : methodUriPaths) {
-          RestServiceItem item = createRestServiceItem(
-            psiMethod,
-            classUriPath,
-            methodUriPath
-          );
-          itemList.add(item);
+      for (PsiAnnotation annotation : annotations) {
+        for (Map.Entry<String, String> httpMethod : getHttpMethods().entrySet()) {
+          if (context.isAnnotation(annotation, httpMethod.getKey())) {
+            context.addEndpoint(httpMethod.getValue(), classPath, path, psiMethod, flags);
+          }
         }
       }
     }
-    return itemList;
+  }
+
+  private static String getPath(PsiAnnotation annotation) {
+    String value = PsiAnnotationHelper.getAnnotationAttributeValue(annotation, "value");
+    return value != null ? value : "";
+  }
+
+  private static boolean isExpression(PsiAnnotation annotation) {
+    return !PsiAnnotationHelper.getNonLiteralValues(annotation, "value").isEmpty();
   }
 }
@@ -0,0 +1,48 @@
+package jiux.net.plugin.restful.common.resolver;
+
+import com.intellij.psi.PsiAnnotation;
+import com.intellij.psi.PsiElement;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * What a {@link ServiceResolver} sees of the file being indexed.
+ */
+public interface ServiceResolveContext {
+  /**
+   * The class path is declared on a super class, which is looked up when the endpoint is
+   * read from the index.
+   */
+  int INHERIT_CLASS_PATH = 1;
+
+  /**
+   * The class path is the text of a constant expression, evaluated when the endpoint is
+   * read from the index.
+   */
+  int CLASS_PATH_EXPRESSION = 1 << 1;
+
+  /**
+   * The method path is the text of a constant expression, evaluated when the endpoint is
+   * read from the index.
+   */
+  int METHOD_PATH_EXPRESSION = 1 << 2;
+
+  /**
+   * Decides whether the annotation refers to {@code qualifiedName} using only the
+   * reference text and the imports of the file.
+   */
+  boolean isAnnotation(@NotNull PsiAnnotation annotation, @NotNull String qualifiedName);
+
+  /**
+   * @param handler the {@code PsiMethod} or {@code KtNamedFunction} serving the endpoint
+   * @param flags any of {@link #INHERIT_CLASS_PATH}, {@link #CLASS_PATH_EXPRESSION} and
+   * {@link #METHOD_PATH_EXPRESSION}
+   */
+  void addEndpoint(
+    @Nullable String method,
+    @NotNull String classPath,
+    @NotNull String methodPath,
+    @NotNull PsiElement handler,
+    int flags
+  );
+}
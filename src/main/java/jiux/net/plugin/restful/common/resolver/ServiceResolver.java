@@ -1,10 +1,44 @@
 package jiux.net.plugin.restful.common.resolver;
 
-import java.util.List;
-import jiux.net.plugin.restful.navigation.action.RestServiceItem;
+import com.intellij.openapi.extensions.ExtensionPointName;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiElement;
+import org.jetbrains.annotations.NotNull;
 
+/**
+ * Extracts the endpoints of one framework. Implementations are registered through the
+ * {@code jiux.net.plugin.restful.toolkit.serviceResolver} extension point and are called
+ * while a file is indexed, once for every class in it. They work on light PSI only and
+ * must not resolve references.
+ */
 public interface ServiceResolver {
-  List<RestServiceItem> findAllSupportedServiceItemsInModule();
+  ExtensionPointName<ServiceResolver> EP_NAME = ExtensionPointName.create(
+    "jiux.net.plugin.restful.toolkit.serviceResolver"
+  );
 
-  List<RestServiceItem> findAllSupportedServiceItemsInProject();
+  /**
+   * Stable id of the framework, used as the index key of its endpoints.
+   */
+  @NotNull
+  String getId();
+
+  /**
+   * Files containing none of these words are not parsed for this framework.
+   */
+  @NotNull
+  String[] getTextMarkers();
+
+  default boolean isUrlWithoutReqMethod() {
+    return true;
+  }
+
+  default void resolve(@NotNull PsiClass psiClass, @NotNull ServiceResolveContext context) {}
+
+  /**
+   * @param ktClass a {@code KtClassOrObject}, only called when the Kotlin plugin is enabled
+   */
+  default void resolveKotlin(
+    @NotNull PsiElement ktClass,
+    @NotNull ServiceResolveContext context
+  ) {}
 }
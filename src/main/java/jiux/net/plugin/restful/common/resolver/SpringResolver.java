@@ -1,36 +1,19 @@
 package jiux.net.plugin.restful.common.resolver;
 
-import com.intellij.openapi.module.Module;
-import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.psi.*;
-import com.intellij.psi.impl.java.stubs.index.JavaAnnotationIndex;
-import com.intellij.psi.search.GlobalSearchScope;
 import java.util.*;
-import jiux.net.plugin.restful.annotations.PathMappingAnnotation;
 import jiux.net.plugin.restful.annotations.SpringControllerAnnotation;
 import jiux.net.plugin.restful.annotations.SpringRequestMethodAnnotation;
-import jiux.net.plugin.restful.common.spring.RequestMappingAnnotationHelper;
+import jiux.net.plugin.restful.common.PsiAnnotationHelper;
 import jiux.net.plugin.restful.method.RequestPath;
-import jiux.net.plugin.restful.method.action.PropertiesHandler;
-import jiux.net.plugin.restful.navigation.action.RestServiceItem;
-import org.jetbrains.kotlin.idea.stubindex.KotlinAnnotationsIndex;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.kotlin.name.Name;
 import org.jetbrains.kotlin.psi.*;
 
 public class SpringResolver extends BaseServiceResolver {
 
-  /*    Module myModule;
-        Project myProject;*/
-  PropertiesHandler propertiesHandler;
-
-  public SpringResolver(Module module) {
-    myModule = module;
-    propertiesHandler = new PropertiesHandler(module);
-  }
-
-  public SpringResolver(Project project) {
-    myProject = project;
-  }
-
   //Note: When the @RequestMapping annotation is not marked on the Controller class, the @RequestMapping on the method is an absolute path.
   /*@Override
     public List<RestServiceItem> getServiceItemList(PsiMethod psiMethod) {
@@ -109,86 +92,213 @@ public class SpringResolver extends BaseServiceResolver {
         return psiMethodList;
     }*/
 
+  @NotNull
   @Override
-  public List<RestServiceItem> getRestServiceItemList(
-    Project project,
-    GlobalSearchScope globalSearchScope
-  ) {
-    List<RestServiceItem> itemList = new ArrayList<>();
-
-    // TODO: This implementation is limited by other ways of implementing url mapping (xml (struts-like), webflux routers)
-    SpringControllerAnnotation[] supportedAnnotations =
-      SpringControllerAnnotation.values();
-    for (PathMappingAnnotation controllerAnnotation : supportedAnnotations) {
-      // java: Classes marked with the (Rest)Controller annotation, i.e. the Controller class
-      // FIXME java.lang.Throwable: Slow operations are prohibited on EDT. See SlowOperations.assertSlowOperationsAreAllowed javadoc.
-      // https://youtrack.jetbrains.com/issue/IDEA-273415
-      Collection<PsiAnnotation> psiAnnotations = JavaAnnotationIndex
-        .getInstance()
-        .get(controllerAnnotation.getShortName(), project, globalSearchScope);
-
-      for (PsiAnnotation psiAnnotation : psiAnnotations) {
-        PsiModifierList psiModifierList = (PsiModifierList) psiAnnotation.getParent();
-        PsiElement psiElement = psiModifierList.getParent();
-
-        PsiClass psiClass = (PsiClass) psiElement;
-        List<RestServiceItem> serviceItemList = getServiceItemList(psiClass);
-        itemList.addAll(serviceItemList);
+  public String getId() {
+    return "spring";
+  }
+
+  @NotNull
+  @Override
+  public String[] getTextMarkers() {
+    String[] markers = new String[SpringControllerAnnotation.values().length];
+    for (int i = 0; i < markers.length; i++) {
+      markers[i] = SpringControllerAnnotation.values()[i].getShortName();
+    }
+    return markers;
+  }
+
+  // TODO: This implementation is limited by other ways of implementing url mapping (xml (struts-like), webflux routers)
+  @Override
+  public void resolve(@NotNull PsiClass psiClass, @NotNull ServiceResolveContext context) {
+    PsiModifierList modifierList = psiClass.getModifierList();
+    if (modifierList == null) {
+      return;
+    }
+    PsiAnnotation[] annotations = modifierList.getAnnotations();
+    if (!isController(annotations)) {
+      return;
+    }
+
+    PsiAnnotation classMapping = null;
+    for (PsiAnnotation annotation : annotations) {
+      if (findRequestMapping(annotation, context) != null) {
+        classMapping = annotation;
       }
-      // kotlin:
-      Collection<KtAnnotationEntry> ktAnnotationEntries = KotlinAnnotationsIndex
-        .getInstance()
-        .get(controllerAnnotation.getShortName(), project, globalSearchScope);
-      for (KtAnnotationEntry ktAnnotationEntry : ktAnnotationEntries) {
-        KtClass ktClass = (KtClass) ktAnnotationEntry.getParent().getParent();
-
-        List<RequestPath> classRequestPaths = getRequestPaths(ktClass);
-
-        List<KtNamedFunction> ktNamedFunctions = getKtNamedFunctions(ktClass);
-        for (KtNamedFunction fun : ktNamedFunctions) {
-          List<RequestPath> requestPaths = getRequestPaths(fun);
-
-          for (RequestPath classRequestPath : classRequestPaths) {
-            for (RequestPath requestPath : requestPaths) {
-              requestPath.concat(classRequestPath);
-              itemList.add(createRestServiceItem(fun, "", requestPath));
+    }
+
+    List<String> classPaths = new ArrayList<>();
+    Set<String> classPathExpressions = Collections.emptySet();
+    boolean inheritClassPath = false;
+    if (classMapping != null) {
+      classPaths.addAll(getMappingPaths(classMapping, ""));
+      classPathExpressions = getPathExpressions(classMapping);
+    } else if (hasSuperClass(psiClass)) {
+      inheritClassPath = true;
+      classPaths.add("");
+    } else {
+      classPaths.add("/");
+    }
+
+    for (PsiMethod psiMethod : psiClass.getMethods()) {
+      for (PsiAnnotation annotation : psiMethod.getModifierList().getAnnotations()) {
+        SpringRequestMethodAnnotation mapping = findRequestMapping(annotation, context);
+        if (mapping == null) {
+          continue;
+        }
+
+        List<String> methods = mapping.methodName() != null
+          ? Collections.singletonList(mapping.methodName())
+          : PsiAnnotationHelper.getAnnotationAttributeValues(annotation, "method");
+        List<String> paths = getMappingPaths(annotation, "/");
+        Set<String> pathExpressions = getPathExpressions(annotation);
+
+        for (String classPath : classPaths) {
+          for (String path : paths) {
+            int flags = 0;
+            if (inheritClassPath) {
+              flags |= ServiceResolveContext.INHERIT_CLASS_PATH;
+            }
+            if (classPathExpressions.contains(classPath)) {
+              flags |= ServiceResolveContext.CLASS_PATH_EXPRESSION;
+            }
+            if (pathExpressions.contains(path)) {
+              flags |= ServiceResolveContext.METHOD_PATH_EXPRESSION;
+            }
+            if (methods.isEmpty()) {
+              context.addEndpoint(null, classPath, path, psiMethod, flags);
+            }
+            for (String method : methods) {
+              context.addEndpoint(method, classPath, path, psiMethod, flags);
             }
           }
         }
       }
     }
-    return itemList;
   }
 
-  protected List<RestServiceItem> getServiceItemList(PsiClass psiClass) {
-    PsiMethod[] psiMethods = psiClass.getMethods();
+  @Override
+  public void resolveKotlin(
+    @NotNull PsiElement ktClass,
+    @NotNull ServiceResolveContext context
+  ) {
+    if (!(ktClass instanceof KtClass) || !isController((KtClass) ktClass)) {
+      return;
+    }
 
-    List<RestServiceItem> itemList = new ArrayList<>();
-    List<RequestPath> classRequestPaths = RequestMappingAnnotationHelper.getRequestPaths(
-      psiClass
+    List<RequestPath> classRequestPaths = new ArrayList<>(
+      getRequestPaths((KtClass) ktClass)
     );
+    if (classRequestPaths.isEmpty()) {
+      classRequestPaths.add(new RequestPath("/", null));
+    }
 
-    for (PsiMethod psiMethod : psiMethods) {
-      RequestPath[] methodRequestPaths = RequestMappingAnnotationHelper.getRequestPaths(
-        psiMethod
-      );
-
+    for (KtNamedFunction fun : getKtNamedFunctions((KtClass) ktClass)) {
+      List<RequestPath> requestPaths = getRequestPaths(fun);
       for (RequestPath classRequestPath : classRequestPaths) {
-        for (RequestPath methodRequestPath : methodRequestPaths) {
-          String path = classRequestPath.getPath();
-          RestServiceItem item = createRestServiceItem(
-            psiMethod,
-            path,
-            methodRequestPath
+        for (RequestPath requestPath : requestPaths) {
+          context.addEndpoint(
+            requestPath.getMethod(),
+            classRequestPath.getPath(),
+            requestPath.getPath(),
+            fun,
+            0
           );
-          itemList.add(item);
         }
       }
     }
-    return itemList;
   }
 
-  private List<KtNamedFunction> getKtNamedFunctions(KtClass ktClass) {
+  /**
+   * Controllers are matched by short name, they are not always imported (e.g. Feign).
+   */
+  private static boolean isController(PsiAnnotation[] annotations) {
+    for (PsiAnnotation annotation : annotations) {
+      PsiJavaCodeReferenceElement reference = annotation.getNameReferenceElement();
+      if (reference != null && isControllerName(reference.getReferenceName())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean isController(KtClass ktClass) {
+    for (KtAnnotationEntry entry : ktClass.getAnnotationEntries()) {
+      Name shortName = entry.getShortName();
+      if (shortName != null && isControllerName(shortName.asString())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean isControllerName(String shortName) {
+    for (SpringControllerAnnotation controller : SpringControllerAnnotation.values()) {
+      if (controller.getShortName().equals(shortName)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Nullable
+  private static SpringRequestMethodAnnotation findRequestMapping(
+    PsiAnnotation annotation,
+    ServiceResolveContext context
+  ) {
+    for (SpringRequestMethodAnnotation mapping : SpringRequestMethodAnnotation.values()) {
+      if (context.isAnnotation(annotation, mapping.getQualifiedName())) {
+        return mapping;
+      }
+    }
+    return null;
+  }
+
+  private static boolean hasSuperClass(PsiClass psiClass) {
+    if (psiClass.isInterface()) {
+      return false;
+    }
+    PsiReferenceList extendsList = psiClass.getExtendsList();
+    if (extendsList == null) {
+      return false;
+    }
+    for (PsiJavaCodeReferenceElement reference : extendsList.getReferenceElements()) {
+      String name = reference.getText();
+      if (
+        !CommonClassNames.JAVA_LANG_OBJECT.equals(name) &&
+        !StringUtil.getShortName(CommonClassNames.JAVA_LANG_OBJECT).equals(name)
+      ) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static List<String> getMappingPaths(
+    PsiAnnotation annotation,
+    String defaultValue
+  ) {
+    List<String> paths = PsiAnnotationHelper.getAnnotationAttributeValues(
+      annotation,
+      "value"
+    );
+    if (paths.isEmpty()) {
+      paths = PsiAnnotationHelper.getAnnotationAttributeValues(annotation, "path");
+    }
+    if (paths.isEmpty()) {
+      paths.add(defaultValue);
+    }
+    return paths;
+  }
+
+  /**
+   * Constant references in a mapping can only be evaluated outside of indexing.
+   */
+  private static Set<String> getPathExpressions(PsiAnnotation annotation) {
+    return PsiAnnotationHelper.getNonLiteralValues(annotation, "value", "path");
+  }
+
+  public static List<KtNamedFunction> getKtNamedFunctions(KtClass ktClass) {
     List<KtNamedFunction> ktNamedFunctions = new ArrayList<>();
     List<KtDeclaration> declarations = ktClass.getDeclarations();
 
@@ -201,7 +311,7 @@ public class SpringResolver extends BaseServiceResolver {
     return ktNamedFunctions;
   }
 
-  private List<RequestPath> getRequestPaths(KtClass ktClass) {
+  public static List<RequestPath> getRequestPaths(KtClass ktClass) {
     String defaultPath = "/";
     List<KtAnnotationEntry> annotationEntries = Objects
       .requireNonNull(ktClass.getModifierList())
@@ -209,7 +319,7 @@ public class SpringResolver extends BaseServiceResolver {
     return getRequestMappings(defaultPath, annotationEntries);
   }
 
-  private List<RequestPath> getRequestPaths(KtNamedFunction fun) {
+  public static List<RequestPath> getRequestPaths(KtNamedFunction fun) {
     String defaultPath = "/";
     KtModifierList modifierList = fun.getModifierList();
     if (modifierList != null) {
@@ -220,7 +330,7 @@ public class SpringResolver extends BaseServiceResolver {
     }
   }
 
-  private List<RequestPath> getRequestMappings(
+  private static List<RequestPath> getRequestMappings(
     String defaultPath,
     List<KtAnnotationEntry> annotationEntries
   ) {
@@ -232,7 +342,7 @@ public class SpringResolver extends BaseServiceResolver {
     return requestPaths;
   }
 
-  private List<RequestPath> getRequestMappings(
+  private static List<RequestPath> getRequestMappings(
     String defaultPath,
     KtAnnotationEntry entry
   ) {
@@ -240,7 +350,11 @@ public class SpringResolver extends BaseServiceResolver {
     List<String> methodList = new ArrayList<>();
     List<String> pathList = new ArrayList<>();
 
-    String annotationName = entry.getCalleeExpression().getText();
+    KtConstructorCalleeExpression calleeExpression = entry.getCalleeExpression();
+    if (calleeExpression == null) {
+      return new ArrayList<>();
+    }
+    String annotationName = calleeExpression.getText();
     SpringRequestMethodAnnotation requestMethodAnnotation =
       SpringRequestMethodAnnotation.getByShortName(annotationName);
     if (requestMethodAnnotation == null) {
@@ -284,7 +398,10 @@ public class SpringResolver extends BaseServiceResolver {
     return requestPaths;
   }
 
-  private List<String> getAttributeValues(KtAnnotationEntry entry, String attribute) {
+  private static List<String> getAttributeValues(
+    KtAnnotationEntry entry,
+    String attribute
+  ) {
     KtValueArgumentList valueArgumentList = entry.getValueArgumentList();
 
     if (valueArgumentList == null) {
@@ -296,6 +413,9 @@ public class SpringResolver extends BaseServiceResolver {
     for (KtValueArgument ktValueArgument : arguments) {
       KtValueArgumentName argumentName = ktValueArgument.getArgumentName();
       KtExpression argumentExpression = ktValueArgument.getArgumentExpression();
+      if (argumentExpression == null) {
+        continue;
+      }
       if (
         (argumentName == null && attribute == null) ||
         (argumentName != null && argumentName.getText().equals(attribute))
@@ -315,9 +435,12 @@ public class SpringResolver extends BaseServiceResolver {
           for (KtExpression ktExpression : innerExpressions) {
             methodList.add(ktExpression.getText().replace("\"", ""));
           }
-        } else {
-          PsiElement[] paths = ktValueArgument.getArgumentExpression().getChildren();
+        } else if (argumentExpression instanceof KtStringTemplateExpression) {
+          PsiElement[] paths = argumentExpression.getChildren();
           methodList.add(paths.length == 0 ? "" : paths[0].getText());
+        } else {
+          // constant or enum reference, e.g. RequestMethod.GET
+          methodList.add(argumentExpression.getText());
         }
         return methodList;
       }
@@ -473,6 +473,13 @@ public class AntPathMatcher /*implements PathMatcher*/{
       return Pattern.quote(s.substring(start, end));
     }
 
+    /**
+     * Like {@link #matchStrings(String, Map)} without extracting variables.
+     */
+    public boolean matches(CharSequence str) {
+      return this.pattern.matcher(str).matches();
+    }
+
     /**
      * Main entry point.
      *
@@ -0,0 +1,247 @@
+package jiux.net.plugin.restful.common.spring;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * An Ant style path pattern compiled once, with the semantics of
+ * {@link AntPathMatcher#match(String, String)}. Immutable and thread safe, so it can be kept
+ * for as long as the pattern is, without the caches of {@link AntPathMatcher} that turn
+ * themselves off past 65536 patterns.
+ * <p>
+ * The path is walked by index: literal segments, {@code *} and a single {@code {var}} are
+ * compared in place, only segments such as {@code {var:regex}} or {@code *.json} run a
+ * regular expression.
+ */
+public final class AntPathPattern {
+
+  private static final char SEPARATOR = '/';
+
+  private final String pattern;
+  private final Segment[] segments;
+  private final boolean absolute;
+  private final boolean trailingSeparator;
+  private final boolean hasAnySegments;
+
+  private AntPathPattern(String pattern) {
+    this.pattern = pattern;
+    List<Segment> list = new ArrayList<>();
+    boolean any = false;
+    for (String token : StringUtils.tokenizeToStringArray(
+      pattern,
+      AntPathMatcher.DEFAULT_PATH_SEPARATOR,
+      false,
+      true
+    )) {
+      Segment segment = Segment.compile(token);
+      any |= segment.kind == Segment.ANY_SEGMENTS;
+      list.add(segment);
+    }
+    this.segments = list.toArray(new Segment[0]);
+    this.absolute = pattern.startsWith(AntPathMatcher.DEFAULT_PATH_SEPARATOR);
+    this.trailingSeparator = pattern.endsWith(AntPathMatcher.DEFAULT_PATH_SEPARATOR);
+    this.hasAnySegments = any;
+  }
+
+  @NotNull
+  public static AntPathPattern compile(@NotNull String pattern) {
+    return new AntPathPattern(pattern);
+  }
+
+  @NotNull
+  public String getPattern() {
+    return pattern;
+  }
+
+  public boolean matches(@NotNull String path) {
+    return match(path, null);
+  }
+
+  /**
+   * @return the values of the uri template variables, e.g. {@code {id=42}} for
+   * {@code /users/{id}} and {@code /users/42}, or null if the path does not match
+   */
+  @Nullable
+  public Map<String, String> extractUriTemplateVariables(@NotNull String path) {
+    Map<String, String> variables = new LinkedHashMap<>();
+    return match(path, variables) ? variables : null;
+  }
+
+  private boolean match(String path, @Nullable Map<String, String> variables) {
+    if (path.startsWith(AntPathMatcher.DEFAULT_PATH_SEPARATOR) != absolute) {
+      return false;
+    }
+    return matchFrom(path, 0, 0, variables);
+  }
+
+  private boolean matchFrom(
+    String path,
+    int segmentIndex,
+    int pos,
+    @Nullable Map<String, String> variables
+  ) {
+    pos = skipSeparators(path, pos);
+    int length = path.length();
+
+    if (segmentIndex == segments.length) {
+      if (pos < length) {
+        return false;
+      }
+      return hasAnySegments || trailingSeparator == endsWithSeparator(path);
+    }
+
+    Segment segment = segments[segmentIndex];
+    if (segment.kind == Segment.ANY_SEGMENTS) {
+      // zero segments, then one more at a time
+      while (true) {
+        if (matchFrom(path, segmentIndex + 1, pos, variables)) {
+          return true;
+        }
+        if (pos >= length) {
+          return false;
+        }
+        pos = skipSeparators(path, segmentEnd(path, pos));
+      }
+    }
+
+    if (pos >= length) {
+      // like AntPathMatcher, "/a/*" matches "/a/"
+      return (
+        segment.kind == Segment.ANY &&
+        segmentIndex == segments.length - 1 &&
+        endsWithSeparator(path)
+      );
+    }
+    int end = segmentEnd(path, pos);
+    return (
+      segment.matches(path, pos, end, variables) &&
+      matchFrom(path, segmentIndex + 1, end, variables)
+    );
+  }
+
+  private static int skipSeparators(String path, int pos) {
+    while (pos < path.length() && path.charAt(pos) == SEPARATOR) {
+      pos++;
+    }
+    return pos;
+  }
+
+  private static int segmentEnd(String path, int pos) {
+    int end = path.indexOf(SEPARATOR, pos);
+    return end < 0 ? path.length() : end;
+  }
+
+  private static boolean endsWithSeparator(String path) {
+    return !path.isEmpty() && path.charAt(path.length() - 1) == SEPARATOR;
+  }
+
+  @Override
+  public String toString() {
+    return pattern;
+  }
+
+  /**
+   * One segment of a pattern, between two separators.
+   */
+  static final class Segment {
+
+    static final int LITERAL = 0;
+    /**
+     * {@code *}
+     */
+    static final int ANY = 1;
+    /**
+     * {@code {var}}
+     */
+    static final int VARIABLE = 2;
+    /**
+     * {@code **}
+     */
+    static final int ANY_SEGMENTS = 3;
+    static final int REGEX = 4;
+
+    final int kind;
+    final String text;
+    @Nullable
+    private final String variableName;
+
+    @Nullable
+    private final AntPathMatcher.AntPathStringMatcher matcher;
+
+    private Segment(
+      int kind,
+      String text,
+      @Nullable String variableName,
+      @Nullable AntPathMatcher.AntPathStringMatcher matcher
+    ) {
+      this.kind = kind;
+      this.text = text;
+      this.variableName = variableName;
+      this.matcher = matcher;
+    }
+
+    static Segment compile(String text) {
+      if ("**".equals(text)) {
+        return new Segment(ANY_SEGMENTS, text, null, null);
+      }
+      if ("*".equals(text)) {
+        return new Segment(ANY, text, null, null);
+      }
+      if (isSingleVariable(text)) {
+        return new Segment(VARIABLE, text, text.substring(1, text.length() - 1), null);
+      }
+      if (text.indexOf('*') >= 0 || text.indexOf('?') >= 0 || text.indexOf('{') >= 0) {
+        return new Segment(REGEX, text, null, new AntPathMatcher.AntPathStringMatcher(text));
+      }
+      return new Segment(LITERAL, text, null, null);
+    }
+
+    private static boolean isSingleVariable(String text) {
+      if (text.length() < 3 || text.charAt(0) != '{' || !text.endsWith("}")) {
+        return false;
+      }
+      for (int i = 1; i < text.length() - 1; i++) {
+        char c = text.charAt(i);
+        if (c == '{' || c == '}' || c == ':') {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    /**
+     * @param end exclusive, the segment of the path must not be empty
+     */
+    boolean matches(
+      String path,
+      int start,
+      int end,
+      @Nullable Map<String, String> variables
+    ) {
+      switch (kind) {
+        case LITERAL:
+          return end - start == text.length() && path.startsWith(text, start);
+        case ANY:
+          return true;
+        case VARIABLE:
+          if (variables != null) {
+            variables.put(variableName, path.substring(start, end));
+          }
+          return true;
+        default:
+          return matchRegex(path.substring(start, end), variables);
+      }
+    }
+
+    private boolean matchRegex(String value, @Nullable Map<String, String> variables) {
+      assert matcher != null;
+      return variables == null
+        ? matcher.matches(value)
+        : matcher.matchStrings(value, variables);
+    }
+  }
+}
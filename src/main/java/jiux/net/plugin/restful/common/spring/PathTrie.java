@@ -0,0 +1,175 @@
+package jiux.net.plugin.restful.common.spring;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Path segment trie over Ant style url templates, such as the endpoints of a project.
+ * Looking up a concrete path takes time proportional to its number of segments rather than
+ * to the number of templates: literal segments are hashed, {@code {var}},
+ * {@code {var:regex}}, {@code *} and other wildcard segments are tried once per node as
+ * compiled {@link AntPathPattern} segments, and {@code **} spans any number of segments.
+ * <p>
+ * Leading and trailing slashes are ignored. Filled once, then safe for concurrent lookups.
+ *
+ * @param <T> value stored for each template
+ */
+public final class PathTrie<T> {
+
+  private static final String ANY_SEGMENTS = "**";
+  private static final char[] WILDCARD_CHARS = { '*', '?', '{' };
+
+  private final Node<T> myRoot = new Node<>();
+  private int mySize;
+
+  public void add(@NotNull String pattern, @NotNull T value) {
+    Node<T> node = myRoot;
+    for (String segment : tokenize(pattern)) {
+      node = node.getOrCreateChild(segment);
+    }
+    node.entries.add(new Entry<>(pattern, value));
+    mySize++;
+  }
+
+  public int size() {
+    return mySize;
+  }
+
+  /**
+   * @return values of the templates matching {@code path}, the most specific first as
+   * ranked by {@link AntPathMatcher.AntPatternComparator}
+   */
+  @NotNull
+  public List<T> match(@NotNull String path) {
+    // a template with several ** can be reached more than once
+    Set<Entry<T>> matches = new LinkedHashSet<>();
+    collect(myRoot, tokenize(path), 0, matches);
+
+    List<Entry<T>> sorted = new ArrayList<>(matches);
+    if (sorted.size() > 1) {
+      Comparator<String> comparator = new AntPathMatcher.AntPatternComparator(path);
+      sorted.sort((e1, e2) -> comparator.compare(e1.pattern, e2.pattern));
+    }
+    List<T> values = new ArrayList<>(sorted.size());
+    for (Entry<T> entry : sorted) {
+      values.add(entry.value);
+    }
+    return values;
+  }
+
+  /**
+   * Whether the text has no wildcard or template variable, i.e. can be matched with
+   * {@link #match(String)} rather than used as a search pattern itself.
+   */
+  public static boolean isConcretePath(@NotNull String path) {
+    if (path.indexOf('/') < 0) {
+      return false;
+    }
+    for (char c : WILDCARD_CHARS) {
+      if (path.indexOf(c) >= 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static <T> void collect(
+    Node<T> node,
+    String[] segments,
+    int index,
+    Set<Entry<T>> result
+  ) {
+    if (index == segments.length) {
+      result.addAll(node.entries);
+      if (node.anySegments != null) {
+        collect(node.anySegments, segments, index, result);
+      }
+      return;
+    }
+
+    String segment = segments[index];
+    Node<T> literal = node.literals.get(segment);
+    if (literal != null) {
+      collect(literal, segments, index + 1, result);
+    }
+    for (PatternChild<T> child : node.patterns.values()) {
+      if (child.segment.matches(segment, 0, segment.length(), null)) {
+        collect(child.node, segments, index + 1, result);
+      }
+    }
+    if (node.anySegments != null) {
+      for (int i = index; i <= segments.length; i++) {
+        collect(node.anySegments, segments, i, result);
+      }
+    }
+  }
+
+  private static String[] tokenize(String path) {
+    return StringUtils.tokenizeToStringArray(
+      path,
+      AntPathMatcher.DEFAULT_PATH_SEPARATOR,
+      false,
+      true
+    );
+  }
+
+  private static boolean isPatternSegment(String segment) {
+    for (char c : WILDCARD_CHARS) {
+      if (segment.indexOf(c) >= 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static final class Node<T> {
+
+    final Map<String, Node<T>> literals = new HashMap<>();
+    /**
+     * Keyed by segment text, so that templates sharing a variable share the node.
+     */
+    final Map<String, PatternChild<T>> patterns = new HashMap<>();
+    Node<T> anySegments;
+    final List<Entry<T>> entries = new ArrayList<>(1);
+
+    Node<T> getOrCreateChild(String segment) {
+      if (ANY_SEGMENTS.equals(segment)) {
+        if (anySegments == null) {
+          anySegments = new Node<>();
+        }
+        return anySegments;
+      }
+      if (isPatternSegment(segment)) {
+        return patterns.computeIfAbsent(segment, PatternChild::new).node;
+      }
+      return literals.computeIfAbsent(segment, s -> new Node<>());
+    }
+  }
+
+  private static final class PatternChild<T> {
+
+    final AntPathPattern.Segment segment;
+    final Node<T> node = new Node<>();
+
+    PatternChild(String segment) {
+      this.segment = AntPathPattern.Segment.compile(segment);
+    }
+  }
+
+  private static final class Entry<T> {
+
+    final String pattern;
+    final T value;
+
+    Entry(String pattern, T value) {
+      this.pattern = pattern;
+      this.value = value;
+    }
+  }
+}
@@ -105,12 +105,12 @@ public class RequestMappingAnnotationHelper implements RestSupportedAnnotationHe
       methodList = PsiAnnotationHelper.getAnnotationAttributeValues(annotation, "method");
     }
 
-    List<String> pathList = PsiAnnotationHelper.getAnnotationAttributeValues(
+    List<String> pathList = PsiAnnotationHelper.getEvaluatedAttributeValues(
       annotation,
       "value"
     );
     if (pathList.size() == 0) {
-      pathList = PsiAnnotationHelper.getAnnotationAttributeValues(annotation, "path");
+      pathList = PsiAnnotationHelper.getEvaluatedAttributeValues(annotation, "path");
     }
 
     if (pathList.size() == 0) {
@@ -158,9 +158,9 @@ public class RequestMappingAnnotationHelper implements RestSupportedAnnotationHe
   }
 
   private static String getRequestMappingValue(PsiAnnotation annotation) {
-    String value = PsiAnnotationHelper.getAnnotationAttributeValue(annotation, "value");
+    String value = PsiAnnotationHelper.getEvaluatedAttributeValue(annotation, "value");
     if (StringUtils.isEmpty(value)) {
-      value = PsiAnnotationHelper.getAnnotationAttributeValue(annotation, "path");
+      value = PsiAnnotationHelper.getEvaluatedAttributeValue(annotation, "path");
     }
     return value;
   }
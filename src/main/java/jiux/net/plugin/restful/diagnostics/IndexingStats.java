@@ -0,0 +1,78 @@
+package jiux.net.plugin.restful.diagnostics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Time spent in each resolver while files are indexed, since the IDE started. Indexing is
+ * not tied to a project, so these counters are application wide.
+ */
+public final class IndexingStats {
+
+  private static final Map<String, Counters> COUNTERS = new ConcurrentHashMap<>();
+
+  private IndexingStats() {}
+
+  public static void recordResolve(String resolverId, long nanos) {
+    Counters counters = getCounters(resolverId);
+    counters.nanos.add(nanos);
+    counters.classes.increment();
+  }
+
+  public static void recordEndpoint(String resolverId) {
+    getCounters(resolverId).endpoints.increment();
+  }
+
+  private static Counters getCounters(String resolverId) {
+    return COUNTERS.computeIfAbsent(resolverId, k -> new Counters());
+  }
+
+  public static Map<String, Snapshot> snapshot() {
+    Map<String, Snapshot> result = new TreeMap<>();
+    COUNTERS.forEach((id, counters) ->
+      result.put(
+        id,
+        new Snapshot(
+          counters.nanos.sum() / 1_000_000d,
+          counters.classes.sum(),
+          counters.endpoints.sum()
+        )
+      )
+    );
+    return result;
+  }
+
+  private static class Counters {
+
+    final LongAdder nanos = new LongAdder();
+    final LongAdder classes = new LongAdder();
+    final LongAdder endpoints = new LongAdder();
+  }
+
+  public static class Snapshot {
+
+    private final double totalMs;
+    private final long classes;
+    private final long endpoints;
+
+    Snapshot(double totalMs, long classes, long endpoints) {
+      this.totalMs = totalMs;
+      this.classes = classes;
+      this.endpoints = endpoints;
+    }
+
+    public double getTotalMs() {
+      return totalMs;
+    }
+
+    public long getClasses() {
+      return classes;
+    }
+
+    public long getEndpoints() {
+      return endpoints;
+    }
+  }
+}
@@ -0,0 +1,56 @@
+package jiux.net.plugin.restful.diagnostics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Statistics of one module in a refresh. Filled by a single thread.
+ */
+public class ModuleStats {
+
+  private final String module;
+  private double wallMs;
+  private boolean cacheHit;
+  private int itemCount;
+  private final Map<String, ResolverStats> resolvers = new LinkedHashMap<>();
+
+  public ModuleStats(String module) {
+    this.module = module;
+  }
+
+  public ResolverStats getResolver(String id) {
+    return resolvers.computeIfAbsent(id, k -> new ResolverStats());
+  }
+
+  public String getModule() {
+    return module;
+  }
+
+  public double getWallMs() {
+    return wallMs;
+  }
+
+  public void setWallNanos(long wallNanos) {
+    this.wallMs = wallNanos / 1_000_000d;
+  }
+
+  public boolean isCacheHit() {
+    return cacheHit;
+  }
+
+  public void setCacheHit(boolean cacheHit) {
+    this.cacheHit = cacheHit;
+  }
+
+  public int getItemCount() {
+    return itemCount;
+  }
+
+  public void setItemCount(int itemCount) {
+    this.itemCount = itemCount;
+  }
+
+  public Map<String, ResolverStats> getResolvers() {
+    return resolvers;
+  }
+}
@@ -0,0 +1,71 @@
+package jiux.net.plugin.restful.diagnostics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Statistics of one refresh of the navigator.
+ */
+public class RefreshStats {
+
+  private final long startedAt = System.currentTimeMillis();
+  private final transient long myStartNanos = System.nanoTime();
+  /**
+   * Keyed by module name: a module resolved again after a restarted read action replaces
+   * its earlier attempt.
+   */
+  private final transient Map<String, ModuleStats> myModules = new ConcurrentHashMap<>();
+  private List<ModuleStats> modules;
+  private double totalMs;
+  private int itemCount;
+  private int cacheHits;
+  private int cacheMisses;
+
+  public void putModule(ModuleStats stats) {
+    myModules.put(stats.getModule(), stats);
+  }
+
+  void finish() {
+    totalMs = (System.nanoTime() - myStartNanos) / 1_000_000d;
+    modules = new ArrayList<>(myModules.values());
+    modules.sort(Comparator.comparingDouble(ModuleStats::getWallMs).reversed());
+    for (ModuleStats module : modules) {
+      itemCount += module.getItemCount();
+      if (module.isCacheHit()) {
+        cacheHits++;
+      } else {
+        cacheMisses++;
+      }
+    }
+  }
+
+  public long getStartedAt() {
+    return startedAt;
+  }
+
+  public double getTotalMs() {
+    return totalMs;
+  }
+
+  /**
+   * Slowest module first.
+   */
+  public List<ModuleStats> getModules() {
+    return modules;
+  }
+
+  public int getItemCount() {
+    return itemCount;
+  }
+
+  public int getCacheHits() {
+    return cacheHits;
+  }
+
+  public int getCacheMisses() {
+    return cacheMisses;
+  }
+}
@@ -0,0 +1,29 @@
+package jiux.net.plugin.restful.diagnostics;
+
+/**
+ * Time one resolver's endpoints took to read from the index for one module.
+ */
+public class ResolverStats {
+
+  private double indexQueryMs;
+  private double buildMs;
+  private int itemCount;
+
+  public void add(long indexQueryNanos, long buildNanos, int items) {
+    indexQueryMs += indexQueryNanos / 1_000_000d;
+    buildMs += buildNanos / 1_000_000d;
+    itemCount += items;
+  }
+
+  public double getIndexQueryMs() {
+    return indexQueryMs;
+  }
+
+  public double getBuildMs() {
+    return buildMs;
+  }
+
+  public int getItemCount() {
+    return itemCount;
+  }
+}
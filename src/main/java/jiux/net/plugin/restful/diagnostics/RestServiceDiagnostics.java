@@ -0,0 +1,109 @@
+package jiux.net.plugin.restful.diagnostics;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Disposer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import jiux.net.plugin.restful.service.RestEndpointCache;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Keeps the statistics of the last {@link #MAX_REFRESHES} refreshes and the endpoint cache
+ * hit ratio, shown in the diagnostics tab and exported as JSON for bug reports together
+ * with the size of the endpoint store.
+ */
+@Service(Service.Level.PROJECT)
+public final class RestServiceDiagnostics {
+
+  public static final int MAX_REFRESHES = 20;
+
+  private final Project myProject;
+  private final Deque<RefreshStats> myRefreshes = new ArrayDeque<>();
+  private final AtomicLong myCacheHits = new AtomicLong();
+  private final AtomicLong myCacheMisses = new AtomicLong();
+  private final List<Runnable> myListeners = new CopyOnWriteArrayList<>();
+
+  public RestServiceDiagnostics(Project project) {
+    myProject = project;
+  }
+
+  public static RestServiceDiagnostics getInstance(Project p) {
+    return p.getService(RestServiceDiagnostics.class);
+  }
+
+  @NotNull
+  public RefreshStats startRefresh() {
+    return new RefreshStats();
+  }
+
+  public void finishRefresh(@NotNull RefreshStats stats) {
+    stats.finish();
+    synchronized (myRefreshes) {
+      if (myRefreshes.size() == MAX_REFRESHES) {
+        myRefreshes.removeLast();
+      }
+      myRefreshes.addFirst(stats);
+    }
+    myListeners.forEach(Runnable::run);
+  }
+
+  public void recordCacheAccess(boolean hit) {
+    (hit ? myCacheHits : myCacheMisses).incrementAndGet();
+  }
+
+  /**
+   * Newest first.
+   */
+  @NotNull
+  public List<RefreshStats> getRefreshes() {
+    synchronized (myRefreshes) {
+      return new ArrayList<>(myRefreshes);
+    }
+  }
+
+  public long getCacheHits() {
+    return myCacheHits.get();
+  }
+
+  public long getCacheMisses() {
+    return myCacheMisses.get();
+  }
+
+  /**
+   * @param listener called on the thread finishing a refresh
+   */
+  public void addListener(@NotNull Runnable listener, @NotNull Disposable parent) {
+    myListeners.add(listener);
+    Disposer.register(parent, () -> myListeners.remove(listener));
+  }
+
+  @NotNull
+  public String toJson() {
+    Gson gson = new GsonBuilder().setPrettyPrinting().create();
+    JsonObject cache = new JsonObject();
+    cache.addProperty("hits", getCacheHits());
+    cache.addProperty("misses", getCacheMisses());
+
+    JsonObject json = new JsonObject();
+    json.add("cache", cache);
+    json.add(
+      "store",
+      gson.toJsonTree(
+        ReadAction.compute(() -> RestEndpointCache.getInstance(myProject).getFootprint())
+      )
+    );
+    json.add("indexing", gson.toJsonTree(IndexingStats.snapshot()));
+    json.add("refreshes", gson.toJsonTree(getRefreshes()));
+    return gson.toJson(json);
+  }
+}
@@ -0,0 +1,56 @@
+package jiux.net.plugin.restful.http;
+
+import com.intellij.openapi.diagnostic.Logger;
+import java.io.IOException;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Session of {@link HttpEngine#APACHE}: a client with a pool of its own, see
+ * {@link RestHttpClient#createDedicatedClient(int)}. Closing it closes the sockets of the
+ * requests in flight.
+ */
+final class ApacheHttpSession implements HttpSession {
+
+  private static final Logger LOG = Logger.getInstance(ApacheHttpSession.class);
+
+  private final CloseableHttpClient myClient;
+
+  ApacheHttpSession(int maxConnections) {
+    myClient = RestHttpClient.createDedicatedClient(maxConnections);
+  }
+
+  @NotNull
+  @Override
+  public Response send(
+    @NotNull HttpRequestBase request,
+    @NotNull RequestTimeouts timeouts
+  ) throws IOException {
+    request.setConfig(timeouts.toRequestConfig());
+    try (TotalTimeout timeout = new TotalTimeout(timeouts)) {
+      // also releases the connection request and closes the socket
+      timeout.abortWith(request::abort);
+      try (CloseableHttpResponse response = myClient.execute(request)) {
+        HttpEntity entity = response.getEntity();
+        return Response.read(
+          response.getStatusLine().getStatusCode(),
+          entity != null ? entity.getContent() : null
+        );
+      } catch (IOException e) {
+        throw timeout.explain(e);
+      }
+    }
+  }
+
+  @Override
+  public void close() {
+    try {
+      myClient.close();
+    } catch (IOException e) {
+      LOG.debug(e);
+    }
+  }
+}
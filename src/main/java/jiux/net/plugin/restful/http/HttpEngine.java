@@ -0,0 +1,91 @@
+package jiux.net.plugin.restful.http;
+
+import java.util.concurrent.CompletableFuture;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * HTTP client the requests to a module are sent with, see {@link HttpEngineSettings}.
+ */
+public enum HttpEngine {
+  APACHE(
+    "Apache HttpClient",
+    "HTTP/1.1 over pooled keep-alive connections, the phases of each request timed"
+  ) {
+    @NotNull
+    @Override
+    public CompletableFuture<HttpResult> executeAsync(
+      @NotNull HttpRequestBase request,
+      @NotNull RequestTimeouts timeouts
+    ) {
+      return RestHttpClient.getInstance().executeAsync(request, timeouts);
+    }
+
+    @NotNull
+    @Override
+    public HttpSession openSession(int maxConnections) {
+      return new ApacheHttpSession(maxConnections);
+    }
+  },
+  JAVA(
+    "java.net.http",
+    "HTTP/2 by ALPN or h2c upgrade, the requests to a host multiplexed on one connection"
+  ) {
+    @NotNull
+    @Override
+    public CompletableFuture<HttpResult> executeAsync(
+      @NotNull HttpRequestBase request,
+      @NotNull RequestTimeouts timeouts
+    ) {
+      return JavaHttpClient.getInstance().executeAsync(request, timeouts);
+    }
+
+    @NotNull
+    @Override
+    public HttpSession openSession(int maxConnections) {
+      // HTTP/2 needs one connection per host whatever the requests in flight
+      return new JavaHttpClient.Session();
+    }
+  };
+
+  private final String displayName;
+  private final String description;
+
+  HttpEngine(String displayName, String description) {
+    this.displayName = displayName;
+    this.description = description;
+  }
+
+  /**
+   * Sends the request in the background through the shared client of the engine.
+   *
+   * @return cancel it to abort the request; completes exceptionally with a
+   * {@link java.util.concurrent.TimeoutException} if the response headers are not read
+   * within the total timeout, or with the {@link java.io.IOException} of the request;
+   * completes with the preview of a large body, see {@link HttpResult#getCompleted()},
+   * whose rest must be read within the total timeout too
+   */
+  @NotNull
+  public abstract CompletableFuture<HttpResult> executeAsync(
+    @NotNull HttpRequestBase request,
+    @NotNull RequestTimeouts timeouts
+  );
+
+  /**
+   * The caller closes it.
+   *
+   * @param maxConnections to all hosts and to each, over HTTP/1.1
+   */
+  @NotNull
+  public abstract HttpSession openSession(int maxConnections);
+
+  @NotNull
+  public String getDescription() {
+    return description;
+  }
+
+  @Override
+  public String toString() {
+    return displayName;
+  }
+}
@@ -0,0 +1,78 @@
+package jiux.net.plugin.restful.http;
+
+import com.intellij.openapi.components.PersistentStateComponent;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.components.State;
+import com.intellij.openapi.components.Storage;
+import com.intellij.openapi.components.StoragePathMacros;
+import com.intellij.openapi.project.Project;
+import java.util.Map;
+import java.util.TreeMap;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * HTTP engine of the modules that do not use {@link HttpEngine#APACHE}, e.g. an HTTP/2
+ * service.
+ * <p>
+ * Both engines trust self signed certificates, but only {@link HttpEngine#APACHE} accepts
+ * a certificate issued for another host name, e.g. one for {@code localhost} when calling
+ * {@code 127.0.0.1}. java.net.http verifies host names for every client of the JVM, short
+ * of a system property that would turn it off for the whole IDE.
+ */
+@Service(Service.Level.PROJECT)
+@State(
+  name = "RestServicesHttpEngines",
+  storages = @Storage(StoragePathMacros.WORKSPACE_FILE)
+)
+public final class HttpEngineSettings
+  implements PersistentStateComponent<HttpEngineSettings.SettingsState> {
+
+  private SettingsState myState = new SettingsState();
+
+  public static HttpEngineSettings getInstance(Project p) {
+    return p.getService(HttpEngineSettings.class);
+  }
+
+  /**
+   * @param moduleName null for requests of no module
+   */
+  @NotNull
+  public synchronized HttpEngine getEngine(@Nullable String moduleName) {
+    String engine = moduleName != null ? myState.modules.get(moduleName) : null;
+    if (engine != null) {
+      try {
+        return HttpEngine.valueOf(engine);
+      } catch (IllegalArgumentException e) {
+        // saved by another version
+      }
+    }
+    return HttpEngine.APACHE;
+  }
+
+  public synchronized void setEngine(
+    @NotNull String moduleName,
+    @NotNull HttpEngine engine
+  ) {
+    if (engine == HttpEngine.APACHE) {
+      myState.modules.remove(moduleName);
+      return;
+    }
+    myState.modules.put(moduleName, engine.name());
+  }
+
+  @Override
+  public synchronized SettingsState getState() {
+    return myState;
+  }
+
+  @Override
+  public synchronized void loadState(@NotNull SettingsState state) {
+    myState = state;
+  }
+
+  public static final class SettingsState {
+
+    public Map<String, String> modules = new TreeMap<>();
+  }
+}
@@ -0,0 +1,150 @@
+package jiux.net.plugin.restful.http;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Response of one request sent from the RestServices tool window.
+ */
+public final class HttpResult {
+
+  private final int statusCode;
+  private final String protocol;
+  private final ResponseBody body;
+  private final boolean connectionReused;
+  private final double elapsedMs;
+  private final RequestTiming timing;
+  /**
+   * Null once the whole body is read.
+   */
+  private final CompletableFuture<HttpResult> completed;
+
+  HttpResult(
+    int statusCode,
+    String protocol,
+    ResponseBody body,
+    boolean connectionReused,
+    double elapsedMs,
+    RequestTiming timing
+  ) {
+    this(statusCode, protocol, body, connectionReused, elapsedMs, timing, null);
+  }
+
+  /**
+   * @param completed the result once the whole body is read, see {@link #completing}
+   */
+  HttpResult(
+    int statusCode,
+    String protocol,
+    ResponseBody body,
+    boolean connectionReused,
+    double elapsedMs,
+    RequestTiming timing,
+    @Nullable CompletableFuture<HttpResult> completed
+  ) {
+    this.statusCode = statusCode;
+    this.protocol = protocol;
+    this.body = body;
+    this.connectionReused = connectionReused;
+    this.elapsedMs = elapsedMs;
+    this.timing = timing;
+    this.completed = completed;
+  }
+
+  /**
+   * @param complete the result of the whole body, once read
+   * @return null if the body is read already; cancelling it stops reading the body
+   */
+  @Nullable
+  static CompletableFuture<HttpResult> completing(
+    @NotNull ResponseBody body,
+    @NotNull Function<ResponseBody, HttpResult> complete
+  ) {
+    if (body.isComplete()) {
+      return null;
+    }
+    CompletableFuture<HttpResult> completed = body.getCompleted().thenApply(complete);
+    completed.whenComplete((result, error) -> {
+      if (completed.isCancelled()) {
+        body.getCompleted().cancel(true);
+      }
+    });
+    return completed;
+  }
+
+  /**
+   * A request that got no response, the message tells why.
+   */
+  @NotNull
+  public static HttpResult error(@NotNull String message) {
+    return new HttpResult(-1, "", ResponseBody.ofText(message), false, 0, null);
+  }
+
+  /**
+   * @return -1 if no response was received
+   */
+  public int getStatusCode() {
+    return statusCode;
+  }
+
+  public boolean isError() {
+    return statusCode < 0;
+  }
+
+  /**
+   * Of the response, e.g. {@code HTTP/1.1} or {@code HTTP/2}; empty if none was received.
+   */
+  @NotNull
+  public String getProtocol() {
+    return protocol;
+  }
+
+  /**
+   * The error message, or the beginning of the body, see {@link ResponseBody#getText()}.
+   */
+  @NotNull
+  public String getBody() {
+    return body.getText();
+  }
+
+  @NotNull
+  public ResponseBody getResponseBody() {
+    return body;
+  }
+
+  /**
+   * Whether the request was sent over a kept alive connection of the pool, without a new
+   * TCP and TLS handshake. Only known to {@link HttpEngine#APACHE}, false otherwise.
+   */
+  public boolean isConnectionReused() {
+    return connectionReused;
+  }
+
+  /**
+   * From sending the request to reading the whole body, or its preview while the rest is
+   * being read.
+   */
+  public double getElapsedMs() {
+    return elapsedMs;
+  }
+
+  /**
+   * @return null if no response was received, or the engine does not time the phases
+   */
+  @Nullable
+  public RequestTiming getTiming() {
+    return timing;
+  }
+
+  /**
+   * The result once the whole body is read, this one if it is. A result is handed over as
+   * soon as the preview of its body is read, see {@link ResponseBody#getCompleted()};
+   * cancel it to abort reading the rest.
+   */
+  @NotNull
+  public CompletableFuture<HttpResult> getCompleted() {
+    return completed != null ? completed : CompletableFuture.completedFuture(this);
+  }
+}
@@ -0,0 +1,78 @@
+package jiux.net.plugin.restful.http;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Connections of their own for the requests of a run, e.g. a load test, so that they
+ * neither wait for nor starve those of the tool window. Bodies are read and counted,
+ * not kept. Requests are sent from several threads at once.
+ */
+public interface HttpSession extends Closeable {
+  /**
+   * Blocks until the whole body is read, at most for the total timeout.
+   *
+   * @throws IOException if no complete response was received, a
+   * {@link java.net.http.HttpTimeoutException} if not within the total timeout, or the
+   * session was closed meanwhile
+   */
+  @NotNull
+  Response send(@NotNull HttpRequestBase request, @NotNull RequestTimeouts timeouts)
+    throws IOException;
+
+  /**
+   * Aborts the requests in flight and releases the connections.
+   */
+  @Override
+  void close();
+
+  final class Response {
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+    // per sending thread, a load test reads many bodies
+    private static final ThreadLocal<byte[]> BUFFER = ThreadLocal.withInitial(() ->
+      new byte[BUFFER_SIZE]
+    );
+
+    private final int status;
+    private final long size;
+
+    public Response(int status, long size) {
+      this.status = status;
+      this.size = size;
+    }
+
+    /**
+     * Reads the body to its end and closes it.
+     */
+    @NotNull
+    static Response read(int status, @Nullable InputStream body) throws IOException {
+      if (body == null) {
+        return new Response(status, 0);
+      }
+      byte[] buffer = BUFFER.get();
+      long size = 0;
+      try (body) {
+        for (int read = body.read(buffer); read >= 0; read = body.read(buffer)) {
+          size += read;
+        }
+      }
+      return new Response(status, size);
+    }
+
+    public int getStatus() {
+      return status;
+    }
+
+    /**
+     * Of the body, in bytes.
+     */
+    public long getSize() {
+      return size;
+    }
+  }
+}
@@ -0,0 +1,407 @@
+package jiux.net.plugin.restful.http;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.lang.reflect.Method;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.util.EntityUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Sends requests with the HTTP client of the JDK, {@link HttpEngine#JAVA}: HTTP/2,
+ * negotiated by ALPN over TLS or by an h2c upgrade over plain HTTP, with all the requests
+ * to a host multiplexed on one connection; HTTP/1.1 if the server has no HTTP/2. Self
+ * signed certificates are trusted as by {@link RestHttpClient}, host names are verified.
+ * <p>
+ * The requests are built for Apache HttpClient and translated, so that both engines send
+ * the same. Headers the JDK sets itself, e.g. {@code Host} or {@code Content-Length}, are
+ * left out. Neither the phases of a request nor the reuse of its connection are known.
+ */
+@Service
+public final class JavaHttpClient implements Disposable {
+
+  private static final Logger LOG = Logger.getInstance(JavaHttpClient.class);
+
+  private static final int MAX_REQUESTS_IN_FLIGHT = 16;
+  // the exchanges only, a session reads the bodies on the sending threads
+  private static final int SESSION_THREADS = Runtime.getRuntime().availableProcessors();
+  /**
+   * {@code HttpClient.shutdownNow()} of Java 21, null before: a client then keeps its
+   * connections until it is no longer referenced.
+   */
+  @Nullable
+  private static final Method SHUTDOWN_NOW = findShutdownNow();
+  // refused by the JDK client of Java 11
+  private static final Set<String> RESTRICTED_HEADERS = Set.of(
+    "connection",
+    "content-length",
+    "date",
+    "expect",
+    "from",
+    "host",
+    "upgrade",
+    "via",
+    "warning"
+  );
+
+  // not the bounded executor, the clients hand the bodies over on it
+  private final Clients myClients = new Clients(AppExecutorUtil.getAppExecutorService());
+  /**
+   * Reads the previews of the bodies, which blocks.
+   */
+  private final ExecutorService myExecutor =
+    AppExecutorUtil.createBoundedApplicationPoolExecutor(
+      "RestServices HTTP/2 Requests",
+      MAX_REQUESTS_IN_FLIGHT
+    );
+  /**
+   * Reads the rest of the large bodies, see {@link RestHttpClient}.
+   */
+  private final ExecutorService myDownloadExecutor =
+    AppExecutorUtil.createBoundedApplicationPoolExecutor(
+      "RestServices HTTP/2 Downloads",
+      RestHttpClient.MAX_DOWNLOADS
+    );
+
+  public static JavaHttpClient getInstance() {
+    return ApplicationManager.getApplication().getService(JavaHttpClient.class);
+  }
+
+  /**
+   * Sends the request in the background.
+   *
+   * @return cancel it to abort the request; completes exceptionally with a
+   * {@link java.util.concurrent.TimeoutException} if the response headers are not read
+   * within the total timeout, or with the {@link IOException} of the request; completes
+   * with the preview of a large body, see {@link HttpResult#getCompleted()}, whose rest
+   * must be read within the total timeout too
+   */
+  @NotNull
+  public CompletableFuture<HttpResult> executeAsync(
+    @NotNull HttpRequestBase request,
+    @NotNull RequestTimeouts timeouts
+  ) {
+    HttpRequest javaRequest;
+    try {
+      javaRequest = toJavaRequest(request, timeouts);
+    } catch (IOException | IllegalArgumentException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+    CompletableFuture<HttpResult> future = new CompletableFuture<>();
+    RestHttpClient.failAfterTotalTimeout(future, timeouts);
+    long start = System.nanoTime();
+    CompletableFuture<HttpResponse<InputStream>> sent = myClients
+      .get(timeouts.getConnectMs())
+      .sendAsync(javaRequest, HttpResponse.BodyHandlers.ofInputStream());
+    sent.whenComplete((response, error) -> {
+      if (error != null) {
+        future.completeExceptionally(unwrap(error));
+        return;
+      }
+      myExecutor.execute(() -> {
+        if (future.isDone()) {
+          closeQuietly(response.body());
+          return;
+        }
+        try {
+          HttpResult result = toResult(response, start);
+          if (!future.complete(result)) {
+            // cancelled meanwhile
+            result.getCompleted().cancel(true);
+          }
+        } catch (Throwable e) {
+          future.completeExceptionally(e);
+        }
+      });
+    });
+
+    future.whenComplete((result, error) -> {
+      if (error != null) {
+        // cancelled or timed out, stops the exchange or the body being read
+        sent.cancel(true);
+        sent.thenAccept(response -> closeQuietly(response.body()));
+      }
+    });
+    return future;
+  }
+
+  /**
+   * @return once the preview of the body is read, the rest is read on the download
+   * executor
+   */
+  @NotNull
+  private HttpResult toResult(HttpResponse<InputStream> response, long start)
+    throws IOException {
+    HttpHeaders headers = response.headers();
+    ResponseBody body = ResponseBody.read(
+      response.body(),
+      ResponseBody.parseContentType(headers.firstValue("Content-Type").orElse(null)),
+      headers.firstValueAsLong("Content-Length").orElse(-1),
+      myDownloadExecutor
+    );
+    body
+      .getCompleted()
+      .whenComplete((whole, error) -> {
+        if (error != null) {
+          // failed or cancelled, unblocks the thread reading the rest
+          closeQuietly(response.body());
+        }
+      });
+    int statusCode = response.statusCode();
+    String protocol = toProtocol(response.version());
+    return new HttpResult(
+      statusCode,
+      protocol,
+      body,
+      false,
+      (System.nanoTime() - start) / 1_000_000d,
+      null,
+      HttpResult.completing(
+        body,
+        whole ->
+          new HttpResult(
+            statusCode,
+            protocol,
+            whole,
+            false,
+            (System.nanoTime() - start) / 1_000_000d,
+            null
+          )
+      )
+    );
+  }
+
+  private static String toProtocol(HttpClient.Version version) {
+    return version == HttpClient.Version.HTTP_2 ? "HTTP/2" : "HTTP/1.1";
+  }
+
+  /**
+   * The same method, url, headers and body. There is no timeout between two packets, the
+   * read timeout applies to the response headers instead.
+   *
+   * @throws IllegalArgumentException if the JDK refuses the url or method
+   */
+  @NotNull
+  static HttpRequest toJavaRequest(
+    @NotNull HttpRequestBase request,
+    @NotNull RequestTimeouts timeouts
+  ) throws IOException {
+    HttpRequest.Builder builder = HttpRequest.newBuilder(request.getURI());
+    if (timeouts.getReadMs() > 0) {
+      builder.timeout(Duration.ofMillis(timeouts.getReadMs()));
+    }
+    for (Header header : request.getAllHeaders()) {
+      if (!RESTRICTED_HEADERS.contains(header.getName().toLowerCase())) {
+        builder.header(header.getName(), header.getValue());
+      }
+    }
+    HttpRequest.BodyPublisher body = HttpRequest.BodyPublishers.noBody();
+    HttpEntity entity = request instanceof HttpEntityEnclosingRequest
+      ? ((HttpEntityEnclosingRequest) request).getEntity()
+      : null;
+    if (entity != null) {
+      // as Apache HttpClient adds them
+      addEntityHeader(builder, request, entity.getContentType());
+      addEntityHeader(builder, request, entity.getContentEncoding());
+      body = HttpRequest.BodyPublishers.ofByteArray(EntityUtils.toByteArray(entity));
+    }
+    return builder.method(request.getMethod(), body).build();
+  }
+
+  private static void addEntityHeader(
+    HttpRequest.Builder builder,
+    HttpRequestBase request,
+    @Nullable Header header
+  ) {
+    if (header != null && !request.containsHeader(header.getName())) {
+      builder.header(header.getName(), header.getValue());
+    }
+  }
+
+  private static Throwable unwrap(Throwable error) {
+    boolean wrapper =
+      error instanceof CompletionException || error instanceof ExecutionException;
+    return wrapper && error.getCause() != null ? error.getCause() : error;
+  }
+
+  private static void closeQuietly(@Nullable Closeable closeable) {
+    if (closeable == null) {
+      return;
+    }
+    try {
+      closeable.close();
+    } catch (IOException e) {
+      LOG.debug(e);
+    }
+  }
+
+  @Nullable
+  private static Method findShutdownNow() {
+    try {
+      return HttpClient.class.getMethod("shutdownNow");
+    } catch (NoSuchMethodException e) {
+      return null;
+    }
+  }
+
+  @Override
+  public void dispose() {
+    myExecutor.shutdownNow();
+    myDownloadExecutor.shutdownNow();
+    myClients.close();
+  }
+
+  /**
+   * Clients by connect timeout, which the JDK sets per client; each keeps its own
+   * connections.
+   */
+  private static final class Clients {
+
+    private final Map<Integer, HttpClient> myClients = new ConcurrentHashMap<>();
+    private final Executor myExecutor;
+
+    Clients(@NotNull Executor executor) {
+      myExecutor = executor;
+    }
+
+    @NotNull
+    HttpClient get(int connectMs) {
+      return myClients.computeIfAbsent(
+        connectMs,
+        ms -> {
+          HttpClient.Builder builder = HttpClient
+            .newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            // unlike RestHttpClient, host names are verified, see HttpEngineSettings
+            .sslContext(RestHttpClient.createSslContext())
+            .executor(myExecutor);
+          if (ms > 0) {
+            builder.connectTimeout(Duration.ofMillis(ms));
+          }
+          return builder.build();
+        }
+      );
+    }
+
+    /**
+     * Drops the clients, closing their connections at once where the JDK can.
+     */
+    void close() {
+      for (HttpClient client : myClients.values()) {
+        if (SHUTDOWN_NOW != null) {
+          try {
+            SHUTDOWN_NOW.invoke(client);
+          } catch (ReflectiveOperationException e) {
+            LOG.debug(e);
+          }
+        }
+      }
+      myClients.clear();
+    }
+  }
+
+  /**
+   * Session of {@link HttpEngine#JAVA}: clients and an executor of its own, so that its
+   * HTTP/2 connections carry only the requests of the run. Closing it aborts the requests
+   * in flight and releases both.
+   */
+  static final class Session implements HttpSession {
+
+    private final ExecutorService myExecutor =
+      AppExecutorUtil.createBoundedApplicationPoolExecutor(
+        "RestServices HTTP/2 Session",
+        SESSION_THREADS
+      );
+    private final Clients myClients = new Clients(myExecutor);
+    private final Set<Closeable> myInFlight = ConcurrentHashMap.newKeySet();
+    private volatile boolean myClosed;
+
+    @NotNull
+    @Override
+    public Response send(
+      @NotNull HttpRequestBase request,
+      @NotNull RequestTimeouts timeouts
+    ) throws IOException {
+      if (myClosed) {
+        throw new IOException("Session closed");
+      }
+      HttpRequest javaRequest = toJavaRequest(request, timeouts);
+      TotalTimeout timeout = new TotalTimeout(timeouts);
+      CompletableFuture<HttpResponse<InputStream>> sent = myClients
+        .get(timeouts.getConnectMs())
+        .sendAsync(javaRequest, HttpResponse.BodyHandlers.ofInputStream());
+      Closeable abort = () -> sent.cancel(true);
+      myInFlight.add(abort);
+      timeout.abortWith(() -> sent.cancel(true));
+      try {
+        if (myClosed) {
+          throw new IOException("Session closed");
+        }
+        HttpResponse<InputStream> response = sent.get();
+        myInFlight.add(response.body());
+        timeout.abortWith(() -> closeQuietly(response.body()));
+        try {
+          if (myClosed) {
+            throw new IOException("Session closed");
+          }
+          return Response.read(response.statusCode(), response.body());
+        } catch (IOException e) {
+          throw timeout.explain(e);
+        } finally {
+          myInFlight.remove(response.body());
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException();
+      } catch (CancellationException e) {
+        if (timeout.isExpired()) {
+          throw timeout.explain(new IOException("Request cancelled", e));
+        }
+        throw new IOException("Session closed", e);
+      } catch (ExecutionException e) {
+        // the cancellation by the timeout too, on some JDKs
+        Throwable cause = unwrap(e);
+        throw timeout.explain(
+          cause instanceof IOException ? (IOException) cause : new IOException(cause)
+        );
+      } finally {
+        timeout.close();
+        myInFlight.remove(abort);
+      }
+    }
+
+    @Override
+    public void close() {
+      myClosed = true;
+      myInFlight.forEach(JavaHttpClient::closeQuietly);
+      myClients.close();
+      myExecutor.shutdownNow();
+    }
+  }
+}
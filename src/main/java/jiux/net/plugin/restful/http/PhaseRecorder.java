@@ -0,0 +1,278 @@
+package jiux.net.plugin.restful.http;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLContext;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpConnectionMetrics;
+import org.apache.http.HttpException;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.conn.DnsResolver;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.conn.SystemDefaultDnsResolver;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpRequestExecutor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Records when the phases of one request start and end, through hooks in the connection
+ * manager and the request executor of {@link RestHttpClient}. The context of the request
+ * holds the recorder; the DNS resolver is given none and finds it through the thread
+ * sending the request. Requests without recorder, e.g. those of a load test, are not
+ * timed.
+ */
+final class PhaseRecorder {
+
+  private static final String ATTRIBUTE = PhaseRecorder.class.getName();
+  private static final ThreadLocal<PhaseRecorder> CURRENT = new ThreadLocal<>();
+
+  private final long myStart = System.nanoTime();
+  // System.nanoTime() of each event, 0 if it did not happen
+  private long myDnsStart;
+  private long myDnsEnd;
+  private long myConnectStart;
+  private long myConnectEnd;
+  private long myTlsStart;
+  private long myTlsEnd;
+  private long mySendStart;
+  private long mySendEnd;
+  private long myHeadEnd;
+  private HttpConnectionMetrics myMetrics;
+  private long mySentBefore;
+  private long myReceivedBefore;
+
+  /**
+   * Times the requests sent with the context on this thread, until {@link #detach()}.
+   */
+  void attach(@NotNull HttpContext context) {
+    context.setAttribute(ATTRIBUTE, this);
+    CURRENT.set(this);
+  }
+
+  void detach() {
+    CURRENT.remove();
+  }
+
+  @Nullable
+  private static PhaseRecorder of(@Nullable HttpContext context) {
+    Object recorder = context != null ? context.getAttribute(ATTRIBUTE) : null;
+    return recorder instanceof PhaseRecorder ? (PhaseRecorder) recorder : null;
+  }
+
+  /**
+   * @param end when the body was read
+   * @param serverTimings of the response headers
+   */
+  @NotNull
+  RequestTiming toTiming(long end, @NotNull List<ServerTiming> serverTimings) {
+    List<RequestTiming.Phase> phases = new ArrayList<>();
+    long firstEvent = first(myDnsStart, myConnectStart, mySendStart, end);
+    addPhase(phases, RequestTiming.Phase.QUEUED, myStart, firstEvent);
+    addPhase(phases, RequestTiming.Phase.DNS, myDnsStart, myDnsEnd);
+    addPhase(phases, RequestTiming.Phase.CONNECT, myConnectStart, myConnectEnd);
+    addPhase(phases, RequestTiming.Phase.TLS, myTlsStart, myTlsEnd);
+    addPhase(phases, RequestTiming.Phase.SENDING, mySendStart, mySendEnd);
+    addPhase(phases, RequestTiming.Phase.WAITING, mySendEnd, myHeadEnd);
+    addPhase(phases, RequestTiming.Phase.DOWNLOAD, myHeadEnd, end);
+    long sent = 0;
+    long received = 0;
+    if (myMetrics != null) {
+      sent = myMetrics.getSentBytesCount() - mySentBefore;
+      received = myMetrics.getReceivedBytesCount() - myReceivedBefore;
+    }
+    return new RequestTiming(phases, millis(myStart, end), sent, received, serverTimings);
+  }
+
+  private void addPhase(
+    List<RequestTiming.Phase> phases,
+    String name,
+    long from,
+    long to
+  ) {
+    if (from != 0 && to != 0) {
+      phases.add(new RequestTiming.Phase(name, millis(myStart, from), millis(from, to)));
+    }
+  }
+
+  private static long first(long... events) {
+    for (long event : events) {
+      if (event != 0) {
+        return event;
+      }
+    }
+    return 0;
+  }
+
+  private static double millis(long from, long to) {
+    return Math.max(0, to - from) / 1_000_000d;
+  }
+
+  /**
+   * Times the lookups of the thread's recorder.
+   */
+  static final class Dns implements DnsResolver {
+
+    @Override
+    public InetAddress[] resolve(String host) throws UnknownHostException {
+      PhaseRecorder recorder = CURRENT.get();
+      if (recorder == null) {
+        return SystemDefaultDnsResolver.INSTANCE.resolve(host);
+      }
+      recorder.myDnsStart = System.nanoTime();
+      try {
+        return SystemDefaultDnsResolver.INSTANCE.resolve(host);
+      } finally {
+        recorder.myDnsEnd = System.nanoTime();
+      }
+    }
+  }
+
+  static final class PlainSocketFactory extends PlainConnectionSocketFactory {
+
+    @Override
+    public Socket connectSocket(
+      int connectTimeout,
+      Socket socket,
+      HttpHost host,
+      InetSocketAddress remoteAddress,
+      InetSocketAddress localAddress,
+      HttpContext context
+    ) throws IOException {
+      PhaseRecorder recorder = of(context);
+      if (recorder == null) {
+        return super.connectSocket(
+          connectTimeout,
+          socket,
+          host,
+          remoteAddress,
+          localAddress,
+          context
+        );
+      }
+      recorder.myConnectStart = System.nanoTime();
+      try {
+        return super.connectSocket(
+          connectTimeout,
+          socket,
+          host,
+          remoteAddress,
+          localAddress,
+          context
+        );
+      } finally {
+        recorder.myConnectEnd = System.nanoTime();
+      }
+    }
+  }
+
+  /**
+   * The TCP connect ends where the TLS handshake starts, on the layered socket.
+   */
+  static final class SslSocketFactory extends SSLConnectionSocketFactory {
+
+    SslSocketFactory(SSLContext sslContext, HostnameVerifier hostnameVerifier) {
+      super(sslContext, hostnameVerifier);
+    }
+
+    @Override
+    public Socket connectSocket(
+      int connectTimeout,
+      Socket socket,
+      HttpHost host,
+      InetSocketAddress remoteAddress,
+      InetSocketAddress localAddress,
+      HttpContext context
+    ) throws IOException {
+      PhaseRecorder recorder = of(context);
+      if (recorder != null) {
+        recorder.myConnectStart = System.nanoTime();
+      }
+      Socket connected = super.connectSocket(
+        connectTimeout,
+        socket,
+        host,
+        remoteAddress,
+        localAddress,
+        context
+      );
+      if (recorder != null && recorder.myConnectEnd == 0) {
+        recorder.myConnectEnd = System.nanoTime();
+      }
+      return connected;
+    }
+
+    @Override
+    public Socket createLayeredSocket(
+      Socket socket,
+      String target,
+      int port,
+      HttpContext context
+    ) throws IOException {
+      PhaseRecorder recorder = of(context);
+      if (recorder == null) {
+        return super.createLayeredSocket(socket, target, port, context);
+      }
+      recorder.myTlsStart = System.nanoTime();
+      if (recorder.myConnectStart != 0 && recorder.myConnectEnd == 0) {
+        recorder.myConnectEnd = recorder.myTlsStart;
+      }
+      try {
+        return super.createLayeredSocket(socket, target, port, context);
+      } finally {
+        recorder.myTlsEnd = System.nanoTime();
+      }
+    }
+  }
+
+  /**
+   * Times sending the request and receiving the head of the response, and counts the
+   * bytes of the connection meanwhile.
+   */
+  static final class RequestExecutor extends HttpRequestExecutor {
+
+    @Override
+    protected HttpResponse doSendRequest(
+      HttpRequest request,
+      HttpClientConnection connection,
+      HttpContext context
+    ) throws IOException, HttpException {
+      PhaseRecorder recorder = of(context);
+      if (recorder == null) {
+        return super.doSendRequest(request, connection, context);
+      }
+      recorder.myMetrics = connection.getMetrics();
+      recorder.mySentBefore = recorder.myMetrics.getSentBytesCount();
+      recorder.myReceivedBefore = recorder.myMetrics.getReceivedBytesCount();
+      recorder.mySendStart = System.nanoTime();
+      try {
+        return super.doSendRequest(request, connection, context);
+      } finally {
+        recorder.mySendEnd = System.nanoTime();
+      }
+    }
+
+    @Override
+    protected HttpResponse doReceiveResponse(
+      HttpRequest request,
+      HttpClientConnection connection,
+      HttpContext context
+    ) throws HttpException, IOException {
+      HttpResponse response = super.doReceiveResponse(request, connection, context);
+      PhaseRecorder recorder = of(context);
+      if (recorder != null) {
+        recorder.myHeadEnd = System.nanoTime();
+      }
+      return response;
+    }
+  }
+}
@@ -0,0 +1,82 @@
+package jiux.net.plugin.restful.http;
+
+import com.intellij.openapi.components.PersistentStateComponent;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.components.State;
+import com.intellij.openapi.components.Storage;
+import com.intellij.openapi.components.StoragePathMacros;
+import com.intellij.openapi.project.Project;
+import java.util.Map;
+import java.util.TreeMap;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Request timeouts of the modules that do not use {@link RequestTimeouts#defaults()},
+ * e.g. a slow batch service.
+ */
+@Service(Service.Level.PROJECT)
+@State(
+  name = "RestServicesRequestTimeouts",
+  storages = @Storage(StoragePathMacros.WORKSPACE_FILE)
+)
+public final class RequestTimeoutSettings
+  implements PersistentStateComponent<RequestTimeoutSettings.SettingsState> {
+
+  private SettingsState myState = new SettingsState();
+
+  public static RequestTimeoutSettings getInstance(Project p) {
+    return p.getService(RequestTimeoutSettings.class);
+  }
+
+  /**
+   * @param moduleName null for requests of no module
+   */
+  @NotNull
+  public synchronized RequestTimeouts getTimeouts(@Nullable String moduleName) {
+    ModuleTimeouts timeouts = moduleName != null ? myState.modules.get(moduleName) : null;
+    return timeouts != null
+      ? new RequestTimeouts(timeouts.connectMs, timeouts.readMs, timeouts.totalMs)
+      : RequestTimeouts.defaults();
+  }
+
+  /**
+   * @param timeouts null to use the defaults again
+   */
+  public synchronized void setTimeouts(
+    @NotNull String moduleName,
+    @Nullable RequestTimeouts timeouts
+  ) {
+    if (timeouts == null || timeouts.equals(RequestTimeouts.defaults())) {
+      myState.modules.remove(moduleName);
+      return;
+    }
+    ModuleTimeouts moduleTimeouts = new ModuleTimeouts();
+    moduleTimeouts.connectMs = timeouts.getConnectMs();
+    moduleTimeouts.readMs = timeouts.getReadMs();
+    moduleTimeouts.totalMs = timeouts.getTotalMs();
+    myState.modules.put(moduleName, moduleTimeouts);
+  }
+
+  @Override
+  public synchronized SettingsState getState() {
+    return myState;
+  }
+
+  @Override
+  public synchronized void loadState(@NotNull SettingsState state) {
+    myState = state;
+  }
+
+  public static final class SettingsState {
+
+    public Map<String, ModuleTimeouts> modules = new TreeMap<>();
+  }
+
+  public static final class ModuleTimeouts {
+
+    public int connectMs;
+    public int readMs;
+    public int totalMs;
+  }
+}
@@ -0,0 +1,90 @@
+package jiux.net.plugin.restful.http;
+
+import com.intellij.openapi.util.registry.Registry;
+import org.apache.http.client.config.RequestConfig;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Timeouts of one request, in milliseconds, 0 for none.
+ */
+public final class RequestTimeouts {
+
+  static final String CONNECT_TIMEOUT_KEY = "restful.toolkit.http.connect.timeout.ms";
+  static final String READ_TIMEOUT_KEY = "restful.toolkit.http.read.timeout.ms";
+  static final String TOTAL_TIMEOUT_KEY = "restful.toolkit.http.total.timeout.ms";
+
+  private final int connectMs;
+  private final int readMs;
+  private final int totalMs;
+
+  public RequestTimeouts(int connectMs, int readMs, int totalMs) {
+    this.connectMs = connectMs;
+    this.readMs = readMs;
+    this.totalMs = totalMs;
+  }
+
+  /**
+   * Timeouts of the modules without their own, from the registry.
+   */
+  @NotNull
+  public static RequestTimeouts defaults() {
+    return new RequestTimeouts(
+      Registry.intValue(CONNECT_TIMEOUT_KEY),
+      Registry.intValue(READ_TIMEOUT_KEY),
+      Registry.intValue(TOTAL_TIMEOUT_KEY)
+    );
+  }
+
+  /**
+   * To open the connection, including the wait for a free pooled connection.
+   */
+  public int getConnectMs() {
+    return connectMs;
+  }
+
+  /**
+   * Between two packets of the response.
+   */
+  public int getReadMs() {
+    return readMs;
+  }
+
+  /**
+   * From sending the request to reading the whole response body.
+   */
+  public int getTotalMs() {
+    return totalMs;
+  }
+
+  /**
+   * The connect and read timeouts, the total one is up to the caller.
+   */
+  @NotNull
+  public RequestConfig toRequestConfig() {
+    return RequestConfig
+      .custom()
+      .setConnectionRequestTimeout(connectMs)
+      .setConnectTimeout(connectMs)
+      .setSocketTimeout(readMs)
+      .build();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof RequestTimeouts)) {
+      return false;
+    }
+    RequestTimeouts that = (RequestTimeouts) o;
+    return (
+      connectMs == that.connectMs && readMs == that.readMs && totalMs == that.totalMs
+    );
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * (31 * connectMs + readMs) + totalMs;
+  }
+}
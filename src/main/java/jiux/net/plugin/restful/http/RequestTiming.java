@@ -0,0 +1,167 @@
+package jiux.net.plugin.restful.http;
+
+import com.intellij.openapi.util.text.StringUtil;
+import java.util.Collections;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Where the time of one request went: waiting for a connection of the pool, DNS lookup,
+ * TCP connect, TLS handshake, sending the request, waiting for the first byte of the
+ * response and downloading the body, with the bytes sent and received.
+ */
+public final class RequestTiming {
+
+  private static final int BAR_WIDTH = 50;
+
+  private final List<Phase> phases;
+  private final double totalMs;
+  private final long requestBytes;
+  private final long responseBytes;
+  private final List<ServerTiming> serverTimings;
+
+  RequestTiming(
+    List<Phase> phases,
+    double totalMs,
+    long requestBytes,
+    long responseBytes,
+    List<ServerTiming> serverTimings
+  ) {
+    this.phases = Collections.unmodifiableList(phases);
+    this.totalMs = totalMs;
+    this.requestBytes = requestBytes;
+    this.responseBytes = responseBytes;
+    this.serverTimings = Collections.unmodifiableList(serverTimings);
+  }
+
+  /**
+   * In the order they happened; those that did not, e.g. the connect of a reused
+   * connection, are missing.
+   */
+  @NotNull
+  public List<Phase> getPhases() {
+    return phases;
+  }
+
+  public double getTotalMs() {
+    return totalMs;
+  }
+
+  /**
+   * Bytes written to the connection, request line, headers and body.
+   */
+  public long getRequestBytes() {
+    return requestBytes;
+  }
+
+  /**
+   * Bytes read from the connection, status line, headers and body as sent, e.g.
+   * compressed.
+   */
+  public long getResponseBytes() {
+    return responseBytes;
+  }
+
+  @NotNull
+  public List<ServerTiming> getServerTimings() {
+    return serverTimings;
+  }
+
+  /**
+   * The phases as bars on a common time axis, then the server timings, as plain text.
+   */
+  @NotNull
+  public String toWaterfall() {
+    StringBuilder sb = new StringBuilder(
+      String.format("%-18s %10s %10s%n", "Timing (ms)", "start", "duration")
+    );
+    double waitStart = 0;
+    for (Phase phase : phases) {
+      appendBar(sb, phase.getName(), phase.getStartMs(), phase.getDurationMs());
+      if (phase.getName().equals(Phase.WAITING)) {
+        waitStart = phase.getStartMs();
+      }
+    }
+    sb.append(String.format("%-18s %10s %10.2f%n", "Total", "", totalMs));
+    sb.append(
+      String.format(
+        "%nSent %s, received %s%n",
+        StringUtil.formatFileSize(requestBytes),
+        StringUtil.formatFileSize(responseBytes)
+      )
+    );
+    if (serverTimings.isEmpty()) {
+      return sb.toString();
+    }
+    sb.append(String.format("%nServer-Timing, from the first byte waited for%n"));
+    for (ServerTiming timing : serverTimings) {
+      String name = timing.getDescription().isEmpty()
+        ? timing.getName()
+        : timing.getName() + " (" + timing.getDescription() + ")";
+      if (Double.isNaN(timing.getDurationMs())) {
+        sb.append(String.format("%s%n", name));
+      } else {
+        appendBar(sb, name, waitStart, timing.getDurationMs());
+      }
+    }
+    return sb.toString();
+  }
+
+  private void appendBar(
+    StringBuilder sb,
+    String name,
+    double startMs,
+    double durationMs
+  ) {
+    double scale = totalMs > 0 ? BAR_WIDTH / totalMs : 0;
+    int offset = Math.min(BAR_WIDTH, (int) Math.round(startMs * scale));
+    int width = Math.max(1, (int) Math.round(durationMs * scale));
+    sb.append(
+      String.format(
+        "%-18s %10.2f %10.2f  %s%s%n",
+        StringUtil.trimMiddle(name, 18),
+        startMs,
+        durationMs,
+        " ".repeat(offset),
+        "█".repeat(width)
+      )
+    );
+  }
+
+  /**
+   * A phase of the request, relative to the moment it was sent to the client.
+   */
+  public static final class Phase {
+
+    static final String QUEUED = "Queued";
+    static final String DNS = "DNS lookup";
+    static final String CONNECT = "TCP connect";
+    static final String TLS = "TLS handshake";
+    static final String SENDING = "Request sent";
+    static final String WAITING = "Waiting (TTFB)";
+    static final String DOWNLOAD = "Content download";
+
+    private final String name;
+    private final double startMs;
+    private final double durationMs;
+
+    Phase(String name, double startMs, double durationMs) {
+      this.name = name;
+      this.startMs = startMs;
+      this.durationMs = durationMs;
+    }
+
+    @NotNull
+    public String getName() {
+      return name;
+    }
+
+    public double getStartMs() {
+      return startMs;
+    }
+
+    public double getDurationMs() {
+      return durationMs;
+    }
+  }
+}
@@ -0,0 +1,416 @@
+package jiux.net.plugin.restful.http;
+
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.openapi.util.registry.Registry;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import org.apache.http.HttpEntity;
+import org.apache.http.ParseException;
+import org.apache.http.entity.ContentType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Body of a response. Only its beginning is kept in memory, a larger body is streamed to
+ * a temporary file, so that a huge export does not fill the heap. That beginning is
+ * handed over as soon as it is read, the rest is written to the file in the background,
+ * see {@link #getCompleted()}.
+ */
+public final class ResponseBody {
+
+  private static final Logger LOG = Logger.getInstance(ResponseBody.class);
+
+  static final String PREVIEW_SIZE_KEY = "restful.toolkit.http.response.preview.kb";
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+  private static final int SNIFF_SIZE = 8 * 1024;
+  private static final String[] BINARY_MIME_PREFIXES = {
+    "image/",
+    "audio/",
+    "video/",
+    "font/",
+    "application/octet-stream",
+    "application/pdf",
+    "application/zip",
+    "application/gzip",
+    "application/x-protobuf",
+  };
+  private static final String[] TEXT_MIME_PARTS = {
+    "json",
+    "xml",
+    "javascript",
+    "yaml",
+    "csv",
+    "x-www-form-urlencoded",
+  };
+
+  private final String text;
+  private final long size;
+  private final String mimeType;
+  private final Charset charset;
+  private final boolean binary;
+  private final Path file;
+  private final double downloadMs;
+  /**
+   * Null once the whole body is read.
+   */
+  private final CompletableFuture<ResponseBody> completed;
+
+  private ResponseBody(
+    String text,
+    long size,
+    @Nullable String mimeType,
+    Charset charset,
+    boolean binary,
+    @Nullable Path file,
+    double downloadMs,
+    @Nullable CompletableFuture<ResponseBody> completed
+  ) {
+    this.text = text;
+    this.size = size;
+    this.mimeType = mimeType;
+    this.charset = charset;
+    this.binary = binary;
+    this.file = file;
+    this.downloadMs = downloadMs;
+    this.completed = completed;
+  }
+
+  @NotNull
+  static ResponseBody ofText(@NotNull String text) {
+    return new ResponseBody(
+      text,
+      text.getBytes(StandardCharsets.UTF_8).length,
+      null,
+      StandardCharsets.UTF_8,
+      false,
+      null,
+      0,
+      null
+    );
+  }
+
+  /**
+   * Size of the beginning of a body kept in memory and shown, from the registry.
+   */
+  public static int getPreviewSize() {
+    return Math.max(1, Registry.intValue(PREVIEW_SIZE_KEY)) * 1024;
+  }
+
+  /**
+   * Streams the body, the bytes past {@link #getPreviewSize()} go to a temporary file.
+   * Returns once the preview is read, the rest is read on the executor.
+   */
+  @NotNull
+  static ResponseBody read(@NotNull HttpEntity entity, @NotNull Executor executor)
+    throws IOException {
+    return read(
+      entity.getContent(),
+      getContentType(entity),
+      entity.getContentLength(),
+      executor
+    );
+  }
+
+  /**
+   * @param in closed once read, or once {@link #getCompleted()} is cancelled
+   * @param contentLength -1 if unknown
+   * @param executor reads the rest of a body larger than the preview
+   */
+  @NotNull
+  static ResponseBody read(
+    @Nullable InputStream in,
+    @Nullable ContentType contentType,
+    long contentLength,
+    @NotNull Executor executor
+  ) throws IOException {
+    return read(in, contentType, contentLength, getPreviewSize(), executor);
+  }
+
+  @NotNull
+  static ResponseBody read(
+    @Nullable InputStream in,
+    @Nullable ContentType contentType,
+    long contentLength,
+    int previewSize,
+    @NotNull Executor executor
+  ) throws IOException {
+    String mimeType = contentType != null ? contentType.getMimeType() : null;
+    Charset charset = contentType != null && contentType.getCharset() != null
+      ? contentType.getCharset()
+      : StandardCharsets.UTF_8;
+
+    ByteArrayOutputStream head = new ByteArrayOutputStream(
+      contentLength > 0 ? (int) Math.min(contentLength, previewSize + 1L) : BUFFER_SIZE
+    );
+    byte[] buffer = new byte[BUFFER_SIZE];
+    long start = System.nanoTime();
+    try {
+      // one byte past the preview tells whether there is more
+      while (in != null && head.size() <= previewSize) {
+        int length = Math.min(buffer.length, previewSize + 1 - head.size());
+        int read = in.read(buffer, 0, length);
+        if (read < 0) {
+          break;
+        }
+        head.write(buffer, 0, read);
+      }
+    } catch (IOException | RuntimeException e) {
+      closeQuietly(in);
+      throw e;
+    }
+
+    byte[] headBytes = head.toByteArray();
+    boolean binary = isBinary(mimeType, headBytes);
+    if (headBytes.length <= previewSize) {
+      closeQuietly(in);
+      String text = binary ? "" : new String(headBytes, charset);
+      return new ResponseBody(
+        text,
+        headBytes.length,
+        mimeType,
+        charset,
+        binary,
+        null,
+        (System.nanoTime() - start) / 1_000_000d,
+        null
+      );
+    }
+
+    String text = binary ? "" : decodePreview(headBytes, previewSize, charset);
+    Path file = null;
+    OutputStream spill;
+    try {
+      // deleted by the caller, see getFile()
+      file = FileUtil.createTempFile("restservices", ".response", false).toPath();
+      spill = new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE);
+      spill.write(headBytes);
+    } catch (IOException | RuntimeException e) {
+      closeQuietly(in);
+      if (file != null) {
+        FileUtil.delete(file);
+      }
+      throw e;
+    }
+    CompletableFuture<ResponseBody> completed = new CompletableFuture<>();
+    ResponseBody preview = new ResponseBody(
+      text,
+      headBytes.length,
+      mimeType,
+      charset,
+      binary,
+      file,
+      (System.nanoTime() - start) / 1_000_000d,
+      completed
+    );
+    Path spillFile = file;
+    executor.execute(() -> {
+      long size = headBytes.length;
+      try (in; spill) {
+        int read;
+        while (!completed.isDone() && (read = in.read(buffer)) >= 0) {
+          spill.write(buffer, 0, read);
+          size += read;
+        }
+      } catch (IOException | RuntimeException e) {
+        completed.completeExceptionally(e);
+      }
+      boolean done = completed.complete(
+        new ResponseBody(
+          text,
+          size,
+          mimeType,
+          charset,
+          binary,
+          spillFile,
+          (System.nanoTime() - start) / 1_000_000d,
+          null
+        )
+      );
+      if (!done) {
+        // failed or cancelled, the partial file is of no use
+        FileUtil.delete(spillFile);
+      }
+    });
+    return preview;
+  }
+
+  /**
+   * The characters of the first bytes, without the last one if the bytes cut it.
+   */
+  @NotNull
+  static String decodePreview(byte[] bytes, int length, Charset charset) {
+    CharsetDecoder decoder = charset
+      .newDecoder()
+      .onMalformedInput(CodingErrorAction.REPLACE)
+      .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    CharBuffer chars = CharBuffer.allocate(
+      (int) Math.ceil(length * (double) decoder.maxCharsPerByte())
+    );
+    // not the end of the input, a partial character is left undecoded
+    decoder.decode(ByteBuffer.wrap(bytes, 0, length), chars, false);
+    return chars.flip().toString();
+  }
+
+  private static void closeQuietly(@Nullable Closeable closeable) {
+    if (closeable == null) {
+      return;
+    }
+    try {
+      closeable.close();
+    } catch (IOException e) {
+      LOG.debug(e);
+    }
+  }
+
+  @Nullable
+  private static ContentType getContentType(HttpEntity entity) {
+    try {
+      return ContentType.get(entity);
+    } catch (ParseException | UnsupportedCharsetException e) {
+      return null;
+    }
+  }
+
+  /**
+   * @param value of a {@code Content-Type} header
+   */
+  @Nullable
+  static ContentType parseContentType(@Nullable String value) {
+    if (value == null) {
+      return null;
+    }
+    try {
+      return ContentType.parse(value);
+    } catch (ParseException | UnsupportedCharsetException e) {
+      return null;
+    }
+  }
+
+  private static boolean isBinary(@Nullable String mimeType, byte[] head) {
+    if (mimeType != null) {
+      String mime = mimeType.toLowerCase();
+      if (mime.startsWith("text/")) {
+        return false;
+      }
+      for (String part : TEXT_MIME_PARTS) {
+        if (mime.contains(part)) {
+          return false;
+        }
+      }
+      for (String prefix : BINARY_MIME_PREFIXES) {
+        if (mime.startsWith(prefix)) {
+          return true;
+        }
+      }
+    }
+    // unknown type, text has no NUL bytes
+    for (int i = 0; i < Math.min(head.length, SNIFF_SIZE); i++) {
+      if (head[i] == 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * The whole body if it fits the preview size, else its beginning; empty if binary.
+   */
+  @NotNull
+  public String getText() {
+    return text;
+  }
+
+  /**
+   * Reads the whole body, from the temporary file if it did not fit in memory; only the
+   * preview while the rest is being read.
+   */
+  @NotNull
+  public Reader openReader() throws IOException {
+    return file != null && completed == null
+      ? new InputStreamReader(Files.newInputStream(file), charset)
+      : new StringReader(text);
+  }
+
+  /**
+   * In bytes, those read so far while the rest is being read.
+   */
+  public long getSize() {
+    return size;
+  }
+
+  @Nullable
+  public String getMimeType() {
+    return mimeType;
+  }
+
+  public boolean isBinary() {
+    return binary;
+  }
+
+  /**
+   * Temporary file holding the whole body, null if it fits the preview size. Still being
+   * written while the rest of the body is read; deleted here if that fails or is
+   * cancelled, otherwise by the caller once the response is no longer needed.
+   */
+  @Nullable
+  public Path getFile() {
+    return file;
+  }
+
+  /**
+   * Whether {@link #getText()} is only the beginning of the body.
+   */
+  public boolean isTruncated() {
+    return file != null;
+  }
+
+  /**
+   * Whether the whole body is read, else this is its preview.
+   */
+  public boolean isComplete() {
+    return completed == null;
+  }
+
+  /**
+   * The whole body once read, this one if it is. Cancel it or complete it exceptionally
+   * to stop reading; the temporary file is then deleted, as on failure.
+   */
+  @NotNull
+  public CompletableFuture<ResponseBody> getCompleted() {
+    return completed != null ? completed : CompletableFuture.completedFuture(this);
+  }
+
+  /**
+   * From the first to the last byte read of the body.
+   */
+  public double getDownloadMs() {
+    return downloadMs;
+  }
+
+  /**
+   * @return 0 if the body came at once
+   */
+  public double getBytesPerSecond() {
+    return downloadMs > 1 ? size * 1000d / downloadMs : 0;
+  }
+}
@@ -0,0 +1,229 @@
+package jiux.net.plugin.restful.http;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.util.text.StringUtil;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Text shown for a response body. JSON is pretty-printed token by token while it is read,
+ * and only up to {@link ResponseBody#getPreviewSize()} characters, so the body is never
+ * parsed into a tree nor held whole in memory.
+ */
+public final class ResponseFormatter {
+
+  private static final int CANCEL_CHECK_INTERVAL = 4096;
+
+  private ResponseFormatter() {}
+
+  public static boolean isJson(@NotNull ResponseBody body) {
+    if (body.isBinary()) {
+      return false;
+    }
+    String mimeType = body.getMimeType();
+    if (mimeType != null && mimeType.toLowerCase().contains("json")) {
+      return true;
+    }
+    String text = body.getText();
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (!Character.isWhitespace(c)) {
+        return c == '{' || c == '[';
+      }
+    }
+    return false;
+  }
+
+  /**
+   * The body as it is if it is not JSON or is malformed, with a note when it is not shown
+   * whole. Only the preview is formatted while the rest is being read.
+   */
+  @NotNull
+  public static String format(@NotNull ResponseBody body) {
+    return format(body, ResponseBody.getPreviewSize());
+  }
+
+  /**
+   * @param limit of the characters of formatted JSON
+   */
+  @NotNull
+  static String format(@NotNull ResponseBody body, int limit) {
+    if (body.isBinary()) {
+      if (!body.isComplete()) {
+        return (
+          "Binary response, " +
+          StringUtil.notNullize(body.getMimeType(), "unknown type") +
+          "\nDownloading to " +
+          body.getFile()
+        );
+      }
+      return (
+        "Binary response, " +
+        StringUtil.notNullize(body.getMimeType(), "unknown type") +
+        ", " +
+        StringUtil.formatFileSize(body.getSize()) +
+        (body.getFile() != null ? "\nSaved to " + body.getFile() : "")
+      );
+    }
+    String text = null;
+    boolean truncated = body.isTruncated();
+    if (isJson(body)) {
+      LimitedWriter out = new LimitedWriter(limit);
+      if (prettyPrint(body, out)) {
+        text = out.toString();
+        truncated = out.isLimitReached();
+      }
+    }
+    if (text == null) {
+      text = body.getText();
+    }
+    if (!truncated) {
+      return text;
+    }
+    if (!body.isComplete()) {
+      return (
+        text +
+        "\n\n... Showing the beginning, the rest is being downloaded to " +
+        body.getFile()
+      );
+    }
+    return (
+      text +
+      "\n\n... Showing the beginning of " +
+      StringUtil.formatFileSize(body.getSize()) +
+      (body.getFile() != null ? ", the whole response is in " + body.getFile() : "")
+    );
+  }
+
+  /**
+   * @return false if the body is not well-formed JSON
+   */
+  private static boolean prettyPrint(ResponseBody body, LimitedWriter out) {
+    try (Reader in = body.openReader()) {
+      JsonReader reader = new JsonReader(in);
+      reader.setLenient(true);
+      JsonWriter writer = new JsonWriter(out);
+      writer.setLenient(true);
+      writer.setIndent("  ");
+      copy(reader, writer);
+      writer.flush();
+      return true;
+    } catch (LimitReachedException e) {
+      return true;
+    } catch (IOException | IllegalStateException | NumberFormatException e) {
+      return false;
+    }
+  }
+
+  private static void copy(JsonReader reader, JsonWriter writer) throws IOException {
+    int depth = 0;
+    int tokens = 0;
+    do {
+      if (++tokens % CANCEL_CHECK_INTERVAL == 0) {
+        ProgressManager.checkCanceled();
+      }
+      JsonToken token = reader.peek();
+      switch (token) {
+        case BEGIN_ARRAY:
+          reader.beginArray();
+          writer.beginArray();
+          depth++;
+          break;
+        case END_ARRAY:
+          reader.endArray();
+          writer.endArray();
+          depth--;
+          break;
+        case BEGIN_OBJECT:
+          reader.beginObject();
+          writer.beginObject();
+          depth++;
+          break;
+        case END_OBJECT:
+          reader.endObject();
+          writer.endObject();
+          depth--;
+          break;
+        case NAME:
+          writer.name(reader.nextName());
+          break;
+        case STRING:
+          writer.value(reader.nextString());
+          break;
+        case NUMBER:
+          // as written, a double would lose digits of long ids
+          writer.jsonValue(reader.nextString());
+          break;
+        case BOOLEAN:
+          writer.value(reader.nextBoolean());
+          break;
+        case NULL:
+          reader.nextNull();
+          writer.nullValue();
+          break;
+        case END_DOCUMENT:
+          return;
+        default:
+          throw new IllegalStateException("Unexpected " + token);
+      }
+    } while (depth > 0);
+  }
+
+  static final class LimitReachedException extends IOException {}
+
+  /**
+   * Collects the text, and stops the pretty-printing once it is long enough.
+   */
+  static final class LimitedWriter extends Writer {
+
+    private final StringBuilder myText = new StringBuilder();
+    private final int myLimit;
+    private boolean myLimitReached;
+
+    LimitedWriter(int limit) {
+      myLimit = limit;
+    }
+
+    @Override
+    public void write(char[] chars, int off, int len) throws IOException {
+      int room = myLimit - myText.length();
+      if (len > room) {
+        myText.append(chars, off, room);
+        myLimitReached = true;
+        throw new LimitReachedException();
+      }
+      myText.append(chars, off, len);
+    }
+
+    @Override
+    public void write(@NotNull String str, int off, int len) throws IOException {
+      int room = myLimit - myText.length();
+      if (len > room) {
+        myText.append(str, off, off + room);
+        myLimitReached = true;
+        throw new LimitReachedException();
+      }
+      myText.append(str, off, off + len);
+    }
+
+    boolean isLimitReached() {
+      return myLimitReached;
+    }
+
+    @Override
+    public void flush() {}
+
+    @Override
+    public void close() {}
+
+    @Override
+    public String toString() {
+      return myText.toString();
+    }
+  }
+}
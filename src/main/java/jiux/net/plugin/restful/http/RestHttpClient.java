@@ -0,0 +1,342 @@
+package jiux.net.plugin.restful.http;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.util.registry.Registry;
+import com.intellij.openapi.util.registry.RegistryValue;
+import com.intellij.openapi.util.registry.RegistryValueListener;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import javax.net.ssl.SSLContext;
+import org.apache.http.Header;
+import org.apache.http.HttpConnection;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.ssl.NoopHostnameVerifier;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.conn.ssl.TrustSelfSignedStrategy;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.ssl.SSLContextBuilder;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * One HTTP client for the whole IDE, so that requests to the same host reuse kept alive
+ * connections instead of paying a TCP and TLS handshake each. Self signed certificates
+ * are trusted, the services called are usually local ones.
+ * <p>
+ * Pool sizes are registry keys, see plugin.xml, and apply immediately; idle connections
+ * are closed in the background, and the pool is shut down with the plugin.
+ * <p>
+ * {@link #executeAsync} runs several requests at once; a request that is cancelled or
+ * exceeds its total timeout is aborted, which closes its socket. The total timeout starts
+ * once the request leaves the queue and ends with the whole body.
+ */
+@Service
+public final class RestHttpClient implements Disposable {
+
+  private static final Logger LOG = Logger.getInstance(RestHttpClient.class);
+
+  static final String MAX_CONNECTIONS_KEY = "restful.toolkit.http.max.connections";
+  static final String MAX_CONNECTIONS_PER_ROUTE_KEY =
+    "restful.toolkit.http.max.connections.per.route";
+  static final String IDLE_TIMEOUT_KEY = "restful.toolkit.http.idle.timeout.seconds";
+  private static final int MAX_REQUESTS_IN_FLIGHT = 16;
+  static final int MAX_DOWNLOADS = 16;
+  private static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+  private final PoolingHttpClientConnectionManager myConnectionManager;
+  private final CloseableHttpClient myClient;
+  private final ExecutorService myExecutor =
+    AppExecutorUtil.createBoundedApplicationPoolExecutor(
+      "RestServices Requests",
+      MAX_REQUESTS_IN_FLIGHT
+    );
+  /**
+   * Reads the rest of the large bodies, so that slow downloads do not hold back the next
+   * requests.
+   */
+  private final ExecutorService myDownloadExecutor =
+    AppExecutorUtil.createBoundedApplicationPoolExecutor(
+      "RestServices Downloads",
+      MAX_DOWNLOADS
+    );
+
+  public RestHttpClient() {
+    myConnectionManager = createConnectionManager();
+    applyPoolSizes();
+
+    RegistryValueListener listener = new RegistryValueListener() {
+      @Override
+      public void afterValueChanged(@NotNull RegistryValue value) {
+        applyPoolSizes();
+      }
+    };
+    Registry.get(MAX_CONNECTIONS_KEY).addListener(listener, this);
+    Registry.get(MAX_CONNECTIONS_PER_ROUTE_KEY).addListener(listener, this);
+
+    myClient =
+      HttpClients
+        .custom()
+        .setConnectionManager(myConnectionManager)
+        .setRequestExecutor(new PhaseRecorder.RequestExecutor())
+        .evictExpiredConnections()
+        .evictIdleConnections(Registry.intValue(IDLE_TIMEOUT_KEY), TimeUnit.SECONDS)
+        .build();
+  }
+
+  public static RestHttpClient getInstance() {
+    return ApplicationManager.getApplication().getService(RestHttpClient.class);
+  }
+
+  /**
+   * A client with a pool of its own, so that a load test neither waits for nor starves
+   * the connections of the tool window. The caller closes it.
+   *
+   * @param maxConnections to all hosts and to each
+   */
+  @NotNull
+  public static CloseableHttpClient createDedicatedClient(int maxConnections) {
+    PoolingHttpClientConnectionManager connectionManager = createConnectionManager();
+    connectionManager.setMaxTotal(maxConnections);
+    connectionManager.setDefaultMaxPerRoute(maxConnections);
+    return HttpClients.custom().setConnectionManager(connectionManager).build();
+  }
+
+  private static PoolingHttpClientConnectionManager createConnectionManager() {
+    SSLConnectionSocketFactory sslSocketFactory = new PhaseRecorder.SslSocketFactory(
+      createSslContext(),
+      NoopHostnameVerifier.INSTANCE
+    );
+    return new PoolingHttpClientConnectionManager(
+      RegistryBuilder
+        .<ConnectionSocketFactory>create()
+        .register("http", new PhaseRecorder.PlainSocketFactory())
+        .register("https", sslSocketFactory)
+        .build(),
+      new PhaseRecorder.Dns()
+    );
+  }
+
+  static SSLContext createSslContext() {
+    try {
+      return new SSLContextBuilder()
+        .loadTrustMaterial(null, new TrustSelfSignedStrategy())
+        .build();
+    } catch (Exception e) {
+      throw new IllegalStateException("Cannot create the SSL context", e);
+    }
+  }
+
+  private void applyPoolSizes() {
+    myConnectionManager.setMaxTotal(Registry.intValue(MAX_CONNECTIONS_KEY));
+    myConnectionManager.setDefaultMaxPerRoute(
+      Registry.intValue(MAX_CONNECTIONS_PER_ROUTE_KEY)
+    );
+  }
+
+  /**
+   * Sends the request in the background.
+   *
+   * @return cancel it to abort the request; completes exceptionally with a
+   * {@link TimeoutException} if the response headers are not read within the total
+   * timeout, or with the {@link IOException} of the request; completes with the preview
+   * of a large body, see {@link HttpResult#getCompleted()}, whose rest must be read
+   * within the total timeout too
+   */
+  @NotNull
+  public CompletableFuture<HttpResult> executeAsync(
+    @NotNull HttpRequestBase request,
+    @NotNull RequestTimeouts timeouts
+  ) {
+    request.setConfig(timeouts.toRequestConfig());
+    CompletableFuture<HttpResult> future = new CompletableFuture<>();
+    myExecutor.execute(() -> {
+      if (future.isDone()) {
+        return;
+      }
+      // not counting the wait for a free thread
+      failAfterTotalTimeout(future, timeouts);
+      try {
+        HttpResult result = execute(request);
+        if (!future.complete(result)) {
+          // cancelled meanwhile
+          result.getCompleted().cancel(true);
+        }
+      } catch (Throwable e) {
+        future.completeExceptionally(e);
+      }
+    });
+
+    future.whenComplete((result, error) -> {
+      if (error != null) {
+        // cancelled or timed out, unblocks the thread reading the socket
+        request.abort();
+      }
+    });
+    return future;
+  }
+
+  /**
+   * Once the total timeout is over, completes the future with a {@link TimeoutException},
+   * or if it already has a result whose body is still being read, completes the body
+   * with it, which stops reading, see {@link ResponseBody#getCompleted()}.
+   */
+  static void failAfterTotalTimeout(
+    @NotNull CompletableFuture<HttpResult> future,
+    @NotNull RequestTimeouts timeouts
+  ) {
+    int totalMs = timeouts.getTotalMs();
+    if (totalMs <= 0) {
+      return;
+    }
+    ScheduledFuture<?> deadline = AppExecutorUtil
+      .getAppScheduledExecutorService()
+      .schedule(
+        () -> {
+          if (
+            future.completeExceptionally(
+              new TimeoutException("No response within " + totalMs + " ms")
+            ) ||
+            future.isCompletedExceptionally()
+          ) {
+            return;
+          }
+          future
+            .join()
+            .getResponseBody()
+            .getCompleted()
+            .completeExceptionally(
+              new TimeoutException("Response not complete within " + totalMs + " ms")
+            );
+        },
+        totalMs,
+        TimeUnit.MILLISECONDS
+      );
+    future.whenComplete((result, error) -> {
+      if (error != null) {
+        deadline.cancel(false);
+      } else {
+        result.getCompleted().whenComplete((whole, wholeError) -> deadline.cancel(false));
+      }
+    });
+  }
+
+  /**
+   * Sends the request and reads the body, the connection then goes back to the pool. A
+   * large body is streamed to a temporary file, see {@link ResponseBody}, and the result
+   * is returned once its preview is read. The phases of the request are timed, see
+   * {@link RequestTiming}.
+   */
+  @NotNull
+  private HttpResult execute(@NotNull HttpUriRequest request) throws IOException {
+    HttpClientContext context = HttpClientContext.create();
+    PhaseRecorder recorder = new PhaseRecorder();
+    recorder.attach(context);
+    long start = System.nanoTime();
+    CloseableHttpResponse response;
+    try {
+      response = myClient.execute(request, context);
+    } finally {
+      recorder.detach();
+    }
+    try {
+      // read before the body, which releases the connection
+      boolean reused = isReused(context);
+      List<String> headers = new ArrayList<>();
+      for (Header header : response.getHeaders(SERVER_TIMING_HEADER)) {
+        headers.add(header.getValue());
+      }
+      List<ServerTiming> serverTimings = ServerTiming.parse(headers);
+      int statusCode = response.getStatusLine().getStatusCode();
+      String protocol = response.getProtocolVersion().toString();
+      HttpEntity entity = response.getEntity();
+      ResponseBody body = entity != null
+        ? ResponseBody.read(entity, myDownloadExecutor)
+        : ResponseBody.ofText("");
+      body
+        .getCompleted()
+        .whenComplete((whole, error) -> {
+          if (error != null) {
+            // failed or cancelled, unblocks the thread reading the rest
+            request.abort();
+          }
+          closeQuietly(response);
+        });
+      long end = System.nanoTime();
+      return new HttpResult(
+        statusCode,
+        protocol,
+        body,
+        reused,
+        (end - start) / 1_000_000d,
+        recorder.toTiming(end, serverTimings),
+        HttpResult.completing(
+          body,
+          whole -> {
+            long wholeEnd = System.nanoTime();
+            return new HttpResult(
+              statusCode,
+              protocol,
+              whole,
+              reused,
+              (wholeEnd - start) / 1_000_000d,
+              recorder.toTiming(wholeEnd, serverTimings)
+            );
+          }
+        )
+      );
+    } catch (IOException | RuntimeException e) {
+      closeQuietly(response);
+      throw e;
+    }
+  }
+
+  private static void closeQuietly(CloseableHttpResponse response) {
+    try {
+      response.close();
+    } catch (IOException e) {
+      LOG.debug(e);
+    }
+  }
+
+  private static boolean isReused(HttpClientContext context) {
+    HttpConnection connection = context.getConnection();
+    if (connection == null) {
+      return false;
+    }
+    try {
+      // the request just sent counts too
+      return connection.getMetrics().getRequestCount() > 1;
+    } catch (RuntimeException e) {
+      // already released, e.g. a response without body
+      return false;
+    }
+  }
+
+  @Override
+  public void dispose() {
+    myExecutor.shutdownNow();
+    myDownloadExecutor.shutdownNow();
+    try {
+      myClient.close();
+    } catch (IOException e) {
+      LOG.warn(e);
+    }
+  }
+}
@@ -0,0 +1,127 @@
+package jiux.net.plugin.restful.http;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A metric of a {@code Server-Timing} response header, e.g.
+ * {@code db;dur=53;desc="Query"}, in which a service reports where it spent its time.
+ */
+public final class ServerTiming {
+
+  private final String name;
+  private final double durationMs;
+  private final String description;
+
+  ServerTiming(String name, double durationMs, String description) {
+    this.name = name;
+    this.durationMs = durationMs;
+    this.description = description;
+  }
+
+  /**
+   * @param values of all the {@code Server-Timing} headers, in order
+   * @return the metrics with a name, malformed parameters skipped
+   */
+  @NotNull
+  public static List<ServerTiming> parse(@NotNull List<String> values) {
+    List<ServerTiming> timings = new ArrayList<>();
+    for (String value : values) {
+      for (String metric : split(value, ',')) {
+        ServerTiming timing = parseMetric(metric);
+        if (timing != null) {
+          timings.add(timing);
+        }
+      }
+    }
+    return timings;
+  }
+
+  @Nullable
+  private static ServerTiming parseMetric(String metric) {
+    List<String> parts = split(metric, ';');
+    String name = parts.isEmpty() ? "" : parts.get(0).trim();
+    if (name.isEmpty()) {
+      return null;
+    }
+    double duration = Double.NaN;
+    String description = "";
+    for (String param : parts.subList(1, parts.size())) {
+      int equals = param.indexOf('=');
+      if (equals < 0) {
+        continue;
+      }
+      String key = param.substring(0, equals).trim();
+      String value = unquote(param.substring(equals + 1).trim());
+      if (key.equalsIgnoreCase("dur") && Double.isNaN(duration)) {
+        try {
+          duration = Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+          // no duration
+        }
+      } else if (key.equalsIgnoreCase("desc") && description.isEmpty()) {
+        description = value;
+      }
+    }
+    return new ServerTiming(name, duration, description);
+  }
+
+  /**
+   * Splits at the separators out of quoted strings.
+   */
+  private static List<String> split(String text, char separator) {
+    List<String> parts = new ArrayList<>();
+    boolean quoted = false;
+    int from = 0;
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (c == '\\' && quoted) {
+        i++;
+      } else if (c == '"') {
+        quoted = !quoted;
+      } else if (c == separator && !quoted) {
+        parts.add(text.substring(from, i));
+        from = i + 1;
+      }
+    }
+    parts.add(text.substring(from));
+    return parts;
+  }
+
+  private static String unquote(String value) {
+    if (value.length() < 2 || value.charAt(0) != '"') {
+      return value;
+    }
+    StringBuilder sb = new StringBuilder();
+    for (int i = 1; i < value.length() - 1; i++) {
+      char c = value.charAt(i);
+      if (c == '\\' && i + 1 < value.length() - 1) {
+        c = value.charAt(++i);
+      }
+      sb.append(c);
+    }
+    return sb.toString();
+  }
+
+  @NotNull
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * NaN if the metric has no duration.
+   */
+  public double getDurationMs() {
+    return durationMs;
+  }
+
+  /**
+   * Empty if the metric has none.
+   */
+  @NotNull
+  public String getDescription() {
+    return description;
+  }
+}
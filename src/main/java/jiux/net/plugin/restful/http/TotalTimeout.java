@@ -0,0 +1,75 @@
+package jiux.net.plugin.restful.http;
+
+import com.intellij.util.concurrency.AppExecutorUtil;
+import java.io.IOException;
+import java.net.http.HttpTimeoutException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Total timeout of a request sent by an {@link HttpSession}, which blocks the sending
+ * thread: once the time is over, aborts whatever the request is waiting for, its
+ * connection, headers or body.
+ */
+final class TotalTimeout implements AutoCloseable {
+
+  private final int myTotalMs;
+  private final long myStart = System.nanoTime();
+  private ScheduledFuture<?> myAbort;
+  private volatile boolean myExpired;
+
+  TotalTimeout(@NotNull RequestTimeouts timeouts) {
+    myTotalMs = timeouts.getTotalMs();
+  }
+
+  /**
+   * Runs the abort once the time is over, instead of the one given before.
+   */
+  void abortWith(@NotNull Runnable abort) {
+    if (myTotalMs <= 0) {
+      return;
+    }
+    close();
+    long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - myStart);
+    myAbort =
+      AppExecutorUtil
+        .getAppScheduledExecutorService()
+        .schedule(
+          () -> {
+            myExpired = true;
+            abort.run();
+          },
+          Math.max(0, myTotalMs - elapsedMs),
+          TimeUnit.MILLISECONDS
+        );
+  }
+
+  boolean isExpired() {
+    return myExpired;
+  }
+
+  /**
+   * @return a {@link HttpTimeoutException} caused by the failure if the request was
+   *     aborted by the timeout, else the failure
+   */
+  @NotNull
+  IOException explain(@NotNull IOException failure) {
+    if (!myExpired) {
+      return failure;
+    }
+    IOException timeout = new HttpTimeoutException(
+      "No complete response within " + myTotalMs + " ms"
+    );
+    timeout.initCause(failure);
+    return timeout;
+  }
+
+  @Override
+  public void close() {
+    if (myAbort != null) {
+      myAbort.cancel(false);
+      myAbort = null;
+    }
+  }
+}
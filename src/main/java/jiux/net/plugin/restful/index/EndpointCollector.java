@@ -0,0 +1,64 @@
+package jiux.net.plugin.restful.index;
+
+import com.intellij.psi.PsiElement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import jiux.net.plugin.restful.common.resolver.ServiceResolveContext;
+import jiux.net.plugin.restful.common.resolver.ServiceResolver;
+import jiux.net.plugin.restful.diagnostics.IndexingStats;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Turns the endpoints reported by resolvers into index records, keyed by resolver id.
+ */
+abstract class EndpointCollector implements ServiceResolveContext {
+
+  private final Map<String, List<RestEndpointRecord>> myResult;
+  private ServiceResolver myResolver;
+
+  EndpointCollector(@NotNull Map<String, List<RestEndpointRecord>> result) {
+    myResult = result;
+  }
+
+  void setResolver(@NotNull ServiceResolver resolver) {
+    myResolver = resolver;
+  }
+
+  @Override
+  public void addEndpoint(
+    @Nullable String method,
+    @NotNull String classPath,
+    @NotNull String methodPath,
+    @NotNull PsiElement handler,
+    int flags
+  ) {
+    String framework = myResolver.getId();
+    RestEndpointRecord record = createRecord(
+      framework,
+      method,
+      classPath,
+      methodPath,
+      handler,
+      flags
+    );
+    if (record != null) {
+      myResult.computeIfAbsent(framework, k -> new ArrayList<>()).add(record);
+      IndexingStats.recordEndpoint(framework);
+    }
+  }
+
+  /**
+   * @return null if the handler is not a method of a named class of this language
+   */
+  @Nullable
+  abstract RestEndpointRecord createRecord(
+    String framework,
+    String method,
+    String classPath,
+    String methodPath,
+    PsiElement handler,
+    int flags
+  );
+}
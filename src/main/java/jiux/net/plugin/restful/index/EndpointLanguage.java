@@ -0,0 +1,41 @@
+package jiux.net.plugin.restful.index;
+
+import com.intellij.openapi.extensions.ExtensionPointName;
+import com.intellij.openapi.fileTypes.FileType;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import java.util.List;
+import java.util.Map;
+import jiux.net.plugin.restful.common.resolver.ServiceResolver;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Language besides Java whose files {@link RestEndpointIndex} reads. Implementations are
+ * registered through the {@code jiux.net.plugin.restful.toolkit.endpointLanguage}
+ * extension point from the optional config of the plugin supporting the language, so
+ * its classes are only loaded when that plugin is enabled.
+ */
+public interface EndpointLanguage {
+  ExtensionPointName<EndpointLanguage> EP_NAME = ExtensionPointName.create(
+    "jiux.net.plugin.restful.toolkit.endpointLanguage"
+  );
+
+  @NotNull
+  FileType getFileType();
+
+  /**
+   * Hands every class of the file to the resolvers and adds the endpoints they report.
+   */
+  void collect(
+    @NotNull PsiFile psiFile,
+    @NotNull Map<String, List<RestEndpointRecord>> result,
+    @NotNull List<ServiceResolver> resolvers
+  );
+
+  /**
+   * @see RestEndpointIndex#findHandler(PsiFile, RestEndpointRecord)
+   */
+  @Nullable
+  PsiElement findHandler(@NotNull PsiFile psiFile, @NotNull RestEndpointRecord record);
+}
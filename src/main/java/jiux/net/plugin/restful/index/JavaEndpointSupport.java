@@ -0,0 +1,179 @@
+package jiux.net.plugin.restful.index;
+
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.PsiAnnotation;
+import com.intellij.psi.PsiClass;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiImportList;
+import com.intellij.psi.PsiImportStatement;
+import com.intellij.psi.PsiJavaCodeReferenceElement;
+import com.intellij.psi.PsiJavaFile;
+import com.intellij.psi.PsiMethod;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import jiux.net.plugin.restful.common.resolver.ServiceResolver;
+import jiux.net.plugin.restful.diagnostics.IndexingStats;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Walks the classes of a Java file once and hands each of them to every resolver. Nothing
+ * is resolved: annotation names are matched against the file's imports instead of
+ * {@link PsiAnnotation#getQualifiedName()}.
+ */
+class JavaEndpointSupport extends EndpointCollector {
+
+  private final PsiJavaFile myFile;
+  private final Map<String, String> mySingleImports = new HashMap<>();
+  private final Set<String> myOnDemandImports = new HashSet<>();
+
+  JavaEndpointSupport(
+    @NotNull PsiJavaFile file,
+    @NotNull Map<String, List<RestEndpointRecord>> result
+  ) {
+    super(result);
+    myFile = file;
+
+    PsiImportList importList = file.getImportList();
+    if (importList != null) {
+      for (PsiImportStatement statement : importList.getImportStatements()) {
+        PsiJavaCodeReferenceElement reference = statement.getImportReference();
+        if (reference == null) {
+          continue;
+        }
+        String name = reference.getText();
+        if (statement.isOnDemand()) {
+          myOnDemandImports.add(name);
+        } else {
+          mySingleImports.put(StringUtil.getShortName(name), name);
+        }
+      }
+    }
+  }
+
+  void collect(@NotNull List<ServiceResolver> resolvers) {
+    for (PsiClass psiClass : myFile.getClasses()) {
+      visitClass(psiClass, resolvers);
+    }
+  }
+
+  private void visitClass(PsiClass psiClass, List<ServiceResolver> resolvers) {
+    if (psiClass.getQualifiedName() != null) {
+      for (ServiceResolver resolver : resolvers) {
+        setResolver(resolver);
+        long start = System.nanoTime();
+        resolver.resolve(psiClass, this);
+        IndexingStats.recordResolve(resolver.getId(), System.nanoTime() - start);
+      }
+    }
+
+    for (PsiClass innerClass : psiClass.getInnerClasses()) {
+      visitClass(innerClass, resolvers);
+    }
+  }
+
+  @Override
+  public boolean isAnnotation(
+    @NotNull PsiAnnotation annotation,
+    @NotNull String qualifiedName
+  ) {
+    PsiJavaCodeReferenceElement reference = annotation.getNameReferenceElement();
+    if (reference == null) {
+      return false;
+    }
+
+    String text = reference.getText();
+    if (text.indexOf('.') >= 0) {
+      return text.equals(qualifiedName);
+    }
+    if (!text.equals(StringUtil.getShortName(qualifiedName))) {
+      return false;
+    }
+
+    String imported = mySingleImports.get(text);
+    if (imported != null) {
+      return imported.equals(qualifiedName);
+    }
+
+    String packageName = StringUtil.getPackageName(qualifiedName);
+    return (
+      myOnDemandImports.contains(packageName) ||
+      packageName.equals(myFile.getPackageName())
+    );
+  }
+
+  @Nullable
+  @Override
+  RestEndpointRecord createRecord(
+    String framework,
+    String method,
+    String classPath,
+    String methodPath,
+    PsiElement handler,
+    int flags
+  ) {
+    if (!(handler instanceof PsiMethod)) {
+      return null;
+    }
+    PsiMethod psiMethod = (PsiMethod) handler;
+    PsiClass psiClass = psiMethod.getContainingClass();
+    String className = psiClass == null ? null : psiClass.getQualifiedName();
+    if (className == null) {
+      return null;
+    }
+
+    PsiMethod[] overloads = psiClass.findMethodsByName(psiMethod.getName(), false);
+    int methodIndex = 0;
+    while (methodIndex < overloads.length && overloads[methodIndex] != psiMethod) {
+      methodIndex++;
+    }
+    return new RestEndpointRecord(
+      framework,
+      method,
+      classPath,
+      methodPath,
+      className,
+      psiMethod.getName(),
+      methodIndex,
+      flags
+    );
+  }
+
+  @Nullable
+  static PsiMethod findMethod(
+    @NotNull PsiJavaFile file,
+    @NotNull RestEndpointRecord record
+  ) {
+    PsiClass psiClass = findClass(file.getClasses(), record.getClassName());
+    if (psiClass == null) {
+      return null;
+    }
+    PsiMethod[] methods = psiClass.findMethodsByName(record.getMethodName(), false);
+    return record.getMethodIndex() < methods.length
+      ? methods[record.getMethodIndex()]
+      : null;
+  }
+
+  @Nullable
+  private static PsiClass findClass(PsiClass[] classes, String qualifiedName) {
+    for (PsiClass psiClass : classes) {
+      String name = psiClass.getQualifiedName();
+      if (name == null) {
+        continue;
+      }
+      if (name.equals(qualifiedName)) {
+        return psiClass;
+      }
+      if (qualifiedName.startsWith(name + ".")) {
+        PsiClass innerClass = findClass(psiClass.getInnerClasses(), qualifiedName);
+        if (innerClass != null) {
+          return innerClass;
+        }
+      }
+    }
+    return null;
+  }
+}
@@ -0,0 +1,41 @@
+package jiux.net.plugin.restful.index;
+
+import com.intellij.openapi.fileTypes.FileType;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import java.util.List;
+import java.util.Map;
+import jiux.net.plugin.restful.common.resolver.ServiceResolver;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.kotlin.idea.KotlinFileType;
+
+/**
+ * Registered from {@code kotlin.xml}, see {@link KtEndpointSupport}.
+ */
+public class KtEndpointLanguage implements EndpointLanguage {
+
+  @NotNull
+  @Override
+  public FileType getFileType() {
+    return KotlinFileType.INSTANCE;
+  }
+
+  @Override
+  public void collect(
+    @NotNull PsiFile psiFile,
+    @NotNull Map<String, List<RestEndpointRecord>> result,
+    @NotNull List<ServiceResolver> resolvers
+  ) {
+    KtEndpointSupport.collect(psiFile, result, resolvers);
+  }
+
+  @Nullable
+  @Override
+  public PsiElement findHandler(
+    @NotNull PsiFile psiFile,
+    @NotNull RestEndpointRecord record
+  ) {
+    return KtEndpointSupport.findFunction(psiFile, record);
+  }
+}
@@ -0,0 +1,241 @@
+package jiux.net.plugin.restful.index;
+
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.PsiAnnotation;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.util.PsiTreeUtil;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import jiux.net.plugin.restful.common.resolver.ServiceResolver;
+import jiux.net.plugin.restful.diagnostics.IndexingStats;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.kotlin.asJava.elements.KtLightElement;
+import org.jetbrains.kotlin.name.FqName;
+import org.jetbrains.kotlin.psi.KtAnnotationEntry;
+import org.jetbrains.kotlin.psi.KtClassOrObject;
+import org.jetbrains.kotlin.psi.KtDeclaration;
+import org.jetbrains.kotlin.psi.KtFile;
+import org.jetbrains.kotlin.psi.KtImportDirective;
+import org.jetbrains.kotlin.psi.KtNamedFunction;
+import org.jetbrains.kotlin.psi.KtTypeReference;
+
+/**
+ * Kotlin counterpart of {@link JavaEndpointSupport}. Only used through
+ * {@link KtEndpointLanguage}, which is registered when the Kotlin plugin is enabled, so
+ * the Kotlin plugin classes are never loaded when it is absent.
+ */
+class KtEndpointSupport extends EndpointCollector {
+
+  private final KtFile myFile;
+  /**
+   * By short name or alias.
+   */
+  private final Map<String, String> mySingleImports = new HashMap<>();
+  private final Set<String> myOnDemandImports = new HashSet<>();
+
+  KtEndpointSupport(
+    @NotNull KtFile file,
+    @NotNull Map<String, List<RestEndpointRecord>> result
+  ) {
+    super(result);
+    myFile = file;
+
+    for (KtImportDirective directive : file.getImportDirectives()) {
+      FqName importedName = directive.getImportedFqName();
+      if (importedName == null) {
+        continue;
+      }
+      if (directive.isAllUnder()) {
+        myOnDemandImports.add(importedName.asString());
+      } else {
+        String alias = directive.getAliasName();
+        String name = alias != null ? alias : importedName.shortName().asString();
+        mySingleImports.put(name, importedName.asString());
+      }
+    }
+  }
+
+  static void collect(
+    @NotNull PsiFile psiFile,
+    @NotNull Map<String, List<RestEndpointRecord>> result,
+    @NotNull List<ServiceResolver> resolvers
+  ) {
+    if (psiFile instanceof KtFile) {
+      KtEndpointSupport support = new KtEndpointSupport((KtFile) psiFile, result);
+      for (KtDeclaration declaration : support.myFile.getDeclarations()) {
+        support.visitDeclaration(declaration, resolvers);
+      }
+    }
+  }
+
+  private void visitDeclaration(KtDeclaration declaration, List<ServiceResolver> resolvers) {
+    if (!(declaration instanceof KtClassOrObject)) {
+      return;
+    }
+    KtClassOrObject classOrObject = (KtClassOrObject) declaration;
+    if (classOrObject.getFqName() != null) {
+      for (ServiceResolver resolver : resolvers) {
+        setResolver(resolver);
+        long start = System.nanoTime();
+        resolver.resolveKotlin(classOrObject, this);
+        IndexingStats.recordResolve(resolver.getId(), System.nanoTime() - start);
+      }
+    }
+    for (KtDeclaration nested : classOrObject.getDeclarations()) {
+      visitDeclaration(nested, resolvers);
+    }
+  }
+
+  /**
+   * Matches the light annotation of a Kotlin annotation entry against the file's imports,
+   * like {@link JavaEndpointSupport#isAnnotation} does for Java.
+   */
+  @Override
+  public boolean isAnnotation(
+    @NotNull PsiAnnotation annotation,
+    @NotNull String qualifiedName
+  ) {
+    if (!(annotation instanceof KtLightElement)) {
+      return false;
+    }
+    Object origin = ((KtLightElement<?, ?>) annotation).getKotlinOrigin();
+    return (
+      origin instanceof KtAnnotationEntry &&
+      isAnnotationEntry((KtAnnotationEntry) origin, qualifiedName)
+    );
+  }
+
+  boolean isAnnotationEntry(
+    @NotNull KtAnnotationEntry entry,
+    @NotNull String qualifiedName
+  ) {
+    KtTypeReference typeReference = entry.getTypeReference();
+    if (typeReference == null) {
+      return false;
+    }
+
+    String text = typeReference.getText();
+    if (text.indexOf('.') >= 0) {
+      return text.equals(qualifiedName);
+    }
+
+    String imported = mySingleImports.get(text);
+    if (imported != null) {
+      return imported.equals(qualifiedName);
+    }
+    if (!text.equals(StringUtil.getShortName(qualifiedName))) {
+      return false;
+    }
+
+    String packageName = StringUtil.getPackageName(qualifiedName);
+    return (
+      myOnDemandImports.contains(packageName) ||
+      packageName.equals(myFile.getPackageFqName().asString())
+    );
+  }
+
+  @Nullable
+  @Override
+  RestEndpointRecord createRecord(
+    String framework,
+    String method,
+    String classPath,
+    String methodPath,
+    PsiElement function,
+    int flags
+  ) {
+    if (!(function instanceof KtNamedFunction) || function.getName() == null) {
+      return null;
+    }
+    KtClassOrObject ktClass = PsiTreeUtil.getParentOfType(function, KtClassOrObject.class);
+    FqName fqName = ktClass == null ? null : ktClass.getFqName();
+    if (fqName == null) {
+      return null;
+    }
+
+    int methodIndex = 0;
+    for (KtDeclaration declaration : ktClass.getDeclarations()) {
+      if (declaration == function) {
+        break;
+      }
+      if (
+        declaration instanceof KtNamedFunction &&
+        function.getName().equals(declaration.getName())
+      ) {
+        methodIndex++;
+      }
+    }
+    return new RestEndpointRecord(
+      framework,
+      method,
+      classPath,
+      methodPath,
+      fqName.asString(),
+      function.getName(),
+      methodIndex,
+      flags
+    );
+  }
+
+  @Nullable
+  static KtNamedFunction findFunction(
+    @NotNull PsiFile psiFile,
+    @NotNull RestEndpointRecord record
+  ) {
+    if (!(psiFile instanceof KtFile)) {
+      return null;
+    }
+    KtClassOrObject ktClass = findClass(
+      ((KtFile) psiFile).getDeclarations(),
+      record.getClassName()
+    );
+    if (ktClass == null) {
+      return null;
+    }
+
+    int index = 0;
+    for (KtDeclaration declaration : ktClass.getDeclarations()) {
+      if (
+        declaration instanceof KtNamedFunction &&
+        record.getMethodName().equals(declaration.getName()) &&
+        index++ == record.getMethodIndex()
+      ) {
+        return (KtNamedFunction) declaration;
+      }
+    }
+    return null;
+  }
+
+  @Nullable
+  private static KtClassOrObject findClass(
+    List<KtDeclaration> declarations,
+    String qualifiedName
+  ) {
+    for (KtDeclaration declaration : declarations) {
+      if (!(declaration instanceof KtClassOrObject)) {
+        continue;
+      }
+      KtClassOrObject classOrObject = (KtClassOrObject) declaration;
+      FqName fqName = classOrObject.getFqName();
+      if (fqName == null) {
+        continue;
+      }
+      String name = fqName.asString();
+      if (name.equals(qualifiedName)) {
+        return classOrObject;
+      }
+      if (qualifiedName.startsWith(name + ".")) {
+        KtClassOrObject nested = findClass(classOrObject.getDeclarations(), qualifiedName);
+        if (nested != null) {
+          return nested;
+        }
+      }
+    }
+    return null;
+  }
+}
@@ -0,0 +1,150 @@
+package jiux.net.plugin.restful.index;
+
+import com.intellij.ide.highlighter.JavaFileType;
+import com.intellij.openapi.fileTypes.FileType;
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiJavaFile;
+import com.intellij.util.indexing.DataIndexer;
+import com.intellij.util.indexing.FileBasedIndex;
+import com.intellij.util.indexing.FileBasedIndexExtension;
+import com.intellij.util.indexing.FileContent;
+import com.intellij.util.indexing.ID;
+import com.intellij.util.io.DataExternalizer;
+import com.intellij.util.io.DataInputOutputUtil;
+import com.intellij.util.io.EnumeratorStringDescriptor;
+import com.intellij.util.io.KeyDescriptor;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import jiux.net.plugin.restful.common.resolver.ServiceResolver;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Per-file index of REST endpoints, keyed by {@link ServiceResolver#getId()}.
+ * <p>
+ * Endpoint records are extracted once at indexing time, so refreshing the navigator only
+ * reads the index instead of walking every controller.
+ */
+public class RestEndpointIndex
+  extends FileBasedIndexExtension<String, List<RestEndpointRecord>> {
+
+  public static final ID<String, List<RestEndpointRecord>> NAME = ID.create(
+    "jiux.net.plugin.restful.RestEndpointIndex"
+  );
+
+  private static final int VERSION = 4;
+
+  @NotNull
+  @Override
+  public ID<String, List<RestEndpointRecord>> getName() {
+    return NAME;
+  }
+
+  @NotNull
+  @Override
+  public DataIndexer<String, List<RestEndpointRecord>, FileContent> getIndexer() {
+    return new RestEndpointIndexer();
+  }
+
+  @NotNull
+  @Override
+  public KeyDescriptor<String> getKeyDescriptor() {
+    return EnumeratorStringDescriptor.INSTANCE;
+  }
+
+  @NotNull
+  @Override
+  public DataExternalizer<List<RestEndpointRecord>> getValueExternalizer() {
+    return new RecordListExternalizer();
+  }
+
+  /**
+   * Includes the registered resolvers and languages, so the index is rebuilt when one is
+   * added or removed.
+   */
+  @Override
+  public int getVersion() {
+    int version = VERSION;
+    for (ServiceResolver resolver : getResolvers()) {
+      version = 31 * version + resolver.getId().hashCode();
+    }
+    for (EndpointLanguage language : EndpointLanguage.EP_NAME.getExtensionList()) {
+      version = 31 * version + language.getFileType().getName().hashCode();
+    }
+    return version;
+  }
+
+  @NotNull
+  public static List<ServiceResolver> getResolvers() {
+    return ServiceResolver.EP_NAME.getExtensionList();
+  }
+
+  /**
+   * @return null for Java files and those of no registered language
+   */
+  @Nullable
+  static EndpointLanguage findLanguage(@NotNull FileType fileType) {
+    for (EndpointLanguage language : EndpointLanguage.EP_NAME.getExtensionList()) {
+      if (language.getFileType() == fileType) {
+        return language;
+      }
+    }
+    return null;
+  }
+
+  @NotNull
+  @Override
+  public FileBasedIndex.InputFilter getInputFilter() {
+    return file -> {
+      FileType fileType = file.getFileType();
+      return fileType == JavaFileType.INSTANCE || findLanguage(fileType) != null;
+    };
+  }
+
+  @Override
+  public boolean dependsOnFileContent() {
+    return true;
+  }
+
+  /**
+   * Finds the handler method (or Kotlin function) a record points to, walking stubs only.
+   */
+  @Nullable
+  public static PsiElement findHandler(
+    @NotNull PsiFile psiFile,
+    @NotNull RestEndpointRecord record
+  ) {
+    if (psiFile instanceof PsiJavaFile) {
+      return JavaEndpointSupport.findMethod((PsiJavaFile) psiFile, record);
+    }
+    EndpointLanguage language = findLanguage(psiFile.getFileType());
+    return language == null ? null : language.findHandler(psiFile, record);
+  }
+
+  private static class RecordListExternalizer
+    implements DataExternalizer<List<RestEndpointRecord>> {
+
+    @Override
+    public void save(@NotNull DataOutput out, List<RestEndpointRecord> value)
+      throws IOException {
+      DataInputOutputUtil.writeINT(out, value.size());
+      for (RestEndpointRecord record : value) {
+        record.write(out);
+      }
+    }
+
+    @Override
+    public List<RestEndpointRecord> read(@NotNull DataInput in) throws IOException {
+      int size = DataInputOutputUtil.readINT(in);
+      List<RestEndpointRecord> records = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        records.add(RestEndpointRecord.read(in));
+      }
+      return records;
+    }
+  }
+}
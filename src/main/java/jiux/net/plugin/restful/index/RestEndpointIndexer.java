@@ -0,0 +1,62 @@
+package jiux.net.plugin.restful.index;
+
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiJavaFile;
+import com.intellij.util.indexing.DataIndexer;
+import com.intellij.util.indexing.FileContent;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import jiux.net.plugin.restful.common.resolver.ServiceResolver;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Single pass over one Java file, or one of an {@link EndpointLanguage}: every class is
+ * visited once and handed to all {@link ServiceResolver} extensions. Works on the light
+ * PSI of the indexed file and never resolves references.
+ */
+class RestEndpointIndexer
+  implements DataIndexer<String, List<RestEndpointRecord>, FileContent> {
+
+  @NotNull
+  @Override
+  public Map<String, List<RestEndpointRecord>> map(@NotNull FileContent inputData) {
+    CharSequence text = inputData.getContentAsText();
+    List<ServiceResolver> resolvers = new ArrayList<>();
+    for (ServiceResolver resolver : RestEndpointIndex.getResolvers()) {
+      if (mayDeclareEndpoints(text, resolver)) {
+        resolvers.add(resolver);
+      }
+    }
+    if (resolvers.isEmpty()) {
+      return Collections.emptyMap();
+    }
+
+    Map<String, List<RestEndpointRecord>> result = new HashMap<>();
+    PsiFile psiFile = inputData.getPsiFile();
+    if (psiFile instanceof PsiJavaFile) {
+      new JavaEndpointSupport((PsiJavaFile) psiFile, result).collect(resolvers);
+    } else {
+      EndpointLanguage language = RestEndpointIndex.findLanguage(inputData.getFileType());
+      if (language != null) {
+        language.collect(psiFile, result, resolvers);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Skips resolvers whose markers do not occur in the file, before any PSI is built.
+   */
+  private static boolean mayDeclareEndpoints(CharSequence text, ServiceResolver resolver) {
+    for (String marker : resolver.getTextMarkers()) {
+      if (StringUtil.contains(text, marker)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
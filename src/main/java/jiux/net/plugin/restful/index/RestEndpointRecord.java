@@ -0,0 +1,185 @@
+package jiux.net.plugin.restful.index;
+
+import com.intellij.util.io.DataInputOutputUtil;
+import com.intellij.util.io.IOUtil;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Objects;
+import jiux.net.plugin.restful.common.resolver.ServiceResolveContext;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * One endpoint declared in a source file, as stored by {@link RestEndpointIndex}.
+ * <p>
+ * The handler is addressed by owning class FQN, method name and overload ordinal so that it
+ * can be found again through stubs without loading the file AST.
+ */
+public final class RestEndpointRecord {
+
+  private final String framework;
+  private final String method;
+  private final String classPath;
+  private final String methodPath;
+  private final String className;
+  private final String methodName;
+  private final int methodIndex;
+  private final int flags;
+
+  public RestEndpointRecord(
+    @NotNull String framework,
+    @Nullable String method,
+    @NotNull String classPath,
+    @NotNull String methodPath,
+    @NotNull String className,
+    @NotNull String methodName,
+    int methodIndex,
+    int flags
+  ) {
+    this.framework = framework;
+    this.method = method;
+    this.classPath = classPath;
+    this.methodPath = methodPath;
+    this.className = className;
+    this.methodName = methodName;
+    this.methodIndex = methodIndex;
+    this.flags = flags;
+  }
+
+  @NotNull
+  public String getFramework() {
+    return framework;
+  }
+
+  /**
+   * @return request method as written in the source (e.g. "GET", "RequestMethod.GET"), or
+   * null when the mapping accepts any method
+   */
+  @Nullable
+  public String getMethod() {
+    return method;
+  }
+
+  @NotNull
+  public String getClassPath() {
+    return classPath;
+  }
+
+  @NotNull
+  public String getMethodPath() {
+    return methodPath;
+  }
+
+  @NotNull
+  public String getClassName() {
+    return className;
+  }
+
+  @NotNull
+  public String getMethodName() {
+    return methodName;
+  }
+
+  public int getMethodIndex() {
+    return methodIndex;
+  }
+
+  /**
+   * The class carries no mapping of its own but extends another class, whose mapping can
+   * only be resolved outside of indexing.
+   */
+  public boolean isInheritClassPath() {
+    return (flags & ServiceResolveContext.INHERIT_CLASS_PATH) != 0;
+  }
+
+  /**
+   * The class path is kept as the text of a constant expression, e.g. a constant reference,
+   * which indexing cannot resolve.
+   */
+  public boolean isClassPathExpression() {
+    return (flags & ServiceResolveContext.CLASS_PATH_EXPRESSION) != 0;
+  }
+
+  /**
+   * The method path is kept as the text of a constant expression.
+   */
+  public boolean isMethodPathExpression() {
+    return (flags & ServiceResolveContext.METHOD_PATH_EXPRESSION) != 0;
+  }
+
+  void write(@NotNull DataOutput out) throws IOException {
+    IOUtil.writeUTF(out, framework);
+    out.writeBoolean(method != null);
+    if (method != null) {
+      IOUtil.writeUTF(out, method);
+    }
+    IOUtil.writeUTF(out, classPath);
+    IOUtil.writeUTF(out, methodPath);
+    IOUtil.writeUTF(out, className);
+    IOUtil.writeUTF(out, methodName);
+    DataInputOutputUtil.writeINT(out, methodIndex);
+    out.writeByte(flags);
+  }
+
+  @NotNull
+  static RestEndpointRecord read(@NotNull DataInput in) throws IOException {
+    String framework = IOUtil.readUTF(in);
+    String method = in.readBoolean() ? IOUtil.readUTF(in) : null;
+    return new RestEndpointRecord(
+      framework,
+      method,
+      IOUtil.readUTF(in),
+      IOUtil.readUTF(in),
+      IOUtil.readUTF(in),
+      IOUtil.readUTF(in),
+      DataInputOutputUtil.readINT(in),
+      in.readByte()
+    );
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    RestEndpointRecord that = (RestEndpointRecord) o;
+    return (
+      methodIndex == that.methodIndex &&
+      flags == that.flags &&
+      framework.equals(that.framework) &&
+      Objects.equals(method, that.method) &&
+      classPath.equals(that.classPath) &&
+      methodPath.equals(that.methodPath) &&
+      className.equals(that.className) &&
+      methodName.equals(that.methodName)
+    );
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(framework, method, classPath, methodPath, className, methodName);
+  }
+
+  @Override
+  public String toString() {
+    return (
+      "RestEndpointRecord{" +
+      framework +
+      " " +
+      method +
+      " " +
+      classPath +
+      " " +
+      methodPath +
+      " -> " +
+      className +
+      "#" +
+      methodName +
+      "}"
+    );
+  }
+}
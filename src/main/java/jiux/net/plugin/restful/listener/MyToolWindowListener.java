@@ -14,6 +14,11 @@ import jiux.net.plugin.restful.navigator.RestServicesNavigator;
 public class MyToolWindowListener implements ToolWindowManagerListener {
 
   private final Project project;
+  /**
+   * Only a tool window that has just been shown is refreshed, other state changes such as
+   * resizes or focus changes are ignored.
+   */
+  private boolean wasVisible;
 
   public MyToolWindowListener(Project project) {
     this.project = project;
@@ -32,7 +37,9 @@ public class MyToolWindowListener implements ToolWindowManagerListener {
       return;
     }
     boolean visible = toolWindow.isVisible();
-    if (!visible) {
+    boolean shown = visible && !wasVisible;
+    wasVisible = visible;
+    if (!shown) {
       return;
     }
     RestServicesNavigator servicesNavigator = RestServicesNavigator.getInstance(project);
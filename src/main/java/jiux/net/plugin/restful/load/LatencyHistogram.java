@@ -0,0 +1,219 @@
+package jiux.net.plugin.restful.load;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.zip.Deflater;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Latencies in microseconds, recorded from many threads without allocating. Buckets are
+ * log-linear like an HDR histogram: exact below 2048 µs, then 1024 buckets per power of
+ * two, so any value is off by less than 0.1%.
+ * <p>
+ * The buckets are those of an HdrHistogram with 3 significant digits and a lowest
+ * discernible value of 1, so {@link #encodeCompressed()} can be read by its tools.
+ */
+public final class LatencyHistogram {
+
+  private static final int SIGNIFICANT_DIGITS = 3;
+  private static final int SUB_BUCKET_BITS = 11;
+  private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+  private static final int HALF_SUB_BUCKET_COUNT = SUB_BUCKET_COUNT / 2;
+  /**
+   * Over an hour, longer latencies are recorded as this.
+   */
+  private static final long MAX_VALUE = (1L << 32) - 1;
+  private static final int BUCKET_COUNT = indexOf(MAX_VALUE) + 1;
+  private static final int ENCODING_COOKIE = 0x1c849303 | 0x10;
+  private static final int COMPRESSED_ENCODING_COOKIE = 0x1c849304 | 0x10;
+
+  private final AtomicLongArray myCounts = new AtomicLongArray(BUCKET_COUNT);
+  private final AtomicLong myMin = new AtomicLong(Long.MAX_VALUE);
+  private final AtomicLong myMax = new AtomicLong();
+  private final AtomicLong mySum = new AtomicLong();
+
+  private static int indexOf(long value) {
+    if (value < SUB_BUCKET_COUNT) {
+      return (int) value;
+    }
+    int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1);
+    return (
+      SUB_BUCKET_COUNT +
+      (shift - 1) *
+      HALF_SUB_BUCKET_COUNT +
+      (int) (value >>> shift) -
+      HALF_SUB_BUCKET_COUNT
+    );
+  }
+
+  private static long lowestValueAt(int index) {
+    if (index < SUB_BUCKET_COUNT) {
+      return index;
+    }
+    int offset = index - SUB_BUCKET_COUNT;
+    int shift = offset / HALF_SUB_BUCKET_COUNT + 1;
+    return (long) (offset % HALF_SUB_BUCKET_COUNT + HALF_SUB_BUCKET_COUNT) << shift;
+  }
+
+  private static long highestValueAt(int index) {
+    return index + 1 < BUCKET_COUNT ? lowestValueAt(index + 1) - 1 : MAX_VALUE;
+  }
+
+  public void record(long micros) {
+    long value = Math.max(0, Math.min(micros, MAX_VALUE));
+    myCounts.incrementAndGet(indexOf(value));
+    myMin.accumulateAndGet(value, Math::min);
+    myMax.accumulateAndGet(value, Math::max);
+    mySum.addAndGet(value);
+  }
+
+  public long getTotalCount() {
+    long total = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      total += myCounts.get(i);
+    }
+    return total;
+  }
+
+  /**
+   * @return 0 if nothing was recorded
+   */
+  public long getMin() {
+    long min = myMin.get();
+    return min == Long.MAX_VALUE ? 0 : min;
+  }
+
+  public long getMax() {
+    return myMax.get();
+  }
+
+  public double getMean() {
+    long total = getTotalCount();
+    return total == 0 ? 0 : (double) mySum.get() / total;
+  }
+
+  /**
+   * @param percentile from 0 to 100
+   * @return the highest value of the bucket holding the percentile, at most
+   * {@link #getMax()}
+   */
+  public long getValueAtPercentile(double percentile) {
+    long total = getTotalCount();
+    if (total == 0) {
+      return 0;
+    }
+    long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+    long seen = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      seen += myCounts.get(i);
+      if (seen >= rank) {
+        return Math.min(highestValueAt(i), getMax());
+      }
+    }
+    return getMax();
+  }
+
+  /**
+   * Percentiles from 0 to 100 getting closer to 100, as in the percentile distribution of
+   * HdrHistogram: the distance to 100 is halved every {@code ticksPerHalfDistance}
+   * levels, until a level would be finer than one recorded value.
+   */
+  @NotNull
+  public List<Double> getPercentileLevels(int ticksPerHalfDistance) {
+    long total = getTotalCount();
+    List<Double> levels = new ArrayList<>();
+    for (int tick = 0;; tick++) {
+      double remaining = Math.pow(2, -(double) tick / ticksPerHalfDistance);
+      if (total == 0 || remaining * total < 1) {
+        break;
+      }
+      levels.add(100 * (1 - remaining));
+    }
+    levels.add(100d);
+    return levels;
+  }
+
+  /**
+   * The counts in the compressed V2 encoding of HdrHistogram, as found base64 encoded in
+   * its interval logs.
+   */
+  @NotNull
+  public byte[] encodeCompressed() {
+    int countsLimit = indexOf(getMax()) + 1;
+    ByteBuffer counts = ByteBuffer.allocate(40 + countsLimit * 9);
+    counts.putInt(ENCODING_COOKIE);
+    // payload length, set below
+    counts.putInt(0);
+    // normalizing index offset
+    counts.putInt(0);
+    counts.putInt(SIGNIFICANT_DIGITS);
+    // lowest discernible and highest trackable values
+    counts.putLong(1);
+    counts.putLong(MAX_VALUE);
+    // integer to double value conversion ratio
+    counts.putDouble(1);
+    int payloadStart = counts.position();
+    for (int i = 0; i < countsLimit;) {
+      long count = myCounts.get(i++);
+      int zeros = 0;
+      if (count == 0) {
+        zeros = 1;
+        while (i < countsLimit && myCounts.get(i) == 0) {
+          zeros++;
+          i++;
+        }
+      }
+      // a run of empty buckets is written as its negated length
+      putZigZag(counts, zeros > 1 ? -zeros : count);
+    }
+    counts.putInt(4, counts.position() - payloadStart);
+
+    Deflater deflater = new Deflater();
+    deflater.setInput(counts.array(), 0, counts.position());
+    deflater.finish();
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+    byte[] buffer = new byte[4096];
+    while (!deflater.finished()) {
+      compressed.write(buffer, 0, deflater.deflate(buffer));
+    }
+    deflater.end();
+    return ByteBuffer
+      .allocate(8 + compressed.size())
+      .putInt(COMPRESSED_ENCODING_COOKIE)
+      .putInt(compressed.size())
+      .put(compressed.toByteArray())
+      .array();
+  }
+
+  /**
+   * LEB128 of the ZigZag encoded value, at most 9 bytes, the last one of 8 bits.
+   */
+  private static void putZigZag(ByteBuffer buffer, long value) {
+    value = (value << 1) ^ (value >> 63);
+    for (int shift = 0; shift < 56; shift += 7) {
+      if (value >>> (shift + 7) == 0) {
+        buffer.put((byte) (value >>> shift));
+        return;
+      }
+      buffer.put((byte) ((value >>> shift) | 0x80));
+    }
+    buffer.put((byte) (value >>> 56));
+  }
+
+  /**
+   * @return the number of values from {@code from} up to {@code to}, both included, to
+   * the precision of the buckets
+   */
+  public long getCountBetween(long from, long to) {
+    long count = 0;
+    int last = indexOf(Math.min(to, MAX_VALUE));
+    for (int i = indexOf(Math.max(0, Math.min(from, MAX_VALUE))); i <= last; i++) {
+      count += myCounts.get(i);
+    }
+    return count;
+  }
+}
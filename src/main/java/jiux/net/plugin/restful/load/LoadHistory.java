@@ -0,0 +1,45 @@
+package jiux.net.plugin.restful.load;
+
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.project.Project;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Last load test runs of each endpoint of the session, to compare them.
+ */
+@Service(Service.Level.PROJECT)
+public final class LoadHistory {
+
+  private static final int MAX_RUNS = 10;
+
+  private final Map<String, List<LoadResult>> myRuns = new HashMap<>();
+
+  public static LoadHistory getInstance(Project p) {
+    return p.getService(LoadHistory.class);
+  }
+
+  /**
+   * @param key identifies the endpoint, e.g. {@code RestServiceItem#getIdentity()}
+   */
+  public synchronized void add(@NotNull String key, @NotNull LoadResult result) {
+    List<LoadResult> runs = myRuns.computeIfAbsent(key, k -> new ArrayList<>());
+    runs.add(result);
+    if (runs.size() > MAX_RUNS) {
+      runs.remove(0);
+    }
+  }
+
+  /**
+   * @return oldest first
+   */
+  @NotNull
+  public synchronized List<LoadResult> getRuns(@NotNull String key) {
+    List<LoadResult> runs = myRuns.get(key);
+    return runs != null ? new ArrayList<>(runs) : Collections.emptyList();
+  }
+}
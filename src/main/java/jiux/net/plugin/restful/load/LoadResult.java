@@ -0,0 +1,258 @@
+package jiux.net.plugin.restful.load;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Outcome of a {@link LoadRunner} run.
+ */
+public final class LoadResult {
+
+  private static final int BAR_WIDTH = 40;
+  private static final int SPECTRUM_TICKS_PER_HALF_DISTANCE = 1;
+
+  private final int requested;
+  private final int concurrency;
+  private final double targetRate;
+  private final long startMillis;
+  private final long elapsedNanos;
+  private final Map<Integer, Long> statusCounts;
+  private final Map<String, Long> errorCounts;
+  private final LatencyHistogram histogram;
+  private final boolean cancelled;
+
+  LoadResult(
+    int requested,
+    int concurrency,
+    double targetRate,
+    long startMillis,
+    long elapsedNanos,
+    Map<Integer, Long> statusCounts,
+    Map<String, Long> errorCounts,
+    LatencyHistogram histogram,
+    boolean cancelled
+  ) {
+    this.requested = requested;
+    this.concurrency = concurrency;
+    this.targetRate = targetRate;
+    this.startMillis = startMillis;
+    this.elapsedNanos = elapsedNanos;
+    this.statusCounts = Collections.unmodifiableMap(statusCounts);
+    this.errorCounts = Collections.unmodifiableMap(errorCounts);
+    this.histogram = histogram;
+    this.cancelled = cancelled;
+  }
+
+  /**
+   * Whether requests were sent at a constant rate, see {@link LoadRunner#open}.
+   */
+  public boolean isOpenModel() {
+    return targetRate > 0;
+  }
+
+  /**
+   * Requests per second the run aimed at, 0 in the closed model.
+   */
+  public double getTargetRate() {
+    return targetRate;
+  }
+
+  /**
+   * Workers in the closed model, maximum requests in flight in the open one.
+   */
+  public int getConcurrency() {
+    return concurrency;
+  }
+
+  /**
+   * Milliseconds since the epoch.
+   */
+  public long getStartMillis() {
+    return startMillis;
+  }
+
+  public long getElapsedNanos() {
+    return elapsedNanos;
+  }
+
+  /**
+   * Short description of the settings of the run, e.g. to tell runs apart.
+   */
+  @NotNull
+  public String getDescription() {
+    return isOpenModel()
+      ? String.format("%.0f req/s, %d max connections", targetRate, concurrency)
+      : String.format("%d requests, %d workers", requested, concurrency);
+  }
+
+  /**
+   * Requests that got a response, whatever its status.
+   */
+  public long getResponseCount() {
+    return statusCounts.values().stream().mapToLong(Long::longValue).sum();
+  }
+
+  /**
+   * Requests that got no response.
+   */
+  public long getErrorCount() {
+    return errorCounts.values().stream().mapToLong(Long::longValue).sum();
+  }
+
+  /**
+   * Finished requests, with or without response, per second.
+   */
+  public double getThroughput() {
+    return elapsedNanos > 0
+      ? (getResponseCount() + getErrorCount()) * 1e9 / elapsedNanos
+      : 0;
+  }
+
+  /**
+   * Responses by status code, in ascending order.
+   */
+  @NotNull
+  public Map<Integer, Long> getStatusCounts() {
+    return statusCounts;
+  }
+
+  /**
+   * Requests without response by exception, e.g. {@code ConnectException}.
+   */
+  @NotNull
+  public Map<String, Long> getErrorCounts() {
+    return errorCounts;
+  }
+
+  /**
+   * Latencies of the responses, in microseconds.
+   */
+  @NotNull
+  public LatencyHistogram getHistogram() {
+    return histogram;
+  }
+
+  public boolean isCancelled() {
+    return cancelled;
+  }
+
+  /**
+   * Throughput, statuses, errors, percentiles and a histogram, as plain text.
+   */
+  @NotNull
+  public String toReport() {
+    long finished = getResponseCount() + getErrorCount();
+    StringBuilder sb = new StringBuilder();
+    if (isOpenModel()) {
+      sb.append(
+        String.format(
+          "Open model: %.0f req/s target, at most %d requests in flight, latency " +
+          "measured from the time each request was due%n",
+          targetRate,
+          concurrency
+        )
+      );
+    } else {
+      sb.append(String.format("Closed model: %d workers%n", concurrency));
+    }
+    sb.append(
+      String.format(
+        "Requests:   %d of %d in %.2f s%s%n",
+        finished,
+        requested,
+        elapsedNanos / 1e9,
+        cancelled ? " (cancelled)" : ""
+      )
+    );
+    sb.append(String.format("Throughput: %.1f req/s%n", getThroughput()));
+
+    sb.append(String.format("%nStatus%n"));
+    statusCounts.forEach((status, count) ->
+      sb.append(
+        String.format("  %-24d %10d %6.1f%%%n", status, count, percent(count, finished))
+      )
+    );
+    if (!errorCounts.isEmpty()) {
+      sb.append(String.format("%nNo response%n"));
+      errorCounts.forEach((error, count) ->
+        sb.append(
+          String.format("  %-24s %10d %6.1f%%%n", error, count, percent(count, finished))
+        )
+      );
+    }
+
+    if (histogram.getTotalCount() == 0) {
+      return sb.toString();
+    }
+    sb.append(String.format("%nLatency (ms)%n"));
+    sb.append(
+      String.format(
+        "  min %.2f  mean %.2f  p50 %.2f  p90 %.2f  p99 %.2f  p99.9 %.2f  max %.2f%n",
+        histogram.getMin() / 1000d,
+        histogram.getMean() / 1000d,
+        histogram.getValueAtPercentile(50) / 1000d,
+        histogram.getValueAtPercentile(90) / 1000d,
+        histogram.getValueAtPercentile(99) / 1000d,
+        histogram.getValueAtPercentile(99.9) / 1000d,
+        histogram.getMax() / 1000d
+      )
+    );
+    appendBars(sb);
+    appendPercentileSpectrum(sb);
+    return sb.toString();
+  }
+
+  /**
+   * Latency by percentile, the tail being where an overloaded server shows first.
+   */
+  private void appendPercentileSpectrum(StringBuilder sb) {
+    sb.append(String.format("%nPercentile spectrum (ms)%n"));
+    long max = Math.max(1, histogram.getMax());
+    List<Double> levels = histogram.getPercentileLevels(SPECTRUM_TICKS_PER_HALF_DISTANCE);
+    for (double percentile : levels) {
+      long value = histogram.getValueAtPercentile(percentile);
+      int width = (int) Math.ceil((double) value * BAR_WIDTH / max);
+      sb.append(
+        String.format(
+          "  %9.5f%%  %10.3f  %s%n",
+          percentile,
+          value / 1000d,
+          "#".repeat(width)
+        )
+      );
+    }
+  }
+
+  /**
+   * One bar per power of two of microseconds, from the fastest to the slowest response.
+   */
+  private void appendBars(StringBuilder sb) {
+    int first = 63 - Long.numberOfLeadingZeros(Math.max(1, histogram.getMin()));
+    int last = 63 - Long.numberOfLeadingZeros(Math.max(1, histogram.getMax()));
+    long[] counts = new long[last - first + 1];
+    long highest = 0;
+    for (int i = 0; i < counts.length; i++) {
+      long from = i == 0 ? 0 : 1L << (first + i);
+      counts[i] = histogram.getCountBetween(from, (1L << (first + i + 1)) - 1);
+      highest = Math.max(highest, counts[i]);
+    }
+    sb.append(String.format("%n"));
+    for (int i = 0; i < counts.length; i++) {
+      int width = (int) Math.ceil((double) counts[i] * BAR_WIDTH / highest);
+      sb.append(
+        String.format(
+          "  < %10.3f  %-" + BAR_WIDTH + "s %10d%n",
+          (1L << (first + i + 1)) / 1000d,
+          "#".repeat(width),
+          counts[i]
+        )
+      );
+    }
+  }
+
+  private static double percent(long count, long total) {
+    return total > 0 ? count * 100d / total : 0;
+  }
+}
@@ -0,0 +1,110 @@
+package jiux.net.plugin.restful.load;
+
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Writes load test runs in formats meant to compare them: a CSV percentile distribution
+ * with one column per run, and an HdrHistogram interval log with one tagged interval per
+ * run, which HdrHistogram's tools and plotters read.
+ */
+public final class LoadResultExporter {
+
+  private static final int TICKS_PER_HALF_DISTANCE = 5;
+  private static final String LOG_HEADER =
+    "\"StartTimestamp\",\"Interval_Length\",\"Interval_Max\"," +
+    "\"Interval_Compressed_Histogram\"";
+
+  private LoadResultExporter() {}
+
+  /**
+   * Latency in milliseconds at each percentile, the percentiles of the run with the most
+   * responses.
+   */
+  @NotNull
+  public static String toCsv(@NotNull List<LoadResult> runs) {
+    LatencyHistogram widest = null;
+    StringBuilder sb = new StringBuilder("Percentile,1/(1-Percentile)");
+    for (int i = 0; i < runs.size(); i++) {
+      LoadResult run = runs.get(i);
+      LatencyHistogram histogram = run.getHistogram();
+      if (widest == null || histogram.getTotalCount() > widest.getTotalCount()) {
+        widest = histogram;
+      }
+      sb.append(",\"run ").append(i + 1).append(" ").append(run.getDescription());
+      sb.append(" (ms)\"");
+    }
+    sb.append('\n');
+    if (widest == null) {
+      return sb.toString();
+    }
+    for (double percentile : widest.getPercentileLevels(TICKS_PER_HALF_DISTANCE)) {
+      double fraction = percentile / 100;
+      sb.append(String.format(Locale.US, "%.12f,", fraction));
+      sb.append(
+        fraction < 1 ? String.format(Locale.US, "%.2f", 1 / (1 - fraction)) : "Infinity"
+      );
+      for (LoadResult run : runs) {
+        sb.append(
+          String.format(
+            Locale.US,
+            ",%.3f",
+            run.getHistogram().getValueAtPercentile(percentile) / 1000d
+          )
+        );
+      }
+      sb.append('\n');
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Histogram log format 1.3, values in microseconds, timestamps relative to the start of
+   * the first run.
+   */
+  @NotNull
+  public static String toHistogramLog(@NotNull List<LoadResult> runs) {
+    StringBuilder sb = new StringBuilder("#[Histogram log format version 1.3]\n");
+    if (runs.isEmpty()) {
+      return sb.append(LOG_HEADER).append('\n').toString();
+    }
+    long baseMillis = runs.get(0).getStartMillis();
+    sb.append(
+      String.format(
+        Locale.US,
+        "#[StartTime: %.3f (seconds since epoch), %s]\n",
+        baseMillis / 1000d,
+        new Date(baseMillis)
+      )
+    );
+    sb.append(
+      String.format(
+        Locale.US,
+        "#[BaseTime: %.3f (seconds since epoch)]\n",
+        baseMillis / 1000d
+      )
+    );
+    for (int i = 0; i < runs.size(); i++) {
+      sb.append(String.format("#[run-%d: %s]\n", i + 1, runs.get(i).getDescription()));
+    }
+    sb.append(LOG_HEADER).append('\n');
+    for (int i = 0; i < runs.size(); i++) {
+      LoadResult run = runs.get(i);
+      sb.append(
+        String.format(
+          Locale.US,
+          "Tag=run-%d,%.3f,%.3f,%.3f,%s\n",
+          i + 1,
+          (run.getStartMillis() - baseMillis) / 1000d,
+          run.getElapsedNanos() / 1e9,
+          run.getHistogram().getMax() / 1000d,
+          Base64.getEncoder().encodeToString(run.getHistogram().encodeCompressed())
+        )
+      );
+    }
+    return sb.toString();
+  }
+}
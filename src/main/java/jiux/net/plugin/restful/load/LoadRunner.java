@@ -0,0 +1,268 @@
+package jiux.net.plugin.restful.load;
+
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import jiux.net.plugin.restful.http.HttpEngine;
+import jiux.net.plugin.restful.http.HttpSession;
+import jiux.net.plugin.restful.http.RequestTimeouts;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Sends one request a fixed number of times. In the closed model a fixed number of
+ * workers each send their next request once they have the previous response, so a slow
+ * server also slows down the load. In the open model requests are due at a constant
+ * rate whatever the responses, and latencies are measured from the time a request was
+ * due rather than sent: a request that waits for a free worker counts as slow, which
+ * corrects the coordinated omission of the closed model.
+ * <p>
+ * Workers use a session of the HTTP engine of their own, see {@link HttpSession}: one
+ * connection each over HTTP/1.1, a single multiplexed one over HTTP/2. Bodies are read
+ * into a buffer per thread without keeping them; the hot loop only allocates the copy of
+ * the request and what the HTTP client needs, so that it keeps up with a local server.
+ */
+public final class LoadRunner {
+
+  private static final int MAX_STATUS = 600;
+  private static final int PROGRESS_INTERVAL = 64;
+
+  /**
+   * Lets the workers start before the first request is due.
+   */
+  private static final long OPEN_MODEL_LEAD_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+  private static final long SPIN_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+  private final HttpRequestBase myTemplate;
+  private final RequestTimeouts myTimeouts;
+  private final HttpEngine myEngine;
+  private final int myRequests;
+  private final int myConcurrency;
+  private final double myTargetRate;
+
+  private LoadRunner(
+    HttpRequestBase template,
+    RequestTimeouts timeouts,
+    HttpEngine engine,
+    int requests,
+    int concurrency,
+    double targetRate
+  ) {
+    myTemplate = template;
+    myTimeouts = timeouts;
+    myEngine = engine;
+    myRequests = requests;
+    myConcurrency = Math.max(1, Math.min(concurrency, requests));
+    myTargetRate = targetRate;
+  }
+
+  /**
+   * @param template copied for each request, not sent itself
+   */
+  @NotNull
+  public static LoadRunner closed(
+    @NotNull HttpRequestBase template,
+    @NotNull RequestTimeouts timeouts,
+    @NotNull HttpEngine engine,
+    int requests,
+    int concurrency
+  ) {
+    return new LoadRunner(template, timeouts, engine, requests, concurrency, 0);
+  }
+
+  /**
+   * @param template copied for each request, not sent itself
+   * @param maxConnections requests in flight at most, those due meanwhile wait for one
+   * to complete and the wait counts in their latency
+   */
+  @NotNull
+  public static LoadRunner open(
+    @NotNull HttpRequestBase template,
+    @NotNull RequestTimeouts timeouts,
+    @NotNull HttpEngine engine,
+    double requestsPerSecond,
+    int durationSeconds,
+    int maxConnections
+  ) {
+    int requests = (int) Math.max(1, Math.round(requestsPerSecond * durationSeconds));
+    return new LoadRunner(
+      template,
+      timeouts,
+      engine,
+      requests,
+      maxConnections,
+      requestsPerSecond
+    );
+  }
+
+  /**
+   * Blocks until all requests are done, or the indicator is cancelled; the result then
+   * covers the requests done so far.
+   */
+  @NotNull
+  public LoadResult run(@NotNull ProgressIndicator indicator) {
+    return run(indicator, myEngine.openSession(myConcurrency));
+  }
+
+  /**
+   * @param session closed once done
+   */
+  @NotNull
+  LoadResult run(@NotNull ProgressIndicator indicator, @NotNull HttpSession session) {
+    Run run = new Run(indicator, System.currentTimeMillis());
+    ExecutorService executor = AppExecutorUtil.createBoundedApplicationPoolExecutor(
+      "RestServices Load",
+      myConcurrency
+    );
+    CountDownLatch workersDone = new CountDownLatch(myConcurrency);
+    long start = run.myStart;
+    try {
+      for (int i = 0; i < myConcurrency; i++) {
+        executor.execute(() -> {
+          try {
+            run.work(session);
+          } finally {
+            workersDone.countDown();
+          }
+        });
+      }
+      while (!workersDone.await(100, TimeUnit.MILLISECONDS)) {
+        if (indicator.isCanceled() && !run.stopped) {
+          run.stopped = true;
+          // unblocks the workers waiting for a response
+          session.close();
+        }
+      }
+    } catch (InterruptedException e) {
+      run.stopped = true;
+      Thread.currentThread().interrupt();
+    } finally {
+      session.close();
+      executor.shutdownNow();
+    }
+    return run.toResult(System.nanoTime() - start);
+  }
+
+  /**
+   * State shared by the workers of one run.
+   */
+  private final class Run {
+
+    private final ProgressIndicator myIndicator;
+    private final AtomicInteger myNext = new AtomicInteger();
+    private final AtomicInteger myDone = new AtomicInteger();
+    private final AtomicLongArray myStatusCounts = new AtomicLongArray(MAX_STATUS);
+    private final Map<String, LongAdder> myErrorCounts = new ConcurrentHashMap<>();
+    private final LatencyHistogram myHistogram = new LatencyHistogram();
+    private final long myStartMillis;
+    /**
+     * When the first request is due, in the open model.
+     */
+    private final long myStart;
+    private final double myPeriodNanos;
+    private volatile boolean stopped;
+
+    Run(ProgressIndicator indicator, long startMillis) {
+      myIndicator = indicator;
+      myStartMillis = startMillis;
+      boolean open = myTargetRate > 0;
+      myStart = System.nanoTime() + (open ? OPEN_MODEL_LEAD_NANOS : 0);
+      myPeriodNanos = open ? 1e9 / myTargetRate : 0;
+    }
+
+    void work(HttpSession session) {
+      int ticket;
+      while (!stopped && (ticket = myNext.getAndIncrement()) < myRequests) {
+        HttpRequestBase request = copyTemplate();
+        long start;
+        if (myPeriodNanos > 0) {
+          start = myStart + (long) (ticket * myPeriodNanos);
+          if (!waitUntil(start)) {
+            return;
+          }
+        } else {
+          start = System.nanoTime();
+        }
+        try {
+          int status = session.send(request, myTimeouts).getStatus();
+          myHistogram.record((System.nanoTime() - start) / 1000);
+          myStatusCounts.incrementAndGet(Math.max(0, Math.min(status, MAX_STATUS - 1)));
+        } catch (IOException | RuntimeException e) {
+          if (stopped) {
+            // aborted by the cancellation, not a failure of the server
+            return;
+          }
+          myErrorCounts
+            .computeIfAbsent(e.getClass().getSimpleName(), k -> new LongAdder())
+            .increment();
+        }
+        int done = myDone.incrementAndGet();
+        if (done % PROGRESS_INTERVAL == 0) {
+          myIndicator.setFraction((double) done / myRequests);
+          myIndicator.setText2(done + " / " + myRequests + " requests");
+        }
+      }
+    }
+
+    /**
+     * Parks until shortly before the time, then spins, which is precise to microseconds.
+     *
+     * @return false if stopped meanwhile
+     */
+    private boolean waitUntil(long nanoTime) {
+      long remaining;
+      while ((remaining = nanoTime - System.nanoTime()) > 0) {
+        if (stopped) {
+          return false;
+        }
+        if (remaining > SPIN_NANOS) {
+          LockSupport.parkNanos(remaining - SPIN_NANOS);
+        } else {
+          Thread.onSpinWait();
+        }
+      }
+      return true;
+    }
+
+    private HttpRequestBase copyTemplate() {
+      try {
+        return (HttpRequestBase) myTemplate.clone();
+      } catch (CloneNotSupportedException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+
+    LoadResult toResult(long elapsedNanos) {
+      Map<Integer, Long> statusCounts = new TreeMap<>();
+      for (int status = 0; status < MAX_STATUS; status++) {
+        long count = myStatusCounts.get(status);
+        if (count > 0) {
+          statusCounts.put(status, count);
+        }
+      }
+      Map<String, Long> errorCounts = new TreeMap<>();
+      myErrorCounts.forEach((error, count) -> errorCounts.put(error, count.sum()));
+      return new LoadResult(
+        myRequests,
+        myConcurrency,
+        myTargetRate,
+        myStartMillis,
+        elapsedNanos,
+        statusCounts,
+        errorCounts,
+        myHistogram,
+        stopped
+      );
+    }
+  }
+}
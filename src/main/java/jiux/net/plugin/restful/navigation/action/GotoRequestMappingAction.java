@@ -21,6 +21,8 @@ import java.util.Arrays;
 import java.util.List;
 import javax.swing.*;
 import jiux.net.plugin.restful.method.HttpMethod;
+import jiux.net.plugin.restful.navigator.RestServicesNavigator;
+import jiux.net.plugin.restful.service.RestEndpointSearchIndex;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -58,6 +60,10 @@ public class GotoRequestMappingAction extends GotoActionBase implements DumbAwar
       public void elementChosen(ChooseByNamePopup chooseByNamePopup, Object element) {
         if (element instanceof RestServiceItem) {
           RestServiceItem navigationItem = (RestServiceItem) element;
+          RestEndpointSearchIndex.getInstance(project).recordSelection(navigationItem);
+          RestServicesNavigator
+            .getInstance(project)
+            .showRequestFromUrl(navigationItem, chooseByNamePopup.getEnteredText());
           if (navigationItem.canNavigate()) {
             navigationItem.navigate(true);
           }
@@ -3,9 +3,14 @@ package jiux.net.plugin.restful.navigation.action;
 import com.intellij.navigation.ChooseByNameContributor;
 import com.intellij.navigation.NavigationItem;
 import com.intellij.openapi.module.Module;
+import com.intellij.openapi.module.ModuleManager;
 import com.intellij.openapi.project.Project;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import jiux.net.plugin.restful.common.ServiceHelper;
+import java.util.stream.Collectors;
+import jiux.net.plugin.restful.service.RestEndpointCache;
+import jiux.net.plugin.restful.service.RestEndpointSearchIndex;
 import org.jetbrains.annotations.NotNull;
 
 public class GotoRequestMappingContributor implements ChooseByNameContributor {
@@ -24,10 +29,11 @@ public class GotoRequestMappingContributor implements ChooseByNameContributor {
     String[] names = null;
     List<RestServiceItem> itemList;
     ///todo find all rest url file in project
+    RestEndpointCache endpointCache = RestEndpointCache.getInstance(project);
     if (onlyThisModuleChecked && myModule != null) {
-      itemList = ServiceHelper.buildRestServiceItemListUsingResolver(myModule);
+      itemList = endpointCache.getServiceItems(myModule);
     } else {
-      itemList = ServiceHelper.buildRestServiceItemListUsingResolver(project);
+      itemList = endpointCache.getServiceItems();
     }
 
     navItem = itemList;
@@ -58,4 +64,50 @@ public class GotoRequestMappingContributor implements ChooseByNameContributor {
       })
       .toArray(NavigationItem[]::new);
   }
+
+  /**
+   * Endpoints whose url template matches the concrete url, the most specific first.
+   */
+  @NotNull
+  public List<RestServiceItem> findByUrl(
+    Project project,
+    String url,
+    boolean onlyThisModuleChecked
+  ) {
+    List<RestServiceItem> items = RestEndpointCache
+      .getInstance(project)
+      .getPathTrie()
+      .match(url);
+    if (!onlyThisModuleChecked || myModule == null) {
+      return items;
+    }
+    String moduleName = myModule.getName();
+    return items
+      .stream()
+      .filter(item -> moduleName.equals(item.getModuleName()))
+      .collect(Collectors.toList());
+  }
+
+  /**
+   * Endpoints whose url, controller or handler name matches the pattern, best first.
+   */
+  @NotNull
+  public List<RestEndpointSearchIndex.Match> searchByName(
+    Project project,
+    String pattern,
+    boolean onlyThisModuleChecked
+  ) {
+    Module[] modules = onlyThisModuleChecked && myModule != null
+      ? new Module[] { myModule }
+      : ModuleManager.getInstance(project).getModules();
+    RestEndpointSearchIndex index = RestEndpointSearchIndex.getInstance(project);
+    List<RestEndpointSearchIndex.Match> matches = new ArrayList<>();
+    for (Module module : modules) {
+      matches.addAll(index.search(module, pattern));
+    }
+    matches.sort(
+      Comparator.comparingInt(RestEndpointSearchIndex.Match::getScore).reversed()
+    );
+    return matches;
+  }
 }
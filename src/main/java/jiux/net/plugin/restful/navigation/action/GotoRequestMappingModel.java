@@ -8,13 +8,18 @@ import com.intellij.navigation.ChooseByNameContributor;
 import com.intellij.navigation.NavigationItem;
 import com.intellij.openapi.project.DumbAware;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Pair;
 import com.intellij.openapi.util.SystemInfo;
 import com.intellij.psi.codeStyle.MinusculeMatcher;
 import com.intellij.psi.codeStyle.NameUtil;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
 import javax.swing.*;
-import jiux.net.plugin.restful.common.spring.AntPathMatcher;
 import jiux.net.plugin.restful.method.HttpMethod;
+import jiux.net.plugin.restful.service.RestEndpointCache;
+import jiux.net.plugin.restful.service.RestEndpointSearchIndex;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -25,11 +30,19 @@ public class GotoRequestMappingModel
   extends FilteringGotoByModel<HttpMethod>
   implements DumbAware, CustomMatcherModel {
 
+  private final ChooseByNameContributor[] myContributors;
+  /**
+   * Matcher of the last user pattern, {@link #matches} is called once per item with the same
+   * pattern.
+   */
+  private volatile Pair<String, MinusculeMatcher> myLastMatcher;
+
   protected GotoRequestMappingModel(
     @NotNull Project project,
     @NotNull ChooseByNameContributor[] contributors
   ) {
     super(project, contributors);
+    myContributors = contributors;
   }
 
   // TODO: filer module? FilteringGotoByModel.acceptItem
@@ -127,18 +140,80 @@ public class GotoRequestMappingModel
     // REST style params:  @RequestMapping(value="{departmentId}/employees/{employeeId}")  PathVariable
     // REST style params(regex) @RequestMapping(value="/{textualPart:[a-z-]+}.{numericPart:[\\d]+}")  PathVariable
 
-    MinusculeMatcher matcher = NameUtil.buildMatcher(
-      "*" + pattern,
-      NameUtil.MatchingCaseSensitivity.NONE
-    );
-    boolean matches = matcher.matches(popupItem);
+    Pair<String, MinusculeMatcher> lastMatcher = myLastMatcher;
+    if (lastMatcher == null || !lastMatcher.first.equals(pattern)) {
+      lastMatcher =
+        Pair.create(
+          pattern,
+          NameUtil.buildMatcher("*" + pattern, NameUtil.MatchingCaseSensitivity.NONE)
+        );
+      myLastMatcher = lastMatcher;
+    }
+    boolean matches = lastMatcher.second.matches(popupItem);
     if (!matches) {
-      AntPathMatcher pathMatcher = new AntPathMatcher();
-      matches = pathMatcher.match(popupItem, userPattern);
+      matches =
+        RestEndpointCache
+          .getInstance(myProject)
+          .getCompiledPattern(popupItem)
+          .matches(userPattern);
     }
     return matches;
   }
 
+  /**
+   * Endpoints whose url template matches the concrete url, the most specific first, that
+   * pass the http method filter.
+   */
+  @NotNull
+  public List<RestServiceItem> findByUrl(@NotNull String url, boolean everywhere) {
+    List<RestServiceItem> items = new ArrayList<>();
+    for (ChooseByNameContributor contributor : myContributors) {
+      if (!(contributor instanceof GotoRequestMappingContributor)) {
+        continue;
+      }
+      GotoRequestMappingContributor requestMappingContributor =
+        (GotoRequestMappingContributor) contributor;
+      for (RestServiceItem item : requestMappingContributor.findByUrl(
+        myProject,
+        url,
+        everywhere
+      )) {
+        if (acceptItem(item)) {
+          items.add(item);
+        }
+      }
+    }
+    return items;
+  }
+
+  /**
+   * Endpoints matching the pattern by url, controller or handler name, best first, that
+   * pass the http method filter.
+   */
+  @NotNull
+  public List<RestServiceItem> searchByName(@NotNull String pattern, boolean everywhere) {
+    List<RestEndpointSearchIndex.Match> matches = new ArrayList<>();
+    for (ChooseByNameContributor contributor : myContributors) {
+      if (contributor instanceof GotoRequestMappingContributor) {
+        GotoRequestMappingContributor requestMappingContributor =
+          (GotoRequestMappingContributor) contributor;
+        matches.addAll(
+          requestMappingContributor.searchByName(myProject, pattern, everywhere)
+        );
+      }
+    }
+    matches.sort(
+      Comparator.comparingInt(RestEndpointSearchIndex.Match::getScore).reversed()
+    );
+    List<RestServiceItem> items = new ArrayList<>(matches.size());
+    for (RestEndpointSearchIndex.Match match : matches) {
+      if (acceptItem(match.getItem())) {
+        items.add(match.getItem());
+      }
+    }
+    return items;
+  }
+
   @NotNull
   @Override
   public String removeModelSpecificMarkup(@NotNull String pattern) {
@@ -8,6 +8,7 @@ import com.intellij.psi.codeStyle.MinusculeMatcher;
 import com.intellij.psi.codeStyle.NameUtil;
 import com.intellij.util.Processor;
 import java.util.List;
+import jiux.net.plugin.restful.common.spring.PathTrie;
 import jiux.net.plugin.utils.ToolkitUtil;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -45,7 +46,36 @@ public class GotoRequestMappingProvider extends DefaultChooseByNameItemProvider
     @NotNull Processor<Object> consumer
   ) {
     pattern = ToolkitUtil.removeRedundancyMarkup(pattern);
+    if (!(base.getModel() instanceof GotoRequestMappingModel) || pattern.isEmpty()) {
+      return super.filterElements(base, pattern, everywhere, indicator, consumer);
+    }
+    GotoRequestMappingModel model = (GotoRequestMappingModel) base.getModel();
 
+    // a pasted url goes straight to its handlers instead of being matched against every name
+    if (PathTrie.isConcretePath(pattern)) {
+      List<RestServiceItem> items = model.findByUrl(pattern, everywhere);
+      if (!items.isEmpty()) {
+        return processAll(items, indicator, consumer);
+      }
+    }
+    List<RestServiceItem> items = model.searchByName(pattern, everywhere);
+    if (!items.isEmpty()) {
+      return processAll(items, indicator, consumer);
+    }
     return super.filterElements(base, pattern, everywhere, indicator, consumer);
   }
+
+  private static boolean processAll(
+    List<RestServiceItem> items,
+    ProgressIndicator indicator,
+    Processor<Object> consumer
+  ) {
+    for (RestServiceItem item : items) {
+      indicator.checkCanceled();
+      if (!consumer.process(item)) {
+        return false;
+      }
+    }
+    return true;
+  }
 }
@@ -3,47 +3,108 @@ package jiux.net.plugin.restful.navigation.action;
 import com.intellij.navigation.ItemPresentation;
 import com.intellij.navigation.NavigationItem;
 import com.intellij.openapi.module.Module;
+import com.intellij.openapi.module.ModuleManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.vfs.VirtualFile;
 import com.intellij.pom.Navigatable;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiMethod;
+import com.intellij.psi.SmartPointerManager;
+import com.intellij.psi.SmartPsiElementPointer;
 import javax.swing.Icon;
 import jiux.net.plugin.restful.common.ToolkitIcons;
 import jiux.net.plugin.restful.method.HttpMethod;
 import jiux.net.plugin.restful.method.action.ModuleHelper;
 import lombok.ToString;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.kotlin.psi.KtClass;
 import org.jetbrains.kotlin.psi.KtNamedFunction;
 
+/**
+ * One endpoint. Kept small since a project holds thousands of them: the handler is held
+ * through a smart pointer so that the item never pins a PSI tree, the module by its name,
+ * the method as an ordinal, and the url as two interned parts, the class prefix being shared
+ * by all endpoints of a controller. The joined url is kept once it has been asked for, as
+ * searching and matching ask for it on every keystroke.
+ */
 @ToString
 public class RestServiceItem implements NavigationItem {
 
-  private PsiMethod psiMethod;
-  private PsiElement psiElement;
-  private Module module;
-
-  private String requestMethod;
-  private HttpMethod method;
+  private static final HttpMethod[] METHODS = HttpMethod.values();
+
+  private SmartPsiElementPointer<? extends PsiElement> psiElementPointer;
+  private String moduleName;
+
+  /**
+   * {@link HttpMethod} ordinal, -1 if the endpoint accepts any method.
+   */
+  private byte method = -1;
+
+  private String urlPrefix;
+  private String urlSuffix;
+  /**
+   * {@link #urlPrefix} and {@link #urlSuffix} joined, null until first needed.
+   */
+  private volatile String url;
+  private boolean isUrlWithoutReqMethod;
+
+  /**
+   * Short name of the controller and name of the handler, for searching without restoring
+   * the handler; null for items not created from the endpoint index.
+   */
+  private String className;
+  private String methodName;
+
+  public RestServiceItem(
+    @NotNull SmartPsiElementPointer<? extends PsiElement> psiElementPointer,
+    @Nullable String moduleName,
+    @Nullable HttpMethod method,
+    @NotNull String urlPrefix,
+    @NotNull String urlSuffix,
+    boolean isUrlWithoutReqMethod
+  ) {
+    this(
+      psiElementPointer,
+      moduleName,
+      method,
+      urlPrefix,
+      urlSuffix,
+      isUrlWithoutReqMethod,
+      null,
+      null
+    );
+  }
 
-  private String url;
-  private Navigatable navigationElement;
-  private Boolean isUrlWithoutReqMethod = false;
+  public RestServiceItem(
+    @NotNull SmartPsiElementPointer<? extends PsiElement> psiElementPointer,
+    @Nullable String moduleName,
+    @Nullable HttpMethod method,
+    @NotNull String urlPrefix,
+    @NotNull String urlSuffix,
+    boolean isUrlWithoutReqMethod,
+    @Nullable String className,
+    @Nullable String methodName
+  ) {
+    this.psiElementPointer = psiElementPointer;
+    this.moduleName = moduleName;
+    setMethod(method);
+    this.urlPrefix = urlPrefix;
+    this.urlSuffix = urlSuffix;
+    this.isUrlWithoutReqMethod = isUrlWithoutReqMethod;
+    this.className = className;
+    this.methodName = methodName;
+  }
 
   public RestServiceItem(PsiElement psiElement, String requestMethod, String urlPath, Boolean isUrlWithoutReqMethod) {
-    this.psiElement = psiElement;
-    if (psiElement instanceof PsiMethod) {
-      this.psiMethod = (PsiMethod) psiElement;
-    }
-    this.requestMethod = requestMethod;
-    if (requestMethod != null) {
-      method = HttpMethod.getByRequestMethod(requestMethod);
-    }
-
-    this.url = urlPath;
-    if (psiElement instanceof Navigatable) {
-      navigationElement = (Navigatable) psiElement;
-    }
-    this.isUrlWithoutReqMethod = isUrlWithoutReqMethod;
+    this(
+      SmartPointerManager.createPointer(psiElement),
+      null,
+      requestMethod != null ? HttpMethod.getByRequestMethod(requestMethod) : null,
+      "",
+      urlPath,
+      isUrlWithoutReqMethod
+    );
   }
   public RestServiceItem(PsiElement psiElement, String requestMethod, String urlPath) {
     this(psiElement, requestMethod, urlPath, false);
@@ -52,7 +113,7 @@ public class RestServiceItem implements NavigationItem {
   @Nullable
   @Override
   public String getName() {
-    return /*this.requestMethod + " " +*/this.url;
+    return /*this.requestMethod + " " +*/getUrl();
   }
 
   @Nullable
@@ -63,14 +124,16 @@ public class RestServiceItem implements NavigationItem {
 
   @Override
   public void navigate(boolean requestFocus) {
-    if (navigationElement != null) {
-      navigationElement.navigate(requestFocus);
+    PsiElement psiElement = getPsiElement();
+    if (psiElement instanceof Navigatable) {
+      ((Navigatable) psiElement).navigate(requestFocus);
     }
   }
 
   @Override
   public boolean canNavigate() {
-    return navigationElement.canNavigate();
+    PsiElement psiElement = getPsiElement();
+    return psiElement instanceof Navigatable && ((Navigatable) psiElement).canNavigate();
   }
 
   @Override
@@ -89,42 +152,79 @@ public class RestServiceItem implements NavigationItem {
         "*" + pattern,
         com.intellij.psi.codeStyle.NameUtil.MatchingCaseSensitivity.NONE
       );
-    return matcher.matches(this.url);
+    return matcher.matches(getUrl());
   }
 
+  @Nullable
   public Module getModule() {
-    return module;
+    if (moduleName == null) {
+      return null;
+    }
+    Module module = ModuleManager
+      .getInstance(psiElementPointer.getProject())
+      .findModuleByName(moduleName);
+    return module != null && !module.isDisposed() ? module : null;
   }
 
   public void setModule(Module module) {
-    this.module = module;
+    this.moduleName = module != null ? module.getName() : null;
+  }
+
+  @Nullable
+  public String getModuleName() {
+    return moduleName;
+  }
+
+  @NotNull
+  public Project getProject() {
+    return psiElementPointer.getProject();
   }
 
+  @Nullable
   public PsiMethod getPsiMethod() {
-    return psiMethod;
+    PsiElement psiElement = getPsiElement();
+    return psiElement instanceof PsiMethod ? (PsiMethod) psiElement : null;
   }
 
   public void setPsiMethod(PsiMethod psiMethod) {
-    this.psiMethod = psiMethod;
+    this.psiElementPointer = SmartPointerManager.createPointer(psiMethod);
   }
 
   public HttpMethod getMethod() {
-    return method;
+    return method < 0 ? null : METHODS[method];
   }
 
   public void setMethod(HttpMethod method) {
-    this.method = method;
+    this.method = method != null ? (byte) method.ordinal() : -1;
   }
 
   public String getUrl() {
-    return url;
+    String joined = url;
+    if (joined == null) {
+      joined = urlPrefix.isEmpty() ? urlSuffix : urlPrefix.concat(urlSuffix);
+      url = joined;
+    }
+    return joined;
   }
 
   public void setUrl(String url) {
+    this.urlPrefix = "";
+    this.urlSuffix = url;
     this.url = url;
   }
 
+  @NotNull
+  public String getUrlPrefix() {
+    return urlPrefix;
+  }
+
+  @NotNull
+  public String getUrlSuffix() {
+    return urlSuffix;
+  }
+
   public String getFullUrl() {
+    Module module = getModule();
     if (module == null) {
       return getUrl();
     }
@@ -133,12 +233,48 @@ public class RestServiceItem implements NavigationItem {
     return moduleHelper.getServiceHostPrefix() + getUrl();
   }
 
+  /**
+   * @return null once the handler has been deleted
+   */
+  @Nullable
   public PsiElement getPsiElement() {
-    return psiElement;
+    return psiElementPointer.getElement();
+  }
+
+  @NotNull
+  public SmartPsiElementPointer<? extends PsiElement> getPsiElementPointer() {
+    return psiElementPointer;
+  }
+
+  /**
+   * File of the handler, known without restoring the element.
+   */
+  @Nullable
+  public VirtualFile getVirtualFile() {
+    return psiElementPointer.getVirtualFile();
   }
 
   public String getKey() {
-    return this.module.getName() + this.getFullUrl() + this.getMethod();
+    return this.moduleName + this.getFullUrl() + this.getMethod();
+  }
+
+  /**
+   * Identifies the endpoint across refreshes, which replace the items. Unlike
+   * {@link #getKey()} it reads no module settings.
+   */
+  @NotNull
+  public String getIdentity() {
+    return moduleName + ' ' + getMethod() + ' ' + getUrl();
+  }
+
+  @Nullable
+  public String getClassName() {
+    return className;
+  }
+
+  @Nullable
+  public String getMethodName() {
+    return methodName;
   }
 
   private class RestServiceItemPresentation implements ItemPresentation {
@@ -146,21 +282,21 @@ public class RestServiceItem implements NavigationItem {
     @Nullable
     @Override
     public String getPresentableText() {
-      return url;
+      return getUrl();
     }
 
     @Nullable
     @Override
     public String getLocationString() {
-      String fileName = psiElement.getContainingFile().getName();
+      PsiElement psiElement = getPsiElement();
 
       String location = null;
 
       if (psiElement instanceof PsiMethod) {
         PsiMethod psiMethod = ((PsiMethod) psiElement);
-        if (module != null) {
+        if (moduleName != null) {
           location =
-            module.getName() +
+            moduleName +
             "#" +
             psiMethod
               .getContainingClass()
@@ -176,14 +312,11 @@ public class RestServiceItem implements NavigationItem {
               .concat(psiMethod.getName());
         }
       } else if (psiElement instanceof KtNamedFunction) {
-        KtNamedFunction ktNamedFunction =
-          (KtNamedFunction) RestServiceItem.this.psiElement;
+        KtNamedFunction ktNamedFunction = (KtNamedFunction) psiElement;
         String className = ((KtClass) psiElement.getParent().getParent()).getName();
-        if (module != null) {
+        if (moduleName != null) {
           location =
-            module.getName() +
-            "#" +
-            className.concat("#").concat(ktNamedFunction.getName());
+            moduleName + "#" + className.concat("#").concat(ktNamedFunction.getName());
         } else {
           location = className.concat("#").concat(ktNamedFunction.getName());
         }
@@ -195,7 +328,7 @@ public class RestServiceItem implements NavigationItem {
     @Nullable
     @Override
     public Icon getIcon(boolean unused) {
-      return ToolkitIcons.METHOD.get(method);
+      return ToolkitIcons.METHOD.get(getMethod());
     }
   }
 }
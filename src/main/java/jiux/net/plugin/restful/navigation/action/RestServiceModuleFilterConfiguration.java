@@ -0,0 +1,27 @@
+package jiux.net.plugin.restful.navigation.action;
+
+import com.intellij.ide.util.gotoByName.ChooseByNameFilterConfiguration;
+import com.intellij.openapi.components.State;
+import com.intellij.openapi.components.Storage;
+import com.intellij.openapi.components.StoragePathMacros;
+import com.intellij.openapi.project.Project;
+
+/**
+ * Modules selected in the filter of the "Endpoints" tab of Search Everywhere, by name.
+ */
+@State(
+  name = "RestServiceModuleFilterConfiguration",
+  storages = @Storage(StoragePathMacros.WORKSPACE_FILE)
+)
+class RestServiceModuleFilterConfiguration
+  extends ChooseByNameFilterConfiguration<String> {
+
+  public static RestServiceModuleFilterConfiguration getInstance(Project project) {
+    return project.getService(RestServiceModuleFilterConfiguration.class);
+  }
+
+  @Override
+  protected String nameForElement(String moduleName) {
+    return moduleName;
+  }
+}
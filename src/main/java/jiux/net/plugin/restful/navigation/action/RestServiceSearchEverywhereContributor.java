@@ -0,0 +1,282 @@
+package jiux.net.plugin.restful.navigation.action;
+
+import com.intellij.ide.actions.searcheverywhere.FoundItemDescriptor;
+import com.intellij.ide.actions.searcheverywhere.PersistentSearchEverywhereContributorFilter;
+import com.intellij.ide.actions.searcheverywhere.SearchEverywhereContributor;
+import com.intellij.ide.actions.searcheverywhere.SearchEverywhereContributorFactory;
+import com.intellij.ide.actions.searcheverywhere.SearchEverywhereFiltersAction;
+import com.intellij.ide.actions.searcheverywhere.WeightedSearchEverywhereContributor;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.CommonDataKeys;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.module.ModuleManager;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.project.Project;
+import com.intellij.ui.ColoredListCellRenderer;
+import com.intellij.ui.SimpleTextAttributes;
+import com.intellij.util.Processor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.swing.JList;
+import javax.swing.ListCellRenderer;
+import jiux.net.plugin.restful.common.ToolkitIcons;
+import jiux.net.plugin.restful.common.spring.PathTrie;
+import jiux.net.plugin.restful.method.HttpMethod;
+import jiux.net.plugin.restful.navigator.RestServicesNavigator;
+import jiux.net.plugin.restful.service.RestEndpointCache;
+import jiux.net.plugin.restful.service.RestEndpointSearchIndex;
+import jiux.net.plugin.utils.ToolkitUtil;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * "Endpoints" tab of Search Everywhere. Results are streamed module by module, those
+ * already in {@link RestEndpointCache} first, so they show while other modules are still
+ * resolved; every keystroke cancels the search in flight through the progress indicator.
+ * <p>
+ * Endpoints are matched like in Go to Service: a pasted concrete url by the url templates
+ * of the endpoints through {@link RestEndpointCache#getPathTrie()}, the most specific
+ * first, and otherwise by url, controller or handler name through
+ * {@link RestEndpointSearchIndex}.
+ */
+public class RestServiceSearchEverywhereContributor
+  implements WeightedSearchEverywhereContributor<RestServiceItem> {
+
+  private static final int TEMPLATE_MATCH_WEIGHT = 10_000;
+
+  private final Project myProject;
+  private final PersistentSearchEverywhereContributorFilter<HttpMethod> myMethodFilter;
+  private final PersistentSearchEverywhereContributorFilter<String> myModuleFilter;
+
+  public RestServiceSearchEverywhereContributor(@NotNull Project project) {
+    myProject = project;
+    myMethodFilter =
+      new PersistentSearchEverywhereContributorFilter<>(
+        Arrays.asList(HttpMethod.values()),
+        GotoRequestMappingConfiguration.getInstance(project),
+        HttpMethod::name,
+        ToolkitIcons.METHOD::get
+      );
+    myModuleFilter =
+      new PersistentSearchEverywhereContributorFilter<>(
+        Arrays
+          .stream(ModuleManager.getInstance(project).getModules())
+          .map(Module::getName)
+          .sorted()
+          .collect(Collectors.toList()),
+        RestServiceModuleFilterConfiguration.getInstance(project),
+        name -> name,
+        name -> ToolkitIcons.MODULE
+      );
+  }
+
+  @NotNull
+  @Override
+  public String getSearchProviderId() {
+    return RestServiceSearchEverywhereContributor.class.getSimpleName();
+  }
+
+  @NotNull
+  @Override
+  public String getGroupName() {
+    return "Endpoints";
+  }
+
+  @Override
+  public int getSortWeight() {
+    return 450;
+  }
+
+  @Override
+  public boolean showInFindResults() {
+    return false;
+  }
+
+  @Override
+  public boolean isShownInSeparateTab() {
+    return true;
+  }
+
+  @NotNull
+  @Override
+  public List<AnAction> getActions(@NotNull Runnable onChanged) {
+    List<AnAction> actions = new ArrayList<>();
+    actions.add(new SearchEverywhereFiltersAction<>(myMethodFilter, onChanged));
+    actions.add(new SearchEverywhereFiltersAction<>(myModuleFilter, onChanged));
+    return actions;
+  }
+
+  @Override
+  public void fetchWeightedElements(
+    @NotNull String pattern,
+    @NotNull ProgressIndicator progressIndicator,
+    @NotNull Processor<? super FoundItemDescriptor<RestServiceItem>> consumer
+  ) {
+    String url = ToolkitUtil.removeRedundancyMarkup(pattern.trim());
+    if (url.isEmpty()) {
+      return;
+    }
+    RestEndpointCache cache = RestEndpointCache.getInstance(myProject);
+    if (PathTrie.isConcretePath(url)) {
+      List<FoundItemDescriptor<RestServiceItem>> found = ReadAction
+        .nonBlocking(() -> matchUrl(cache, url))
+        .inSmartMode(myProject)
+        .wrapProgress(progressIndicator)
+        .executeSynchronously();
+      if (!found.isEmpty()) {
+        // no other endpoint can handle the url, names are only searched without a match
+        process(found, progressIndicator, consumer);
+        return;
+      }
+    }
+
+    RestEndpointSearchIndex searchIndex = RestEndpointSearchIndex.getInstance(myProject);
+
+    for (Module module : getModulesCachedFirst(cache)) {
+      progressIndicator.checkCanceled();
+      if (!myModuleFilter.isSelected(module.getName())) {
+        continue;
+      }
+      List<FoundItemDescriptor<RestServiceItem>> found = ReadAction
+        .nonBlocking(() ->
+          module.isDisposed() ? null : searchByName(searchIndex, module, url)
+        )
+        .inSmartMode(myProject)
+        .wrapProgress(progressIndicator)
+        .executeSynchronously();
+      if (found != null && !process(found, progressIndicator, consumer)) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * @return false if the consumer wants no more
+   */
+  private static boolean process(
+    List<FoundItemDescriptor<RestServiceItem>> found,
+    ProgressIndicator progressIndicator,
+    Processor<? super FoundItemDescriptor<RestServiceItem>> consumer
+  ) {
+    for (FoundItemDescriptor<RestServiceItem> descriptor : found) {
+      progressIndicator.checkCanceled();
+      if (!consumer.process(descriptor)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Endpoints of the selected modules and methods whose url template matches the concrete
+   * url, weighted in the order of the trie, the most specific first.
+   */
+  private List<FoundItemDescriptor<RestServiceItem>> matchUrl(
+    RestEndpointCache cache,
+    String url
+  ) {
+    List<FoundItemDescriptor<RestServiceItem>> found = new ArrayList<>();
+    for (RestServiceItem item : cache.getPathTrie().match(url)) {
+      String moduleName = item.getModuleName();
+      if (
+        isMethodSelected(item) &&
+        (moduleName == null || myModuleFilter.isSelected(moduleName))
+      ) {
+        found.add(new FoundItemDescriptor<>(item, TEMPLATE_MATCH_WEIGHT - found.size()));
+      }
+    }
+    return found;
+  }
+
+  private List<FoundItemDescriptor<RestServiceItem>> searchByName(
+    RestEndpointSearchIndex searchIndex,
+    Module module,
+    String pattern
+  ) {
+    List<FoundItemDescriptor<RestServiceItem>> found = new ArrayList<>();
+    for (RestEndpointSearchIndex.Match match : searchIndex.search(module, pattern)) {
+      if (isMethodSelected(match.getItem())) {
+        found.add(new FoundItemDescriptor<>(match.getItem(), match.getScore()));
+      }
+    }
+    return found;
+  }
+
+  private boolean isMethodSelected(RestServiceItem item) {
+    HttpMethod method = item.getMethod();
+    return method == null || myMethodFilter.isSelected(method);
+  }
+
+  /**
+   * Modules whose endpoints are cached come first, they take no resolving.
+   */
+  private List<Module> getModulesCachedFirst(RestEndpointCache cache) {
+    return ReadAction.compute(() -> {
+      List<Module> modules = new ArrayList<>(
+        Arrays.asList(ModuleManager.getInstance(myProject).getModules())
+      );
+      modules.sort(Comparator.comparing(module -> !cache.isUpToDate(module)));
+      return modules;
+    });
+  }
+
+  @Override
+  public boolean processSelectedItem(
+    @NotNull RestServiceItem selected,
+    int modifiers,
+    @NotNull String searchText
+  ) {
+    RestEndpointSearchIndex.getInstance(myProject).recordSelection(selected);
+    RestServicesNavigator.getInstance(myProject).showRequestFromUrl(selected, searchText);
+    if (selected.canNavigate()) {
+      selected.navigate(true);
+    }
+    return true;
+  }
+
+  @NotNull
+  @Override
+  public ListCellRenderer<? super RestServiceItem> getElementsRenderer() {
+    return new ColoredListCellRenderer<RestServiceItem>() {
+      @Override
+      protected void customizeCellRenderer(
+        @NotNull JList<? extends RestServiceItem> list,
+        RestServiceItem item,
+        int index,
+        boolean selected,
+        boolean hasFocus
+      ) {
+        setIcon(ToolkitIcons.METHOD.get(item.getMethod()));
+        append(item.getUrl());
+        if (item.getModuleName() != null) {
+          append("  " + item.getModuleName(), SimpleTextAttributes.GRAYED_ATTRIBUTES);
+        }
+      }
+    };
+  }
+
+  @Nullable
+  @Override
+  public Object getDataForItem(@NotNull RestServiceItem element, @NotNull String dataId) {
+    return null;
+  }
+
+  public static class Factory
+    implements SearchEverywhereContributorFactory<RestServiceItem> {
+
+    @NotNull
+    @Override
+    public SearchEverywhereContributor<RestServiceItem> createContributor(
+      @NotNull AnActionEvent initEvent
+    ) {
+      return new RestServiceSearchEverywhereContributor(
+        initEvent.getRequiredData(CommonDataKeys.PROJECT)
+      );
+    }
+  }
+}
@@ -0,0 +1,224 @@
+package jiux.net.plugin.restful.navigator;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.actionSystem.ActionManager;
+import com.intellij.openapi.actionSystem.ActionToolbar;
+import com.intellij.openapi.actionSystem.DefaultActionGroup;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.SimpleToolWindowPanel;
+import com.intellij.openapi.ui.Splitter;
+import com.intellij.ui.DoubleClickListener;
+import com.intellij.ui.ScrollPaneFactory;
+import com.intellij.ui.components.JBLabel;
+import com.intellij.ui.table.TableView;
+import com.intellij.util.ui.ColumnInfo;
+import com.intellij.util.ui.JBUI;
+import com.intellij.util.ui.ListTableModel;
+import java.awt.BorderLayout;
+import java.awt.event.MouseEvent;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import javax.swing.JPanel;
+import jiux.net.plugin.restful.accesslog.AccessLogAnalyzer;
+import jiux.net.plugin.restful.accesslog.AccessLogReport;
+import jiux.net.plugin.restful.accesslog.AccessLogService;
+import jiux.net.plugin.restful.navigation.action.RestServiceItem;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Access log tab of the RestServices tool window: hits per endpoint and the urls no
+ * endpoint matched, of the last analyzed log. Double click an endpoint to jump to it.
+ */
+public class AccessLogPanel extends SimpleToolWindowPanel implements Disposable {
+
+  private final AccessLogService myService;
+  private final JBLabel mySummary = new JBLabel();
+  private final ListTableModel<AccessLogReport.EndpointHits> myEndpointModel;
+  private final ListTableModel<AccessLogReport.UnmatchedUrl> myUnmatchedModel;
+
+  public AccessLogPanel(Project project) {
+    super(true, true);
+    myService = AccessLogService.getInstance(project);
+
+    DefaultActionGroup group = new DefaultActionGroup();
+    group.add(ActionManager.getInstance().getAction("Toolkit.AnalyzeAccessLog"));
+    ActionToolbar toolbar = ActionManager
+      .getInstance()
+      .createActionToolbar("RestToolkit Access Log Toolbar", group, true);
+    toolbar.setTargetComponent(this);
+    setToolbar(toolbar.getComponent());
+
+    myEndpointModel =
+      new ListTableModel<>(
+        new ColumnInfo[] {
+          new EndpointColumn("Method", item -> String.valueOf(item.getMethod())),
+          new EndpointColumn("URL", RestServiceItem::getUrl),
+          new EndpointColumn("Module", RestServiceItem::getModuleName),
+          new CountColumn<>("Hits", AccessLogReport.EndpointHits::getCount),
+          new ShareColumn(),
+        },
+        Collections.emptyList()
+      );
+    myEndpointModel.setSortable(true);
+    TableView<AccessLogReport.EndpointHits> endpointTable = new TableView<>(
+      myEndpointModel
+    );
+    new DoubleClickListener() {
+      @Override
+      protected boolean onDoubleClick(@NotNull MouseEvent event) {
+        AccessLogReport.EndpointHits selected = endpointTable.getSelectedObject();
+        if (selected == null || !selected.getItem().canNavigate()) {
+          return false;
+        }
+        selected.getItem().navigate(true);
+        return true;
+      }
+    }
+      .installOn(endpointTable);
+
+    myUnmatchedModel =
+      new ListTableModel<>(
+        new ColumnInfo[] {
+          new ColumnInfo<AccessLogReport.UnmatchedUrl, String>("Unmatched URL") {
+            @Override
+            public String valueOf(AccessLogReport.UnmatchedUrl url) {
+              return url.getUrl();
+            }
+
+            @Override
+            public Comparator<AccessLogReport.UnmatchedUrl> getComparator() {
+              return Comparator.comparing(AccessLogReport.UnmatchedUrl::getUrl);
+            }
+          },
+          new CountColumn<>("Hits", AccessLogReport.UnmatchedUrl::getCount),
+        },
+        Collections.emptyList()
+      );
+    myUnmatchedModel.setSortable(true);
+
+    Splitter splitter = new Splitter(true, .7f);
+    splitter.setFirstComponent(ScrollPaneFactory.createScrollPane(endpointTable));
+    splitter.setSecondComponent(
+      ScrollPaneFactory.createScrollPane(new TableView<>(myUnmatchedModel))
+    );
+
+    JPanel content = new JPanel(new BorderLayout());
+    mySummary.setBorder(JBUI.Borders.empty(4));
+    content.add(mySummary, BorderLayout.NORTH);
+    content.add(splitter, BorderLayout.CENTER);
+    setContent(content);
+
+    myService.addListener(
+      () -> ApplicationManager.getApplication().invokeLater(this::updateReport),
+      this
+    );
+    updateReport();
+  }
+
+  private void updateReport() {
+    AccessLogReport report = myService.getReport();
+    if (report == null) {
+      mySummary.setText("No access log analyzed yet.");
+      myEndpointModel.setItems(Collections.emptyList());
+      myUnmatchedModel.setItems(Collections.emptyList());
+      return;
+    }
+    String summary = String.format(
+      "%s: %d requests, %d matched (%.1f%%), %d lines skipped, %.1f s",
+      report.getFile(),
+      report.getRequests(),
+      report.getMatched(),
+      100 * report.getShare(report.getMatched()),
+      report.getSkippedLines(),
+      report.getElapsedMs() / 1000
+    );
+    if (report.getUnmatchedOverflow() > 0) {
+      summary +=
+        String.format(
+          ", %d unmatched requests beyond the first %d urls not listed",
+          report.getUnmatchedOverflow(),
+          AccessLogAnalyzer.MAX_UNMATCHED_URLS
+        );
+    }
+    mySummary.setText(summary);
+    myEndpointModel.setItems(report.getEndpoints());
+    myUnmatchedModel.setItems(report.getUnmatched());
+  }
+
+  @Override
+  public void dispose() {}
+
+  private static final class EndpointColumn
+    extends ColumnInfo<AccessLogReport.EndpointHits, String> {
+
+    private final Function<RestServiceItem, String> myText;
+
+    EndpointColumn(String name, Function<RestServiceItem, String> text) {
+      super(name);
+      myText = text;
+    }
+
+    @Nullable
+    @Override
+    public String valueOf(AccessLogReport.EndpointHits hits) {
+      return myText.apply(hits.getItem());
+    }
+
+    @Override
+    public Comparator<AccessLogReport.EndpointHits> getComparator() {
+      return Comparator.comparing(
+        this::valueOf,
+        Comparator.nullsFirst(Comparator.naturalOrder())
+      );
+    }
+  }
+
+  private static final class CountColumn<T> extends ColumnInfo<T, Long> {
+
+    private final ToLongFunction<T> myCount;
+
+    CountColumn(String name, ToLongFunction<T> count) {
+      super(name);
+      myCount = count;
+    }
+
+    @Override
+    public Long valueOf(T row) {
+      return myCount.applyAsLong(row);
+    }
+
+    @Override
+    public Class<?> getColumnClass() {
+      return Long.class;
+    }
+
+    @Override
+    public Comparator<T> getComparator() {
+      return Comparator.comparingLong(myCount);
+    }
+  }
+
+  private final class ShareColumn extends ColumnInfo<AccessLogReport.EndpointHits, String> {
+
+    ShareColumn() {
+      super("Share");
+    }
+
+    @Override
+    public String valueOf(AccessLogReport.EndpointHits hits) {
+      AccessLogReport report = myService.getReport();
+      return report == null
+        ? ""
+        : String.format("%.2f%%", 100 * report.getShare(hits.getCount()));
+    }
+
+    @Override
+    public Comparator<AccessLogReport.EndpointHits> getComparator() {
+      return Comparator.comparingLong(AccessLogReport.EndpointHits::getCount);
+    }
+  }
+}
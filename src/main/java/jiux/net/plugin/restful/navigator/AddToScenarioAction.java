@@ -0,0 +1,84 @@
+package jiux.net.plugin.restful.navigator;
+
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.project.DumbAware;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.InputValidator;
+import com.intellij.openapi.ui.Messages;
+import java.util.List;
+import javax.swing.text.JTextComponent;
+import jiux.net.plugin.restful.navigation.action.RestServiceItem;
+import jiux.net.plugin.restful.scenario.ScenarioManager;
+import jiux.net.plugin.restful.scenario.ScenarioStep;
+import jiux.net.plugin.utils.RestServiceDataKeys;
+import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.lang.StringUtils;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Appends the request of the request panel to a scenario, see
+ * {@link jiux.net.plugin.restful.scenario.ScenarioRunner}.
+ */
+public class AddToScenarioAction extends AnAction implements DumbAware {
+
+  private static final String DEFAULT_SCENARIO = "Scenario";
+
+  @Override
+  public void update(@NotNull AnActionEvent e) {
+    e.getPresentation().setEnabled(e.getProject() != null);
+  }
+
+  @Override
+  public void actionPerformed(@NotNull AnActionEvent e) {
+    List<RestServiceItem> serviceItems = RestServiceDataKeys.SERVICE_ITEMS.getData(
+      e.getDataContext()
+    );
+    Project project = e.getProject();
+    if (project == null || CollectionUtils.isEmpty(serviceItems)) {
+      return;
+    }
+    RestServiceDetail restServiceDetail = project.getComponent(RestServiceDetail.class);
+    if (restServiceDetail == null) {
+      return;
+    }
+
+    ScenarioManager manager = ScenarioManager.getInstance(project);
+    List<String> names = manager.getScenarioNames();
+    String name = Messages.showEditableChooseDialog(
+      "Add the request to the scenario, a new one if there is none of that name:",
+      "Add to Scenario",
+      null,
+      names.toArray(new String[0]),
+      names.isEmpty() ? DEFAULT_SCENARIO : names.get(names.size() - 1),
+      new InputValidator() {
+        @Override
+        public boolean checkInput(String inputString) {
+          return !inputString.isBlank();
+        }
+
+        @Override
+        public boolean canClose(String inputString) {
+          return checkInput(inputString);
+        }
+      }
+    );
+    if (name == null) {
+      return;
+    }
+
+    ScenarioStep step = new ScenarioStep();
+    step.method = restServiceDetail.methodField.getText();
+    step.url = restServiceDetail.urlField.getText();
+    step.moduleName = StringUtils.defaultString(serviceItems.get(0).getModuleName());
+    step.params = textOf(restServiceDetail.requestParamsTextArea);
+    step.headers = textOf(restServiceDetail.requestHeaderTextArea);
+    step.body = textOf(restServiceDetail.requestBodyTextArea);
+    manager.addStep(name.trim(), step);
+    RestServicesNavigator.getInstance(project).showScenario(name.trim());
+  }
+
+  private static String textOf(JTextComponent textArea) {
+    return textArea == null ? "" : textArea.getText();
+  }
+}
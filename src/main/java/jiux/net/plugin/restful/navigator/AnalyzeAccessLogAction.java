@@ -0,0 +1,95 @@
+package jiux.net.plugin.restful.navigator;
+
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.fileChooser.FileChooser;
+import com.intellij.openapi.fileChooser.FileChooserDescriptorFactory;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.openapi.vfs.VirtualFile;
+import java.io.IOException;
+import java.nio.file.Path;
+import jiux.net.plugin.restful.accesslog.AccessLogAnalyzer;
+import jiux.net.plugin.restful.accesslog.AccessLogReport;
+import jiux.net.plugin.restful.accesslog.AccessLogService;
+import jiux.net.plugin.restful.common.spring.PathTrie;
+import jiux.net.plugin.restful.navigation.action.RestServiceItem;
+import jiux.net.plugin.restful.service.RestEndpointCache;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Maps the requests of a local access log to the endpoints of the project, see
+ * {@link AccessLogAnalyzer}.
+ */
+public class AnalyzeAccessLogAction extends AnAction {
+
+  private static final Logger LOG = Logger.getInstance(AnalyzeAccessLogAction.class);
+
+  @Override
+  public void update(@NotNull AnActionEvent e) {
+    e.getPresentation().setEnabled(e.getProject() != null);
+  }
+
+  @Override
+  public void actionPerformed(@NotNull AnActionEvent e) {
+    Project project = e.getProject();
+    if (project == null) {
+      return;
+    }
+    VirtualFile file = FileChooser.chooseFile(
+      FileChooserDescriptorFactory
+        .createSingleFileNoJarsDescriptor()
+        .withTitle("Choose Access Log")
+        .withDescription("Plain text or gzip compressed (*.gz) access log"),
+      project,
+      null
+    );
+    if (file == null || !file.isInLocalFileSystem()) {
+      return;
+    }
+    Path path = file.toNioPath();
+
+    ProgressManager
+      .getInstance()
+      .run(
+        new Task.Backgroundable(project, "Analyzing Access Log", true) {
+          private AccessLogReport myReport;
+          private IOException myError;
+
+          @Override
+          public void run(@NotNull ProgressIndicator indicator) {
+            PathTrie<RestServiceItem> trie = DumbService
+              .getInstance(project)
+              .runReadActionInSmartMode(() ->
+                RestEndpointCache.getInstance(project).getPathTrie()
+              );
+            try {
+              myReport = new AccessLogAnalyzer(trie).analyze(path, indicator);
+            } catch (IOException ex) {
+              myError = ex;
+            }
+          }
+
+          @Override
+          public void onSuccess() {
+            if (myError != null) {
+              LOG.info(myError);
+              Messages.showErrorDialog(
+                project,
+                myError.getMessage(),
+                "Analyze Access Log"
+              );
+              return;
+            }
+            AccessLogService.getInstance(project).setReport(myReport);
+            RestServicesNavigator.getInstance(project).showAccessLogReport();
+          }
+        }
+      );
+  }
+}
@@ -0,0 +1,254 @@
+package jiux.net.plugin.restful.navigator;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.SimpleToolWindowPanel;
+import com.intellij.openapi.util.text.StringUtil;
+import com.intellij.ui.JBColor;
+import com.intellij.ui.ScrollPaneFactory;
+import com.intellij.ui.components.JBLabel;
+import com.intellij.ui.table.TableView;
+import com.intellij.util.ui.ColumnInfo;
+import com.intellij.util.ui.JBUI;
+import com.intellij.util.ui.ListTableModel;
+import java.awt.BorderLayout;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Function;
+import javax.swing.JPanel;
+import javax.swing.SwingConstants;
+import javax.swing.table.DefaultTableCellRenderer;
+import javax.swing.table.TableCellRenderer;
+import jiux.net.plugin.restful.collection.CollectionRunHistory;
+import jiux.net.plugin.restful.collection.CollectionRunResult;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Saved requests tab of the RestServices tool window: each request of the last run with
+ * its status, latency and size against the previous run. Failures and latency regressions
+ * are shown in red.
+ */
+class CollectionRunPanel extends SimpleToolWindowPanel implements Disposable {
+
+  private final CollectionRunHistory myHistory;
+  private final JBLabel mySummary = new JBLabel();
+  private final ListTableModel<CollectionRunResult.Entry> myModel;
+
+  CollectionRunPanel(@NotNull Project project) {
+    super(true, true);
+    myHistory = CollectionRunHistory.getInstance(project);
+
+    myModel =
+      new ListTableModel<>(
+        new ColumnInfo[] {
+          new EntryColumn(
+            "Request",
+            entry -> entry.getRequest().getLabel(),
+            Comparator.comparing(entry -> entry.getRequest().getLabel()),
+            false
+          ),
+          new EntryColumn(
+            "Module",
+            entry -> entry.getRequest().getModuleName(),
+            Comparator.comparing(entry -> entry.getRequest().getModuleName()),
+            false
+          ),
+          new EntryColumn(
+            "Status",
+            entry -> entry.getStatus() < 0 ? "-" : String.valueOf(entry.getStatus()),
+            Comparator.comparingInt(CollectionRunResult.Entry::getStatus),
+            true
+          ),
+          new EntryColumn(
+            "Latency (ms)",
+            entry -> entry.getStatus() < 0 ? "-" : formatMs(entry.getLatencyMs()),
+            Comparator.comparingDouble(CollectionRunResult.Entry::getLatencyMs),
+            true
+          ),
+          new EntryColumn(
+            "Previous (ms)",
+            entry -> {
+              CollectionRunHistory.Baseline previous = entry.getPrevious();
+              return previous == null || previous.status < 0
+                ? "-"
+                : formatMs(previous.latencyMs);
+            },
+            Comparator.comparingDouble(entry ->
+              entry.getPrevious() != null ? entry.getPrevious().latencyMs : -1
+            ),
+            true
+          ),
+          new EntryColumn(
+            "Δ Latency",
+            CollectionRunPanel::formatLatencyDelta,
+            Comparator.comparingDouble(entry -> {
+              double delta = entry.getLatencyDeltaMs();
+              return Double.isNaN(delta) ? Double.NEGATIVE_INFINITY : delta;
+            }),
+            true
+          ),
+          new EntryColumn(
+            "Size",
+            entry -> StringUtil.formatFileSize(entry.getSize()),
+            Comparator.comparingLong(CollectionRunResult.Entry::getSize),
+            true
+          ),
+          new EntryColumn(
+            "Δ Size",
+            CollectionRunPanel::formatSizeDelta,
+            Comparator.comparingLong(entry ->
+              entry.getPrevious() != null
+                ? entry.getSize() - entry.getPrevious().size
+                : Long.MIN_VALUE
+            ),
+            true
+          ),
+          new EntryColumn(
+            "Note",
+            CollectionRunPanel::formatNote,
+            Comparator.comparing(CollectionRunPanel::formatNote),
+            false
+          ),
+        },
+        Collections.emptyList()
+      );
+    myModel.setSortable(true);
+
+    JPanel content = new JPanel(new BorderLayout());
+    mySummary.setBorder(JBUI.Borders.empty(4));
+    content.add(mySummary, BorderLayout.NORTH);
+    content.add(
+      ScrollPaneFactory.createScrollPane(new TableView<>(myModel)),
+      BorderLayout.CENTER
+    );
+    setContent(content);
+
+    myHistory.addListener(
+      () -> ApplicationManager.getApplication().invokeLater(this::updateResult),
+      this
+    );
+    updateResult();
+  }
+
+  private void updateResult() {
+    CollectionRunResult result = myHistory.getLastRun();
+    if (result == null) {
+      mySummary.setText(
+        "Run the saved requests of a module with Run Saved Requests in its menu."
+      );
+      myModel.setItems(Collections.emptyList());
+      return;
+    }
+    String summary = String.format(
+      "%s at %s: %d requests, %d at once, %d repetitions, %.1f s; " +
+      "%d failed, %d slower by more than %s",
+      result.getTitle(),
+      new SimpleDateFormat("HH:mm:ss").format(new Date(result.getTime())),
+      result.getEntries().size(),
+      result.getParallelism(),
+      result.getRepetitions(),
+      result.getElapsedMs() / 1000,
+      result.countFailed(),
+      result.countRegressions(),
+      result.getThreshold()
+    );
+    if (result.isCancelled()) {
+      summary += " (cancelled)";
+    }
+    mySummary.setText(summary);
+    myModel.setItems(new ArrayList<>(result.getEntries()));
+  }
+
+  private static String formatMs(double ms) {
+    return String.format("%.1f", ms);
+  }
+
+  private static String formatLatencyDelta(CollectionRunResult.Entry entry) {
+    double delta = entry.getLatencyDeltaMs();
+    if (Double.isNaN(delta)) {
+      return "";
+    }
+    double previous = entry.getPrevious().latencyMs;
+    return previous > 0
+      ? String.format("%+.1f (%+.0f%%)", delta, 100 * delta / previous)
+      : String.format("%+.1f", delta);
+  }
+
+  private static String formatSizeDelta(CollectionRunResult.Entry entry) {
+    CollectionRunHistory.Baseline previous = entry.getPrevious();
+    if (previous == null || entry.getSize() == previous.size) {
+      return "";
+    }
+    long delta = entry.getSize() - previous.size;
+    return (delta > 0 ? "+" : "-") + StringUtil.formatFileSize(Math.abs(delta));
+  }
+
+  private static String formatNote(CollectionRunResult.Entry entry) {
+    List<String> notes = new ArrayList<>();
+    if (entry.getError() != null) {
+      notes.add(entry.getError());
+    }
+    if (entry.isRegression()) {
+      notes.add("Latency regression");
+    }
+    CollectionRunHistory.Baseline previous = entry.getPrevious();
+    if (previous == null) {
+      notes.add("First run");
+    } else if (entry.isStatusChanged()) {
+      notes.add(
+        "Status was " + (previous.status < 0 ? "no response" : previous.status)
+      );
+    }
+    return String.join("; ", notes);
+  }
+
+  @Override
+  public void dispose() {}
+
+  private static final class EntryColumn
+    extends ColumnInfo<CollectionRunResult.Entry, String> {
+
+    private final Function<CollectionRunResult.Entry, String> myText;
+    private final Comparator<CollectionRunResult.Entry> myComparator;
+    private final DefaultTableCellRenderer myRenderer = new DefaultTableCellRenderer();
+    private final DefaultTableCellRenderer myFlaggedRenderer =
+      new DefaultTableCellRenderer();
+
+    EntryColumn(
+      String name,
+      Function<CollectionRunResult.Entry, String> text,
+      Comparator<CollectionRunResult.Entry> comparator,
+      boolean number
+    ) {
+      super(name);
+      myText = text;
+      myComparator = comparator;
+      int alignment = number ? SwingConstants.RIGHT : SwingConstants.LEFT;
+      myRenderer.setHorizontalAlignment(alignment);
+      myFlaggedRenderer.setHorizontalAlignment(alignment);
+      myFlaggedRenderer.setForeground(JBColor.RED);
+    }
+
+    @Override
+    public String valueOf(CollectionRunResult.Entry entry) {
+      return myText.apply(entry);
+    }
+
+    @Override
+    public Comparator<CollectionRunResult.Entry> getComparator() {
+      return myComparator;
+    }
+
+    @Nullable
+    @Override
+    public TableCellRenderer getRenderer(CollectionRunResult.Entry entry) {
+      return entry.isFailed() || entry.isRegression() ? myFlaggedRenderer : myRenderer;
+    }
+  }
+}
@@ -0,0 +1,101 @@
+package jiux.net.plugin.restful.navigator;
+
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.project.DumbAware;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.ComboBox;
+import com.intellij.openapi.ui.DialogWrapper;
+import com.intellij.ui.components.JBLabel;
+import com.intellij.util.ui.FormBuilder;
+import com.intellij.util.ui.UIUtil;
+import java.util.List;
+import javax.swing.JComponent;
+import jiux.net.plugin.restful.http.HttpEngine;
+import jiux.net.plugin.restful.http.HttpEngineSettings;
+import jiux.net.plugin.restful.navigation.action.RestServiceItem;
+import jiux.net.plugin.utils.RestServiceDataKeys;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Chooses the HTTP engine of the selected module, or of the module of the selected
+ * service, see {@link HttpEngineSettings}.
+ */
+public class EditHttpEngineAction extends AnAction implements DumbAware {
+
+  @Override
+  public void update(@NotNull AnActionEvent e) {
+    e.getPresentation().setEnabled(e.getProject() != null && getModuleName(e) != null);
+  }
+
+  @Override
+  public void actionPerformed(@NotNull AnActionEvent e) {
+    Project project = e.getProject();
+    String moduleName = getModuleName(e);
+    if (project == null || moduleName == null) {
+      return;
+    }
+    HttpEngineSettings settings = HttpEngineSettings.getInstance(project);
+    EngineDialog dialog = new EngineDialog(
+      project,
+      moduleName,
+      settings.getEngine(moduleName)
+    );
+    if (dialog.showAndGet()) {
+      settings.setEngine(moduleName, dialog.getEngine());
+    }
+  }
+
+  @Nullable
+  private static String getModuleName(AnActionEvent e) {
+    List<RestServiceProject> projects = RestServiceDataKeys.SERVICE_PROJECTS.getData(
+      e.getDataContext()
+    );
+    if (projects != null && !projects.isEmpty()) {
+      return projects.get(0).getModuleName();
+    }
+    List<RestServiceItem> serviceItems = RestServiceDataKeys.SERVICE_ITEMS.getData(
+      e.getDataContext()
+    );
+    if (serviceItems == null || serviceItems.isEmpty()) {
+      return null;
+    }
+    return serviceItems.get(0).getModuleName();
+  }
+
+  private static final class EngineDialog extends DialogWrapper {
+
+    private final ComboBox<HttpEngine> myEngineCombo =
+      new ComboBox<>(HttpEngine.values());
+    private final JBLabel myDescription = new JBLabel();
+
+    EngineDialog(Project project, String moduleName, HttpEngine engine) {
+      super(project);
+      myEngineCombo.setSelectedItem(engine);
+      myEngineCombo.addActionListener(e -> updateDescription());
+      myDescription.setComponentStyle(UIUtil.ComponentStyle.SMALL);
+      myDescription.setFontColor(UIUtil.FontColor.BRIGHTER);
+      updateDescription();
+      setTitle("HTTP Engine of " + moduleName);
+      init();
+    }
+
+    private void updateDescription() {
+      myDescription.setText(getEngine().getDescription());
+    }
+
+    @Override
+    protected JComponent createCenterPanel() {
+      return FormBuilder
+        .createFormBuilder()
+        .addLabeledComponent("Send requests with:", myEngineCombo)
+        .addComponentToRightColumn(myDescription)
+        .getPanel();
+    }
+
+    HttpEngine getEngine() {
+      return (HttpEngine) myEngineCombo.getSelectedItem();
+    }
+  }
+}
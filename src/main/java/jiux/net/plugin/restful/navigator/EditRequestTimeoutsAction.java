@@ -0,0 +1,100 @@
+package jiux.net.plugin.restful.navigator;
+
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.project.DumbAware;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.DialogWrapper;
+import com.intellij.ui.JBIntSpinner;
+import com.intellij.ui.components.JBLabel;
+import com.intellij.util.ui.FormBuilder;
+import java.util.List;
+import javax.swing.JComponent;
+import jiux.net.plugin.restful.http.RequestTimeoutSettings;
+import jiux.net.plugin.restful.http.RequestTimeouts;
+import jiux.net.plugin.restful.navigation.action.RestServiceItem;
+import jiux.net.plugin.utils.RestServiceDataKeys;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Edits the request timeouts of the module of the selected service, see
+ * {@link RequestTimeoutSettings}.
+ */
+public class EditRequestTimeoutsAction extends AnAction implements DumbAware {
+
+  private static final int MAX_TIMEOUT_MS = 3_600_000;
+
+  @Override
+  public void update(@NotNull AnActionEvent e) {
+    e.getPresentation().setEnabled(e.getProject() != null && getModuleName(e) != null);
+  }
+
+  @Override
+  public void actionPerformed(@NotNull AnActionEvent e) {
+    Project project = e.getProject();
+    String moduleName = getModuleName(e);
+    if (project == null || moduleName == null) {
+      return;
+    }
+    RequestTimeoutSettings settings = RequestTimeoutSettings.getInstance(project);
+    TimeoutsDialog dialog = new TimeoutsDialog(
+      project,
+      moduleName,
+      settings.getTimeouts(moduleName)
+    );
+    if (dialog.showAndGet()) {
+      settings.setTimeouts(moduleName, dialog.getTimeouts());
+    }
+  }
+
+  @Nullable
+  private static String getModuleName(AnActionEvent e) {
+    List<RestServiceItem> serviceItems = RestServiceDataKeys.SERVICE_ITEMS.getData(
+      e.getDataContext()
+    );
+    if (serviceItems == null || serviceItems.isEmpty()) {
+      return null;
+    }
+    return serviceItems.get(0).getModuleName();
+  }
+
+  private static final class TimeoutsDialog extends DialogWrapper {
+
+    private final JBIntSpinner myConnectSpinner;
+    private final JBIntSpinner myReadSpinner;
+    private final JBIntSpinner myTotalSpinner;
+
+    TimeoutsDialog(Project project, String moduleName, RequestTimeouts timeouts) {
+      super(project);
+      myConnectSpinner = createSpinner(timeouts.getConnectMs());
+      myReadSpinner = createSpinner(timeouts.getReadMs());
+      myTotalSpinner = createSpinner(timeouts.getTotalMs());
+      setTitle("Request Timeouts of " + moduleName);
+      init();
+    }
+
+    private static JBIntSpinner createSpinner(int valueMs) {
+      return new JBIntSpinner(valueMs, 0, MAX_TIMEOUT_MS, 500);
+    }
+
+    @Override
+    protected JComponent createCenterPanel() {
+      return FormBuilder
+        .createFormBuilder()
+        .addLabeledComponent("Connect timeout (ms):", myConnectSpinner)
+        .addLabeledComponent("Read timeout (ms):", myReadSpinner)
+        .addLabeledComponent("Total timeout (ms):", myTotalSpinner)
+        .addComponentToRightColumn(new JBLabel("0 for none"))
+        .getPanel();
+    }
+
+    RequestTimeouts getTimeouts() {
+      return new RequestTimeouts(
+        myConnectSpinner.getNumber(),
+        myReadSpinner.getNumber(),
+        myTotalSpinner.getNumber()
+      );
+    }
+  }
+}
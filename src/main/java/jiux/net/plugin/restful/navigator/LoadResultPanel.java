@@ -0,0 +1,177 @@
+package jiux.net.plugin.restful.navigator;
+
+import com.intellij.icons.AllIcons;
+import com.intellij.openapi.actionSystem.ActionManager;
+import com.intellij.openapi.actionSystem.ActionToolbar;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.DefaultActionGroup;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.fileChooser.FileChooserFactory;
+import com.intellij.openapi.fileChooser.FileSaverDescriptor;
+import com.intellij.openapi.project.DumbAwareAction;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.openapi.ui.SimpleToolWindowPanel;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileWrapper;
+import com.intellij.ui.ScrollPaneFactory;
+import com.intellij.ui.components.JBTextArea;
+import com.intellij.util.ui.JBUI;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Function;
+import jiux.net.plugin.restful.load.LatencyHistogram;
+import jiux.net.plugin.restful.load.LoadResult;
+import jiux.net.plugin.restful.load.LoadResultExporter;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Load tab of the request panel: report of the last load test, the previous runs of the
+ * same endpoint, and their export to compare them elsewhere.
+ */
+class LoadResultPanel extends SimpleToolWindowPanel {
+
+  private static final Logger LOG = Logger.getInstance(LoadResultPanel.class);
+
+  private final Project myProject;
+  private final JBTextArea myReport = new JBTextArea();
+  private List<LoadResult> myRuns = Collections.emptyList();
+  private String myFileName = "load-test";
+
+  LoadResultPanel(@Nullable Project project) {
+    super(true, true);
+    myProject = project;
+
+    DefaultActionGroup group = new DefaultActionGroup();
+    group.add(
+      new DumbAwareAction(
+        "Export as CSV",
+        "Save the latency by percentile of the runs of this endpoint, one column per run",
+        AllIcons.ToolbarDecorator.Export
+      ) {
+        @Override
+        public void actionPerformed(@NotNull AnActionEvent e) {
+          export("csv", LoadResultExporter::toCsv);
+        }
+
+        @Override
+        public void update(@NotNull AnActionEvent e) {
+          e.getPresentation().setEnabled(!myRuns.isEmpty());
+        }
+      }
+    );
+    group.add(
+      new DumbAwareAction(
+        "Export as HdrHistogram Log",
+        "Save the histograms of the runs of this endpoint as an HdrHistogram log",
+        AllIcons.Actions.Download
+      ) {
+        @Override
+        public void actionPerformed(@NotNull AnActionEvent e) {
+          export("hlog", LoadResultExporter::toHistogramLog);
+        }
+
+        @Override
+        public void update(@NotNull AnActionEvent e) {
+          e.getPresentation().setEnabled(!myRuns.isEmpty());
+        }
+      }
+    );
+    ActionToolbar toolbar = ActionManager
+      .getInstance()
+      .createActionToolbar("RestToolkit Load Test Toolbar", group, true);
+    toolbar.setTargetComponent(this);
+    setToolbar(toolbar.getComponent());
+
+    myReport.setEditable(false);
+    myReport.setFont(JBUI.Fonts.create("Monospaced", 12));
+    setContent(ScrollPaneFactory.createScrollPane(myReport));
+  }
+
+  /**
+   * @param runs of one endpoint, oldest first, the last one reported in full
+   * @param fileName suggested name of the exported files, without extension
+   */
+  void setRuns(@NotNull List<LoadResult> runs, @NotNull String fileName) {
+    myRuns = runs;
+    myFileName = fileName;
+    myReport.setText(buildReport());
+    myReport.setCaretPosition(0);
+  }
+
+  void clear() {
+    myRuns = Collections.emptyList();
+    myReport.setText("");
+  }
+
+  private String buildReport() {
+    if (myRuns.isEmpty()) {
+      return "";
+    }
+    StringBuilder sb = new StringBuilder(myRuns.get(myRuns.size() - 1).toReport());
+    if (myRuns.size() < 2) {
+      return sb.toString();
+    }
+    SimpleDateFormat format = new SimpleDateFormat("HH:mm:ss");
+    sb.append(String.format("%nRuns of this endpoint (ms)%n"));
+    sb.append(
+      String.format(
+        "  %-4s %-8s %-34s %10s %9s %9s %9s %9s%n",
+        "#",
+        "start",
+        "settings",
+        "req/s",
+        "p50",
+        "p99",
+        "p99.9",
+        "max"
+      )
+    );
+    for (int i = 0; i < myRuns.size(); i++) {
+      LoadResult run = myRuns.get(i);
+      LatencyHistogram histogram = run.getHistogram();
+      sb.append(
+        String.format(
+          "  %-4d %-8s %-34s %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+          i + 1,
+          format.format(new Date(run.getStartMillis())),
+          run.getDescription(),
+          run.getThroughput(),
+          histogram.getValueAtPercentile(50) / 1000d,
+          histogram.getValueAtPercentile(99) / 1000d,
+          histogram.getValueAtPercentile(99.9) / 1000d,
+          histogram.getMax() / 1000d
+        )
+      );
+    }
+    return sb.toString();
+  }
+
+  private void export(String extension, Function<List<LoadResult>, String> writer) {
+    VirtualFileWrapper wrapper = FileChooserFactory
+      .getInstance()
+      .createSaveFileDialog(
+        new FileSaverDescriptor(
+          "Export Load Test",
+          "Save the runs of this endpoint",
+          extension
+        ),
+        myProject
+      )
+      .save((VirtualFile) null, myFileName + "." + extension);
+    if (wrapper == null) {
+      return;
+    }
+    try {
+      FileUtil.writeToFile(wrapper.getFile(), writer.apply(myRuns));
+    } catch (IOException e) {
+      LOG.warn(e);
+      Messages.showErrorDialog(myProject, e.getMessage(), "Export Load Test");
+    }
+  }
+}
@@ -0,0 +1,146 @@
+package jiux.net.plugin.restful.navigator;
+
+import com.intellij.ide.util.PropertiesComponent;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.DialogWrapper;
+import com.intellij.ui.JBIntSpinner;
+import com.intellij.ui.components.JBRadioButton;
+import com.intellij.util.ui.FormBuilder;
+import javax.swing.ButtonGroup;
+import javax.swing.JComponent;
+import jiux.net.plugin.restful.http.HttpEngine;
+import jiux.net.plugin.restful.http.RequestTimeouts;
+import jiux.net.plugin.restful.load.LoadRunner;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Asks how a load test sends its requests, remembering the last answer per project:
+ * a number of requests from concurrent workers, or a constant rate for some time.
+ */
+class LoadTestDialog extends DialogWrapper {
+
+  private static final String OPEN_MODEL_KEY = "RestServices.LoadTest.OpenModel";
+  private static final String REQUESTS_KEY = "RestServices.LoadTest.Requests";
+  private static final String CONCURRENCY_KEY = "RestServices.LoadTest.Concurrency";
+  private static final String RATE_KEY = "RestServices.LoadTest.Rate";
+  private static final String DURATION_KEY = "RestServices.LoadTest.Duration";
+  private static final String MAX_CONNECTIONS_KEY =
+    "RestServices.LoadTest.MaxConnections";
+  private static final int DEFAULT_REQUESTS = 1000;
+  private static final int DEFAULT_CONCURRENCY = 8;
+  private static final int DEFAULT_RATE = 100;
+  private static final int DEFAULT_DURATION = 10;
+  private static final int DEFAULT_MAX_CONNECTIONS = 64;
+
+  private final PropertiesComponent myProperties;
+  private final JBRadioButton myClosedButton = new JBRadioButton(
+    "Concurrent workers, each sending once it has its previous response"
+  );
+  private final JBRadioButton myOpenButton = new JBRadioButton(
+    "Constant rate, whatever the response times"
+  );
+  private final JBIntSpinner myRequestsSpinner;
+  private final JBIntSpinner myConcurrencySpinner;
+  private final JBIntSpinner myRateSpinner;
+  private final JBIntSpinner myDurationSpinner;
+  private final JBIntSpinner myMaxConnectionsSpinner;
+
+  LoadTestDialog(@Nullable Project project, String url) {
+    super(project);
+    myProperties =
+      project != null
+        ? PropertiesComponent.getInstance(project)
+        : PropertiesComponent.getInstance();
+    myRequestsSpinner = createSpinner(REQUESTS_KEY, DEFAULT_REQUESTS, 10_000_000, 100);
+    myConcurrencySpinner = createSpinner(CONCURRENCY_KEY, DEFAULT_CONCURRENCY, 1024, 1);
+    myRateSpinner = createSpinner(RATE_KEY, DEFAULT_RATE, 1_000_000, 10);
+    myDurationSpinner = createSpinner(DURATION_KEY, DEFAULT_DURATION, 86_400, 1);
+    myMaxConnectionsSpinner =
+      createSpinner(MAX_CONNECTIONS_KEY, DEFAULT_MAX_CONNECTIONS, 1024, 1);
+
+    ButtonGroup group = new ButtonGroup();
+    group.add(myClosedButton);
+    group.add(myOpenButton);
+    boolean open = myProperties.getBoolean(OPEN_MODEL_KEY);
+    myOpenButton.setSelected(open);
+    myClosedButton.setSelected(!open);
+    myOpenButton.addItemListener(e -> updateEnabled());
+    updateEnabled();
+
+    setTitle("Load Test " + url);
+    setOKButtonText("Run");
+    init();
+  }
+
+  private JBIntSpinner createSpinner(String key, int defaultValue, int max, int step) {
+    return new JBIntSpinner(myProperties.getInt(key, defaultValue), 1, max, step);
+  }
+
+  private void updateEnabled() {
+    boolean open = myOpenButton.isSelected();
+    myRequestsSpinner.setEnabled(!open);
+    myConcurrencySpinner.setEnabled(!open);
+    myRateSpinner.setEnabled(open);
+    myDurationSpinner.setEnabled(open);
+    myMaxConnectionsSpinner.setEnabled(open);
+  }
+
+  @Override
+  protected JComponent createCenterPanel() {
+    return FormBuilder
+      .createFormBuilder()
+      .addComponent(myClosedButton)
+      .addLabeledComponent("Requests:", myRequestsSpinner)
+      .addLabeledComponent("Concurrent workers:", myConcurrencySpinner)
+      .addComponent(myOpenButton)
+      .addLabeledComponent("Requests per second:", myRateSpinner)
+      .addLabeledComponent("Duration (s):", myDurationSpinner)
+      .addLabeledComponent("Max connections:", myMaxConnectionsSpinner)
+      .getPanel();
+  }
+
+  @Override
+  protected void doOKAction() {
+    myProperties.setValue(OPEN_MODEL_KEY, myOpenButton.isSelected());
+    save(REQUESTS_KEY, myRequestsSpinner, DEFAULT_REQUESTS);
+    save(CONCURRENCY_KEY, myConcurrencySpinner, DEFAULT_CONCURRENCY);
+    save(RATE_KEY, myRateSpinner, DEFAULT_RATE);
+    save(DURATION_KEY, myDurationSpinner, DEFAULT_DURATION);
+    save(MAX_CONNECTIONS_KEY, myMaxConnectionsSpinner, DEFAULT_MAX_CONNECTIONS);
+    super.doOKAction();
+  }
+
+  private void save(String key, JBIntSpinner spinner, int defaultValue) {
+    myProperties.setValue(key, spinner.getNumber(), defaultValue);
+  }
+
+  /**
+   * @param template the request to send, as composed in the request panel
+   */
+  @NotNull
+  LoadRunner createRunner(
+    @NotNull HttpRequestBase template,
+    @NotNull RequestTimeouts timeouts,
+    @NotNull HttpEngine engine
+  ) {
+    if (myOpenButton.isSelected()) {
+      return LoadRunner.open(
+        template,
+        timeouts,
+        engine,
+        myRateSpinner.getNumber(),
+        myDurationSpinner.getNumber(),
+        myMaxConnectionsSpinner.getNumber()
+      );
+    }
+    return LoadRunner.closed(
+      template,
+      timeouts,
+      engine,
+      myRequestsSpinner.getNumber(),
+      myConcurrencySpinner.getNumber()
+    );
+  }
+}
@@ -4,20 +4,31 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonParser;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ApplicationManager;
 import com.intellij.openapi.editor.colors.FontPreferences;
 import com.intellij.openapi.ide.CopyPasteManager;
+import com.intellij.openapi.progress.ProcessCanceledException;
 import com.intellij.openapi.progress.ProgressIndicator;
 import com.intellij.openapi.progress.ProgressManager;
 import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.progress.util.ProgressIndicatorUtils;
 import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.Messages;
 import com.intellij.openapi.util.SystemInfo;
 import com.intellij.openapi.util.SystemInfoRt;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.openapi.util.text.StringUtil;
 import com.intellij.psi.PsiElement;
+import com.intellij.ui.OnePixelSplitter;
+import com.intellij.ui.ScrollPaneFactory;
+import com.intellij.ui.components.JBLabel;
 import com.intellij.ui.components.JBPanel;
 import com.intellij.ui.components.JBScrollPane;
+import com.intellij.ui.components.JBTextArea;
 import com.intellij.uiDesigner.core.GridConstraints;
 import com.intellij.uiDesigner.core.GridLayoutManager;
-import java.awt.Component;
+import com.intellij.util.ui.JBUI;
 import java.awt.Font;
 import java.awt.Graphics;
 import java.awt.datatransfer.StringSelection;
@@ -25,8 +36,12 @@ import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
 import javax.swing.BorderFactory;
 import javax.swing.JButton;
 import javax.swing.JPanel;
@@ -36,16 +51,27 @@ import javax.swing.JTextArea;
 import javax.swing.JTextField;
 import jiux.net.plugin.restful.common.Constants;
 import jiux.net.plugin.restful.common.RequestHelper;
+import jiux.net.plugin.restful.http.HttpEngine;
+import jiux.net.plugin.restful.http.HttpEngineSettings;
+import jiux.net.plugin.restful.http.HttpResult;
+import jiux.net.plugin.restful.http.RequestTiming;
+import jiux.net.plugin.restful.http.RequestTimeoutSettings;
+import jiux.net.plugin.restful.http.RequestTimeouts;
+import jiux.net.plugin.restful.http.ResponseBody;
+import jiux.net.plugin.restful.http.ResponseFormatter;
+import jiux.net.plugin.restful.load.LoadHistory;
+import jiux.net.plugin.restful.load.LoadResult;
+import jiux.net.plugin.restful.load.LoadRunner;
 import jiux.net.plugin.restful.navigation.action.RestServiceItem;
 import jiux.net.plugin.utils.JsonUtils;
-import jiux.net.plugin.utils.ToolkitUtil;
 import org.apache.commons.lang.StringUtils;
-import org.apache.http.client.ClientProtocolException;
+import org.apache.http.client.methods.HttpRequestBase;
 import org.fife.ui.rsyntaxtextarea.RSyntaxTextArea;
 import org.fife.ui.rsyntaxtextarea.SyntaxConstants;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
-public class RestServiceDetail extends JBPanel {
+public class RestServiceDetail extends JBPanel implements Disposable {
 
   private static RestServiceDetail restServiceDetail;
   public JTextField urlField;
@@ -58,7 +84,30 @@ public class RestServiceDetail extends JBPanel {
   public RSyntaxTextArea requestParamsTextArea;
   public RSyntaxTextArea requestBodyTextArea;
   public RSyntaxTextArea responseTextArea;
+  private LoadResultPanel loadResultPanel;
+  private final JButton loadButton = new JButton("Load");
   public RestServiceItem restServiceItem;
+  /**
+   * Status, time and connection reuse of the last response.
+   */
+  private final JBLabel responseStatusLabel = new JBLabel();
+  /**
+   * Phases of the last response, below its body in the Response tab.
+   */
+  private final JBTextArea responseTimingArea = new JBTextArea();
+  private JScrollPane responseTimingPane;
+  private OnePixelSplitter responsePanel;
+  /**
+   * Temporary file of the last response too large to keep in memory, deleted with the
+   * next response or with the panel.
+   */
+  private final AtomicReference<Path> myResponseFile = new AtomicReference<>();
+  /**
+   * Rest of the body of the last response, read in the background once its preview is
+   * shown; stopped by the next response.
+   */
+  private final AtomicReference<CompletableFuture<HttpResult>> myResponseDownload =
+    new AtomicReference<>();
 
   private RestServiceDetail() {
     super();
@@ -77,6 +126,7 @@ public class RestServiceDetail extends JBPanel {
 
   private void initActions() {
     bindSendButtonActionListener();
+    bindLoadButtonActionListener();
     bindUrlTextActionListener();
   }
 
@@ -97,7 +147,7 @@ public class RestServiceDetail extends JBPanel {
   private void initUI() {
     urlField.setAutoscrolls(true);
     urlPanel = new JBPanel();
-    GridLayoutManager mgr = new GridLayoutManager(1, 3);
+    GridLayoutManager mgr = new GridLayoutManager(1, 4);
     mgr.setHGap(1);
     mgr.setVGap(1);
     urlPanel.setLayout(mgr);
@@ -150,9 +200,26 @@ public class RestServiceDetail extends JBPanel {
         null
       )
     );
+    loadButton.setToolTipText("Send the request many times and report its latency");
+    urlPanel.add(
+      loadButton,
+      new GridConstraints(
+        0,
+        3,
+        1,
+        1,
+        GridConstraints.ANCHOR_SOUTHEAST,
+        GridConstraints.FILL_BOTH,
+        GridConstraints.SIZEPOLICY_FIXED,
+        GridConstraints.SIZEPOLICY_FIXED,
+        null,
+        null,
+        null
+      )
+    );
 
     this.setBorder(BorderFactory.createEmptyBorder());
-    this.setLayout(new GridLayoutManager(2, 1));
+    this.setLayout(new GridLayoutManager(3, 1));
 
     this.add(
         urlPanel,
@@ -186,91 +253,268 @@ public class RestServiceDetail extends JBPanel {
           null
         )
       );
+    this.add(
+        responseStatusLabel,
+        new GridConstraints(
+          2,
+          0,
+          1,
+          1,
+          GridConstraints.ANCHOR_WEST,
+          GridConstraints.FILL_HORIZONTAL,
+          GridConstraints.SIZEPOLICY_CAN_SHRINK | GridConstraints.SIZEPOLICY_CAN_GROW,
+          GridConstraints.SIZEPOLICY_FIXED,
+          null,
+          null,
+          null
+        )
+      );
   }
 
   private void bindSendButtonActionListener() {
     sendButton.addActionListener(e -> {
+      HttpRequestBase request = composeRequest();
+      String method = methodField.getText();
+      RequestTimeouts timeouts = getRequestTimeouts();
+      HttpEngine engine = getHttpEngine();
       ProgressManager
         .getInstance()
         .run(
-          new Task.Backgroundable(null, "Sending Request") {
+          new Task.Backgroundable(getItemProject(), "Sending Request", true) {
             @Override
             public void run(@NotNull ProgressIndicator indicator) {
-              final Runnable runnable = () -> {
-                try {
-                  String url = urlField.getText();
-                  Map<String, String> headerMap = null;
-                  if (requestParamsTextArea != null) {
-                    String requestParamsText = requestParamsTextArea.getText();
-                    Map<String, String> paramMap = ToolkitUtil.textToParamMap(
-                      requestParamsText
-                    );
-                    if (paramMap.size() > 0) {
-                      // set PathVariable value to request URI
-                      for (String key : paramMap.keySet()) {
-                        url =
-                          url.replaceFirst(
-                            "\\{(" + key + "[\\s\\S]*?)}",
-                            paramMap.get(key)
-                          );
-                      }
-                    }
-
-                    String params = ToolkitUtil.textToRequestParam(requestParamsText);
-                    if (params.length() != 0) {
-                      if (url.contains("?")) {
-                        url += "&" + params;
-                      } else {
-                        url += "?" + params;
-                      }
-                    }
-                  }
-
-                  if (requestHeaderTextArea != null) {
-                    String requestHeaderText = requestHeaderTextArea.getText();
-                    headerMap = ToolkitUtil.textToHeaderMap(requestHeaderText);
-                  }
-
-                  String method = methodField.getText();
-                  String responseText = url;
-
-                  //NOTICE: Send Request.
-                  String response = null;
-                  if (
-                    requestBodyTextArea != null &&
-                    StringUtils.isNotBlank(requestBodyTextArea.getText())
-                  ) {
-                    response =
-                      RequestHelper.postRequestBodyWithJson(
-                        url,
-                        requestBodyTextArea.getText(),
-                        headerMap
-                      );
-                  } else {
-                    try {
-                      response = RequestHelper.request(url, method, headerMap);
-                    } catch (ClientProtocolException ex) {
-                      ex.printStackTrace();
-                    }
-                  }
-
-                  if (response != null) {
-                    responseText = response;
-                  }
-
-                  addResponseTabPanel(responseText);
-                } catch (Exception e) {
-                  e.printStackTrace();
-                  System.err.println("Send Request Error " + e.getMessage());
-                }
-              };
-              runnable.run();
+              if (request == null) {
+                showResponse(
+                  HttpResult.error("not supported method : " + method + "."),
+                  indicator
+                );
+                return;
+              }
+              //NOTICE: Send Request.
+              CompletableFuture<HttpResult> future = RequestHelper.send(
+                request,
+                timeouts,
+                engine
+              );
+              HttpResult response;
+              try {
+                response =
+                  ProgressIndicatorUtils.awaitWithCheckCanceled(future, indicator);
+              } catch (ProcessCanceledException canceled) {
+                // aborts the request, closing its socket
+                future.cancel(true);
+                // or drops its response if it came first
+                future.thenAccept(RestServiceDetail::discard);
+                throw canceled;
+              }
+              showResponse(response, indicator);
             }
           }
         );
     });
   }
 
+  private void bindLoadButtonActionListener() {
+    loadButton.addActionListener(e -> {
+      HttpRequestBase request = composeRequest();
+      if (request == null) {
+        Messages.showErrorDialog(
+          this,
+          "not supported method : " + methodField.getText() + ".",
+          "Load Test"
+        );
+        return;
+      }
+      Project project = getItemProject();
+      LoadTestDialog dialog = new LoadTestDialog(project, request.getURI().toString());
+      if (!dialog.showAndGet()) {
+        return;
+      }
+      LoadRunner runner = dialog.createRunner(
+        request,
+        getRequestTimeouts(),
+        getHttpEngine()
+      );
+      // runs of the same endpoint are compared
+      String key = restServiceItem != null
+        ? restServiceItem.getIdentity()
+        : request.getMethod() + " " + request.getURI();
+      ProgressManager
+        .getInstance()
+        .run(
+          new Task.Backgroundable(project, "Running Load Test", true) {
+            @Override
+            public void run(@NotNull ProgressIndicator indicator) {
+              indicator.setIndeterminate(false);
+              // the result of a cancelled run is shown too
+              LoadResult result = runner.run(indicator);
+              List<LoadResult> runs;
+              if (project != null && !project.isDisposed()) {
+                LoadHistory history = LoadHistory.getInstance(project);
+                history.add(key, result);
+                runs = history.getRuns(key);
+              } else {
+                runs = List.of(result);
+              }
+              String fileName = FileUtil.sanitizeFileName(key.replace(' ', '-'));
+              invokeLater(() -> addLoadResultTabPanel(runs, fileName));
+            }
+          }
+        );
+    });
+  }
+
+  /**
+   * The request as entered: path variables and parameters applied to the url, headers,
+   * and the JSON body if any.
+   *
+   * @return null if the method is not supported
+   */
+  @Nullable
+  private HttpRequestBase composeRequest() {
+    return RequestHelper.composeRequest(
+      urlField.getText(),
+      methodField.getText(),
+      requestParamsTextArea != null ? requestParamsTextArea.getText() : null,
+      requestHeaderTextArea != null ? requestHeaderTextArea.getText() : null,
+      requestBodyTextArea != null ? requestBodyTextArea.getText() : null
+    );
+  }
+
+  /**
+   * Shows the beginning of the body as received at once, then pretty-printed. A large
+   * body is shown once its preview is read, then again once the rest is downloaded.
+   */
+  private void showResponse(HttpResult response, ProgressIndicator indicator) {
+    ResponseBody body = response.getResponseBody();
+    Path previousFile = myResponseFile.getAndSet(body.getFile());
+    if (previousFile != null) {
+      FileUtil.delete(previousFile);
+    }
+    CompletableFuture<HttpResult> previousDownload = myResponseDownload.getAndSet(
+      response.getCompleted()
+    );
+    if (previousDownload != null) {
+      previousDownload.cancel(true);
+    }
+    if (response.isError()) {
+      invokeLater(() -> {
+        addResponseTabPanel(response.getBody());
+        showResponseStatus(response);
+      });
+      return;
+    }
+    if (ResponseFormatter.isJson(body)) {
+      invokeLater(() -> {
+        addResponseTabPanel(body.getText());
+        showResponseStatus(response);
+      });
+    }
+    showFormatted(response, indicator);
+    if (body.isComplete()) {
+      return;
+    }
+    HttpResult whole = awaitDownload(response.getCompleted(), indicator);
+    if (whole != null) {
+      showFormatted(whole, indicator);
+    }
+  }
+
+  private void showFormatted(HttpResult response, ProgressIndicator indicator) {
+    indicator.setText("Formatting response");
+    String text = ResponseFormatter.format(response.getResponseBody());
+    invokeLater(() -> {
+      addResponseTabPanel(text);
+      showResponseStatus(response);
+    });
+  }
+
+  /**
+   * @return null if the download failed or was stopped by the next response
+   */
+  @Nullable
+  private HttpResult awaitDownload(
+    CompletableFuture<HttpResult> download,
+    ProgressIndicator indicator
+  ) {
+    indicator.setText("Downloading response");
+    HttpResult whole;
+    try {
+      whole =
+        ProgressIndicatorUtils.awaitWithCheckCanceled(
+          download.handle((result, error) -> result),
+          indicator
+        );
+    } catch (ProcessCanceledException canceled) {
+      // aborts the download, the preview stays shown
+      download.cancel(true);
+      throw canceled;
+    }
+    if (whole == null && !download.isCancelled()) {
+      invokeLater(() ->
+        responseStatusLabel.setText(responseStatusLabel.getText() + " · download failed")
+      );
+    }
+    return whole;
+  }
+
+  /**
+   * Stops reading the body of a response that is not shown and deletes its file.
+   */
+  private static void discard(HttpResult response) {
+    response.getCompleted().cancel(true);
+    Path file = response.getResponseBody().getFile();
+    if (file != null) {
+      FileUtil.delete(file);
+    }
+  }
+
+  @Override
+  public void dispose() {
+    CompletableFuture<HttpResult> download = myResponseDownload.getAndSet(null);
+    if (download != null) {
+      download.cancel(true);
+    }
+    Path file = myResponseFile.getAndSet(null);
+    if (file != null) {
+      FileUtil.delete(file);
+    }
+  }
+
+  private static void invokeLater(Runnable runnable) {
+    ApplicationManager.getApplication().invokeLater(runnable);
+  }
+
+  private Project getItemProject() {
+    return restServiceItem != null ? restServiceItem.getProject() : null;
+  }
+
+  /**
+   * Timeouts of the module of the request shown, the defaults if it has none.
+   */
+  private RequestTimeouts getRequestTimeouts() {
+    Project project = getItemProject();
+    if (project == null || project.isDisposed()) {
+      return RequestTimeouts.defaults();
+    }
+    return RequestTimeoutSettings
+      .getInstance(project)
+      .getTimeouts(restServiceItem.getModuleName());
+  }
+
+  /**
+   * Engine of the module of the request shown, Apache HttpClient if it has none.
+   */
+  private HttpEngine getHttpEngine() {
+    Project project = getItemProject();
+    if (project == null || project.isDisposed()) {
+      return HttpEngine.APACHE;
+    }
+    return HttpEngineSettings
+      .getInstance(project)
+      .getEngine(restServiceItem.getModuleName());
+  }
+
   private void bindUrlTextActionListener() {
     requestTabbedPane.addMouseListener(
       new MouseAdapter() {
@@ -311,6 +555,25 @@ public class RestServiceDetail extends JBPanel {
   }
 
   public void addRequestParamsTab(String requestParams) {
+    Map<String, String> params = new LinkedHashMap<>();
+    if (StringUtils.isNotBlank(requestParams)) {
+      String[] paramArray = requestParams.split("&");
+      for (String paramPairStr : paramArray) {
+        String[] paramPair = paramPairStr.split("=");
+
+        String param = paramPair[0];
+        String value = paramPairStr.substring(param.length() + 1);
+        params.put(param, value);
+      }
+    }
+    addRequestParamsTab(params);
+  }
+
+  /**
+   * @param params values may contain {@code &} and {@code =}, unlike in
+   * {@link #addRequestParamsTab(String)}
+   */
+  public void addRequestParamsTab(Map<String, String> params) {
     if (requestHeaderTextArea == null) {
       requestHeaderTextArea =
         createTextArea("key:value", SyntaxConstants.SYNTAX_STYLE_NONE);
@@ -321,17 +584,9 @@ public class RestServiceDetail extends JBPanel {
     addHeaderTabbedPane("Headers", requestHeaderTextArea);
 
     StringBuilder paramBuilder = new StringBuilder();
-
-    if (StringUtils.isNotBlank(requestParams)) {
-      String[] paramArray = requestParams.split("&");
-      for (String paramPairStr : paramArray) {
-        String[] paramPair = paramPairStr.split("=");
-
-        String param = paramPair[0];
-        String value = paramPairStr.substring(param.length() + 1);
-        paramBuilder.append(param).append(" : ").append(value).append("\n");
-      }
-    }
+    params.forEach((param, value) ->
+      paramBuilder.append(param).append(" : ").append(value).append("\n")
+    );
     if (requestParamsTextArea == null) {
       requestParamsTextArea =
         createTextArea(paramBuilder.toString(), SyntaxConstants.SYNTAX_STYLE_NONE);
@@ -375,27 +630,83 @@ public class RestServiceDetail extends JBPanel {
     requestTabbedPane.setSelectedComponent(jbScrollPane);
   }
 
+  private void addLoadResultTabPanel(List<LoadResult> runs, String fileName) {
+    String loadTabTitle = "Load";
+    if (loadResultPanel == null) {
+      loadResultPanel = new LoadResultPanel(getItemProject());
+    }
+    loadResultPanel.setRuns(runs, fileName);
+    int index = requestTabbedPane.indexOfTab(loadTabTitle);
+    if (index >= 0) {
+      requestTabbedPane.setSelectedIndex(index);
+    } else {
+      requestTabbedPane.addTab(loadTabTitle, loadResultPanel);
+      requestTabbedPane.setSelectedComponent(loadResultPanel);
+    }
+  }
+
   public void addResponseTabPanel(String text) {
     String responseTabTitle = "Response";
     if (responseTextArea == null) {
       responseTextArea = createTextArea(text, SyntaxConstants.SYNTAX_STYLE_NONE);
-      addRequestTabbedPane(responseTabTitle, responseTextArea);
+      responseTextArea.addKeyListener(new TextAreaKeyAdapter(responseTextArea));
+      responseTimingArea.setEditable(false);
+      responseTimingArea.setFont(JBUI.Fonts.create("Monospaced", 12));
+      responseTimingPane = ScrollPaneFactory.createScrollPane(responseTimingArea);
+      responseTimingPane.setVisible(false);
+      responsePanel = new OnePixelSplitter(true, .7f);
+      responsePanel.setFirstComponent(
+        new JBScrollPane(
+          responseTextArea,
+          JBScrollPane.VERTICAL_SCROLLBAR_AS_NEEDED,
+          JBScrollPane.HORIZONTAL_SCROLLBAR_AS_NEEDED
+        )
+      );
+      responsePanel.setSecondComponent(responseTimingPane);
     } else {
-      Component componentAt = null;
       responseTextArea.setText(text);
-      int tabCount = requestTabbedPane.getTabCount();
-      for (int i = 0; i < tabCount; i++) {
-        if (requestTabbedPane.getTitleAt(i).equals(responseTabTitle)) {
-          componentAt = requestTabbedPane.getComponentAt(i);
-          requestTabbedPane.addTab(responseTabTitle, componentAt);
-          requestTabbedPane.setSelectedComponent(componentAt);
-          break;
-        }
-      }
-      if (componentAt == null) {
-        addRequestTabbedPane(responseTabTitle, responseTextArea);
-      }
     }
+    int index = requestTabbedPane.indexOfTab(responseTabTitle);
+    if (index >= 0) {
+      requestTabbedPane.setSelectedIndex(index);
+    } else {
+      requestTabbedPane.addTab(responseTabTitle, responsePanel);
+      requestTabbedPane.setSelectedComponent(responsePanel);
+    }
+  }
+
+  private void showResponseStatus(HttpResult response) {
+    RequestTiming timing = response.getTiming();
+    responseTimingArea.setText(timing != null ? timing.toWaterfall() : "");
+    responseTimingArea.setCaretPosition(0);
+    if (responseTimingPane != null) {
+      responseTimingPane.setVisible(timing != null);
+      responsePanel.revalidate();
+    }
+    if (response.isError()) {
+      responseStatusLabel.setText("");
+      return;
+    }
+    ResponseBody body = response.getResponseBody();
+    String status = String.format(
+      "%d · %s · %.0f ms · ",
+      response.getStatusCode(),
+      response.getProtocol(),
+      response.getElapsedMs()
+    );
+    // only the timed engine knows the connection
+    if (timing != null) {
+      status +=
+        (response.isConnectionReused() ? "reused connection" : "new connection") + " · ";
+    }
+    status += StringUtil.formatFileSize(body.getSize());
+    if (!body.isComplete()) {
+      status += " so far, downloading";
+    } else if (body.getBytesPerSecond() > 0) {
+      long rate = (long) body.getBytesPerSecond();
+      status += " at " + StringUtil.formatFileSize(rate) + "/s";
+    }
+    responseStatusLabel.setText(status);
   }
 
   @NotNull
@@ -482,12 +793,36 @@ public class RestServiceDetail extends JBPanel {
     resetTextComponent(requestBodyTextArea);
 
     resetTextComponent(responseTextArea);
+    if (loadResultPanel != null) {
+      loadResultPanel.clear();
+    }
+    responseStatusLabel.setText("");
+    responseTimingArea.setText("");
   }
 
   public void setAllValueFromState() {
-    setValueFromState(requestHeaderTextArea);
-    setValueFromState(requestParamsTextArea);
-    setValueFromState(requestBodyTextArea);
+    if (restServiceItem != null) {
+      setAllValueFromState(restServiceItem.getKey());
+    }
+  }
+
+  /**
+   * @param key {@link RestServiceItem#getKey()} of the shown item, which reads the module
+   * configuration and is better computed off EDT
+   */
+  public void setAllValueFromState(String key) {
+    setAllValueFromState(key, true);
+  }
+
+  /**
+   * @param restoreParams false to keep the parameters shown, e.g. those of a pasted url
+   */
+  public void setAllValueFromState(String key, boolean restoreParams) {
+    setValueFromState(requestHeaderTextArea, key);
+    if (restoreParams) {
+      setValueFromState(requestParamsTextArea, key);
+    }
+    setValueFromState(requestBodyTextArea, key);
   }
 
   private void resetTextComponent(JTextArea textComponent) {
@@ -496,10 +831,9 @@ public class RestServiceDetail extends JBPanel {
     }
   }
 
-  private void setValueFromState(JTextArea textComponent) {
+  private void setValueFromState(JTextArea textComponent, String key) {
     if (restServiceItem != null && textComponent != null) {
-      String key = restServiceItem.getKey();
-      Project project = restServiceItem.getModule().getProject();
+      Project project = restServiceItem.getProject();
       RestServicesRequestManager restServicesRequestManager = project.getComponent(
         RestServicesRequestManager.class
       );
@@ -0,0 +1,221 @@
+package jiux.net.plugin.restful.navigator;
+
+import com.intellij.icons.AllIcons;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.actionSystem.ActionManager;
+import com.intellij.openapi.actionSystem.ActionToolbar;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.DefaultActionGroup;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.fileChooser.FileChooserFactory;
+import com.intellij.openapi.fileChooser.FileSaverDescriptor;
+import com.intellij.openapi.project.DumbAwareAction;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.openapi.ui.SimpleToolWindowPanel;
+import com.intellij.openapi.util.io.FileUtil;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileWrapper;
+import com.intellij.ui.ScrollPaneFactory;
+import com.intellij.ui.components.JBTextArea;
+import com.intellij.util.ui.JBUI;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import jiux.net.plugin.restful.diagnostics.IndexingStats;
+import jiux.net.plugin.restful.diagnostics.ModuleStats;
+import jiux.net.plugin.restful.diagnostics.RefreshStats;
+import jiux.net.plugin.restful.diagnostics.ResolverStats;
+import jiux.net.plugin.restful.diagnostics.RestServiceDiagnostics;
+import jiux.net.plugin.restful.service.RestEndpointCache;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Diagnostics tab of the RestServices tool window: timings of the last refreshes, endpoint
+ * cache hit ratio, retained size of the endpoint store and indexing cost per resolver.
+ */
+public class RestServiceDiagnosticsPanel
+  extends SimpleToolWindowPanel
+  implements Disposable {
+
+  private static final Logger LOG = Logger.getInstance(RestServiceDiagnosticsPanel.class);
+
+  private final Project myProject;
+  private final RestServiceDiagnostics myDiagnostics;
+  private final JBTextArea myReport = new JBTextArea();
+
+  public RestServiceDiagnosticsPanel(Project project) {
+    super(true, true);
+    myProject = project;
+    myDiagnostics = RestServiceDiagnostics.getInstance(project);
+
+    DefaultActionGroup group = new DefaultActionGroup();
+    group.add(
+      new DumbAwareAction("Refresh", "Reload the diagnostics", AllIcons.Actions.Refresh) {
+        @Override
+        public void actionPerformed(@NotNull AnActionEvent e) {
+          updateReport();
+        }
+      }
+    );
+    group.add(
+      new DumbAwareAction(
+        "Export as JSON",
+        "Save the last refreshes as JSON to attach to a bug report",
+        AllIcons.ToolbarDecorator.Export
+      ) {
+        @Override
+        public void actionPerformed(@NotNull AnActionEvent e) {
+          exportJson();
+        }
+      }
+    );
+    ActionToolbar toolbar = ActionManager
+      .getInstance()
+      .createActionToolbar("RestToolkit Diagnostics Toolbar", group, true);
+    toolbar.setTargetComponent(this);
+    setToolbar(toolbar.getComponent());
+
+    myReport.setEditable(false);
+    myReport.setFont(JBUI.Fonts.create("Monospaced", 12));
+    setContent(ScrollPaneFactory.createScrollPane(myReport));
+
+    myDiagnostics.addListener(
+      () -> ApplicationManager.getApplication().invokeLater(this::updateReport),
+      this
+    );
+    updateReport();
+  }
+
+  private void updateReport() {
+    myReport.setText(buildReport());
+    myReport.setCaretPosition(0);
+  }
+
+  private String buildReport() {
+    StringBuilder sb = new StringBuilder();
+    long hits = myDiagnostics.getCacheHits();
+    long misses = myDiagnostics.getCacheMisses();
+    sb.append(
+      String.format(
+        "Endpoint cache: %d hits, %d misses (%.0f%% hit)%n%n",
+        hits,
+        misses,
+        hits + misses == 0 ? 0d : 100d * hits / (hits + misses)
+      )
+    );
+
+    RestEndpointCache.Footprint footprint = ReadAction.compute(() ->
+      RestEndpointCache.getInstance(myProject).getFootprint()
+    );
+    sb.append(
+      String.format(
+        "Endpoint store: %d modules, %d endpoints, %d distinct strings, ~%d KB retained%n%n",
+        footprint.getModules(),
+        footprint.getItems(),
+        footprint.getStrings(),
+        footprint.getBytes() / 1024
+      )
+    );
+
+    List<RefreshStats> refreshes = myDiagnostics.getRefreshes();
+    if (refreshes.isEmpty()) {
+      sb.append("No refresh recorded yet.\n\n");
+    } else {
+      SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+      RefreshStats last = refreshes.get(0);
+      sb.append(
+        String.format(
+          "Last refresh at %s: %.1f ms, %d endpoints, cache %d hit / %d miss%n",
+          format.format(new Date(last.getStartedAt())),
+          last.getTotalMs(),
+          last.getItemCount(),
+          last.getCacheHits(),
+          last.getCacheMisses()
+        )
+      );
+      sb.append(
+        String.format("  %-32s %10s %6s %8s%n", "module", "wall ms", "cache", "items")
+      );
+      for (ModuleStats module : last.getModules()) {
+        sb.append(
+          String.format(
+            "  %-32s %10.1f %6s %8d%n",
+            module.getModule(),
+            module.getWallMs(),
+            module.isCacheHit() ? "hit" : "miss",
+            module.getItemCount()
+          )
+        );
+        for (Map.Entry<String, ResolverStats> entry : module.getResolvers().entrySet()) {
+          ResolverStats resolver = entry.getValue();
+          sb.append(
+            String.format(
+              "    %-12s index %8.1f ms  build %8.1f ms %8d items%n",
+              entry.getKey(),
+              resolver.getIndexQueryMs(),
+              resolver.getBuildMs(),
+              resolver.getItemCount()
+            )
+          );
+        }
+      }
+
+      sb.append("\nPrevious refreshes\n");
+      for (RefreshStats refresh : refreshes.subList(1, refreshes.size())) {
+        sb.append(
+          String.format(
+            "  %s %10.1f ms %8d endpoints%n",
+            format.format(new Date(refresh.getStartedAt())),
+            refresh.getTotalMs(),
+            refresh.getItemCount()
+          )
+        );
+      }
+      sb.append('\n');
+    }
+
+    sb.append("Indexing since IDE start\n");
+    for (Map.Entry<String, IndexingStats.Snapshot> entry : IndexingStats
+      .snapshot()
+      .entrySet()) {
+      IndexingStats.Snapshot snapshot = entry.getValue();
+      sb.append(
+        String.format(
+          "  %-12s %10.1f ms %8d classes %8d endpoints%n",
+          entry.getKey(),
+          snapshot.getTotalMs(),
+          snapshot.getClasses(),
+          snapshot.getEndpoints()
+        )
+      );
+    }
+    return sb.toString();
+  }
+
+  private void exportJson() {
+    VirtualFileWrapper wrapper = FileChooserFactory
+      .getInstance()
+      .createSaveFileDialog(
+        new FileSaverDescriptor("Export Diagnostics", "Save diagnostics as JSON", "json"),
+        myProject
+      )
+      .save((VirtualFile) null, "restful-toolkit-diagnostics.json");
+    if (wrapper == null) {
+      return;
+    }
+    try {
+      FileUtil.writeToFile(wrapper.getFile(), myDiagnostics.toJson());
+    } catch (IOException e) {
+      LOG.warn(e);
+      Messages.showErrorDialog(myProject, e.getMessage(), "Export Diagnostics");
+    }
+  }
+
+  @Override
+  public void dispose() {}
+}
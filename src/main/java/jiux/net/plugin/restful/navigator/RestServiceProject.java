@@ -29,6 +29,7 @@ public class RestServiceProject {
   }
 
   public RestServiceProject(Module module, List<RestServiceItem> serviceItems) {
+    this.module = module;
     this.moduleName = module.getName();
     port = port;
     appName = moduleName;
@@ -69,6 +70,10 @@ public class RestServiceProject {
     this.module = module;
   }
 
+  public List<RestServiceItem> getServiceItems() {
+    return serviceItems;
+  }
+
   public String getApplicationClass() {
     return applicationClass;
   }
@@ -3,9 +3,14 @@ package jiux.net.plugin.restful.navigator;
 import com.intellij.icons.AllIcons;
 import com.intellij.ide.DefaultTreeExpander;
 import com.intellij.ide.TreeExpander;
+import com.intellij.ide.projectView.PresentationData;
 import com.intellij.ide.todo.TodoTreeBuilder;
 import com.intellij.lang.java.JavaLanguage;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.application.ModalityState;
+import com.intellij.openapi.application.ReadAction;
 import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.module.Module;
 import com.intellij.openapi.project.Project;
 import com.intellij.psi.PsiElement;
 import com.intellij.psi.PsiMethod;
@@ -16,23 +21,29 @@ import com.intellij.ui.treeStructure.SimpleNode;
 import com.intellij.ui.treeStructure.SimpleTree;
 import com.intellij.ui.treeStructure.SimpleTreeStructure;
 import com.intellij.util.OpenSourceUtil;
-import gnu.trove.THashMap;
+import com.intellij.util.concurrency.AppExecutorUtil;
 import java.awt.event.InputEvent;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
 import javax.swing.Icon;
 import javax.swing.tree.TreePath;
+import jiux.net.plugin.restful.accesslog.AccessLogService;
 import jiux.net.plugin.restful.common.KtFunctionHelper;
 import jiux.net.plugin.restful.common.PsiMethodHelper;
+import jiux.net.plugin.restful.common.RequestPrefill;
 import jiux.net.plugin.restful.common.ToolkitIcons;
 import jiux.net.plugin.restful.method.HttpMethod;
 import jiux.net.plugin.restful.navigation.action.RestServiceItem;
 import jiux.net.plugin.restful.service.ProjectInitService;
+import jiux.net.plugin.restful.service.RestServiceModel;
 import org.apache.commons.lang.StringUtils;
 import org.jetbrains.annotations.NonNls;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.jetbrains.concurrency.CancellablePromise;
 import org.jetbrains.kotlin.idea.KotlinLanguage;
 import org.jetbrains.kotlin.psi.KtNamedFunction;
 
@@ -40,8 +51,6 @@ public class RestServiceStructure extends SimpleTreeStructure {
 
   public static final Logger LOG = Logger.getInstance(RestServiceStructure.class);
   private final Project myProject;
-  private final Map<RestServiceProject, ProjectNode> myProjectToNodeMapping =
-    new THashMap<>();
   RestServiceDetail myRestServiceDetail;
   private SimpleTree myTree;
   private TreeExpander myTreeExpander;
@@ -49,6 +58,10 @@ public class RestServiceStructure extends SimpleTreeStructure {
   private int serviceCount = 0;
   private StructureTreeModel<RestServiceStructure> structureTreeModel;
   private AsyncTreeModel asyncTreeModel;
+  /**
+   * Computation of the detail panel for the selected endpoint, accessed on EDT only.
+   */
+  CancellablePromise<?> myDetailPromise;
 
   public RestServiceStructure(Project project, SimpleTree tree) {
     myProject = project;
@@ -111,35 +124,90 @@ public class RestServiceStructure extends SimpleTreeStructure {
   }
 
   public void update() {
-    update(false);
+    update(null);
   }
 
-  public void update(boolean needRefresh) {
-    List<RestServiceProject> projects = ProjectInitService
+  /**
+   * Resolves all modules in the background. Modules are shown as soon as they are resolved,
+   * the final result then replaces the whole tree.
+   *
+   * @param onFinished called on EDT once the whole tree has been replaced, not called if
+   * the scan is cancelled
+   */
+  public void update(@Nullable Runnable onFinished) {
+    ProjectInitService
       .getInstance(myProject)
-      .getServiceProjects();
-    updateProjects(projects);
-    if (needRefresh) {
-      structureTreeModel.invalidate();
-    }
+      .loadServiceProjects(
+        this::updateProject,
+        projects -> {
+          updateProjects(projects);
+          RestServiceModel.getInstance(myProject).reset(projects);
+          // modules streamed in before may have been replaced, so always refresh here
+          structureTreeModel.invalidate();
+          if (onFinished != null) {
+            onFinished.run();
+          }
+        }
+      );
+  }
+
+  private void updateProject(RestServiceProject project) {
+    ProjectNode node = new ProjectNode(myRoot, project);
+    ProjectNode oldNode = myRoot.findProjectNode(project.getModule());
+    if (oldNode != null) {
+      serviceCount -= oldNode.serviceNodes.size();
+      myRoot.projectNodes.set(myRoot.projectNodes.indexOf(oldNode), node);
+    } else {
+      myRoot.projectNodes.add(node);
+    }
+    serviceCount += node.serviceNodes.size();
+    myRoot.cleanUpCache();
+    structureTreeModel.invalidate(myRoot, true);
   }
 
   public void updateProjects(List<RestServiceProject> projects) {
     serviceCount = 0;
     for (RestServiceProject each : projects) {
       serviceCount += each.serviceItems.size();
-      ProjectNode node = findNodeFor(each);
-      if (node == null) {
-        node = new ProjectNode(myRoot, each);
-        myProjectToNodeMapping.put(each, node);
-      }
     }
     myRoot.childrenChanged();
     myRoot.updateProjectNodes(projects);
   }
 
-  private ProjectNode findNodeFor(RestServiceProject project) {
-    return myProjectToNodeMapping.get(project);
+  /**
+   * Applies the endpoints removed from and added to one module without rebuilding the
+   * rest of the tree.
+   */
+  public void applyDelta(
+    @NotNull Module module,
+    @NotNull List<RestServiceItem> removed,
+    @NotNull List<RestServiceItem> added
+  ) {
+    ProjectNode node = myRoot.findProjectNode(module);
+    if (node == null) {
+      if (added.isEmpty()) {
+        return;
+      }
+      node = new ProjectNode(myRoot, new RestServiceProject(module, new ArrayList<>()));
+      myRoot.projectNodes.add(node);
+    }
+
+    int before = node.serviceNodes.size();
+    node.applyDelta(removed, added);
+    serviceCount += node.serviceNodes.size() - before;
+
+    if (node.serviceNodes.isEmpty()) {
+      myRoot.projectNodes.remove(node);
+    }
+    myRoot.cleanUpCache();
+    structureTreeModel.invalidate(myRoot, true);
+  }
+
+  /**
+   * Updates the presentation of every node, e.g. for new access log hit counts.
+   */
+  public void repaintNodes() {
+    structureTreeModel.invalidate();
   }
 
   public void updateFrom(SimpleNode node) {
@@ -164,6 +232,7 @@ public class RestServiceStructure extends SimpleTreeStructure {
   }
 
   private void resetRestServiceDetail() {
+    cancelServiceDetail();
     myRestServiceDetail.resetRequestTabbedPane();
     myRestServiceDetail.setMethodValue(HttpMethod.GET.name());
     myRestServiceDetail.setUrlValue("URL");
@@ -171,6 +240,120 @@ public class RestServiceStructure extends SimpleTreeStructure {
     myRestServiceDetail.initTab();
   }
 
+  /**
+   * 显示服务详情，url
+   * <p>
+   * The url, parameters and body are computed in a background read action, a newer
+   * selection cancels it; only the result is applied on EDT.
+   *
+   * @param prefill parameters of a concrete url the endpoint was found by, shown instead
+   * of the generated and saved ones
+   */
+  public void showServiceDetail(
+    @NotNull RestServiceItem serviceItem,
+    @Nullable RequestPrefill prefill
+  ) {
+    myRestServiceDetail.restServiceItem = serviceItem;
+
+    myRestServiceDetail.resetRequestTabbedPane();
+
+    String method = serviceItem.getMethod() != null
+      ? String.valueOf(serviceItem.getMethod())
+      : HttpMethod.GET.name();
+    myRestServiceDetail.setMethodValue(method);
+    myRestServiceDetail.setUrlValue(serviceItem.getUrl());
+
+    cancelServiceDetail();
+    myDetailPromise =
+      ReadAction
+        .nonBlocking(() -> computeServiceDetail(serviceItem))
+        .inSmartMode(myProject)
+        .expireWith(ProjectInitService.getInstance(myProject))
+        .finishOnUiThread(
+          ModalityState.defaultModalityState(),
+          detail -> {
+            if (myRestServiceDetail.restServiceItem == serviceItem) {
+              applyServiceDetail(detail, prefill);
+            }
+          }
+        )
+        .submit(AppExecutorUtil.getAppExecutorService());
+  }
+
+  private ServiceDetail computeServiceDetail(RestServiceItem serviceItem) {
+    // resolving the parameter and body types of a big DTO froze the navigator
+    ApplicationManager.getApplication().assertIsNonDispatchThread();
+    String requestParams = "";
+    String requestBodyJson = "";
+    PsiElement psiElement = serviceItem.getPsiElement();
+    if (psiElement == null) {
+      // deleted since the last refresh
+    } else if (psiElement.getLanguage() == JavaLanguage.INSTANCE) {
+      PsiMethodHelper psiMethodHelper = PsiMethodHelper
+        .create(serviceItem.getPsiMethod())
+        .withModule(serviceItem.getModule());
+      requestParams = psiMethodHelper.buildParamString();
+      requestBodyJson = psiMethodHelper.buildRequestBodyJson();
+    } else if (psiElement.getLanguage() == KotlinLanguage.INSTANCE) {
+      if (psiElement instanceof KtNamedFunction) {
+        KtNamedFunction ktNamedFunction = (KtNamedFunction) psiElement;
+        KtFunctionHelper ktFunctionHelper = (KtFunctionHelper) KtFunctionHelper
+          .create(ktNamedFunction)
+          .withModule(serviceItem.getModule());
+        requestParams = ktFunctionHelper.buildParamString();
+        requestBodyJson = ktFunctionHelper.buildRequestBodyJson();
+      }
+    }
+    return new ServiceDetail(
+      serviceItem.getFullUrl(),
+      serviceItem.getKey(),
+      requestParams,
+      requestBodyJson
+    );
+  }
+
+  private void applyServiceDetail(
+    ServiceDetail detail,
+    @Nullable RequestPrefill prefill
+  ) {
+    myRestServiceDetail.setUrlValue(detail.fullUrl);
+    if (prefill != null && !prefill.isEmpty()) {
+      myRestServiceDetail.addRequestParamsTab(prefill.applyTo(detail.requestParams));
+    } else {
+      myRestServiceDetail.addRequestParamsTab(detail.requestParams);
+    }
+    if (StringUtils.isNotBlank(detail.requestBodyJson)) {
+      myRestServiceDetail.addRequestBodyTabPanel(detail.requestBodyJson);
+    }
+
+    myRestServiceDetail.setAllValueFromState(detail.key, prefill == null);
+  }
+
+  private void cancelServiceDetail() {
+    if (myDetailPromise != null) {
+      myDetailPromise.cancel();
+      myDetailPromise = null;
+    }
+  }
+
+  /**
+   * What the detail panel shows for one endpoint, computed off EDT.
+   */
+  private static final class ServiceDetail {
+
+    final String fullUrl;
+    final String key;
+    final String requestParams;
+    final String requestBodyJson;
+
+    ServiceDetail(String fullUrl, String key, String requestParams, String requestBodyJson) {
+      this.fullUrl = fullUrl;
+      this.key = key;
+      this.requestParams = requestParams;
+      this.requestBodyJson = requestBodyJson;
+    }
+  }
+
   public abstract class BaseSimpleNode extends CachingSimpleNode {
 
     protected BaseSimpleNode(SimpleNode aParent) {
@@ -232,6 +415,16 @@ public class RestServiceStructure extends SimpleTreeStructure {
       resetRestServiceDetail();
     }
 
+    @Nullable
+    ProjectNode findProjectNode(Module module) {
+      for (ProjectNode projectNode : projectNodes) {
+        if (projectNode.myProject.getModule() == module) {
+          return projectNode;
+        }
+      }
+      return null;
+    }
+
     public void updateProjectNodes(List<RestServiceProject> projects) {
       projectNodes.clear();
       for (RestServiceProject project : projects) {
@@ -280,6 +473,21 @@ public class RestServiceStructure extends SimpleTreeStructure {
       //            updateUpTo(this);
     }
 
+    void applyDelta(List<RestServiceItem> removed, List<RestServiceItem> added) {
+      Set<RestServiceItem> removedItems = Collections.newSetFromMap(
+        new IdentityHashMap<>()
+      );
+      removedItems.addAll(removed);
+      serviceNodes.removeIf(node -> removedItems.contains(node.myServiceItem));
+      myProject.serviceItems.removeIf(removedItems::contains);
+
+      for (RestServiceItem serviceItem : added) {
+        serviceNodes.add(new ServiceNode(this, serviceItem));
+        myProject.serviceItems.add(serviceItem);
+      }
+      cleanUpCache();
+    }
+
     @Override
     protected SimpleNode[] buildChildren() {
       return serviceNodes.toArray(new SimpleNode[serviceNodes.size()]);
@@ -297,13 +505,12 @@ public class RestServiceStructure extends SimpleTreeStructure {
       return "Toolkit.RefreshServices";
     }
 
-    /*
-        @Override
-        @Nullable
-        @NonNls
-        protected String getMenuId() {
-            return "Toolkit.ReimportServices";
-        }*/
+    @Override
+    @Nullable
+    @NonNls
+    protected String getMenuId() {
+      return "Toolkit.NavigatorProjectMenu";
+    }
 
     @Override
     public void handleSelection(SimpleTree tree) {
@@ -346,53 +553,23 @@ public class RestServiceStructure extends SimpleTreeStructure {
       return name;
     }
 
-    @Override
-    public void handleSelection(SimpleTree tree) {
-      ServiceNode selectedNode = (ServiceNode) tree.getSelectedNode();
-      assert selectedNode != null;
-      showServiceDetail(selectedNode.myServiceItem);
-    }
-
     /**
-     * 显示服务详情，url
+     * Shows the hits of the last analyzed access log next to the url.
      */
-    private void showServiceDetail(RestServiceItem serviceItem) {
-      myRestServiceDetail.restServiceItem = serviceItem;
-
-      myRestServiceDetail.resetRequestTabbedPane();
-
-      String method = serviceItem.getMethod() != null
-        ? String.valueOf(serviceItem.getMethod())
-        : HttpMethod.GET.name();
-      myRestServiceDetail.setMethodValue(method);
-      myRestServiceDetail.setUrlValue(serviceItem.getFullUrl());
-
-      String requestParams = "";
-      String requestBodyJson = "";
-      PsiElement psiElement = serviceItem.getPsiElement();
-      if (psiElement.getLanguage() == JavaLanguage.INSTANCE) {
-        PsiMethodHelper psiMethodHelper = PsiMethodHelper
-          .create(serviceItem.getPsiMethod())
-          .withModule(serviceItem.getModule());
-        requestParams = psiMethodHelper.buildParamString();
-        requestBodyJson = psiMethodHelper.buildRequestBodyJson();
-      } else if (psiElement.getLanguage() == KotlinLanguage.INSTANCE) {
-        if (psiElement instanceof KtNamedFunction) {
-          KtNamedFunction ktNamedFunction = (KtNamedFunction) psiElement;
-          KtFunctionHelper ktFunctionHelper = (KtFunctionHelper) KtFunctionHelper
-            .create(ktNamedFunction)
-            .withModule(serviceItem.getModule());
-          requestParams = ktFunctionHelper.buildParamString();
-          requestBodyJson = ktFunctionHelper.buildRequestBodyJson();
-        }
-      }
-
-      myRestServiceDetail.addRequestParamsTab(requestParams);
-      if (StringUtils.isNotBlank(requestBodyJson)) {
-        myRestServiceDetail.addRequestBodyTabPanel(requestBodyJson);
+    @Override
+    protected void update(@NotNull PresentationData presentation) {
+      super.update(presentation);
+      long hits = AccessLogService.getInstance(myProject).getHits(myServiceItem);
+      if (hits > 0) {
+        presentation.setLocationString(String.format("%,d hits", hits));
       }
+    }
 
-      myRestServiceDetail.setAllValueFromState();
+    @Override
+    public void handleSelection(SimpleTree tree) {
+      ServiceNode selectedNode = (ServiceNode) tree.getSelectedNode();
+      assert selectedNode != null;
+      showServiceDetail(selectedNode.myServiceItem, null);
     }
 
     @Override
@@ -402,14 +579,14 @@ public class RestServiceStructure extends SimpleTreeStructure {
         RestServiceItem myServiceItem = selectedNode.myServiceItem;
         PsiElement psiElement = myServiceItem.getPsiElement();
 
-        if (!psiElement.isValid()) {
+        if (psiElement == null || !psiElement.isValid()) {
           // PsiDocumentManager.getInstance(psiMethod.getProject()).commitAllDocuments();
           // try refresh service
-          LOG.info("psiMethod is invalid: ");
-          LOG.info(psiElement.toString());
+          LOG.info("psiMethod is invalid: " + myServiceItem.getUrl());
           RestServicesNavigator
-            .getInstance(myServiceItem.getModule().getProject())
+            .getInstance(myServiceItem.getProject())
             .scheduleStructureUpdate();
+          return;
         }
 
         if (psiElement.getLanguage() == JavaLanguage.INSTANCE) {
@@ -8,6 +8,7 @@ import com.intellij.openapi.components.State;
 import com.intellij.openapi.components.Storage;
 import com.intellij.openapi.components.StoragePathMacros;
 import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.module.Module;
 import com.intellij.openapi.project.Project;
 import com.intellij.openapi.util.WriteExternalException;
 import com.intellij.openapi.wm.ToolWindowAnchor;
@@ -21,13 +22,22 @@ import java.awt.Dimension;
 import java.awt.Graphics;
 import java.awt.Rectangle;
 import java.net.URL;
+import java.util.List;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.tree.TreeSelectionModel;
 import jiux.net.RestfulToolkitBundle;
+import jiux.net.plugin.restful.common.RequestPrefill;
 import jiux.net.plugin.restful.common.ToolkitIcons;
+import jiux.net.plugin.restful.common.spring.AntPathPattern;
+import jiux.net.plugin.restful.common.spring.PathTrie;
+import jiux.net.plugin.restful.navigation.action.RestServiceItem;
+import jiux.net.plugin.restful.service.RestEndpointCache;
+import jiux.net.plugin.restful.service.RestServiceModel;
+import jiux.net.plugin.restful.service.RestServiceRefreshScheduler;
 import jiux.net.plugin.utils.ToolkitUtil;
 import org.jdom.Element;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 /**
@@ -50,6 +60,10 @@ public final class RestServicesNavigator
   protected RestServicesNavigatorState myState = new RestServicesNavigatorState();
   private SimpleTree myTree;
   private ToolWindowEx myToolWindow;
+  private Content myAccessLogContent;
+  private ScenarioPanel myScenarioPanel;
+  private Content myScenarioContent;
+  private Content myCollectionRunContent;
 
   public RestServicesNavigator(Project project) {
     this.project = project;
@@ -123,9 +137,36 @@ public final class RestServicesNavigator
 
     final JPanel panel = new RestServicesNavigatorPanel(project, myTree);
     final ContentFactory contentFactory = ServiceManager.getService(ContentFactory.class);
-    final Content content = contentFactory.createContent(panel, "", false);
+    final Content content = contentFactory.createContent(panel, "Services", false);
     ContentManager contentManager = myToolWindow.getContentManager();
     contentManager.addContent(content);
+
+    final RestServiceDiagnosticsPanel diagnosticsPanel = new RestServiceDiagnosticsPanel(
+      project
+    );
+    final Content diagnosticsContent = contentFactory.createContent(
+      diagnosticsPanel,
+      "Diagnostics",
+      false
+    );
+    diagnosticsContent.setDisposer(diagnosticsPanel);
+    contentManager.addContent(diagnosticsContent);
+
+    final AccessLogPanel accessLogPanel = new AccessLogPanel(project);
+    myAccessLogContent = contentFactory.createContent(accessLogPanel, "Access Log", false);
+    myAccessLogContent.setDisposer(accessLogPanel);
+    contentManager.addContent(myAccessLogContent);
+
+    myScenarioPanel = new ScenarioPanel(project);
+    myScenarioContent = contentFactory.createContent(myScenarioPanel, "Scenarios", false);
+    myScenarioContent.setDisposer(myScenarioPanel);
+    contentManager.addContent(myScenarioContent);
+
+    final CollectionRunPanel collectionRunPanel = new CollectionRunPanel(project);
+    myCollectionRunContent =
+      contentFactory.createContent(collectionRunPanel, "Saved Requests", false);
+    myCollectionRunContent.setDisposer(collectionRunPanel);
+    contentManager.addContent(myCollectionRunContent);
     contentManager.setSelectedContent(content, false);
   }
 
@@ -133,33 +174,39 @@ public final class RestServicesNavigator
     scheduleStructureUpdate(false);
   }
 
+  /**
+   * Bursts of calls are coalesced into one background scan.
+   *
+   * @param needRefresh scan even if no code changed since the last scan
+   */
   public void scheduleStructureUpdate(boolean needRefresh) {
-    scheduleStructureRequest(() -> myStructure.update(needRefresh));
+    if (myToolWindow == null) {
+      return;
+    }
+    RestServiceRefreshScheduler.getInstance(project).schedule(needRefresh);
   }
 
-  private void scheduleStructureRequest(final Runnable r) {
-    if (myToolWindow == null) {
+  /**
+   * Starts a background scan if the tool window is visible, called on EDT by
+   * {@link RestServiceRefreshScheduler}.
+   *
+   * @param onFinished called on EDT once the tree shows the result of the scan
+   */
+  public void updateStructure(Runnable onFinished) {
+    if (myToolWindow == null || !myToolWindow.isVisible()) {
       return;
     }
-    ToolkitUtil.runWhenProjectIsReady(
-      project,
-      () -> {
-        if (!myToolWindow.isVisible()) {
-          return;
-        }
 
-        boolean shouldCreate = myStructure == null;
-        if (shouldCreate) {
-          initStructure();
-        }
+    boolean shouldCreate = myStructure == null;
+    if (shouldCreate) {
+      initStructure();
+    }
 
-        r.run();
-        // fixme: compat
-        //            if (shouldCreate) {
-        //                TreeState.createFrom(myState.treeState).applyTo(myTree);
-        //            }
-      }
-    );
+    myStructure.update(onFinished);
+    // fixme: compat
+    //            if (shouldCreate) {
+    //                TreeState.createFrom(myState.treeState).applyTo(myTree);
+    //            }
   }
 
   private void initStructure() {
@@ -167,7 +214,80 @@ public final class RestServicesNavigator
   }
 
   public void listenForProjectsChanges() {
-    //todo :
+    RestServiceModel.getInstance(project).startListening();
+  }
+
+  /**
+   * Pushes the endpoints that changed in one module to the tree, if it has been built.
+   */
+  public void applyServiceDelta(
+    Module module,
+    List<RestServiceItem> removed,
+    List<RestServiceItem> added
+  ) {
+    if (myStructure == null || myToolWindow == null || !myToolWindow.isVisible()) {
+      return;
+    }
+    myStructure.applyDelta(module, removed, added);
+  }
+
+  /**
+   * Shows the endpoint in the detail panel with the path variables and query parameters
+   * of the concrete url it was found by, e.g. one pasted into Go to Service. Does nothing
+   * if the text is no concrete url.
+   */
+  public void showRequestFromUrl(RestServiceItem item, String text) {
+    String url = text.trim();
+    if (
+      myToolWindow == null ||
+      !PathTrie.isConcretePath(ToolkitUtil.removeRedundancyMarkup(url))
+    ) {
+      return;
+    }
+    if (myStructure == null) {
+      initStructure();
+    }
+    AntPathPattern template = RestEndpointCache
+      .getInstance(project)
+      .getCompiledPattern(item.getUrl());
+    myStructure.showServiceDetail(item, RequestPrefill.of(template, url));
+  }
+
+  /**
+   * Shows the access log tab and the hit counts of the last report in the tree.
+   */
+  public void showAccessLogReport() {
+    if (myToolWindow == null) {
+      return;
+    }
+    if (myStructure != null) {
+      myStructure.repaintNodes();
+    }
+    myToolWindow.getContentManager().setSelectedContent(myAccessLogContent);
+    myToolWindow.show(null);
+  }
+
+  /**
+   * Shows the scenarios tab with the scenario selected.
+   */
+  public void showScenario(@NotNull String name) {
+    if (myToolWindow == null) {
+      return;
+    }
+    myScenarioPanel.selectScenario(name);
+    myToolWindow.getContentManager().setSelectedContent(myScenarioContent);
+    myToolWindow.show(null);
+  }
+
+  /**
+   * Shows the saved requests tab with the last run.
+   */
+  public void showCollectionRun() {
+    if (myToolWindow == null) {
+      return;
+    }
+    myToolWindow.getContentManager().setSelectedContent(myCollectionRunContent);
+    myToolWindow.show(null);
   }
 
   @Nullable
@@ -120,6 +120,9 @@ public class RestServicesNavigatorPanel
     if (RestServiceDataKeys.SERVICE_ITEMS.is(dataId)) {
       return extractServices();
     }
+    if (RestServiceDataKeys.SERVICE_PROJECTS.is(dataId)) {
+      return extractProjects();
+    }
 
     return super.getData(dataId);
   }
@@ -135,4 +138,16 @@ public class RestServicesNavigatorPanel
     }
     return result;
   }
+
+  private List<RestServiceProject> extractProjects() {
+    List<RestServiceProject> result = new ArrayList<>();
+    Collection<? extends RestServiceStructure.BaseSimpleNode> selectedNodes =
+      getSelectedNodes(RestServiceStructure.BaseSimpleNode.class);
+    for (RestServiceStructure.BaseSimpleNode selectedNode : selectedNodes) {
+      if (selectedNode instanceof RestServiceStructure.ProjectNode) {
+        result.add(((RestServiceStructure.ProjectNode) selectedNode).myProject);
+      }
+    }
+    return result;
+  }
 }
@@ -0,0 +1,147 @@
+package jiux.net.plugin.restful.navigator;
+
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.DumbAware;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.Messages;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import jiux.net.plugin.restful.collection.CollectionRunHistory;
+import jiux.net.plugin.restful.collection.CollectionRunResult;
+import jiux.net.plugin.restful.collection.CollectionRunner;
+import jiux.net.plugin.restful.collection.SavedRequest;
+import jiux.net.plugin.restful.http.HttpEngineSettings;
+import jiux.net.plugin.restful.http.RequestTimeoutSettings;
+import jiux.net.plugin.restful.method.HttpMethod;
+import jiux.net.plugin.restful.navigation.action.RestServiceItem;
+import jiux.net.plugin.utils.RestServiceDataKeys;
+import org.apache.commons.collections.CollectionUtils;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Sends the requests saved with Save Url Request for the endpoints of the selected
+ * modules, and shows how they compare to the previous run, see {@link CollectionRunner}.
+ */
+public class RunSavedRequestsAction extends AnAction implements DumbAware {
+
+  private static final String TITLE = "Run Saved Requests";
+
+  @Override
+  public void update(@NotNull AnActionEvent e) {
+    e
+      .getPresentation()
+      .setEnabled(
+        e.getProject() != null &&
+        CollectionUtils.isNotEmpty(
+          RestServiceDataKeys.SERVICE_PROJECTS.getData(e.getDataContext())
+        )
+      );
+  }
+
+  @Override
+  public void actionPerformed(@NotNull AnActionEvent e) {
+    List<RestServiceProject> projects = RestServiceDataKeys.SERVICE_PROJECTS.getData(
+      e.getDataContext()
+    );
+    Project project = e.getProject();
+    if (project == null || CollectionUtils.isEmpty(projects)) {
+      return;
+    }
+    String title = projects
+      .stream()
+      .map(RestServiceProject::getModuleName)
+      .collect(Collectors.joining(", "));
+    List<SavedRequest> requests = collectSavedRequests(project, projects);
+    if (requests.isEmpty()) {
+      Messages.showInfoMessage(
+        project,
+        "No request of " +
+        title +
+        " is saved. Save one with Save Url Request in the menu of a service.",
+        TITLE
+      );
+      return;
+    }
+    RunSavedRequestsDialog dialog = new RunSavedRequestsDialog(
+      project,
+      title,
+      requests.size()
+    );
+    if (!dialog.showAndGet()) {
+      return;
+    }
+
+    RequestTimeoutSettings timeouts = RequestTimeoutSettings.getInstance(project);
+    CollectionRunHistory history = CollectionRunHistory.getInstance(project);
+    CollectionRunner runner = new CollectionRunner(
+      title,
+      requests,
+      timeouts::getTimeouts,
+      HttpEngineSettings.getInstance(project)::getEngine,
+      history::getBaseline,
+      dialog.getParallelism(),
+      dialog.getRepetitions(),
+      dialog.getThreshold()
+    );
+    ProgressManager
+      .getInstance()
+      .run(
+        new Task.Backgroundable(project, "Running Saved Requests of " + title, true) {
+          @Override
+          public void run(@NotNull ProgressIndicator indicator) {
+            indicator.setIndeterminate(false);
+            // the requests done before a cancellation are kept too
+            CollectionRunResult result = runner.run(indicator);
+            history.add(result);
+            ApplicationManager
+              .getApplication()
+              .invokeLater(() ->
+                RestServicesNavigator.getInstance(project).showCollectionRun()
+              );
+          }
+        }
+      );
+  }
+
+  private static List<SavedRequest> collectSavedRequests(
+    Project project,
+    List<RestServiceProject> projects
+  ) {
+    RestServicesRequestState state = RestServicesRequestManager
+      .getInstance(project)
+      .getState();
+    List<SavedRequest> requests = new ArrayList<>();
+    if (state == null) {
+      return requests;
+    }
+    for (RestServiceProject serviceProject : projects) {
+      for (RestServiceItem item : serviceProject.getServiceItems()) {
+        String key = item.getKey();
+        Map<String, String> saved = state.restReqMap.get(key);
+        if (saved == null) {
+          continue;
+        }
+        String method = item.getMethod() != null
+          ? item.getMethod().name()
+          : HttpMethod.GET.name();
+        requests.add(
+          new SavedRequest(
+            key,
+            serviceProject.getModuleName(),
+            method,
+            item.getFullUrl(),
+            saved
+          )
+        );
+      }
+    }
+    return requests;
+  }
+}
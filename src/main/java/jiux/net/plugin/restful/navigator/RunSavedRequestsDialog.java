@@ -0,0 +1,101 @@
+package jiux.net.plugin.restful.navigator;
+
+import com.intellij.ide.util.PropertiesComponent;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.DialogWrapper;
+import com.intellij.ui.JBIntSpinner;
+import com.intellij.util.ui.FormBuilder;
+import javax.swing.JComponent;
+import jiux.net.plugin.restful.collection.LatencyThreshold;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Asks how to run the saved requests and how much slower than before a request may get,
+ * remembering the last answer per project.
+ */
+class RunSavedRequestsDialog extends DialogWrapper {
+
+  private static final String PARALLELISM_KEY = "RestServices.SavedRequests.Parallelism";
+  private static final String REPETITIONS_KEY = "RestServices.SavedRequests.Repetitions";
+  private static final String PERCENT_KEY =
+    "RestServices.SavedRequests.RegressionPercent";
+  private static final String MIN_MS_KEY = "RestServices.SavedRequests.RegressionMinMs";
+  private static final int DEFAULT_PARALLELISM = 4;
+  private static final int DEFAULT_REPETITIONS = 3;
+  private static final int DEFAULT_PERCENT = 20;
+  private static final int DEFAULT_MIN_MS = 10;
+
+  private final PropertiesComponent myProperties;
+  private final JBIntSpinner myParallelismSpinner;
+  private final JBIntSpinner myRepetitionsSpinner;
+  private final JBIntSpinner myPercentSpinner;
+  private final JBIntSpinner myMinMsSpinner;
+
+  RunSavedRequestsDialog(@NotNull Project project, String title, int requests) {
+    super(project);
+    myProperties = PropertiesComponent.getInstance(project);
+    myParallelismSpinner =
+      new JBIntSpinner(
+        myProperties.getInt(PARALLELISM_KEY, DEFAULT_PARALLELISM),
+        1,
+        64,
+        1
+      );
+    myRepetitionsSpinner =
+      new JBIntSpinner(
+        myProperties.getInt(REPETITIONS_KEY, DEFAULT_REPETITIONS),
+        1,
+        100,
+        1
+      );
+    myPercentSpinner =
+      new JBIntSpinner(myProperties.getInt(PERCENT_KEY, DEFAULT_PERCENT), 0, 10_000, 5);
+    myMinMsSpinner =
+      new JBIntSpinner(myProperties.getInt(MIN_MS_KEY, DEFAULT_MIN_MS), 0, 600_000, 5);
+    setTitle("Run " + requests + " Saved Requests of " + title);
+    setOKButtonText("Run");
+    init();
+  }
+
+  @Override
+  protected JComponent createCenterPanel() {
+    return FormBuilder
+      .createFormBuilder()
+      .addLabeledComponent("Requests at once:", myParallelismSpinner)
+      .addLabeledComponent("Repetitions per request (median kept):", myRepetitionsSpinner)
+      .addSeparator()
+      .addLabeledComponent("Regression if slower by more than (%):", myPercentSpinner)
+      .addLabeledComponent("and at least (ms):", myMinMsSpinner)
+      .getPanel();
+  }
+
+  @Override
+  protected void doOKAction() {
+    myProperties.setValue(
+      PARALLELISM_KEY,
+      myParallelismSpinner.getNumber(),
+      DEFAULT_PARALLELISM
+    );
+    myProperties.setValue(
+      REPETITIONS_KEY,
+      myRepetitionsSpinner.getNumber(),
+      DEFAULT_REPETITIONS
+    );
+    myProperties.setValue(PERCENT_KEY, myPercentSpinner.getNumber(), DEFAULT_PERCENT);
+    myProperties.setValue(MIN_MS_KEY, myMinMsSpinner.getNumber(), DEFAULT_MIN_MS);
+    super.doOKAction();
+  }
+
+  int getParallelism() {
+    return myParallelismSpinner.getNumber();
+  }
+
+  int getRepetitions() {
+    return myRepetitionsSpinner.getNumber();
+  }
+
+  @NotNull
+  LatencyThreshold getThreshold() {
+    return new LatencyThreshold(myPercentSpinner.getNumber(), myMinMsSpinner.getNumber());
+  }
+}
@@ -0,0 +1,372 @@
+package jiux.net.plugin.restful.navigator;
+
+import com.intellij.icons.AllIcons;
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.actionSystem.ActionManager;
+import com.intellij.openapi.actionSystem.ActionToolbar;
+import com.intellij.openapi.actionSystem.AnAction;
+import com.intellij.openapi.actionSystem.AnActionEvent;
+import com.intellij.openapi.actionSystem.DefaultActionGroup;
+import com.intellij.openapi.application.ApplicationManager;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.project.DumbAwareAction;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.ComboBox;
+import com.intellij.openapi.ui.Messages;
+import com.intellij.openapi.ui.SimpleToolWindowPanel;
+import com.intellij.openapi.ui.Splitter;
+import com.intellij.ui.CollectionListModel;
+import com.intellij.ui.ColoredListCellRenderer;
+import com.intellij.ui.DoubleClickListener;
+import com.intellij.ui.ScrollPaneFactory;
+import com.intellij.ui.SimpleTextAttributes;
+import com.intellij.ui.components.JBLabel;
+import com.intellij.ui.components.JBList;
+import com.intellij.ui.components.JBTextArea;
+import com.intellij.util.ui.JBUI;
+import java.awt.BorderLayout;
+import java.awt.event.MouseEvent;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import javax.swing.DefaultComboBoxModel;
+import javax.swing.Icon;
+import javax.swing.JList;
+import javax.swing.JPanel;
+import jiux.net.plugin.restful.http.RequestTimeoutSettings;
+import jiux.net.plugin.restful.scenario.Extraction;
+import jiux.net.plugin.restful.scenario.Scenario;
+import jiux.net.plugin.restful.scenario.ScenarioManager;
+import jiux.net.plugin.restful.scenario.ScenarioResult;
+import jiux.net.plugin.restful.scenario.ScenarioRunner;
+import jiux.net.plugin.restful.scenario.ScenarioStep;
+import org.apache.commons.lang.StringUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Scenarios tab of the RestServices tool window: the steps of a scenario, their edition,
+ * and the report of its last run.
+ */
+class ScenarioPanel extends SimpleToolWindowPanel implements Disposable {
+
+  private static final String EMPTY_TEXT =
+    "Add requests with Add to Scenario in the menu of a service, then run them here.";
+
+  private final Project myProject;
+  private final ScenarioManager myManager;
+  private final ComboBox<String> myScenarioCombo = new ComboBox<>();
+  private final CollectionListModel<ScenarioStep> myStepModel =
+    new CollectionListModel<>();
+  private final JBList<ScenarioStep> myStepList = new JBList<>(myStepModel);
+  private final JBTextArea myReport = new JBTextArea();
+  /**
+   * Last result of each scenario of the session.
+   */
+  private final Map<String, ScenarioResult> myResults = new HashMap<>();
+  private boolean myUpdating;
+
+  ScenarioPanel(@NotNull Project project) {
+    super(true, true);
+    myProject = project;
+    myManager = ScenarioManager.getInstance(project);
+
+    DefaultActionGroup group = new DefaultActionGroup();
+    group.add(
+      action(
+        "Run Scenario",
+        "Run the scenario as concurrent users",
+        AllIcons.Actions.Execute,
+        () -> getScenarioName() != null && !myStepModel.isEmpty(),
+        this::run
+      )
+    );
+    group.addSeparator();
+    group.add(
+      action(
+        "Edit Step",
+        "Edit the request and the values it extracts",
+        AllIcons.Actions.Edit,
+        () -> myStepList.getSelectedIndex() >= 0,
+        this::editStep
+      )
+    );
+    group.add(
+      action(
+        "Move Up",
+        "Send the step earlier",
+        AllIcons.Actions.MoveUp,
+        () -> myStepList.getSelectedIndex() > 0,
+        () -> moveStep(-1)
+      )
+    );
+    group.add(
+      action(
+        "Move Down",
+        "Send the step later",
+        AllIcons.Actions.MoveDown,
+        () -> {
+          int index = myStepList.getSelectedIndex();
+          return index >= 0 && index < myStepModel.getSize() - 1;
+        },
+        () -> moveStep(1)
+      )
+    );
+    group.add(
+      action(
+        "Remove Step",
+        "Remove the step from the scenario",
+        AllIcons.General.Remove,
+        () -> myStepList.getSelectedIndex() >= 0,
+        () -> updateSteps(steps -> steps.remove(myStepList.getSelectedIndex()))
+      )
+    );
+    group.addSeparator();
+    group.add(
+      action(
+        "Delete Scenario",
+        "Delete the scenario and its steps",
+        AllIcons.Actions.GC,
+        () -> getScenarioName() != null,
+        this::deleteScenario
+      )
+    );
+    ActionToolbar toolbar = ActionManager
+      .getInstance()
+      .createActionToolbar("RestToolkit Scenario Toolbar", group, true);
+    toolbar.setTargetComponent(this);
+    setToolbar(toolbar.getComponent());
+
+    myStepList.setCellRenderer(new StepRenderer());
+    myStepList.getEmptyText().setText(EMPTY_TEXT);
+    new DoubleClickListener() {
+      @Override
+      protected boolean onDoubleClick(@NotNull MouseEvent event) {
+        if (myStepList.getSelectedIndex() < 0) {
+          return false;
+        }
+        editStep();
+        return true;
+      }
+    }
+      .installOn(myStepList);
+    myScenarioCombo.addActionListener(e -> {
+      if (!myUpdating) {
+        showScenario();
+      }
+    });
+    myReport.setEditable(false);
+    myReport.setFont(JBUI.Fonts.create("Monospaced", 12));
+
+    JPanel north = new JPanel(new BorderLayout(JBUI.scale(4), 0));
+    north.setBorder(JBUI.Borders.empty(4));
+    north.add(new JBLabel("Scenario:"), BorderLayout.WEST);
+    north.add(myScenarioCombo, BorderLayout.CENTER);
+    Splitter splitter = new Splitter(true, .3f);
+    splitter.setFirstComponent(ScrollPaneFactory.createScrollPane(myStepList));
+    splitter.setSecondComponent(ScrollPaneFactory.createScrollPane(myReport));
+    JPanel content = new JPanel(new BorderLayout());
+    content.add(north, BorderLayout.NORTH);
+    content.add(splitter, BorderLayout.CENTER);
+    setContent(content);
+
+    myManager.addListener(
+      () -> ApplicationManager.getApplication().invokeLater(this::reload),
+      this
+    );
+    reload();
+  }
+
+  private static AnAction action(
+    String text,
+    String description,
+    Icon icon,
+    BooleanSupplier enabled,
+    Runnable perform
+  ) {
+    return new DumbAwareAction(text, description, icon) {
+      @Override
+      public void actionPerformed(@NotNull AnActionEvent e) {
+        perform.run();
+      }
+
+      @Override
+      public void update(@NotNull AnActionEvent e) {
+        e.getPresentation().setEnabled(enabled.getAsBoolean());
+      }
+    };
+  }
+
+  /**
+   * Shows the scenario, if it exists.
+   */
+  void selectScenario(@NotNull String name) {
+    reload();
+    myScenarioCombo.setSelectedItem(name);
+  }
+
+  @Nullable
+  private String getScenarioName() {
+    return (String) myScenarioCombo.getSelectedItem();
+  }
+
+  private void reload() {
+    String selected = getScenarioName();
+    List<String> names = myManager.getScenarioNames();
+    myUpdating = true;
+    try {
+      myScenarioCombo.setModel(new DefaultComboBoxModel<>(names.toArray(new String[0])));
+      if (selected != null && names.contains(selected)) {
+        myScenarioCombo.setSelectedItem(selected);
+      }
+    } finally {
+      myUpdating = false;
+    }
+    showScenario();
+  }
+
+  private void showScenario() {
+    String name = getScenarioName();
+    Scenario scenario = name != null ? myManager.getScenario(name) : null;
+    int selectedStep = myStepList.getSelectedIndex();
+    myStepModel.replaceAll(scenario != null ? scenario.steps : List.of());
+    if (selectedStep >= 0 && selectedStep < myStepModel.getSize()) {
+      myStepList.setSelectedIndex(selectedStep);
+    }
+    ScenarioResult result = name != null ? myResults.get(name) : null;
+    myReport.setText(result != null ? result.toReport() : "");
+    myReport.setCaretPosition(0);
+  }
+
+  /**
+   * Changes the steps of the selected scenario and saves them.
+   */
+  private void updateSteps(Consumer<List<ScenarioStep>> update) {
+    String name = getScenarioName();
+    Scenario scenario = name != null ? myManager.getScenario(name) : null;
+    if (scenario == null) {
+      return;
+    }
+    update.accept(scenario.steps);
+    myManager.setScenario(scenario);
+  }
+
+  private void editStep() {
+    int index = myStepList.getSelectedIndex();
+    if (index < 0) {
+      return;
+    }
+    ScenarioStepDialog dialog = new ScenarioStepDialog(
+      myProject,
+      myStepModel.getElementAt(index)
+    );
+    if (dialog.showAndGet()) {
+      updateSteps(steps -> steps.set(index, dialog.getStep()));
+    }
+  }
+
+  private void moveStep(int offset) {
+    int index = myStepList.getSelectedIndex();
+    updateSteps(steps -> steps.add(index + offset, steps.remove(index)));
+    myStepList.setSelectedIndex(index + offset);
+  }
+
+  private void deleteScenario() {
+    String name = getScenarioName();
+    if (
+      name == null ||
+      Messages.showYesNoDialog(
+        myProject,
+        "Delete scenario " + name + " and its steps?",
+        "Delete Scenario",
+        Messages.getQuestionIcon()
+      ) !=
+      Messages.YES
+    ) {
+      return;
+    }
+    myResults.remove(name);
+    myManager.removeScenario(name);
+  }
+
+  private void run() {
+    String name = getScenarioName();
+    Scenario scenario = name != null ? myManager.getScenario(name) : null;
+    if (scenario == null || scenario.steps.isEmpty()) {
+      return;
+    }
+    ScenarioRunDialog dialog = new ScenarioRunDialog(myProject, name);
+    if (!dialog.showAndGet()) {
+      return;
+    }
+    RequestTimeoutSettings timeouts = RequestTimeoutSettings.getInstance(myProject);
+    ScenarioRunner runner;
+    try {
+      runner =
+        new ScenarioRunner(
+          scenario,
+          module -> timeouts.getTimeouts(StringUtils.isEmpty(module) ? null : module),
+          dialog.getUsers(),
+          dialog.getIterations()
+        );
+    } catch (IllegalArgumentException e) {
+      Messages.showErrorDialog(myProject, e.getMessage(), "Run Scenario");
+      return;
+    }
+    ProgressManager
+      .getInstance()
+      .run(
+        new Task.Backgroundable(myProject, "Running Scenario " + name, true) {
+          @Override
+          public void run(@NotNull ProgressIndicator indicator) {
+            indicator.setIndeterminate(false);
+            // the result of a cancelled run is shown too
+            ScenarioResult result = runner.run(indicator);
+            ApplicationManager
+              .getApplication()
+              .invokeLater(() -> {
+                myResults.put(name, result);
+                if (name.equals(getScenarioName())) {
+                  showScenario();
+                }
+              });
+          }
+        }
+      );
+  }
+
+  @Override
+  public void dispose() {}
+
+  private static final class StepRenderer extends ColoredListCellRenderer<ScenarioStep> {
+
+    @Override
+    protected void customizeCellRenderer(
+      @NotNull JList<? extends ScenarioStep> list,
+      ScenarioStep step,
+      int index,
+      boolean selected,
+      boolean hasFocus
+    ) {
+      append((index + 1) + ". " + step.getLabel());
+      if (StringUtils.isBlank(step.extractions)) {
+        return;
+      }
+      try {
+        String variables = Extraction
+          .parse(step.extractions)
+          .stream()
+          .map(Extraction::getVariable)
+          .collect(Collectors.joining(", "));
+        append("  → " + variables, SimpleTextAttributes.GRAYED_ATTRIBUTES);
+      } catch (IllegalArgumentException e) {
+        append("  invalid extractions", SimpleTextAttributes.ERROR_ATTRIBUTES);
+      }
+    }
+  }
+}
@@ -0,0 +1,70 @@
+package jiux.net.plugin.restful.navigator;
+
+import com.intellij.ide.util.PropertiesComponent;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.DialogWrapper;
+import com.intellij.ui.JBIntSpinner;
+import com.intellij.util.ui.FormBuilder;
+import javax.swing.JComponent;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Asks how many users run a scenario and how many times, remembering the last answer per
+ * project.
+ */
+class ScenarioRunDialog extends DialogWrapper {
+
+  private static final String USERS_KEY = "RestServices.Scenario.Users";
+  private static final String ITERATIONS_KEY = "RestServices.Scenario.Iterations";
+  private static final int DEFAULT_USERS = 4;
+  private static final int DEFAULT_ITERATIONS = 10;
+
+  private final PropertiesComponent myProperties;
+  private final JBIntSpinner myUsersSpinner;
+  private final JBIntSpinner myIterationsSpinner;
+
+  ScenarioRunDialog(@NotNull Project project, String scenarioName) {
+    super(project);
+    myProperties = PropertiesComponent.getInstance(project);
+    myUsersSpinner =
+      new JBIntSpinner(myProperties.getInt(USERS_KEY, DEFAULT_USERS), 1, 1024, 1);
+    myIterationsSpinner =
+      new JBIntSpinner(
+        myProperties.getInt(ITERATIONS_KEY, DEFAULT_ITERATIONS),
+        1,
+        1_000_000,
+        10
+      );
+    setTitle("Run Scenario " + scenarioName);
+    setOKButtonText("Run");
+    init();
+  }
+
+  @Override
+  protected JComponent createCenterPanel() {
+    return FormBuilder
+      .createFormBuilder()
+      .addLabeledComponent("Concurrent users:", myUsersSpinner)
+      .addLabeledComponent("Iterations per user:", myIterationsSpinner)
+      .getPanel();
+  }
+
+  @Override
+  protected void doOKAction() {
+    myProperties.setValue(USERS_KEY, myUsersSpinner.getNumber(), DEFAULT_USERS);
+    myProperties.setValue(
+      ITERATIONS_KEY,
+      myIterationsSpinner.getNumber(),
+      DEFAULT_ITERATIONS
+    );
+    super.doOKAction();
+  }
+
+  int getUsers() {
+    return myUsersSpinner.getNumber();
+  }
+
+  int getIterations() {
+    return myIterationsSpinner.getNumber();
+  }
+}
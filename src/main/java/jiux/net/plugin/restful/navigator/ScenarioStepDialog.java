@@ -0,0 +1,112 @@
+package jiux.net.plugin.restful.navigator;
+
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.ui.ComboBox;
+import com.intellij.openapi.ui.DialogWrapper;
+import com.intellij.openapi.ui.ValidationInfo;
+import com.intellij.ui.ScrollPaneFactory;
+import com.intellij.ui.components.JBLabel;
+import com.intellij.ui.components.JBTextArea;
+import com.intellij.ui.components.JBTextField;
+import com.intellij.util.ui.FormBuilder;
+import com.intellij.util.ui.UIUtil;
+import javax.swing.JComponent;
+import jiux.net.plugin.restful.scenario.Extraction;
+import jiux.net.plugin.restful.scenario.ScenarioStep;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Edits a step of a scenario, including the values it extracts for the following steps.
+ */
+class ScenarioStepDialog extends DialogWrapper {
+
+  private static final String[] METHODS = { "GET", "POST", "PUT", "DELETE" };
+
+  private final ScenarioStep myStep;
+  private final JBTextField myNameField = new JBTextField();
+  private final ComboBox<String> myMethodCombo = new ComboBox<>(METHODS);
+  private final JBTextField myUrlField = new JBTextField();
+  private final JBTextArea myParamsArea = new JBTextArea(4, 60);
+  private final JBTextArea myHeadersArea = new JBTextArea(3, 60);
+  private final JBTextArea myBodyArea = new JBTextArea(6, 60);
+  private final JBTextArea myExtractionsArea = new JBTextArea(3, 60);
+
+  ScenarioStepDialog(@NotNull Project project, @NotNull ScenarioStep step) {
+    super(project);
+    myStep = step;
+    myNameField.setText(step.name);
+    myNameField.getEmptyText().setText(step.method + " " + step.url);
+    myMethodCombo.setSelectedItem(step.method);
+    myUrlField.setText(step.url);
+    myParamsArea.setText(step.params);
+    myHeadersArea.setText(step.headers);
+    myBodyArea.setText(step.body);
+    myExtractionsArea.setText(step.extractions);
+    setTitle("Edit Scenario Step");
+    init();
+  }
+
+  @Override
+  protected JComponent createCenterPanel() {
+    return FormBuilder
+      .createFormBuilder()
+      .addLabeledComponent("Name:", myNameField)
+      .addLabeledComponent("Method:", myMethodCombo)
+      .addLabeledComponent("URL:", myUrlField)
+      .addLabeledComponent("Params:", ScrollPaneFactory.createScrollPane(myParamsArea))
+      .addLabeledComponent("Headers:", ScrollPaneFactory.createScrollPane(myHeadersArea))
+      .addLabeledComponent("Body:", ScrollPaneFactory.createScrollPane(myBodyArea))
+      .addComponentToRightColumn(
+        comment(
+          "${variable} is replaced by the value a previous step extracted, " +
+          "${user} and ${iteration} by their numbers"
+        )
+      )
+      .addLabeledComponent(
+        "Extract:",
+        ScrollPaneFactory.createScrollPane(myExtractionsArea)
+      )
+      .addComponentToRightColumn(
+        comment("One per line: token = $.data.token or location = header:Location")
+      )
+      .getPanel();
+  }
+
+  private static JBLabel comment(String text) {
+    return new JBLabel(text, UIUtil.ComponentStyle.SMALL, UIUtil.FontColor.BRIGHTER);
+  }
+
+  @Nullable
+  @Override
+  public JComponent getPreferredFocusedComponent() {
+    return myNameField;
+  }
+
+  @Nullable
+  @Override
+  protected ValidationInfo doValidate() {
+    if (myUrlField.getText().isBlank()) {
+      return new ValidationInfo("The url is empty", myUrlField);
+    }
+    try {
+      Extraction.parse(myExtractionsArea.getText());
+    } catch (IllegalArgumentException e) {
+      return new ValidationInfo(e.getMessage(), myExtractionsArea);
+    }
+    return null;
+  }
+
+  @NotNull
+  ScenarioStep getStep() {
+    ScenarioStep step = myStep.copy();
+    step.name = myNameField.getText().trim();
+    step.method = (String) myMethodCombo.getSelectedItem();
+    step.url = myUrlField.getText().trim();
+    step.params = myParamsArea.getText();
+    step.headers = myHeadersArea.getText();
+    step.body = myBodyArea.getText();
+    step.extractions = myExtractionsArea.getText();
+    return step;
+  }
+}
@@ -0,0 +1,189 @@
+package jiux.net.plugin.restful.scenario;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+import org.apache.http.Header;
+import org.apache.http.HttpResponse;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Saves a value of a response as a variable of the following steps:
+ * {@code token = $.data.token} takes it from the JSON body, {@code location =
+ * header:Location} from a header.
+ * <p>
+ * Paths are the JSONPath subset that selects one value: {@code $}, {@code .name},
+ * {@code ['name']} and {@code [index]}, a negative index counting from the end.
+ */
+public final class Extraction {
+
+  private static final String HEADER_PREFIX = "header:";
+  private static final Pattern VARIABLE = Pattern.compile("[A-Za-z_][\\w.-]*");
+
+  private final String myVariable;
+  @Nullable
+  private final String myHeader;
+  /**
+   * Member names and array indexes, null for a header.
+   */
+  @Nullable
+  private final List<Object> myPath;
+
+  private Extraction(
+    String variable,
+    @Nullable String header,
+    @Nullable List<Object> path
+  ) {
+    myVariable = variable;
+    myHeader = header;
+    myPath = path;
+  }
+
+  /**
+   * @param text one {@code variable = source} rule per line, blank lines and lines
+   * starting with {@code //} skipped
+   * @throws IllegalArgumentException naming the line of the first invalid rule
+   */
+  @NotNull
+  public static List<Extraction> parse(@Nullable String text) {
+    if (text == null) {
+      return Collections.emptyList();
+    }
+    List<Extraction> extractions = new ArrayList<>();
+    String[] lines = text.split("\n");
+    for (int i = 0; i < lines.length; i++) {
+      String line = lines[i].trim();
+      if (line.isEmpty() || line.startsWith("//")) {
+        continue;
+      }
+      try {
+        extractions.add(parseRule(line));
+      } catch (IllegalArgumentException e) {
+        throw new IllegalArgumentException("Line " + (i + 1) + ": " + e.getMessage(), e);
+      }
+    }
+    return extractions;
+  }
+
+  private static Extraction parseRule(String rule) {
+    int equals = rule.indexOf('=');
+    if (equals < 0) {
+      throw new IllegalArgumentException("expected variable = source");
+    }
+    String variable = rule.substring(0, equals).trim();
+    if (!VARIABLE.matcher(variable).matches()) {
+      throw new IllegalArgumentException("invalid variable name '" + variable + "'");
+    }
+    String source = rule.substring(equals + 1).trim();
+    if (source.regionMatches(true, 0, HEADER_PREFIX, 0, HEADER_PREFIX.length())) {
+      String header = source.substring(HEADER_PREFIX.length()).trim();
+      if (header.isEmpty()) {
+        throw new IllegalArgumentException("missing header name");
+      }
+      return new Extraction(variable, header, null);
+    }
+    return new Extraction(variable, null, parsePath(source));
+  }
+
+  private static List<Object> parsePath(String path) {
+    if (!path.startsWith("$")) {
+      throw new IllegalArgumentException("expected a path starting with $ or header:");
+    }
+    List<Object> segments = new ArrayList<>();
+    int i = 1;
+    while (i < path.length()) {
+      char c = path.charAt(i);
+      if (c == '.') {
+        int end = i + 1;
+        while (
+          end < path.length() && path.charAt(end) != '.' && path.charAt(end) != '['
+        ) {
+          end++;
+        }
+        if (end == i + 1) {
+          throw new IllegalArgumentException("missing member name at " + i);
+        }
+        segments.add(path.substring(i + 1, end));
+        i = end;
+      } else if (c == '[') {
+        int end = path.indexOf(']', i);
+        if (end < 0) {
+          throw new IllegalArgumentException("missing ] after " + i);
+        }
+        String inner = path.substring(i + 1, end).trim();
+        if (
+          inner.length() >= 2 &&
+          (inner.charAt(0) == '\'' || inner.charAt(0) == '"') &&
+          inner.charAt(inner.length() - 1) == inner.charAt(0)
+        ) {
+          segments.add(inner.substring(1, inner.length() - 1));
+        } else {
+          try {
+            segments.add(Integer.parseInt(inner));
+          } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid index '" + inner + "'");
+          }
+        }
+        i = end + 1;
+      } else {
+        throw new IllegalArgumentException("unexpected '" + c + "' at " + i);
+      }
+    }
+    return segments;
+  }
+
+  @NotNull
+  public String getVariable() {
+    return myVariable;
+  }
+
+  /**
+   * Whether the rule reads the body, which is otherwise not kept.
+   */
+  public boolean needsBody() {
+    return myPath != null;
+  }
+
+  /**
+   * @param body the parsed body, null if it is not JSON or was not read
+   * @return null if the response has no such value; objects and arrays as JSON
+   */
+  @Nullable
+  public String extract(@NotNull HttpResponse response, @Nullable JsonElement body) {
+    if (myPath == null) {
+      Header header = response.getFirstHeader(myHeader);
+      return header != null ? header.getValue() : null;
+    }
+    JsonElement element = body;
+    for (Object segment : myPath) {
+      element = select(element, segment);
+    }
+    if (element == null || element.isJsonNull()) {
+      return null;
+    }
+    return element.isJsonPrimitive() ? element.getAsString() : element.toString();
+  }
+
+  @Nullable
+  private static JsonElement select(@Nullable JsonElement element, Object segment) {
+    if (segment instanceof String) {
+      return element instanceof JsonObject
+        ? ((JsonObject) element).get((String) segment)
+        : null;
+    }
+    if (!(element instanceof JsonArray)) {
+      return null;
+    }
+    JsonArray array = (JsonArray) element;
+    int index = (Integer) segment;
+    if (index < 0) {
+      index += array.size();
+    }
+    return index >= 0 && index < array.size() ? array.get(index) : null;
+  }
+}
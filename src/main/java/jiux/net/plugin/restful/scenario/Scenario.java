@@ -0,0 +1,24 @@
+package jiux.net.plugin.restful.scenario;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Requests a user sends one after the other, e.g. login, create, fetch and delete.
+ */
+public final class Scenario {
+
+  public String name = "";
+  public List<ScenarioStep> steps = new ArrayList<>();
+
+  @NotNull
+  public Scenario copy() {
+    Scenario copy = new Scenario();
+    copy.name = name;
+    for (ScenarioStep step : steps) {
+      copy.steps.add(step.copy());
+    }
+    return copy;
+  }
+}
@@ -0,0 +1,127 @@
+package jiux.net.plugin.restful.scenario;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.components.PersistentStateComponent;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.components.State;
+import com.intellij.openapi.components.Storage;
+import com.intellij.openapi.components.StoragePathMacros;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.util.Disposer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Scenarios of the project, by name. Scenarios are handed out as copies, change them
+ * through {@link #setScenario}.
+ */
+@Service(Service.Level.PROJECT)
+@State(
+  name = "RestServicesScenarios",
+  storages = @Storage(StoragePathMacros.WORKSPACE_FILE)
+)
+public final class ScenarioManager
+  implements PersistentStateComponent<ScenarioManager.ScenariosState> {
+
+  private final List<Runnable> myListeners = new CopyOnWriteArrayList<>();
+  private ScenariosState myState = new ScenariosState();
+
+  public static ScenarioManager getInstance(Project p) {
+    return p.getService(ScenarioManager.class);
+  }
+
+  @NotNull
+  public synchronized List<String> getScenarioNames() {
+    List<String> names = new ArrayList<>();
+    for (Scenario scenario : myState.scenarios) {
+      names.add(scenario.name);
+    }
+    return names;
+  }
+
+  @Nullable
+  public synchronized Scenario getScenario(@NotNull String name) {
+    Scenario scenario = find(name);
+    return scenario != null ? scenario.copy() : null;
+  }
+
+  /**
+   * Appends the step to the scenario, created if there is none of that name.
+   */
+  public void addStep(@NotNull String scenarioName, @NotNull ScenarioStep step) {
+    synchronized (this) {
+      Scenario scenario = find(scenarioName);
+      if (scenario == null) {
+        scenario = new Scenario();
+        scenario.name = scenarioName;
+        myState.scenarios.add(scenario);
+      }
+      scenario.steps.add(step.copy());
+    }
+    fireChanged();
+  }
+
+  /**
+   * Replaces the scenario of the same name, or adds it.
+   */
+  public void setScenario(@NotNull Scenario scenario) {
+    synchronized (this) {
+      Scenario copy = scenario.copy();
+      List<Scenario> scenarios = myState.scenarios;
+      int index = scenarios.indexOf(find(scenario.name));
+      if (index < 0) {
+        scenarios.add(copy);
+      } else {
+        scenarios.set(index, copy);
+      }
+    }
+    fireChanged();
+  }
+
+  public void removeScenario(@NotNull String name) {
+    synchronized (this) {
+      myState.scenarios.remove(find(name));
+    }
+    fireChanged();
+  }
+
+  /**
+   * @param listener called on the thread changing the scenarios
+   */
+  public void addListener(@NotNull Runnable listener, @NotNull Disposable parent) {
+    myListeners.add(listener);
+    Disposer.register(parent, () -> myListeners.remove(listener));
+  }
+
+  private void fireChanged() {
+    myListeners.forEach(Runnable::run);
+  }
+
+  @Nullable
+  private Scenario find(String name) {
+    for (Scenario scenario : myState.scenarios) {
+      if (scenario.name.equals(name)) {
+        return scenario;
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public synchronized ScenariosState getState() {
+    return myState;
+  }
+
+  @Override
+  public synchronized void loadState(@NotNull ScenariosState state) {
+    myState = state;
+  }
+
+  public static final class ScenariosState {
+
+    public List<Scenario> scenarios = new ArrayList<>();
+  }
+}
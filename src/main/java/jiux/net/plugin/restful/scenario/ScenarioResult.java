@@ -0,0 +1,286 @@
+package jiux.net.plugin.restful.scenario;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import jiux.net.plugin.restful.load.LatencyHistogram;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Outcome of a {@link ScenarioRunner} run: latencies of whole iterations and of each
+ * step.
+ */
+public final class ScenarioResult {
+
+  private final String name;
+  private final int users;
+  private final int iterations;
+  private final long startMillis;
+  private final long elapsedNanos;
+  private final long completed;
+  private final LatencyHistogram histogram;
+  private final List<StepResult> steps;
+  private final boolean cancelled;
+
+  ScenarioResult(
+    String name,
+    int users,
+    int iterations,
+    long startMillis,
+    long elapsedNanos,
+    long completed,
+    LatencyHistogram histogram,
+    List<StepResult> steps,
+    boolean cancelled
+  ) {
+    this.name = name;
+    this.users = users;
+    this.iterations = iterations;
+    this.startMillis = startMillis;
+    this.elapsedNanos = elapsedNanos;
+    this.completed = completed;
+    this.histogram = histogram;
+    this.steps = Collections.unmodifiableList(steps);
+    this.cancelled = cancelled;
+  }
+
+  @NotNull
+  public String getName() {
+    return name;
+  }
+
+  public int getUsers() {
+    return users;
+  }
+
+  /**
+   * Iterations of each user.
+   */
+  public int getIterations() {
+    return iterations;
+  }
+
+  /**
+   * Milliseconds since the epoch.
+   */
+  public long getStartMillis() {
+    return startMillis;
+  }
+
+  public long getElapsedNanos() {
+    return elapsedNanos;
+  }
+
+  /**
+   * Iterations that went through all steps.
+   */
+  public long getCompleted() {
+    return completed;
+  }
+
+  /**
+   * Latencies of the completed iterations, in microseconds.
+   */
+  @NotNull
+  public LatencyHistogram getHistogram() {
+    return histogram;
+  }
+
+  /**
+   * In the order of the scenario.
+   */
+  @NotNull
+  public List<StepResult> getSteps() {
+    return steps;
+  }
+
+  public boolean isCancelled() {
+    return cancelled;
+  }
+
+  /**
+   * Iterations and step latencies, then the statuses and errors of each step, as plain
+   * text.
+   */
+  @NotNull
+  public String toReport() {
+    StringBuilder sb = new StringBuilder();
+    sb.append(
+      String.format(
+        "Scenario %s: %d users, %d iterations each%n",
+        name,
+        users,
+        iterations
+      )
+    );
+    sb.append(
+      String.format(
+        "Iterations: %d of %d completed in %.2f s%s%n",
+        completed,
+        (long) users * iterations,
+        elapsedNanos / 1e9,
+        cancelled ? " (cancelled)" : ""
+      )
+    );
+    sb.append(
+      String.format(
+        "Throughput: %.1f iterations/s%n",
+        elapsedNanos > 0 ? completed * 1e9 / elapsedNanos : 0
+      )
+    );
+
+    sb.append(String.format("%nLatency (ms)%n"));
+    sb.append(
+      String.format(
+        "  %-32s %9s %8s %9s %9s %9s %9s%n",
+        "",
+        "requests",
+        "stopped",
+        "mean",
+        "p50",
+        "p99",
+        "max"
+      )
+    );
+    appendLatency(sb, "iteration", completed, 0, histogram);
+    for (int i = 0; i < steps.size(); i++) {
+      StepResult step = steps.get(i);
+      appendLatency(
+        sb,
+        (i + 1) + ". " + step.getLabel(),
+        step.getResponseCount() + step.getErrorCount(),
+        step.getStopped(),
+        step.getHistogram()
+      );
+    }
+
+    for (int i = 0; i < steps.size(); i++) {
+      StepResult step = steps.get(i);
+      if (step.getResponseCount() + step.getErrorCount() == 0) {
+        continue;
+      }
+      sb.append(String.format("%n%d. %s%n", i + 1, step.getLabel()));
+      step
+        .getStatusCounts()
+        .forEach((status, count) -> appendCount(sb, String.valueOf(status), count));
+      step.getErrorCounts().forEach((error, count) -> appendCount(sb, error, count));
+      step
+        .getMissingCounts()
+        .forEach((variable, count) -> appendCount(sb, "no value for " + variable, count));
+    }
+    return sb.toString();
+  }
+
+  private static void appendCount(StringBuilder sb, String label, long count) {
+    sb.append(String.format("  %-40s %10d%n", label, count));
+  }
+
+  private static void appendLatency(
+    StringBuilder sb,
+    String label,
+    long requests,
+    long stopped,
+    LatencyHistogram histogram
+  ) {
+    if (label.length() > 32) {
+      label = label.substring(0, 31) + "…";
+    }
+    sb.append(
+      String.format(
+        "  %-32s %9d %8d %9.2f %9.2f %9.2f %9.2f%n",
+        label,
+        requests,
+        stopped,
+        histogram.getMean() / 1000d,
+        histogram.getValueAtPercentile(50) / 1000d,
+        histogram.getValueAtPercentile(99) / 1000d,
+        histogram.getMax() / 1000d
+      )
+    );
+  }
+
+  /**
+   * Requests of one step of the scenario.
+   */
+  public static final class StepResult {
+
+    private final String label;
+    private final Map<Integer, Long> statusCounts;
+    private final Map<String, Long> errorCounts;
+    private final Map<String, Long> missingCounts;
+    private final LatencyHistogram histogram;
+    private final long stopped;
+
+    StepResult(
+      String label,
+      Map<Integer, Long> statusCounts,
+      Map<String, Long> errorCounts,
+      Map<String, Long> missingCounts,
+      LatencyHistogram histogram,
+      long stopped
+    ) {
+      this.label = label;
+      this.statusCounts = Collections.unmodifiableMap(statusCounts);
+      this.errorCounts = Collections.unmodifiableMap(errorCounts);
+      this.missingCounts = Collections.unmodifiableMap(missingCounts);
+      this.histogram = histogram;
+      this.stopped = stopped;
+    }
+
+    @NotNull
+    public String getLabel() {
+      return label;
+    }
+
+    /**
+     * Responses by status code, in ascending order.
+     */
+    @NotNull
+    public Map<Integer, Long> getStatusCounts() {
+      return statusCounts;
+    }
+
+    /**
+     * Requests not sent or without response, by exception.
+     */
+    @NotNull
+    public Map<String, Long> getErrorCounts() {
+      return errorCounts;
+    }
+
+    /**
+     * Responses without a value to extract, by variable.
+     */
+    @NotNull
+    public Map<String, Long> getMissingCounts() {
+      return missingCounts;
+    }
+
+    public long getResponseCount() {
+      return statusCounts.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * Requests not sent or without response.
+     */
+    public long getErrorCount() {
+      return errorCounts.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    /**
+     * Latencies of the responses, body included, in microseconds.
+     */
+    @NotNull
+    public LatencyHistogram getHistogram() {
+      return histogram;
+    }
+
+    /**
+     * Iterations that ended at this step, on an error status, no response or a missing
+     * value.
+     */
+    public long getStopped() {
+      return stopped;
+    }
+  }
+}
@@ -0,0 +1,369 @@
+package jiux.net.plugin.restful.scenario;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.intellij.openapi.diagnostic.Logger;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import jiux.net.plugin.restful.common.RequestHelper;
+import jiux.net.plugin.restful.http.RequestTimeouts;
+import jiux.net.plugin.restful.http.RestHttpClient;
+import jiux.net.plugin.restful.load.LatencyHistogram;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.impl.client.BasicCookieStore;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.util.EntityUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Runs a scenario as concurrent virtual users, each going through its steps a number of
+ * times. Every iteration starts with the variables {@code user} and {@code iteration},
+ * 1-based, and adds those extracted from the responses; {@code ${name}} in the url,
+ * parameters, headers and body of a step is replaced by the variable of that name.
+ * <p>
+ * Each user has a connection and cookies of its own, like a browser session. An
+ * iteration stops at the first step answered with an error status, not answered, or
+ * without a value to extract, since the following steps depend on it. Bodies are only
+ * read into memory for the steps that extract from them.
+ */
+public final class ScenarioRunner {
+
+  private static final Logger LOG = Logger.getInstance(ScenarioRunner.class);
+
+  private static final Pattern PLACEHOLDER = Pattern.compile("\\$\\{([^}]+)}");
+  private static final int MAX_STATUS = 600;
+  private static final int BUFFER_SIZE = 8 * 1024;
+
+  private final Scenario myScenario;
+  private final List<List<Extraction>> myExtractions = new ArrayList<>();
+  private final List<RequestConfig> myConfigs = new ArrayList<>();
+  private final int myUsers;
+  private final int myIterations;
+
+  /**
+   * @param timeouts of the requests to a module, by module name
+   * @throws IllegalArgumentException if a step has invalid extraction rules
+   */
+  public ScenarioRunner(
+    @NotNull Scenario scenario,
+    @NotNull Function<String, RequestTimeouts> timeouts,
+    int users,
+    int iterations
+  ) {
+    myScenario = scenario.copy();
+    for (ScenarioStep step : myScenario.steps) {
+      try {
+        myExtractions.add(Extraction.parse(step.extractions));
+      } catch (IllegalArgumentException e) {
+        throw new IllegalArgumentException(step.getLabel() + ": " + e.getMessage(), e);
+      }
+      myConfigs.add(timeouts.apply(step.moduleName).toRequestConfig());
+    }
+    myUsers = Math.max(1, users);
+    myIterations = Math.max(1, iterations);
+  }
+
+  /**
+   * Replaces the {@code ${name}} placeholders of known variables, others are left as is.
+   */
+  @Nullable
+  static String substitute(
+    @Nullable String text,
+    @NotNull Map<String, String> variables
+  ) {
+    if (text == null || text.indexOf('$') < 0) {
+      return text;
+    }
+    Matcher matcher = PLACEHOLDER.matcher(text);
+    StringBuilder sb = new StringBuilder();
+    int last = 0;
+    while (matcher.find()) {
+      String value = variables.get(matcher.group(1).trim());
+      if (value != null) {
+        sb.append(text, last, matcher.start()).append(value);
+        last = matcher.end();
+      }
+    }
+    return sb.append(text, last, text.length()).toString();
+  }
+
+  /**
+   * Blocks until all users are done, or the indicator is cancelled; the result then
+   * covers the iterations done so far.
+   */
+  @NotNull
+  public ScenarioResult run(@NotNull ProgressIndicator indicator) {
+    Run run = new Run(indicator);
+    ExecutorService executor = AppExecutorUtil.createBoundedApplicationPoolExecutor(
+      "RestServices Scenario",
+      myUsers
+    );
+    CountDownLatch usersDone = new CountDownLatch(myUsers);
+    CloseableHttpClient client = RestHttpClient.createDedicatedClient(myUsers);
+    long start = System.nanoTime();
+    try {
+      for (int i = 0; i < myUsers; i++) {
+        int user = i + 1;
+        executor.execute(() -> {
+          try {
+            run.work(client, user);
+          } finally {
+            usersDone.countDown();
+          }
+        });
+      }
+      while (!usersDone.await(100, TimeUnit.MILLISECONDS)) {
+        if (indicator.isCanceled() && !run.stopped) {
+          run.stopped = true;
+          // unblocks the users waiting for a response
+          closeQuietly(client);
+        }
+      }
+    } catch (InterruptedException e) {
+      run.stopped = true;
+      Thread.currentThread().interrupt();
+    } finally {
+      closeQuietly(client);
+      executor.shutdownNow();
+    }
+    return run.toResult(System.nanoTime() - start);
+  }
+
+  private static void closeQuietly(CloseableHttpClient client) {
+    try {
+      client.close();
+    } catch (IOException e) {
+      LOG.debug(e);
+    }
+  }
+
+  /**
+   * Requests of one step, shared by the users.
+   */
+  private static final class StepStats {
+
+    final AtomicLongArray statusCounts = new AtomicLongArray(MAX_STATUS);
+    final Map<String, LongAdder> errorCounts = new ConcurrentHashMap<>();
+    final Map<String, LongAdder> missingCounts = new ConcurrentHashMap<>();
+    final LatencyHistogram histogram = new LatencyHistogram();
+    final LongAdder stopped = new LongAdder();
+
+    static void increment(Map<String, LongAdder> counts, String key) {
+      counts.computeIfAbsent(key, k -> new LongAdder()).increment();
+    }
+
+    static Map<String, Long> sorted(Map<String, LongAdder> counts) {
+      Map<String, Long> sorted = new TreeMap<>();
+      counts.forEach((key, count) -> sorted.put(key, count.sum()));
+      return sorted;
+    }
+
+    ScenarioResult.StepResult toResult(String label) {
+      Map<Integer, Long> statuses = new TreeMap<>();
+      for (int status = 0; status < MAX_STATUS; status++) {
+        long count = statusCounts.get(status);
+        if (count > 0) {
+          statuses.put(status, count);
+        }
+      }
+      return new ScenarioResult.StepResult(
+        label,
+        statuses,
+        sorted(errorCounts),
+        sorted(missingCounts),
+        histogram,
+        stopped.sum()
+      );
+    }
+  }
+
+  /**
+   * State shared by the users of one run.
+   */
+  private final class Run {
+
+    private final ProgressIndicator myIndicator;
+    private final long myStartMillis = System.currentTimeMillis();
+    private final List<StepStats> mySteps = new ArrayList<>();
+    private final LatencyHistogram myHistogram = new LatencyHistogram();
+    private final AtomicInteger myDone = new AtomicInteger();
+    private final LongAdder myCompleted = new LongAdder();
+    private volatile boolean stopped;
+
+    Run(ProgressIndicator indicator) {
+      myIndicator = indicator;
+      for (int i = 0; i < myScenario.steps.size(); i++) {
+        mySteps.add(new StepStats());
+      }
+    }
+
+    void work(CloseableHttpClient client, int user) {
+      byte[] buffer = new byte[BUFFER_SIZE];
+      // per user, keeps its connection and session
+      HttpClientContext context = HttpClientContext.create();
+      context.setCookieStore(new BasicCookieStore());
+      Map<String, String> variables = new HashMap<>();
+      for (int iteration = 1; iteration <= myIterations && !stopped; iteration++) {
+        variables.clear();
+        variables.put("user", String.valueOf(user));
+        variables.put("iteration", String.valueOf(iteration));
+        long start = System.nanoTime();
+        boolean completed = true;
+        for (int i = 0; i < mySteps.size() && completed; i++) {
+          completed = step(i, client, context, variables, buffer);
+        }
+        if (stopped) {
+          return;
+        }
+        if (completed) {
+          myHistogram.record((System.nanoTime() - start) / 1000);
+          myCompleted.increment();
+        }
+        long total = (long) myUsers * myIterations;
+        int done = myDone.incrementAndGet();
+        myIndicator.setFraction((double) done / total);
+        myIndicator.setText2(done + " / " + total + " iterations");
+      }
+    }
+
+    /**
+     * @return whether the iteration goes on
+     */
+    private boolean step(
+      int index,
+      CloseableHttpClient client,
+      HttpClientContext context,
+      Map<String, String> variables,
+      byte[] buffer
+    ) {
+      ScenarioStep step = myScenario.steps.get(index);
+      StepStats stats = mySteps.get(index);
+      List<Extraction> extractions = myExtractions.get(index);
+      HttpRequestBase request;
+      try {
+        request =
+          RequestHelper.composeRequest(
+            substitute(step.url, variables),
+            step.method,
+            substitute(step.params, variables),
+            substitute(step.headers, variables),
+            substitute(step.body, variables)
+          );
+      } catch (RuntimeException e) {
+        // e.g. an url made invalid by a variable
+        fail(stats, e);
+        return false;
+      }
+      if (request == null) {
+        StepStats.increment(stats.errorCounts, "Unsupported method " + step.method);
+        stats.stopped.increment();
+        return false;
+      }
+      request.setConfig(myConfigs.get(index));
+      long start = System.nanoTime();
+      try (CloseableHttpResponse response = client.execute(request, context)) {
+        JsonElement body = null;
+        if (extractions.stream().anyMatch(Extraction::needsBody)) {
+          body = parse(response.getEntity());
+        } else {
+          drain(response.getEntity(), buffer);
+        }
+        stats.histogram.record((System.nanoTime() - start) / 1000);
+        int status = response.getStatusLine().getStatusCode();
+        stats.statusCounts.incrementAndGet(Math.max(0, Math.min(status, MAX_STATUS - 1)));
+        if (status >= 400) {
+          stats.stopped.increment();
+          return false;
+        }
+        for (Extraction extraction : extractions) {
+          String value = extraction.extract(response, body);
+          if (value == null) {
+            StepStats.increment(stats.missingCounts, extraction.getVariable());
+            stats.stopped.increment();
+            return false;
+          }
+          variables.put(extraction.getVariable(), value);
+        }
+        return true;
+      } catch (IOException | RuntimeException e) {
+        if (!stopped) {
+          // otherwise aborted by the cancellation, not a failure of the server
+          fail(stats, e);
+        }
+        return false;
+      }
+    }
+
+    private void fail(StepStats stats, Exception e) {
+      StepStats.increment(stats.errorCounts, e.getClass().getSimpleName());
+      stats.stopped.increment();
+    }
+
+    @Nullable
+    private JsonElement parse(HttpEntity entity) throws IOException {
+      if (entity == null) {
+        return null;
+      }
+      try {
+        String text = EntityUtils.toString(entity, StandardCharsets.UTF_8);
+        return new JsonParser().parse(text);
+      } catch (JsonParseException e) {
+        // not JSON, its values are missing
+        return null;
+      }
+    }
+
+    private void drain(HttpEntity entity, byte[] buffer) throws IOException {
+      if (entity == null) {
+        return;
+      }
+      try (InputStream in = entity.getContent()) {
+        while (in.read(buffer) >= 0) {
+          // the body is not kept
+        }
+      }
+    }
+
+    ScenarioResult toResult(long elapsedNanos) {
+      List<ScenarioResult.StepResult> steps = new ArrayList<>();
+      for (int i = 0; i < mySteps.size(); i++) {
+        steps.add(mySteps.get(i).toResult(myScenario.steps.get(i).getLabel()));
+      }
+      return new ScenarioResult(
+        myScenario.name,
+        myUsers,
+        myIterations,
+        myStartMillis,
+        elapsedNanos,
+        myCompleted.sum(),
+        myHistogram,
+        steps,
+        stopped
+      );
+    }
+  }
+}
@@ -0,0 +1,45 @@
+package jiux.net.plugin.restful.scenario;
+
+import org.apache.commons.lang.StringUtils;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * One request of a {@link Scenario}, as entered in the request panel. Its texts may hold
+ * {@code ${variable}} placeholders, replaced by the values extracted by previous steps.
+ */
+public final class ScenarioStep {
+
+  public String name = "";
+  public String method = "GET";
+  public String url = "";
+  /**
+   * Whose request timeouts apply, may be empty.
+   */
+  public String moduleName = "";
+  public String params = "";
+  public String headers = "";
+  public String body = "";
+  /**
+   * One rule per line, see {@link Extraction#parse}.
+   */
+  public String extractions = "";
+
+  @NotNull
+  public String getLabel() {
+    return StringUtils.isNotBlank(name) ? name : method + " " + url;
+  }
+
+  @NotNull
+  public ScenarioStep copy() {
+    ScenarioStep copy = new ScenarioStep();
+    copy.name = name;
+    copy.method = method;
+    copy.url = url;
+    copy.moduleName = moduleName;
+    copy.params = params;
+    copy.headers = headers;
+    copy.body = body;
+    copy.extractions = extractions;
+    return copy;
+  }
+}
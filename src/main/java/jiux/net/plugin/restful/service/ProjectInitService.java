@@ -1,12 +1,31 @@
 package jiux.net.plugin.restful.service;
 
 import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ModalityState;
+import com.intellij.openapi.application.ReadAction;
 import com.intellij.openapi.components.Service;
-import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.module.ModuleManager;
+import com.intellij.openapi.progress.ProcessCanceledException;
+import com.intellij.openapi.progress.ProgressIndicator;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.progress.Task;
+import com.intellij.openapi.progress.impl.BackgroundableProcessIndicator;
+import com.intellij.openapi.progress.util.ProgressIndicatorUtils;
 import com.intellij.openapi.project.Project;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import jiux.net.plugin.restful.common.ServiceHelper;
+import jiux.net.plugin.restful.diagnostics.ModuleStats;
+import jiux.net.plugin.restful.diagnostics.RefreshStats;
+import jiux.net.plugin.restful.diagnostics.RestServiceDiagnostics;
 import jiux.net.plugin.restful.navigator.RestServiceProject;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.concurrency.CancellablePromise;
 
 /**
  * @author baihua.huang
@@ -15,6 +34,14 @@ import jiux.net.plugin.restful.navigator.RestServiceProject;
 public final class ProjectInitService implements Disposable {
 
   private final Project myProject;
+  private final ExecutorService myExecutor = AppExecutorUtil.createBoundedApplicationPoolExecutor(
+    "RestfulToolkit Endpoint Resolver",
+    Runtime.getRuntime().availableProcessors()
+  );
+  /**
+   * Indicator of the running {@link #loadServiceProjects}, accessed on EDT only.
+   */
+  private ProgressIndicator myIndicator;
 
   public ProjectInitService(Project project) {
     myProject = project;
@@ -24,14 +51,122 @@ public final class ProjectInitService implements Disposable {
     return p.getService(ProjectInitService.class);
   }
 
-  public List<RestServiceProject> getServiceProjects() {
-    return DumbService
-      .getInstance(myProject)
-      .runReadActionInSmartMode(() ->
-        ServiceHelper.buildRestServiceProjectListUsingResolver(myProject)
-      );
+  /**
+   * Resolves all modules in parallel, each one in its own non-blocking read action that
+   * restarts when a write action comes in. Must be called on EDT; a new call cancels the
+   * one still running.
+   *
+   * @param onModuleLoaded called on EDT as soon as a module with endpoints is resolved
+   * @param onFinished called on EDT with every module, in module order, once all are done
+   */
+  public void loadServiceProjects(
+    @NotNull Consumer<RestServiceProject> onModuleLoaded,
+    @NotNull Consumer<List<RestServiceProject>> onFinished
+  ) {
+    if (myIndicator != null) {
+      myIndicator.cancel();
+    }
+
+    LoadServiceProjectsTask task = new LoadServiceProjectsTask(onModuleLoaded, onFinished);
+    myIndicator = new BackgroundableProcessIndicator(task);
+    task.myTaskIndicator = myIndicator;
+    ProgressManager.getInstance().runProcessWithProgressAsynchronously(task, myIndicator);
   }
 
   @Override
-  public void dispose() {}
+  public void dispose() {
+    if (myIndicator != null) {
+      myIndicator.cancel();
+    }
+  }
+
+  private class LoadServiceProjectsTask extends Task.Backgroundable {
+
+    private final Consumer<RestServiceProject> myOnModuleLoaded;
+    private final Consumer<List<RestServiceProject>> myOnFinished;
+    private final List<RestServiceProject> myResult = new ArrayList<>();
+    private ProgressIndicator myTaskIndicator;
+    private RefreshStats myStats;
+
+    LoadServiceProjectsTask(
+      Consumer<RestServiceProject> onModuleLoaded,
+      Consumer<List<RestServiceProject>> onFinished
+    ) {
+      super(myProject, "Resolving REST services", true);
+      myOnModuleLoaded = onModuleLoaded;
+      myOnFinished = onFinished;
+    }
+
+    @Override
+    public void run(@NotNull ProgressIndicator indicator) {
+      Module[] modules = ModuleManager.getInstance(myProject).getModules();
+      indicator.setIndeterminate(false);
+      myStats = RestServiceDiagnostics.getInstance(myProject).startRefresh();
+      RestEndpointCache.getInstance(myProject).startGeneration();
+      AtomicInteger resolved = new AtomicInteger();
+
+      List<CancellablePromise<RestServiceProject>> promises = new ArrayList<>();
+      for (Module module : modules) {
+        promises.add(
+          ReadAction
+            .nonBlocking(() -> {
+              ModuleStats moduleStats = new ModuleStats(module.getName());
+              RestServiceProject serviceProject = ServiceHelper.buildRestServiceProject(
+                module,
+                moduleStats
+              );
+              myStats.putModule(moduleStats);
+              return serviceProject;
+            })
+            .inSmartMode(myProject)
+            .wrapProgress(indicator)
+            .expireWith(ProjectInitService.this)
+            .finishOnUiThread(
+              ModalityState.defaultModalityState(),
+              serviceProject -> {
+                indicator.setFraction((double) resolved.incrementAndGet() / modules.length);
+                if (serviceProject != null && isCurrent()) {
+                  myOnModuleLoaded.accept(serviceProject);
+                }
+              }
+            )
+            .submit(myExecutor)
+        );
+      }
+
+      try {
+        for (CancellablePromise<RestServiceProject> promise : promises) {
+          RestServiceProject serviceProject = ProgressIndicatorUtils.awaitWithCheckCanceled(
+            promise
+          );
+          if (serviceProject != null) {
+            myResult.add(serviceProject);
+          }
+        }
+      } catch (ProcessCanceledException e) {
+        promises.forEach(CancellablePromise::cancel);
+        throw e;
+      }
+    }
+
+    private boolean isCurrent() {
+      return myIndicator == myTaskIndicator && !myTaskIndicator.isCanceled();
+    }
+
+    @Override
+    public void onSuccess() {
+      RestEndpointCache.getInstance(myProject).evictStaleGenerations();
+      RestServiceDiagnostics.getInstance(myProject).finishRefresh(myStats);
+      if (isCurrent()) {
+        myOnFinished.accept(myResult);
+      }
+    }
+
+    @Override
+    public void onFinished() {
+      if (myIndicator == myTaskIndicator) {
+        myIndicator = null;
+      }
+    }
+  }
 }
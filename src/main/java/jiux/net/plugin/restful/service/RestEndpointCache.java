@@ -0,0 +1,308 @@
+package jiux.net.plugin.restful.service;
+
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.module.ModuleManager;
+import com.intellij.openapi.module.ModuleUtilCore;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.openapi.util.SimpleModificationTracker;
+import com.intellij.psi.util.CachedValue;
+import com.intellij.psi.util.CachedValueProvider;
+import com.intellij.psi.util.CachedValuesManager;
+import com.intellij.util.containers.Interner;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import jiux.net.plugin.restful.common.ServiceHelper;
+import jiux.net.plugin.restful.common.spring.AntPathPattern;
+import jiux.net.plugin.restful.common.spring.PathTrie;
+import jiux.net.plugin.restful.diagnostics.ModuleStats;
+import jiux.net.plugin.restful.diagnostics.RestServiceDiagnostics;
+import jiux.net.plugin.restful.navigation.action.RestServiceItem;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Endpoints of each module, cached until a source file of the module or of a module
+ * it depends on changes, see {@link #moduleChanged(Module)}, or the project roots
+ * change. The navigator and Go to Service both read from here, so whichever runs second
+ * does no resolving, and an edit in one module leaves the endpoints of the others cached.
+ * The changed modules are reported by {@link RestServiceModel}, started with the cache
+ * so that it follows code edits whoever reads it first, the tool window or a test.
+ * <p>
+ * Strings shared by many endpoints, such as class paths and module names, are interned here.
+ * Every refresh starts a new generation, and modules not read during the last complete
+ * generation, e.g. removed ones, are evicted when it finishes.
+ * <p>
+ * Must be called inside a read action. Returned lists are shared and must not be modified.
+ */
+@Service(Service.Level.PROJECT)
+public final class RestEndpointCache {
+
+  /**
+   * Rough shallow sizes on a 64-bit VM with compressed oops, for the diagnostics view.
+   */
+  private static final int ITEM_BYTES = 48;
+  private static final int POINTER_BYTES = 64;
+  private static final int STRING_BYTES = 40;
+
+  /**
+   * Statistics of the caller, the cached value provider is shared by all calls.
+   */
+  private static final ThreadLocal<ModuleStats> CURRENT_STATS = new ThreadLocal<>();
+
+  private final Project myProject;
+  private final Map<Module, Entry> myEntries = new ConcurrentHashMap<>();
+  private final Interner<String> myInterner = Interner.createWeakInterner();
+  private final CachedValue<PathTrie<RestServiceItem>> myPathTrie;
+  private final Map<String, AntPathPattern> myCompiledPatterns = new ConcurrentHashMap<>();
+  /**
+   * Incremented whenever the endpoints of any module may have changed.
+   */
+  private final SimpleModificationTracker myEndpointTracker =
+    new SimpleModificationTracker();
+  private volatile int myGeneration;
+
+  public RestEndpointCache(Project project) {
+    myProject = project;
+    RestServiceModel.getInstance(project).startListening();
+    myPathTrie =
+      CachedValuesManager
+        .getManager(project)
+        .createCachedValue(
+          () ->
+            CachedValueProvider.Result.create(
+              buildPathTrie(),
+              myEndpointTracker,
+              ProjectRootManager.getInstance(project),
+              DumbService.getInstance(project).getModificationTracker()
+            ),
+          false
+        );
+  }
+
+  public static RestEndpointCache getInstance(Project p) {
+    return p.getService(RestEndpointCache.class);
+  }
+
+  @NotNull
+  public List<RestServiceItem> getServiceItems(@NotNull Module module) {
+    return getServiceItems(module, null);
+  }
+
+  /**
+   * @param stats receives the cache hit or miss and, on a miss, the resolving times
+   */
+  @NotNull
+  public List<RestServiceItem> getServiceItems(
+    @NotNull Module module,
+    @Nullable ModuleStats stats
+  ) {
+    Entry entry = myEntries.computeIfAbsent(module, this::createEntry);
+    entry.generation = myGeneration;
+    boolean hit = entry.value.hasUpToDateValue();
+    List<RestServiceItem> items;
+    CURRENT_STATS.set(stats);
+    try {
+      items = entry.value.getValue();
+    } finally {
+      CURRENT_STATS.remove();
+    }
+
+    RestServiceDiagnostics.getInstance(myProject).recordCacheAccess(hit);
+    if (stats != null) {
+      stats.setCacheHit(hit);
+    }
+    return items;
+  }
+
+  /**
+   * Whether the endpoints of the module can be read without resolving.
+   */
+  public boolean isUpToDate(@NotNull Module module) {
+    Entry entry = myEntries.get(module);
+    return entry != null && entry.value.hasUpToDateValue();
+  }
+
+  /**
+   * Called in a background read action when a source file of the module changed, the
+   * endpoints of the module and of the modules depending on it are resolved again on next
+   * access.
+   */
+  public void moduleChanged(@NotNull Module module) {
+    invalidate(module);
+    for (Module dependent : ModuleUtilCore.getAllDependentModules(module)) {
+      invalidate(dependent);
+    }
+    myEndpointTracker.incModificationCount();
+  }
+
+  private void invalidate(Module module) {
+    Entry entry = myEntries.get(module);
+    if (entry != null) {
+      entry.tracker.incModificationCount();
+    }
+  }
+
+  private Entry createEntry(Module module) {
+    SimpleModificationTracker tracker = new SimpleModificationTracker();
+    CachedValue<List<RestServiceItem>> value = CachedValuesManager
+      .getManager(myProject)
+      .createCachedValue(
+        () ->
+          CachedValueProvider.Result.create(
+            Collections.unmodifiableList(
+              ServiceHelper.buildRestServiceItemListUsingIndex(module, CURRENT_STATS.get())
+            ),
+            tracker,
+            ProjectRootManager.getInstance(myProject),
+            DumbService.getInstance(myProject).getModificationTracker()
+          ),
+        false
+      );
+    return new Entry(value, tracker);
+  }
+
+  @NotNull
+  public List<RestServiceItem> getServiceItems() {
+    List<RestServiceItem> itemList = new ArrayList<>();
+    for (Module module : ModuleManager.getInstance(myProject).getModules()) {
+      itemList.addAll(getServiceItems(module));
+    }
+    return itemList;
+  }
+
+  /**
+   * Url templates of all endpoints of the project, to look up the handlers of a concrete url.
+   */
+  @NotNull
+  public PathTrie<RestServiceItem> getPathTrie() {
+    return myPathTrie.getValue();
+  }
+
+  private PathTrie<RestServiceItem> buildPathTrie() {
+    PathTrie<RestServiceItem> trie = new PathTrie<>();
+    for (RestServiceItem item : getServiceItems()) {
+      trie.add(item.getUrl(), item);
+    }
+    return trie;
+  }
+
+  /**
+   * The url template compiled once, for every popup, search and pasted url.
+   */
+  @NotNull
+  public AntPathPattern getCompiledPattern(@NotNull String template) {
+    return myCompiledPatterns.computeIfAbsent(template, AntPathPattern::compile);
+  }
+
+  @NotNull
+  public String intern(@NotNull String value) {
+    return myInterner.intern(value);
+  }
+
+  /**
+   * Called when a full refresh starts.
+   */
+  public void startGeneration() {
+    myGeneration++;
+  }
+
+  /**
+   * Called when a full refresh has read every module; drops the modules it did not read
+   * and those disposed since, and the compiled templates, recompiled when next needed.
+   */
+  public void evictStaleGenerations() {
+    int generation = myGeneration;
+    myEntries
+      .entrySet()
+      .removeIf(entry ->
+        entry.getValue().generation != generation || entry.getKey().isDisposed()
+      );
+    myCompiledPatterns.clear();
+  }
+
+  /**
+   * Estimates the memory held by the cached endpoints. Values that are out of date are
+   * not counted, they are recomputed on next access.
+   */
+  @NotNull
+  public Footprint getFootprint() {
+    Set<Object> strings = Collections.newSetFromMap(new IdentityHashMap<>());
+    Set<Object> pointers = Collections.newSetFromMap(new IdentityHashMap<>());
+    int items = 0;
+    long bytes = 0;
+    for (Entry entry : myEntries.values()) {
+      if (!entry.value.hasUpToDateValue()) {
+        continue;
+      }
+      for (RestServiceItem item : entry.value.getValue()) {
+        items++;
+        bytes += ITEM_BYTES;
+        if (pointers.add(item.getPsiElementPointer())) {
+          bytes += POINTER_BYTES;
+        }
+        bytes += sizeOf(item.getModuleName(), strings);
+        bytes += sizeOf(item.getUrlPrefix(), strings);
+        bytes += sizeOf(item.getUrlSuffix(), strings);
+        bytes += sizeOf(item.getUrl(), strings);
+        bytes += sizeOf(item.getClassName(), strings);
+        bytes += sizeOf(item.getMethodName(), strings);
+      }
+    }
+    return new Footprint(myEntries.size(), items, strings.size(), bytes);
+  }
+
+  private static long sizeOf(@Nullable String value, Set<Object> counted) {
+    return value != null && counted.add(value) ? STRING_BYTES + value.length() : 0;
+  }
+
+  private static final class Entry {
+
+    final CachedValue<List<RestServiceItem>> value;
+    final SimpleModificationTracker tracker;
+    volatile int generation;
+
+    Entry(CachedValue<List<RestServiceItem>> value, SimpleModificationTracker tracker) {
+      this.value = value;
+      this.tracker = tracker;
+    }
+  }
+
+  public static final class Footprint {
+
+    private final int modules;
+    private final int items;
+    private final int strings;
+    private final long bytes;
+
+    Footprint(int modules, int items, int strings, long bytes) {
+      this.modules = modules;
+      this.items = items;
+      this.strings = strings;
+      this.bytes = bytes;
+    }
+
+    public int getModules() {
+      return modules;
+    }
+
+    public int getItems() {
+      return items;
+    }
+
+    public int getStrings() {
+      return strings;
+    }
+
+    public long getBytes() {
+      return bytes;
+    }
+  }
+}
@@ -0,0 +1,513 @@
+package jiux.net.plugin.restful.service;
+
+import com.intellij.openapi.components.PersistentStateComponent;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.components.State;
+import com.intellij.openapi.components.Storage;
+import com.intellij.openapi.components.StoragePathMacros;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.module.ModuleUtilCore;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.DumbService;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectRootManager;
+import com.intellij.psi.codeStyle.MinusculeMatcher;
+import com.intellij.psi.codeStyle.NameUtil;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import jiux.net.plugin.restful.navigation.action.RestServiceItem;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.TestOnly;
+
+/**
+ * Index over the url, controller and handler name of the endpoints, to search by name
+ * without matching every endpoint. Only the endpoints holding all the letters and digits
+ * of the pattern are matched, as any match holds them, even a camel hump abbreviation
+ * such as {@code uCtl} or a sparse one. The trigrams of the pattern they hold only rank
+ * them, so that the closest spellings come first among matches of similar degree.
+ * <p>
+ * Each module is indexed separately, from the list of {@link RestEndpointCache}, then
+ * kept up to date from the deltas of {@link RestServiceModel}, so an edit only indexes
+ * the endpoints it changed. Modules are reindexed once the project roots change.
+ * <p>
+ * Endpoints chosen from Go to Service or Search Everywhere rank higher, the more often and
+ * the more recently they were chosen.
+ * <p>
+ * Must be called inside a read action.
+ */
+@Service(Service.Level.PROJECT)
+@State(
+  name = "RestEndpointSearchIndex",
+  storages = @Storage(StoragePathMacros.WORKSPACE_FILE)
+)
+public final class RestEndpointSearchIndex
+  implements PersistentStateComponent<RestEndpointSearchIndex.UsageState> {
+
+  private static final int MAX_USAGES = 500;
+  private static final int MAX_FREQUENCY_BOOST = 10;
+  private static final int FREQUENCY_WEIGHT = 50;
+  private static final int RECENCY_WEIGHT = 500;
+  private static final int TRIGRAM_WEIGHT = 20;
+
+  private final Project myProject;
+  private final Map<Module, ModuleIndex> myIndexes = new ConcurrentHashMap<>();
+  private final Object myIndexLock = new Object();
+  /**
+   * Incremented under {@link #myIndexLock} on every delta, so that an index built from
+   * endpoints read before it is not kept.
+   */
+  private volatile long myChangeCount;
+  private UsageState myUsages = new UsageState();
+
+  public RestEndpointSearchIndex(Project project) {
+    myProject = project;
+  }
+
+  public static RestEndpointSearchIndex getInstance(Project p) {
+    return p.getService(RestEndpointSearchIndex.class);
+  }
+
+  /**
+   * @return the endpoints of the module matching the pattern, best first
+   */
+  @NotNull
+  public List<Match> search(@NotNull Module module, @NotNull String pattern) {
+    myIndexes.keySet().removeIf(Module::isDisposed);
+    ModuleIndex index = getIndex(module);
+
+    MinusculeMatcher matcher = NameUtil.buildMatcher(
+      "*" + pattern,
+      NameUtil.MatchingCaseSensitivity.NONE
+    );
+    long[] trigrams = trigramsOf(pattern.toLowerCase());
+    List<Match> matches = new ArrayList<>();
+    long now = System.currentTimeMillis();
+    for (RestServiceItem item : index.findByChars(pattern)) {
+      ProgressManager.checkCanceled();
+      int degree = bestDegree(matcher, item);
+      if (degree != Integer.MIN_VALUE) {
+        int hits = index.countTrigrams(item, trigrams);
+        int score = degree + hits * TRIGRAM_WEIGHT + getBoost(item, now);
+        matches.add(new Match(item, score));
+      }
+    }
+    matches.sort(Comparator.comparingInt(Match::getScore).reversed());
+    return matches;
+  }
+
+  private ModuleIndex getIndex(Module module) {
+    long stamp =
+      ProjectRootManager.getInstance(myProject).getModificationCount() +
+      DumbService.getInstance(myProject).getModificationTracker().getModificationCount();
+    ModuleIndex index = myIndexes.get(module);
+    if (index != null && index.stamp == stamp) {
+      return index;
+    }
+    long changeCount = myChangeCount;
+    index =
+      new ModuleIndex(
+        RestEndpointCache.getInstance(myProject).getServiceItems(module),
+        stamp
+      );
+    synchronized (myIndexLock) {
+      if (myChangeCount == changeCount) {
+        myIndexes.put(module, index);
+      }
+    }
+    return index;
+  }
+
+  /**
+   * Called on EDT with the endpoints {@link RestServiceModel} found removed from and
+   * added to the module.
+   */
+  public void applyDelta(
+    @NotNull Module module,
+    @NotNull List<RestServiceItem> removed,
+    @NotNull List<RestServiceItem> added
+  ) {
+    synchronized (myIndexLock) {
+      myChangeCount++;
+      ModuleIndex index = myIndexes.get(module);
+      if (index != null) {
+        index.apply(removed, added);
+      }
+    }
+  }
+
+  /**
+   * Called in a background read action when a source file of the module changed. The
+   * modules depending on it may inherit changed endpoints that no delta reports, they are
+   * reindexed on next search.
+   */
+  public void moduleChanged(@NotNull Module module) {
+    synchronized (myIndexLock) {
+      myChangeCount++;
+      for (Module dependent : ModuleUtilCore.getAllDependentModules(module)) {
+        myIndexes.remove(dependent);
+      }
+    }
+  }
+
+  private static int bestDegree(MinusculeMatcher matcher, RestServiceItem item) {
+    int best = Integer.MIN_VALUE;
+    for (String text : new String[] {
+      item.getUrl(),
+      item.getClassName(),
+      item.getMethodName(),
+    }) {
+      if (text != null && matcher.matches(text)) {
+        best = Math.max(best, matcher.matchingDegree(text));
+      }
+    }
+    return best;
+  }
+
+  private int getBoost(RestServiceItem item, long now) {
+    String identity = item.getIdentity();
+    Integer count;
+    Long lastUsed;
+    synchronized (this) {
+      count = myUsages.counts.get(identity);
+      lastUsed = myUsages.lastUsed.get(identity);
+    }
+    if (count == null || lastUsed == null) {
+      return 0;
+    }
+    long days = TimeUnit.MILLISECONDS.toDays(Math.max(0, now - lastUsed));
+    return (
+      Math.min(count, MAX_FREQUENCY_BOOST) * FREQUENCY_WEIGHT +
+      (int) (RECENCY_WEIGHT / (1 + days))
+    );
+  }
+
+  /**
+   * Called when an endpoint is chosen from a search.
+   */
+  public synchronized void recordSelection(@NotNull RestServiceItem item) {
+    String identity = item.getIdentity();
+    myUsages.counts.merge(identity, 1, Integer::sum);
+    myUsages.lastUsed.put(identity, System.currentTimeMillis());
+    if (myUsages.lastUsed.size() > MAX_USAGES) {
+      String oldest = myUsages.lastUsed
+        .entrySet()
+        .stream()
+        .min(Map.Entry.comparingByValue())
+        .map(Map.Entry::getKey)
+        .orElse(identity);
+      myUsages.lastUsed.remove(oldest);
+      myUsages.counts.remove(oldest);
+    }
+  }
+
+  @Override
+  public synchronized UsageState getState() {
+    return myUsages;
+  }
+
+  @Override
+  public synchronized void loadState(@NotNull UsageState state) {
+    myUsages = state;
+  }
+
+  /**
+   * Trigrams of the text that contain none of the wildcards of
+   * {@link NameUtil#buildMatcher}, each packed into a long.
+   */
+  static long[] trigramsOf(String text) {
+    Set<Long> trigrams = new HashSet<>();
+    for (int i = 0; i + 3 <= text.length(); i++) {
+      char a = text.charAt(i);
+      char b = text.charAt(i + 1);
+      char c = text.charAt(i + 2);
+      if (!isWildcard(a) && !isWildcard(b) && !isWildcard(c)) {
+        trigrams.add(trigram(a, b, c));
+      }
+    }
+    long[] result = new long[trigrams.size()];
+    int i = 0;
+    for (Long trigram : trigrams) {
+      result[i++] = trigram;
+    }
+    return result;
+  }
+
+  private static long trigram(char a, char b, char c) {
+    return ((long) a << 32) | ((long) b << 16) | c;
+  }
+
+  private static boolean isWildcard(char c) {
+    return c == '*' || c == ' ';
+  }
+
+  /**
+   * Endpoints of a module by slot. A slot is never reused until the index is compacted,
+   * so the postings, the slots holding a trigram or a character, only ever grow at the
+   * end and stay sorted. A removed endpoint only clears its slot.
+   * <p>
+   * Endpoints are keyed by {@link RestServiceItem#getIdentity()}, so a delta applies
+   * whichever instance of the endpoint was indexed, and an ambiguous mapping, which
+   * Spring would reject, is indexed once.
+   */
+  static final class ModuleIndex {
+
+    private static final int MIN_COMPACTED_SLOTS = 64;
+
+    final long stamp;
+    private RestServiceItem[] mySlots = new RestServiceItem[16];
+    private int mySize;
+    private int myLive;
+    private final Map<String, Integer> mySlotOf = new HashMap<>();
+    private final Map<Long, Posting> myTrigrams = new HashMap<>();
+    private final Map<Character, Posting> myChars = new HashMap<>();
+
+    ModuleIndex(List<RestServiceItem> items, long stamp) {
+      this.stamp = stamp;
+      for (RestServiceItem item : items) {
+        add(item);
+      }
+    }
+
+    synchronized void apply(List<RestServiceItem> removed, List<RestServiceItem> added) {
+      for (RestServiceItem item : removed) {
+        remove(item);
+      }
+      for (RestServiceItem item : added) {
+        add(item);
+      }
+      if (mySize - myLive > Math.max(myLive, MIN_COMPACTED_SLOTS)) {
+        compact();
+      }
+    }
+
+    private void add(RestServiceItem item) {
+      remove(item);
+      if (mySize == mySlots.length) {
+        mySlots = Arrays.copyOf(mySlots, mySize * 2);
+      }
+      int slot = mySize++;
+      mySlots[slot] = item;
+      mySlotOf.put(item.getIdentity(), slot);
+      myLive++;
+      for (String text : new String[] {
+        item.getUrl(),
+        item.getClassName(),
+        item.getMethodName(),
+      }) {
+        if (text == null) {
+          continue;
+        }
+        String lower = text.toLowerCase();
+        for (int i = 0; i + 3 <= lower.length(); i++) {
+          myTrigrams
+            .computeIfAbsent(
+              trigram(lower.charAt(i), lower.charAt(i + 1), lower.charAt(i + 2)),
+              t -> new Posting()
+            )
+            .add(slot);
+        }
+        for (int i = 0; i < text.length(); i++) {
+          char c = text.charAt(i);
+          if (Character.isLetterOrDigit(c)) {
+            char lowerChar = Character.toLowerCase(c);
+            myChars.computeIfAbsent(lowerChar, t -> new Posting()).add(slot);
+          }
+        }
+      }
+    }
+
+    private void remove(RestServiceItem item) {
+      Integer slot = mySlotOf.remove(item.getIdentity());
+      if (slot != null) {
+        mySlots[slot] = null;
+        myLive--;
+      }
+    }
+
+    private void compact() {
+      List<RestServiceItem> items = live();
+      mySlots = new RestServiceItem[Math.max(16, items.size())];
+      mySize = 0;
+      myLive = 0;
+      mySlotOf.clear();
+      myTrigrams.clear();
+      myChars.clear();
+      for (RestServiceItem item : items) {
+        add(item);
+      }
+    }
+
+    @TestOnly
+    synchronized int getSlotCount() {
+      return mySize;
+    }
+
+    private List<RestServiceItem> live() {
+      List<RestServiceItem> items = new ArrayList<>(myLive);
+      for (int i = 0; i < mySize; i++) {
+        if (mySlots[i] != null) {
+          items.add(mySlots[i]);
+        }
+      }
+      return items;
+    }
+
+    /**
+     * @return how many of the trigrams the endpoint holds, 0 if it is not indexed
+     */
+    synchronized int countTrigrams(RestServiceItem item, long[] trigrams) {
+      Integer slot = mySlotOf.get(item.getIdentity());
+      int count = 0;
+      if (slot != null) {
+        for (long trigram : trigrams) {
+          Posting posting = myTrigrams.get(trigram);
+          if (posting != null && posting.contains(slot)) {
+            count++;
+          }
+        }
+      }
+      return count;
+    }
+
+    /**
+     * @return the endpoints holding every letter and digit of the pattern, or all of them
+     *     if it has none, or has other than ASCII characters, which the matcher may map
+     *     from another keyboard layout
+     */
+    synchronized List<RestServiceItem> findByChars(String pattern) {
+      Set<Character> chars = new HashSet<>();
+      List<Posting> postings = new ArrayList<>();
+      for (int i = 0; i < pattern.length(); i++) {
+        char c = pattern.charAt(i);
+        if (c > 127) {
+          return live();
+        }
+        if (Character.isLetterOrDigit(c) && chars.add(Character.toLowerCase(c))) {
+          Posting posting = myChars.get(Character.toLowerCase(c));
+          if (posting == null) {
+            return Collections.emptyList();
+          }
+          postings.add(posting);
+        }
+      }
+      return postings.isEmpty() ? live() : find(postings, postings.size());
+    }
+
+    /**
+     * @return the endpoints found in at least {@code minHits} of the postings; only the
+     *     smallest postings are read in full, as such an endpoint is in one of them, and
+     *     each of those endpoints is looked up in the others
+     */
+    List<RestServiceItem> find(List<Posting> postings, int minHits) {
+      List<RestServiceItem> result = new ArrayList<>();
+      if (postings.size() < minHits) {
+        return result;
+      }
+      postings.sort(Comparator.comparingInt(posting -> posting.size));
+      int seeds = postings.size() - minHits + 1;
+      int count = 0;
+      for (int i = 0; i < seeds; i++) {
+        count += postings.get(i).size;
+      }
+      int[] candidates = new int[count];
+      count = 0;
+      for (int i = 0; i < seeds; i++) {
+        Posting posting = postings.get(i);
+        System.arraycopy(posting.slots, 0, candidates, count, posting.size);
+        count += posting.size;
+      }
+      if (seeds > 1) {
+        Arrays.sort(candidates);
+      }
+      int previous = -1;
+      for (int slot : candidates) {
+        if (
+          slot != previous && mySlots[slot] != null && hasHits(postings, slot, minHits)
+        ) {
+          result.add(mySlots[slot]);
+        }
+        previous = slot;
+      }
+      return result;
+    }
+
+    private static boolean hasHits(List<Posting> postings, int slot, int minHits) {
+      int hits = 0;
+      for (int i = 0; i < postings.size(); i++) {
+        if (postings.get(i).contains(slot) && ++hits == minHits) {
+          return true;
+        }
+        if (hits + postings.size() - i - 1 < minHits) {
+          return false;
+        }
+      }
+      return false;
+    }
+  }
+
+  /**
+   * Ascending slots, each added once.
+   */
+  static final class Posting {
+
+    int[] slots = new int[4];
+    int size;
+
+    void add(int slot) {
+      if (size > 0 && slots[size - 1] == slot) {
+        return;
+      }
+      if (size == slots.length) {
+        slots = Arrays.copyOf(slots, size * 2);
+      }
+      slots[size++] = slot;
+    }
+
+    boolean contains(int slot) {
+      return Arrays.binarySearch(slots, 0, size, slot) >= 0;
+    }
+  }
+
+  public static final class Match {
+
+    private final RestServiceItem item;
+    private final int score;
+
+    Match(RestServiceItem item, int score) {
+      this.item = item;
+      this.score = score;
+    }
+
+    public RestServiceItem getItem() {
+      return item;
+    }
+
+    /**
+     * Matching degree of the best matching name, plus the weight of the trigrams of the
+     * pattern the endpoint holds and the boost of recent choices.
+     */
+    public int getScore() {
+      return score;
+    }
+  }
+
+  /**
+   * How often and when each endpoint, by {@link RestServiceItem#getIdentity()}, was last
+   * chosen.
+   */
+  public static final class UsageState {
+
+    public Map<String, Integer> counts = new LinkedHashMap<>();
+    public Map<String, Long> lastUsed = new LinkedHashMap<>();
+  }
+}
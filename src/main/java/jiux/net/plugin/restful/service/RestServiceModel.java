@@ -0,0 +1,338 @@
+package jiux.net.plugin.restful.service;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.application.ModalityState;
+import com.intellij.openapi.application.ReadAction;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.module.Module;
+import com.intellij.openapi.progress.ProgressManager;
+import com.intellij.openapi.project.Project;
+import com.intellij.openapi.roots.ProjectFileIndex;
+import com.intellij.openapi.util.io.FileUtilRt;
+import com.intellij.openapi.vfs.VirtualFile;
+import com.intellij.openapi.vfs.VirtualFileManager;
+import com.intellij.openapi.vfs.newvfs.BulkFileListener;
+import com.intellij.openapi.vfs.newvfs.events.VFileEvent;
+import com.intellij.psi.PsiFile;
+import com.intellij.psi.PsiManager;
+import com.intellij.psi.PsiTreeChangeAdapter;
+import com.intellij.psi.PsiTreeChangeEvent;
+import com.intellij.util.concurrency.AppExecutorUtil;
+import com.intellij.util.containers.ContainerUtil;
+import com.intellij.util.ui.update.MergingUpdateQueue;
+import com.intellij.util.ui.update.Update;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import jiux.net.plugin.restful.common.ServiceHelper;
+import jiux.net.plugin.restful.navigation.action.RestServiceItem;
+import jiux.net.plugin.restful.navigator.RestServiceProject;
+import jiux.net.plugin.restful.navigator.RestServicesNavigator;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Endpoints of the project grouped by source file, kept up to date from PSI and VFS
+ * events. Only the files that actually changed are re-resolved, and the resulting
+ * add/remove deltas are pushed to the navigator tree.
+ */
+@Service(Service.Level.PROJECT)
+public final class RestServiceModel implements Disposable {
+
+  private static final int MERGING_TIME_SPAN = 300;
+
+  private final Project myProject;
+  /**
+   * Written on EDT only, where the PSI and VFS events arrive, and read by the background
+   * update. Lists are never modified once put.
+   */
+  private final Map<VirtualFile, List<RestServiceItem>> myFileItems =
+    new ConcurrentHashMap<>();
+  private final Set<VirtualFile> myDirtyFiles = new LinkedHashSet<>();
+  private final MergingUpdateQueue myQueue;
+  private boolean myListening;
+
+  public RestServiceModel(Project project) {
+    myProject = project;
+    myQueue =
+      new MergingUpdateQueue(
+        "RestServiceModel",
+        MERGING_TIME_SPAN,
+        true,
+        null,
+        this,
+        null,
+        false
+      );
+    myQueue.setRestartTimerOnAdd(true);
+  }
+
+  public static RestServiceModel getInstance(Project p) {
+    return p.getService(RestServiceModel.class);
+  }
+
+  /**
+   * Called by the navigator and by {@link RestEndpointCache}, from any thread.
+   */
+  public synchronized void startListening() {
+    if (myListening) {
+      return;
+    }
+    myListening = true;
+
+    PsiManager
+      .getInstance(myProject)
+      .addPsiTreeChangeListener(
+        new PsiTreeChangeAdapter() {
+          @Override
+          public void childAdded(@NotNull PsiTreeChangeEvent event) {
+            psiChanged(event);
+          }
+
+          @Override
+          public void childRemoved(@NotNull PsiTreeChangeEvent event) {
+            psiChanged(event);
+          }
+
+          @Override
+          public void childReplaced(@NotNull PsiTreeChangeEvent event) {
+            psiChanged(event);
+          }
+
+          @Override
+          public void childMoved(@NotNull PsiTreeChangeEvent event) {
+            psiChanged(event);
+          }
+
+          @Override
+          public void childrenChanged(@NotNull PsiTreeChangeEvent event) {
+            psiChanged(event);
+          }
+
+          @Override
+          public void propertyChanged(@NotNull PsiTreeChangeEvent event) {
+            psiChanged(event);
+          }
+        },
+        this
+      );
+
+    myProject
+      .getMessageBus()
+      .connect(this)
+      .subscribe(
+        VirtualFileManager.VFS_CHANGES,
+        new BulkFileListener() {
+          @Override
+          public void after(@NotNull List<? extends VFileEvent> events) {
+            for (VFileEvent event : events) {
+              fileChanged(event.getFile());
+            }
+          }
+        }
+      );
+  }
+
+  /**
+   * Replaces the whole model with the result of a full scan.
+   */
+  public void reset(@NotNull List<RestServiceProject> projects) {
+    Map<VirtualFile, List<RestServiceItem>> fileItems = new HashMap<>();
+    for (RestServiceProject project : projects) {
+      for (RestServiceItem item : project.getServiceItems()) {
+        VirtualFile file = item.getVirtualFile();
+        if (file != null) {
+          fileItems.computeIfAbsent(file, f -> new ArrayList<>()).add(item);
+        }
+      }
+    }
+    myFileItems.clear();
+    myFileItems.putAll(fileItems);
+  }
+
+  private void psiChanged(PsiTreeChangeEvent event) {
+    PsiFile psiFile = event.getFile();
+    if (psiFile != null) {
+      fileChanged(psiFile.getVirtualFile());
+    }
+  }
+
+  /**
+   * Called on EDT for every PSI and VFS event, so only records the file; its modules are
+   * found and invalidated by the merged update in the background.
+   */
+  private void fileChanged(@Nullable VirtualFile file) {
+    if (file == null || file.isDirectory() || !isSourceFile(file)) {
+      return;
+    }
+    synchronized (myDirtyFiles) {
+      myDirtyFiles.add(file);
+    }
+    myQueue.queue(Update.create(this, this::flush));
+  }
+
+  /**
+   * Drops the cached endpoints of the modules of the files, and of the modules of the
+   * endpoints they had, e.g. if they were moved or deleted. Those modules are reindexed
+   * for search from the delta, only the modules depending on them are reindexed in full.
+   */
+  private void invalidateModules(List<VirtualFile> files) {
+    ProjectFileIndex fileIndex = ProjectFileIndex.getInstance(myProject);
+    Set<Module> modules = new LinkedHashSet<>();
+    for (VirtualFile file : files) {
+      if (file.isValid()) {
+        ContainerUtil.addIfNotNull(modules, fileIndex.getModuleForFile(file));
+      }
+      List<RestServiceItem> items = myFileItems.getOrDefault(
+        file,
+        Collections.emptyList()
+      );
+      for (RestServiceItem item : items) {
+        ContainerUtil.addIfNotNull(modules, item.getModule());
+      }
+    }
+    RestEndpointCache cache = RestEndpointCache.getInstance(myProject);
+    RestEndpointSearchIndex searchIndex = RestEndpointSearchIndex.getInstance(myProject);
+    for (Module module : modules) {
+      ProgressManager.checkCanceled();
+      if (!module.isDisposed()) {
+        cache.moduleChanged(module);
+        searchIndex.moduleChanged(module);
+      }
+    }
+  }
+
+  private static boolean isSourceFile(VirtualFile file) {
+    return (
+      FileUtilRt.extensionEquals(file.getName(), "java") ||
+      FileUtilRt.extensionEquals(file.getName(), "kt")
+    );
+  }
+
+  private void flush() {
+    List<VirtualFile> files;
+    synchronized (myDirtyFiles) {
+      files = new ArrayList<>(myDirtyFiles);
+      myDirtyFiles.clear();
+    }
+    if (files.isEmpty()) {
+      return;
+    }
+
+    ReadAction
+      .nonBlocking(() -> {
+        invalidateModules(files);
+        return resolveFiles(files);
+      })
+      .inSmartMode(myProject)
+      .expireWith(this)
+      .finishOnUiThread(ModalityState.defaultModalityState(), this::applyChanges)
+      .submit(AppExecutorUtil.getAppExecutorService());
+  }
+
+  private Map<VirtualFile, List<RestServiceItem>> resolveFiles(List<VirtualFile> files) {
+    Map<VirtualFile, List<RestServiceItem>> result = new LinkedHashMap<>();
+    ProjectFileIndex fileIndex = ProjectFileIndex.getInstance(myProject);
+    for (VirtualFile file : files) {
+      ProgressManager.checkCanceled();
+      Module module = file.isValid() && fileIndex.isInSourceContent(file)
+        ? fileIndex.getModuleForFile(file)
+        : null;
+      result.put(
+        file,
+        module == null
+          ? Collections.emptyList()
+          : ServiceHelper.buildRestServiceItemListForFile(module, file)
+      );
+    }
+    return result;
+  }
+
+  private void applyChanges(Map<VirtualFile, List<RestServiceItem>> changes) {
+    Map<Module, List<RestServiceItem>> removedByModule = new LinkedHashMap<>();
+    Map<Module, List<RestServiceItem>> addedByModule = new LinkedHashMap<>();
+
+    for (Map.Entry<VirtualFile, List<RestServiceItem>> change : changes.entrySet()) {
+      List<RestServiceItem> oldItems = myFileItems.getOrDefault(
+        change.getKey(),
+        Collections.emptyList()
+      );
+      List<RestServiceItem> newItems = change.getValue();
+
+      List<RestServiceItem> merged = new ArrayList<>(newItems.size());
+      for (RestServiceItem newItem : newItems) {
+        RestServiceItem oldItem = findSameEndpoint(oldItems, newItem);
+        if (oldItem != null) {
+          // unchanged endpoint, keep the instance the tree already shows
+          merged.add(oldItem);
+        } else {
+          merged.add(newItem);
+          addedByModule
+            .computeIfAbsent(newItem.getModule(), m -> new ArrayList<>())
+            .add(newItem);
+        }
+      }
+      for (RestServiceItem oldItem : oldItems) {
+        if (!merged.contains(oldItem)) {
+          removedByModule
+            .computeIfAbsent(oldItem.getModule(), m -> new ArrayList<>())
+            .add(oldItem);
+        }
+      }
+
+      if (merged.isEmpty()) {
+        myFileItems.remove(change.getKey());
+      } else {
+        myFileItems.put(change.getKey(), merged);
+      }
+    }
+
+    Set<Module> modules = new LinkedHashSet<>(removedByModule.keySet());
+    modules.addAll(addedByModule.keySet());
+    RestServicesNavigator navigator = RestServicesNavigator.getInstance(myProject);
+    RestEndpointSearchIndex searchIndex = RestEndpointSearchIndex.getInstance(myProject);
+    for (Module module : modules) {
+      if (module == null) {
+        // removed from the project, the next full refresh drops its node
+        continue;
+      }
+      List<RestServiceItem> removed = removedByModule.getOrDefault(
+        module,
+        Collections.emptyList()
+      );
+      List<RestServiceItem> added = addedByModule.getOrDefault(
+        module,
+        Collections.emptyList()
+      );
+      navigator.applyServiceDelta(module, removed, added);
+      searchIndex.applyDelta(module, removed, added);
+    }
+  }
+
+  @Nullable
+  private static RestServiceItem findSameEndpoint(
+    List<RestServiceItem> items,
+    RestServiceItem item
+  ) {
+    for (RestServiceItem each : items) {
+      if (
+        each.getMethod() == item.getMethod() &&
+        Objects.equals(each.getUrl(), item.getUrl()) &&
+        Objects.equals(each.getPsiElement(), item.getPsiElement())
+      ) {
+        return each;
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public void dispose() {}
+}
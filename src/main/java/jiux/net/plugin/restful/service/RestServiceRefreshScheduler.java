@@ -0,0 +1,77 @@
+package jiux.net.plugin.restful.service;
+
+import com.intellij.openapi.Disposable;
+import com.intellij.openapi.components.Service;
+import com.intellij.openapi.project.Project;
+import com.intellij.psi.util.PsiModificationTracker;
+import com.intellij.util.ui.update.MergingUpdateQueue;
+import com.intellij.util.ui.update.Update;
+import java.util.concurrent.atomic.AtomicBoolean;
+import jiux.net.plugin.restful.navigator.RestServicesNavigator;
+
+/**
+ * Coalesces refresh requests of the RestServices tree. Requests arriving within
+ * {@link #MERGING_TIME_SPAN} ms of each other end up in one scan, which runs in the
+ * background and cancels the scan still in flight. Unless forced, a request is dropped when
+ * no PSI changed since the last completed scan.
+ */
+@Service(Service.Level.PROJECT)
+public final class RestServiceRefreshScheduler implements Disposable {
+
+  private static final int MERGING_TIME_SPAN = 300;
+
+  private final Project myProject;
+  private final MergingUpdateQueue myQueue;
+  private final AtomicBoolean myForced = new AtomicBoolean();
+  /**
+   * PSI modification count the last completed scan started at, accessed on EDT only.
+   */
+  private long myRefreshedModificationCount = -1;
+
+  public RestServiceRefreshScheduler(Project project) {
+    myProject = project;
+    myQueue =
+      new MergingUpdateQueue(
+        "RestServiceRefreshScheduler",
+        MERGING_TIME_SPAN,
+        true,
+        null,
+        this,
+        null,
+        true
+      );
+    myQueue.setRestartTimerOnAdd(true);
+  }
+
+  public static RestServiceRefreshScheduler getInstance(Project p) {
+    return p.getService(RestServiceRefreshScheduler.class);
+  }
+
+  /**
+   * May be called from any thread.
+   *
+   * @param force scan even if nothing changed, e.g. on an explicit refresh
+   */
+  public void schedule(boolean force) {
+    if (force) {
+      myForced.set(true);
+    }
+    myQueue.queue(Update.create(this, this::refresh));
+  }
+
+  private void refresh() {
+    boolean force = myForced.getAndSet(false);
+    long modificationCount = PsiModificationTracker
+      .getInstance(myProject)
+      .getModificationCount();
+    if (!force && modificationCount == myRefreshedModificationCount) {
+      return;
+    }
+    RestServicesNavigator
+      .getInstance(myProject)
+      .updateStructure(() -> myRefreshedModificationCount = modificationCount);
+  }
+
+  @Override
+  public void dispose() {}
+}
@@ -3,6 +3,7 @@ package jiux.net.plugin.utils;
 import com.intellij.openapi.actionSystem.DataKey;
 import java.util.List;
 import jiux.net.plugin.restful.navigation.action.RestServiceItem;
+import jiux.net.plugin.restful.navigator.RestServiceProject;
 
 public class RestServiceDataKeys {
 
@@ -10,5 +11,12 @@ public class RestServiceDataKeys {
     "SERVICE_ITEMS"
   );
 
+  /**
+   * Modules selected in the navigator tree.
+   */
+  public static final DataKey<List<RestServiceProject>> SERVICE_PROJECTS = DataKey.create(
+    "SERVICE_PROJECTS"
+  );
+
   private RestServiceDataKeys() {}
 }
@@ -18,10 +18,22 @@ import java.net.URL;
 import java.net.URLEncoder;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.regex.Pattern;
 import org.jetbrains.annotations.NotNull;
 
 public class ToolkitUtil {
 
+  private static final Pattern LOCALHOST_PATTERN = Pattern.compile(
+    "(http(s?)://)?(localhost)(:\\d+)?"
+  );
+  private static final Pattern HOST_AND_PORT_PATTERN = Pattern.compile(
+    "(http(s?)://)?" +
+    "( " +
+    "([a-zA-Z0-9]([a-zA-Z0-9\\\\-]{0,61}[a-zA-Z0-9])?\\\\.)+[a-zA-Z]{2,6} |" + // domain
+    "((2[0-4]\\d|25[0-5]|[01]?\\d\\d?)\\.){3}(2[0-4]\\d|25[0-5]|[01]?\\d\\d?)" + // ip address
+    ")"
+  );
+
   public static void runWhenInitialized(final Project project, final Runnable r) {
     if (project.isDisposed()) {
       return;
@@ -115,23 +127,18 @@ public class ToolkitUtil {
     ApplicationManager.getApplication().runWriteAction(action);
   }
 
+  /**
+   * Called for every line of an access log, so the expressions are compiled once.
+   */
   @NotNull
   public static String removeRedundancyMarkup(String pattern) {
-    String localhostRegex = "(http(s?)://)?(localhost)(:\\d+)?";
-    String hostAndPortRegex =
-      "(http(s?)://)?" +
-      "( " +
-      "([a-zA-Z0-9]([a-zA-Z0-9\\\\-]{0,61}[a-zA-Z0-9])?\\\\.)+[a-zA-Z]{2,6} |" + // domain
-      "((2[0-4]\\d|25[0-5]|[01]?\\d\\d?)\\.){3}(2[0-4]\\d|25[0-5]|[01]?\\d\\d?)" + // ip address
-      ")";
-
     String localhost = "localhost";
     if (pattern.contains(localhost)) {
-      pattern = pattern.replaceFirst(localhostRegex, "");
+      pattern = LOCALHOST_PATTERN.matcher(pattern).replaceFirst("");
     }
     // quick test if reg exp should be used
     if (pattern.contains("http:") || pattern.contains("https:")) {
-      pattern = pattern.replaceFirst(hostAndPortRegex, "");
+      pattern = HOST_AND_PORT_PATTERN.matcher(pattern).replaceFirst("");
     }
 
     //TODO : resolve RequestMapping(params="method=someMethod")
@@ -0,0 +1,55 @@
+package jiux.net.plugin.restful.accesslog;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import jiux.net.plugin.restful.method.HttpMethod;
+import org.junit.Test;
+
+public class AccessLogAnalyzerTest {
+
+  private static void assertRequest(HttpMethod method, String url, String line) {
+    AccessLogAnalyzer.Request request = AccessLogAnalyzer.parseRequest(line);
+    assertNotNull(line, request);
+    assertEquals(line, method, request.method);
+    assertEquals(line, url, request.url);
+  }
+
+  @Test
+  public void parsesBareRequestLine() {
+    assertRequest(HttpMethod.GET, "/users/42?expand=true", "GET /users/42?expand=true");
+    assertRequest(HttpMethod.DELETE, "/users/42", "  DELETE\t/users/42  ");
+  }
+
+  @Test
+  public void parsesCombinedLogFormat() {
+    assertRequest(
+      HttpMethod.POST,
+      "/orders",
+      "127.0.0.1 - frank [10/Oct/2000:13:55:36 -0700] \"POST /orders HTTP/1.1\" 201 " +
+      "2326 \"http://example.com/start\" \"Mozilla/5.0 (X11; Linux x86_64)\""
+    );
+  }
+
+  @Test
+  public void skipsUppercaseWordsThatAreNoMethod() {
+    assertRequest(HttpMethod.PUT, "/health", "2024-01-01 INFO PUT /health 200");
+  }
+
+  @Test
+  public void takesALineStartingWithAUrlAsAnyMethod() {
+    assertRequest(null, "/users/42", "/users/42 200 12ms");
+    assertRequest(null, "https://api.example.com/users", "https://api.example.com/users");
+  }
+
+  @Test
+  public void rejectsLinesWithoutRequest() {
+    assertNull(AccessLogAnalyzer.parseRequest(""));
+    assertNull(AccessLogAnalyzer.parseRequest("   "));
+    assertNull(
+      AccessLogAnalyzer.parseRequest("- - [10/Oct/2000:13:55:36 -0700] \"-\" 400")
+    );
+    assertNull(AccessLogAnalyzer.parseRequest("GET"));
+  }
+}
@@ -0,0 +1,50 @@
+package jiux.net.plugin.restful.collection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class LatencyThresholdTest {
+
+  @Test
+  public void requiresBothBoundsToBeExceeded() {
+    LatencyThreshold threshold = new LatencyThreshold(20, 50);
+
+    // 100% slower but only 10 ms
+    assertFalse(threshold.isExceeded(10, 20));
+    // 60 ms slower but only 6%
+    assertFalse(threshold.isExceeded(1000, 1060));
+    assertTrue(threshold.isExceeded(200, 260));
+  }
+
+  @Test
+  public void percentBoundIsExclusiveAndMinimumInclusive() {
+    LatencyThreshold threshold = new LatencyThreshold(20, 50);
+
+    assertFalse(threshold.isExceeded(250, 300));
+    assertTrue(threshold.isExceeded(249, 299));
+    assertFalse(threshold.isExceeded(100, 149.9));
+    assertTrue(threshold.isExceeded(100, 150));
+  }
+
+  @Test
+  public void fasterRequestIsNeverARegression() {
+    LatencyThreshold threshold = new LatencyThreshold(0, 0);
+
+    assertFalse(threshold.isExceeded(100, 100));
+    assertFalse(threshold.isExceeded(100, 40));
+    assertTrue(threshold.isExceeded(100, 100.5));
+  }
+
+  @Test
+  public void clampsNegativeBoundsToZero() {
+    LatencyThreshold threshold = new LatencyThreshold(-10, -5);
+
+    assertEquals(0, threshold.getPercent());
+    assertEquals(0, threshold.getMinMs());
+    assertEquals("0% and 0 ms", threshold.toString());
+    assertEquals("20% and 50 ms", new LatencyThreshold(20, 50).toString());
+  }
+}
@@ -0,0 +1,75 @@
+package jiux.net.plugin.restful.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.io.IOException;
+import java.util.Map;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.util.EntityUtils;
+import org.junit.Test;
+
+public class RequestHelperTest {
+
+  private static final String JSON = "{\"name\": \"ann\"}";
+
+  private static HttpRequestBase newRequest(String method, String body) {
+    return RequestHelper.newRequest(
+      "localhost:8080/users/42",
+      method,
+      Map.of("X-Trace", "1"),
+      body
+    );
+  }
+
+  private static void assertJsonRequest(String method) throws IOException {
+    HttpRequestBase request = newRequest(method.toLowerCase(), JSON);
+
+    assertEquals(method, request.getMethod());
+    assertEquals("http://localhost:8080/users/42", request.getURI().toString());
+    assertEquals("1", request.getFirstHeader("X-Trace").getValue());
+    assertEquals("application/json", request.getFirstHeader("Accept").getValue());
+    assertEquals(
+      JSON,
+      EntityUtils.toString(((HttpEntityEnclosingRequest) request).getEntity())
+    );
+  }
+
+  @Test
+  public void sendsJsonBodyWithTheRequestedMethod() throws IOException {
+    assertJsonRequest("POST");
+    assertJsonRequest("PUT");
+    assertJsonRequest("PATCH");
+    assertJsonRequest("DELETE");
+    assertJsonRequest("GET");
+    assertJsonRequest("HEAD");
+    assertJsonRequest("OPTIONS");
+  }
+
+  @Test
+  public void traceNeverHasABody() {
+    HttpRequestBase request = newRequest("TRACE", JSON);
+
+    assertEquals("TRACE", request.getMethod());
+    assertFalse(request instanceof HttpEntityEnclosingRequest);
+  }
+
+  @Test
+  public void blankBodyIsNotSent() {
+    for (String method : new String[] { "GET", "HEAD", "OPTIONS", "DELETE" }) {
+      HttpRequestBase request = newRequest(method, "  ");
+
+      assertEquals(method, request.getMethod());
+      assertFalse(method, request instanceof HttpEntityEnclosingRequest);
+      assertNull(method, request.getFirstHeader("Accept"));
+    }
+  }
+
+  @Test
+  public void unsupportedMethodHasNoRequest() {
+    assertNull(newRequest("CONNECT", JSON));
+    assertNull(newRequest(null, null));
+  }
+}
@@ -0,0 +1,83 @@
+package jiux.net.plugin.restful.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import jiux.net.plugin.restful.common.spring.AntPathPattern;
+import org.junit.Test;
+
+public class RequestPrefillTest {
+
+  private static RequestPrefill prefill(String template, String url) {
+    return RequestPrefill.of(AntPathPattern.compile(template), url);
+  }
+
+  private static Map<String, String> mapOf(String... namesAndValues) {
+    Map<String, String> map = new LinkedHashMap<>();
+    for (int i = 0; i < namesAndValues.length; i += 2) {
+      map.put(namesAndValues[i], namesAndValues[i + 1]);
+    }
+    return map;
+  }
+
+  @Test
+  public void takesPathVariablesThenQueryParameters() {
+    RequestPrefill prefill = prefill(
+      "/users/{id}/orders/{orderId}",
+      "/users/42/orders/7?page=2&size=10"
+    );
+
+    assertEquals(
+      mapOf("id", "42", "orderId", "7", "page", "2", "size", "10"),
+      prefill.getParams()
+    );
+  }
+
+  @Test
+  public void ignoresHostAndFragment() {
+    RequestPrefill prefill = prefill(
+      "/users/{id}",
+      "http://localhost:8080/users/42?tab=orders#top"
+    );
+
+    assertEquals(mapOf("id", "42", "tab", "orders"), prefill.getParams());
+  }
+
+  @Test
+  public void decodesQueryParameters() {
+    RequestPrefill prefill = prefill(
+      "/search",
+      "/search?q=a%20b+c&tag=%E2%9C%93&bad=%zz"
+    );
+
+    assertEquals(mapOf("q", "a b c", "tag", "\u2713", "bad", "%zz"), prefill.getParams());
+  }
+
+  @Test
+  public void keepsParametersWithoutValueAndTheFirstOfRepeatedOnes() {
+    RequestPrefill prefill = prefill(
+      "/users/{id}",
+      "/users/42?verbose&&id=7&page=1&page=2"
+    );
+
+    assertEquals(mapOf("id", "42", "verbose", "", "page", "1"), prefill.getParams());
+  }
+
+  @Test
+  public void isEmptyWithoutVariablesOrQuery() {
+    assertTrue(prefill("/users", "/users").isEmpty());
+    assertTrue(prefill("/users/{id}", "/orders/42").isEmpty());
+  }
+
+  @Test
+  public void appliesUrlValuesToGeneratedParameters() {
+    RequestPrefill prefill = prefill("/users/{id}", "/users/42?size=5&debug=true");
+
+    assertEquals(
+      mapOf("page", "1", "size", "5", "id", "42", "debug", "true"),
+      prefill.applyTo("page=1&size=20")
+    );
+  }
+}
@@ -0,0 +1,125 @@
+package jiux.net.plugin.restful.common.spring;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.junit.Test;
+
+public class AntPathPatternTest {
+
+  private static final String[] PATTERNS = {
+    "/users",
+    "/users/",
+    "users/{id}",
+    "/users/{id}",
+    "/users/{id}/orders/{orderId}",
+    "/users/*",
+    "/users/*/orders",
+    "/users/**",
+    "/**/orders",
+    "/**",
+    "/files/{name:[a-z]+}.{ext}",
+    "/items/{id:\\d+}",
+    "/static/*.js",
+    "/static/**/*.css",
+    "/a?c",
+  };
+
+  private static final String[] PATHS = {
+    "/users",
+    "/users/",
+    "users/42",
+    "/users/42",
+    "/users//42",
+    "/users/42/",
+    "/users/42/orders",
+    "/users/42/orders/7",
+    "/orders",
+    "/shop/orders",
+    "/files/report.pdf",
+    "/files/Report.pdf",
+    "/items/12",
+    "/items/twelve",
+    "/static/app.js",
+    "/static/css/theme/dark.css",
+    "/abc",
+    "/abbc",
+    "",
+    "/",
+  };
+
+  @Test
+  public void matchesLikeAntPathMatcher() {
+    AntPathMatcher matcher = new AntPathMatcher();
+    for (String pattern : PATTERNS) {
+      AntPathPattern compiled = AntPathPattern.compile(pattern);
+      for (String path : PATHS) {
+        assertEquals(
+          pattern + " against " + path,
+          matcher.match(pattern, path),
+          compiled.matches(path)
+        );
+      }
+    }
+  }
+
+  @Test
+  public void extractsVariablesLikeAntPathMatcher() {
+    AntPathMatcher matcher = new AntPathMatcher();
+    for (String pattern : PATTERNS) {
+      AntPathPattern compiled = AntPathPattern.compile(pattern);
+      for (String path : PATHS) {
+        Map<String, String> expected = new LinkedHashMap<>();
+        if (!matcher.doMatch(pattern, path, true, expected)) {
+          expected = null;
+        }
+        assertEquals(
+          pattern + " against " + path,
+          expected,
+          compiled.extractUriTemplateVariables(path)
+        );
+      }
+    }
+  }
+
+  @Test
+  public void extractsTemplateAndRegexVariables() {
+    assertEquals(
+      Map.of("id", "42", "orderId", "7"),
+      AntPathPattern
+        .compile("/users/{id}/orders/{orderId}")
+        .extractUriTemplateVariables("/users/42/orders/7")
+    );
+    assertEquals(
+      Map.of("name", "report", "ext", "pdf"),
+      AntPathPattern
+        .compile("/files/{name:[a-z]+}.{ext}")
+        .extractUriTemplateVariables("/files/report.pdf")
+    );
+    assertNull(
+      AntPathPattern.compile("/items/{id:\\d+}").extractUriTemplateVariables("/items/x")
+    );
+  }
+
+  @Test
+  public void anySegmentsBacktrack() {
+    AntPathPattern pattern = AntPathPattern.compile("/static/**/*.css");
+
+    assertTrue(pattern.matches("/static/site.css"));
+    assertTrue(pattern.matches("/static/a/b/c/site.css"));
+    assertFalse(pattern.matches("/static/a/b/c/site.js"));
+  }
+
+  @Test
+  public void requiresTheSameLeadingAndTrailingSeparator() {
+    AntPathPattern pattern = AntPathPattern.compile("/users/{id}");
+
+    assertTrue(pattern.matches("/users/42"));
+    assertFalse(pattern.matches("users/42"));
+    assertFalse(pattern.matches("/users/42/"));
+  }
+}
@@ -0,0 +1,136 @@
+package jiux.net.plugin.restful.common.spring;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.junit.Test;
+
+public class PathTrieTest {
+
+  private static PathTrie<String> trieOf(String... patterns) {
+    PathTrie<String> trie = new PathTrie<>();
+    for (String pattern : patterns) {
+      trie.add(pattern, pattern);
+    }
+    return trie;
+  }
+
+  @Test
+  public void matchesLiteralSegments() {
+    PathTrie<String> trie = trieOf("/users", "/users/me", "/orders");
+
+    assertEquals(Collections.singletonList("/users/me"), trie.match("/users/me"));
+    assertEquals(Collections.singletonList("/orders"), trie.match("/orders"));
+    assertEquals(Collections.emptyList(), trie.match("/users/me/avatar"));
+    assertEquals(3, trie.size());
+  }
+
+  @Test
+  public void ignoresLeadingAndTrailingSlashes() {
+    PathTrie<String> trie = trieOf("/users/{id}");
+
+    assertEquals(Collections.singletonList("/users/{id}"), trie.match("users/42/"));
+  }
+
+  @Test
+  public void ranksTheMostSpecificTemplateFirst() {
+    PathTrie<String> trie = trieOf("/users/**", "/users/{id}", "/users/me", "/**");
+
+    assertEquals(
+      Arrays.asList("/users/me", "/users/{id}", "/users/**", "/**"),
+      trie.match("/users/me")
+    );
+    assertEquals(
+      Arrays.asList("/users/{id}", "/users/**", "/**"),
+      trie.match("/users/42")
+    );
+  }
+
+  @Test
+  public void matchesRegexAndWildcardSegments() {
+    PathTrie<String> trie = trieOf(
+      "/files/{name:[a-z]+}.json",
+      "/files/*.xml",
+      "/items/{id:\\d+}"
+    );
+
+    assertEquals(
+      Collections.singletonList("/files/{name:[a-z]+}.json"),
+      trie.match("/files/report.json")
+    );
+    assertEquals(Collections.singletonList("/files/*.xml"), trie.match("/files/a.xml"));
+    assertEquals(Collections.singletonList("/items/{id:\\d+}"), trie.match("/items/7"));
+    assertEquals(Collections.emptyList(), trie.match("/items/seven"));
+  }
+
+  @Test
+  public void anySegmentsSpanZeroOrMoreSegments() {
+    PathTrie<String> trie = trieOf("/static/**/index.html");
+
+    List<String> expected = Collections.singletonList("/static/**/index.html");
+    assertEquals(expected, trie.match("/static/index.html"));
+    assertEquals(expected, trie.match("/static/a/b/c/index.html"));
+    assertEquals(Collections.emptyList(), trie.match("/static/a/b/c/main.html"));
+  }
+
+  @Test
+  public void templateWithSeveralAnySegmentsIsReturnedOnce() {
+    PathTrie<String> trie = trieOf("/**/api/**");
+
+    assertEquals(Collections.singletonList("/**/api/**"), trie.match("/a/api/b/api/c"));
+  }
+
+  @Test
+  public void templatesSharingAPatternSegmentKeepTheirOwnValues() {
+    PathTrie<String> trie = new PathTrie<>();
+    trie.add("/users/{id}", "get");
+    trie.add("/users/{id}", "delete");
+
+    assertEquals(Arrays.asList("get", "delete"), trie.match("/users/1"));
+  }
+
+  @Test
+  public void agreesWithAntPathMatcher() {
+    String[] patterns = {
+      "/api/v1/users",
+      "/api/v1/users/{id}",
+      "/api/v1/users/{id}/orders/{orderId}",
+      "/api/*/health",
+      "/api/**/export",
+      "/files/{name:.+}",
+    };
+    String[] paths = {
+      "/api/v1/users",
+      "/api/v1/users/7",
+      "/api/v1/users/7/orders/9",
+      "/api/v2/health",
+      "/api/v1/users/7/export",
+      "/files/a.tar.gz",
+      "/unknown",
+    };
+    PathTrie<String> trie = trieOf(patterns);
+    AntPathMatcher matcher = new AntPathMatcher();
+    for (String path : paths) {
+      for (String pattern : patterns) {
+        assertEquals(
+          pattern + " against " + path,
+          matcher.match(pattern, path),
+          trie.match(path).contains(pattern)
+        );
+      }
+    }
+  }
+
+  @Test
+  public void concretePathHasASlashAndNoWildcard() {
+    assertTrue(PathTrie.isConcretePath("/users/42"));
+    assertFalse(PathTrie.isConcretePath("users"));
+    assertFalse(PathTrie.isConcretePath("/users/{id}"));
+    assertFalse(PathTrie.isConcretePath("/users/*"));
+    assertFalse(PathTrie.isConcretePath("/users/?"));
+  }
+}
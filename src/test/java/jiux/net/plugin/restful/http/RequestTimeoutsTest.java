@@ -0,0 +1,44 @@
+package jiux.net.plugin.restful.http;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import org.apache.http.client.config.RequestConfig;
+import org.junit.Test;
+
+public class RequestTimeoutsTest {
+
+  @Test
+  public void mapsTheConnectAndReadTimeoutsToTheRequestConfig() {
+    RequestConfig config = new RequestTimeouts(100, 200, 300).toRequestConfig();
+
+    // waiting for a pooled connection counts as connecting
+    assertEquals(100, config.getConnectionRequestTimeout());
+    assertEquals(100, config.getConnectTimeout());
+    assertEquals(200, config.getSocketTimeout());
+  }
+
+  @Test
+  public void zeroMeansNoTimeout() {
+    RequestConfig config = new RequestTimeouts(0, 0, 0).toRequestConfig();
+
+    assertEquals(0, config.getConnectionRequestTimeout());
+    assertEquals(0, config.getConnectTimeout());
+    assertEquals(0, config.getSocketTimeout());
+  }
+
+  @Test
+  public void equalWhenAllTimeoutsAre() {
+    RequestTimeouts timeouts = new RequestTimeouts(100, 200, 300);
+
+    assertEquals(timeouts, new RequestTimeouts(100, 200, 300));
+    assertEquals(timeouts.hashCode(), new RequestTimeouts(100, 200, 300).hashCode());
+    assertNotEquals(timeouts, new RequestTimeouts(0, 200, 300));
+    assertNotEquals(timeouts, new RequestTimeouts(100, 0, 300));
+    assertNotEquals(timeouts, new RequestTimeouts(100, 200, 0));
+    // the order of the timeouts matters
+    assertNotEquals(timeouts, new RequestTimeouts(200, 100, 300));
+    assertNotEquals(timeouts.hashCode(), new RequestTimeouts(200, 100, 300).hashCode());
+    assertNotEquals(timeouts, null);
+  }
+}
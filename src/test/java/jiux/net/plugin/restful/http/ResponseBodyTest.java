@@ -0,0 +1,205 @@
+package jiux.net.plugin.restful.http;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import org.apache.http.entity.ContentType;
+import org.junit.Test;
+
+public class ResponseBodyTest {
+
+  private static final int PREVIEW_SIZE = 16;
+
+  /**
+   * Runs the tasks when told to, to check the body before the rest is read.
+   */
+  private static final class ManualExecutor implements Executor {
+
+    final Queue<Runnable> tasks = new ArrayDeque<>();
+
+    @Override
+    public void execute(Runnable task) {
+      tasks.add(task);
+    }
+
+    void runAll() {
+      while (!tasks.isEmpty()) {
+        tasks.poll().run();
+      }
+    }
+  }
+
+  private static byte[] bytes(int length) {
+    byte[] bytes = new byte[length];
+    for (int i = 0; i < length; i++) {
+      bytes[i] = (byte) ('a' + i % 26);
+    }
+    return bytes;
+  }
+
+  private static byte[] bytes(String text) {
+    return text.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static ResponseBody read(byte[] bytes, String contentType) throws IOException {
+    return read(bytes, contentType, new ManualExecutor());
+  }
+
+  private static ResponseBody read(
+    byte[] bytes,
+    String contentType,
+    ManualExecutor executor
+  ) throws IOException {
+    return ResponseBody.read(
+      new ByteArrayInputStream(bytes),
+      contentType != null ? ContentType.parse(contentType) : null,
+      bytes.length,
+      PREVIEW_SIZE,
+      executor
+    );
+  }
+
+  private static String readAll(ResponseBody body) throws IOException {
+    StringBuilder sb = new StringBuilder();
+    try (Reader reader = body.openReader()) {
+      char[] buffer = new char[8];
+      for (int read = reader.read(buffer); read >= 0; read = reader.read(buffer)) {
+        sb.append(buffer, 0, read);
+      }
+    }
+    return sb.toString();
+  }
+
+  @Test
+  public void keepsABodyOfThePreviewSizeInMemory() throws IOException {
+    ManualExecutor executor = new ManualExecutor();
+    byte[] bytes = bytes(PREVIEW_SIZE);
+
+    ResponseBody body = read(bytes, "text/plain", executor);
+
+    assertTrue(executor.tasks.isEmpty());
+    assertTrue(body.isComplete());
+    assertFalse(body.isTruncated());
+    assertNull(body.getFile());
+    assertEquals(PREVIEW_SIZE, body.getSize());
+    assertEquals(new String(bytes, StandardCharsets.UTF_8), body.getText());
+    assertSame(body, body.getCompleted().join());
+  }
+
+  @Test
+  public void spillsALargerBodyToAFile()
+    throws IOException, ExecutionException, InterruptedException {
+    ManualExecutor executor = new ManualExecutor();
+    byte[] bytes = bytes(PREVIEW_SIZE + 1);
+
+    ResponseBody preview = read(bytes, "text/plain", executor);
+    Path file = preview.getFile();
+    try {
+      assertFalse(preview.isComplete());
+      assertTrue(preview.isTruncated());
+      assertEquals(
+        new String(bytes, 0, PREVIEW_SIZE, StandardCharsets.UTF_8),
+        preview.getText()
+      );
+      // only the preview until the rest is read
+      assertEquals(preview.getText(), readAll(preview));
+
+      executor.runAll();
+      ResponseBody whole = preview.getCompleted().get();
+      assertTrue(whole.isComplete());
+      assertTrue(whole.isTruncated());
+      assertEquals(PREVIEW_SIZE + 1, whole.getSize());
+      assertEquals(preview.getText(), whole.getText());
+      assertArrayEquals(bytes, Files.readAllBytes(file));
+      assertEquals(new String(bytes, StandardCharsets.UTF_8), readAll(whole));
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  @Test
+  public void deletesTheFileOnceCancelled() throws IOException {
+    ManualExecutor executor = new ManualExecutor();
+
+    ResponseBody preview = read(bytes(PREVIEW_SIZE * 4), "text/plain", executor);
+    assertTrue(Files.exists(preview.getFile()));
+    preview.getCompleted().cancel(false);
+    executor.runAll();
+
+    assertFalse(Files.exists(preview.getFile()));
+  }
+
+  @Test
+  public void previewDoesNotCutACharacter() throws IOException {
+    // 15 ASCII bytes, then é across the preview size
+    byte[] text = bytes("abcdefghijklmnoéxyz");
+    ManualExecutor executor = new ManualExecutor();
+
+    ResponseBody preview = read(text, "text/plain; charset=UTF-8", executor);
+    try {
+      assertEquals("abcdefghijklmno", preview.getText());
+    } finally {
+      Files.deleteIfExists(preview.getFile());
+    }
+
+    byte[] ae = bytes("aé");
+    assertEquals("aé", ResponseBody.decodePreview(ae, 3, StandardCharsets.UTF_8));
+    assertEquals("a", ResponseBody.decodePreview(ae, 2, StandardCharsets.UTF_8));
+    assertEquals("aÃ", ResponseBody.decodePreview(ae, 2, StandardCharsets.ISO_8859_1));
+  }
+
+  @Test
+  public void decodesWithTheCharsetOfTheContentType() throws IOException {
+    byte[] latin1 = "café".getBytes(StandardCharsets.ISO_8859_1);
+
+    ResponseBody body = read(latin1, "text/plain; charset=ISO-8859-1");
+
+    assertEquals("café", body.getText());
+    assertEquals("text/plain", body.getMimeType());
+  }
+
+  @Test
+  public void sniffsBinaryBodiesOfUnknownType() throws IOException {
+    byte[] withNul = Arrays.copyOf(bytes(8), 9);
+
+    assertTrue(read(withNul, null).isBinary());
+    assertEquals("", read(withNul, null).getText());
+    assertTrue(read(withNul, "application/x-unknown").isBinary());
+    assertFalse(read(bytes(8), null).isBinary());
+    // the declared type wins
+    assertTrue(read(bytes(8), "image/png").isBinary());
+    assertFalse(read(withNul, "application/json").isBinary());
+    assertFalse(read(withNul, "text/plain").isBinary());
+    assertFalse(read(withNul, "application/vnd.api+json").isBinary());
+  }
+
+  @Test
+  public void readsNoBodyAsEmpty() throws IOException {
+    ResponseBody body = ResponseBody.read(
+      null,
+      null,
+      -1,
+      PREVIEW_SIZE,
+      new ManualExecutor()
+    );
+
+    assertTrue(body.isComplete());
+    assertEquals(0, body.getSize());
+    assertEquals("", body.getText());
+  }
+}
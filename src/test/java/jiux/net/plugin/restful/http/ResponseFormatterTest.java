@@ -0,0 +1,129 @@
+package jiux.net.plugin.restful.http;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import org.apache.http.entity.ContentType;
+import org.junit.Test;
+
+public class ResponseFormatterTest {
+
+  private static final int LIMIT = 1024;
+
+  private static String format(String text) {
+    return ResponseFormatter.format(ResponseBody.ofText(text), LIMIT);
+  }
+
+  @Test
+  public void prettyPrintsJson() {
+    assertEquals(
+      "{\n" +
+      "  \"id\": 12345678901234567890,\n" +
+      "  \"tags\": [\n" +
+      "    true,\n" +
+      "    null,\n" +
+      "    1.50\n" +
+      "  ],\n" +
+      "  \"name\": \"ann\"\n" +
+      "}",
+      format("{\"id\":12345678901234567890,\"tags\":[true,null,1.50],\"name\":\"ann\"}")
+    );
+    assertEquals("[]", format(" [ ] "));
+  }
+
+  @Test
+  public void keepsOtherTextAsItIs() {
+    assertEquals("{\"id\": ", format("{\"id\": "));
+    assertEquals("<a>1</a>", format("<a>1</a>"));
+    assertEquals("", format(""));
+  }
+
+  @Test
+  public void stopsJsonAtTheLimitWithANote() {
+    StringBuilder json = new StringBuilder("[");
+    for (int i = 0; i < LIMIT; i++) {
+      json.append(i).append(',');
+    }
+    json.append("0]");
+
+    String text = format(json.toString());
+
+    String note = "\n\n... Showing the beginning of ";
+    assertTrue(text, text.contains(note));
+    assertEquals(LIMIT, text.indexOf(note));
+    assertTrue(text.startsWith("[\n  0,\n  1,\n"));
+  }
+
+  @Test
+  public void notesWhereTheRestOfATruncatedBodyIs() throws Exception {
+    byte[] bytes = new byte[LIMIT + 1];
+    Arrays.fill(bytes, (byte) 'a');
+    ResponseBody preview = ResponseBody.read(
+      new ByteArrayInputStream(bytes),
+      ContentType.TEXT_PLAIN,
+      bytes.length,
+      LIMIT,
+      Runnable::run
+    );
+    try {
+      ResponseBody whole = preview.getCompleted().get();
+      String text = ResponseFormatter.format(whole, LIMIT);
+
+      String note = "\n\n... Showing the beginning of ";
+      assertTrue(text, text.startsWith(whole.getText() + note));
+      assertTrue(text, text.endsWith(", the whole response is in " + whole.getFile()));
+    } finally {
+      Files.deleteIfExists(preview.getFile());
+    }
+  }
+
+  @Test
+  public void describesBinaryBodies() throws IOException {
+    ResponseBody body = ResponseBody.read(
+      new ByteArrayInputStream(new byte[] { 1, 0, 2 }),
+      ContentType.create("image/png"),
+      3,
+      LIMIT,
+      Runnable::run
+    );
+
+    String text = ResponseFormatter.format(body, LIMIT);
+    assertTrue(text, text.startsWith("Binary response, image/png, "));
+    assertFalse(text, text.contains("Saved to"));
+  }
+
+  @Test
+  public void limitedWriterStopsAtTheLimit() throws IOException {
+    ResponseFormatter.LimitedWriter out = new ResponseFormatter.LimitedWriter(5);
+    out.write("abc", 0, 3);
+    assertFalse(out.isLimitReached());
+
+    try {
+      out.write("defg".toCharArray(), 0, 4);
+      fail();
+    } catch (ResponseFormatter.LimitReachedException expected) {
+      // stops the pretty-printing
+    }
+    assertTrue(out.isLimitReached());
+    assertEquals("abcde", out.toString());
+
+    ResponseFormatter.LimitedWriter exact = new ResponseFormatter.LimitedWriter(3);
+    exact.write("xyz", 0, 3);
+    assertFalse(exact.isLimitReached());
+    assertEquals("xyz", exact.toString());
+  }
+
+  @Test
+  public void detectsJsonByTypeOrFirstCharacter() {
+    assertTrue(ResponseFormatter.isJson(ResponseBody.ofText("  {\"a\": 1}")));
+    assertTrue(ResponseFormatter.isJson(ResponseBody.ofText("\n[1]")));
+    assertFalse(ResponseFormatter.isJson(ResponseBody.ofText("a {")));
+    assertFalse(ResponseFormatter.isJson(ResponseBody.ofText("  ")));
+  }
+}
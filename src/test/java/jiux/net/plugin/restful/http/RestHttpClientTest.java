@@ -0,0 +1,184 @@
+package jiux.net.plugin.restful.http;
+
+import com.intellij.testFramework.fixtures.BasePlatformTestCase;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.entity.ContentType;
+
+public class RestHttpClientTest extends BasePlatformTestCase {
+
+  private static final RequestTimeouts TIMEOUTS = new RequestTimeouts(5000, 5000, 0);
+  private static final RequestTimeouts TOTAL = new RequestTimeouts(0, 0, 100);
+
+  private HttpServer myServer;
+
+  @Override
+  protected void setUp() throws Exception {
+    super.setUp();
+    InetAddress loopback = InetAddress.getLoopbackAddress();
+    myServer = HttpServer.create(new InetSocketAddress(loopback, 0), 0);
+    myServer.createContext(
+      "/hello",
+      exchange -> {
+        byte[] body = "hello".getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "text/plain; charset=UTF-8");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+          out.write(body);
+        }
+      }
+    );
+    myServer.start();
+  }
+
+  @Override
+  protected void tearDown() throws Exception {
+    try {
+      myServer.stop(0);
+    } finally {
+      super.tearDown();
+    }
+  }
+
+  private static HttpResult previewOf(Queue<Runnable> reads) throws IOException {
+    byte[] bytes = "abcdefgh".getBytes(StandardCharsets.UTF_8);
+    ResponseBody preview = ResponseBody.read(
+      new ByteArrayInputStream(bytes),
+      ContentType.TEXT_PLAIN,
+      bytes.length,
+      4,
+      reads::add
+    );
+    return new HttpResult(
+      200,
+      "HTTP/1.1",
+      preview,
+      false,
+      0,
+      null,
+      HttpResult.completing(
+        preview,
+        whole -> new HttpResult(200, "HTTP/1.1", whole, false, 0, null)
+      )
+    );
+  }
+
+  private static void assertTimedOut(CompletableFuture<HttpResult> future, String message)
+    throws Exception {
+    try {
+      future.get(10, TimeUnit.SECONDS);
+      fail("completed in time");
+    } catch (ExecutionException e) {
+      assertInstanceOf(e.getCause(), TimeoutException.class);
+      assertEquals(message, e.getCause().getMessage());
+    }
+  }
+
+  private HttpResult get(String path) throws Exception {
+    String url = "http://127.0.0.1:" + myServer.getAddress().getPort() + path;
+    return RestHttpClient
+      .getInstance()
+      .executeAsync(new HttpGet(url), TIMEOUTS)
+      .get(10, TimeUnit.SECONDS)
+      .getCompleted()
+      .get(10, TimeUnit.SECONDS);
+  }
+
+  public void testReusesTheKeptAliveConnection() throws Exception {
+    HttpResult first = get("/hello");
+    HttpResult second = get("/hello");
+
+    assertEquals(200, first.getStatusCode());
+    assertFalse(first.isConnectionReused());
+    assertEquals("HTTP/1.1", first.getProtocol());
+    assertEquals("hello", first.getBody());
+    assertEquals("text/plain", first.getResponseBody().getMimeType());
+    assertNotNull(first.getTiming());
+    assertTrue(second.isConnectionReused());
+    assertEquals("hello", second.getBody());
+  }
+
+  public void testFailsWithoutServer() throws Exception {
+    int port;
+    try (ServerSocket socket = new ServerSocket(0)) {
+      port = socket.getLocalPort();
+    }
+
+    try {
+      RestHttpClient
+        .getInstance()
+        .executeAsync(new HttpGet("http://127.0.0.1:" + port + "/"), TIMEOUTS)
+        .get(10, TimeUnit.SECONDS);
+      fail("sent without server");
+    } catch (ExecutionException e) {
+      assertInstanceOf(e.getCause(), IOException.class);
+    }
+  }
+
+  public void testFailsWithoutResponseWithinTheTotalTimeout() throws Exception {
+    CompletableFuture<HttpResult> future = new CompletableFuture<>();
+
+    RestHttpClient.failAfterTotalTimeout(future, TOTAL);
+
+    assertTimedOut(future, "No response within 100 ms");
+  }
+
+  public void testFailsTheBodyNotReadWithinTheTotalTimeout() throws Exception {
+    Queue<Runnable> reads = new ArrayDeque<>();
+    HttpResult result = previewOf(reads);
+    try {
+      CompletableFuture<HttpResult> future = new CompletableFuture<>();
+      RestHttpClient.failAfterTotalTimeout(future, TOTAL);
+      future.complete(result);
+
+      assertTimedOut(result.getCompleted(), "Response not complete within 100 ms");
+      // the response itself came in time
+      assertSame(result, future.get());
+    } finally {
+      Files.deleteIfExists(result.getResponseBody().getFile());
+    }
+  }
+
+  public void testKeepsTheBodyReadWithinTheTotalTimeout() throws Exception {
+    Queue<Runnable> reads = new ArrayDeque<>();
+    HttpResult result = previewOf(reads);
+    try {
+      CompletableFuture<HttpResult> future = new CompletableFuture<>();
+      RestHttpClient.failAfterTotalTimeout(future, TOTAL);
+      future.complete(result);
+      while (!reads.isEmpty()) {
+        reads.poll().run();
+      }
+
+      HttpResult whole = result.getCompleted().get(10, TimeUnit.SECONDS);
+      Thread.sleep(200);
+      assertEquals(8, whole.getResponseBody().getSize());
+      assertFalse(result.getResponseBody().getCompleted().isCompletedExceptionally());
+    } finally {
+      Files.deleteIfExists(result.getResponseBody().getFile());
+    }
+  }
+
+  public void testNeverFailsWithoutTotalTimeout() throws Exception {
+    CompletableFuture<HttpResult> future = new CompletableFuture<>();
+
+    RestHttpClient.failAfterTotalTimeout(future, new RequestTimeouts(0, 0, 0));
+
+    Thread.sleep(200);
+    assertFalse(future.isDone());
+  }
+}
@@ -0,0 +1,156 @@
+package jiux.net.plugin.restful.http;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.http.HttpHost;
+import org.apache.http.protocol.BasicHttpContext;
+import org.apache.http.protocol.HttpContext;
+import org.junit.Test;
+
+public class ServerTimingTest {
+
+  private static ServerTiming parseOne(String value) {
+    List<ServerTiming> timings = ServerTiming.parse(List.of(value));
+    assertEquals(value, 1, timings.size());
+    return timings.get(0);
+  }
+
+  private static List<String> phaseNames(RequestTiming timing) {
+    List<String> names = new ArrayList<>();
+    for (RequestTiming.Phase phase : timing.getPhases()) {
+      names.add(phase.getName());
+    }
+    return names;
+  }
+
+  @Test
+  public void parsesTheMetricsOfEveryHeaderInOrder() {
+    List<ServerTiming> timings = ServerTiming.parse(
+      List.of("db;dur=53;desc=\"Query\", cache;desc=miss", "app;DUR=4.5;Desc=render")
+    );
+
+    assertEquals(3, timings.size());
+    assertEquals("db", timings.get(0).getName());
+    assertEquals(53, timings.get(0).getDurationMs(), 0);
+    assertEquals("Query", timings.get(0).getDescription());
+    assertEquals("cache", timings.get(1).getName());
+    assertTrue(Double.isNaN(timings.get(1).getDurationMs()));
+    assertEquals("miss", timings.get(1).getDescription());
+    assertEquals("app", timings.get(2).getName());
+    assertEquals(4.5, timings.get(2).getDurationMs(), 0);
+    assertEquals("render", timings.get(2).getDescription());
+  }
+
+  @Test
+  public void splitsOnlyOutOfQuotedStrings() {
+    ServerTiming timing = parseOne("sql;desc=\"a, b; c\";dur=1.5");
+
+    assertEquals("sql", timing.getName());
+    assertEquals("a, b; c", timing.getDescription());
+    assertEquals(1.5, timing.getDurationMs(), 0);
+  }
+
+  @Test
+  public void unquotesEscapedCharacters() {
+    assertEquals(
+      "say \"hi\", \\ ok",
+      parseOne("x;desc=\"say \\\"hi\\\", \\\\ ok\"").getDescription()
+    );
+    assertEquals("", parseOne("x;desc=\"\"").getDescription());
+    // a lone quote is not a quoted string
+    assertEquals("\"", parseOne("x;desc=\"").getDescription());
+  }
+
+  @Test
+  public void keepsTheFirstDurationAndDescription() {
+    ServerTiming timing = parseOne("x;dur=1;desc=a;dur=2;desc=b");
+
+    assertEquals(1, timing.getDurationMs(), 0);
+    assertEquals("a", timing.getDescription());
+    // an invalid duration does not hide a valid one
+    assertEquals(7, parseOne("x;dur=soon;dur=7").getDurationMs(), 0);
+  }
+
+  @Test
+  public void hasNoDurationUnlessANumberIsGiven() {
+    assertTrue(Double.isNaN(parseOne("x").getDurationMs()));
+    assertTrue(Double.isNaN(parseOne("x;dur=").getDurationMs()));
+    assertTrue(Double.isNaN(parseOne("x;dur=fast").getDurationMs()));
+    assertTrue(Double.isNaN(parseOne("x;dur=NaN").getDurationMs()));
+    assertEquals("", parseOne("x;dur=1").getDescription());
+  }
+
+  @Test
+  public void skipsMetricsWithoutNameAndParametersWithoutValue() {
+    List<ServerTiming> timings = ServerTiming.parse(List.of(", ;dur=1,  a ;flag;dur=2,"));
+
+    assertEquals(1, timings.size());
+    assertEquals("a", timings.get(0).getName());
+    assertEquals(2, timings.get(0).getDurationMs(), 0);
+    assertTrue(ServerTiming.parse(List.of("")).isEmpty());
+    assertTrue(ServerTiming.parse(List.of()).isEmpty());
+  }
+
+  @Test
+  public void requestWithoutEventsIsAllQueued() {
+    PhaseRecorder recorder = new PhaseRecorder();
+    List<ServerTiming> serverTimings = List.of(parseOne("db;dur=3"));
+
+    RequestTiming timing = recorder.toTiming(System.nanoTime(), serverTimings);
+
+    assertEquals(List.of(RequestTiming.Phase.QUEUED), phaseNames(timing));
+    assertEquals(0, timing.getRequestBytes());
+    assertEquals(0, timing.getResponseBytes());
+    assertEquals(serverTimings, timing.getServerTimings());
+  }
+
+  @Test
+  public void recordsThePhasesOfTheAttachedRequestOnly() throws IOException {
+    PhaseRecorder recorder = new PhaseRecorder();
+    HttpContext context = new BasicHttpContext();
+    PhaseRecorder.Dns dns = new PhaseRecorder.Dns();
+    PhaseRecorder.PlainSocketFactory sockets = new PhaseRecorder.PlainSocketFactory();
+    try (ServerSocket server = new ServerSocket(0, 4, InetAddress.getLoopbackAddress())) {
+      InetSocketAddress address = new InetSocketAddress(
+        InetAddress.getLoopbackAddress(),
+        server.getLocalPort()
+      );
+      HttpHost host = new HttpHost("localhost", server.getLocalPort());
+      // not attached yet
+      dns.resolve("localhost");
+      sockets.connectSocket(0, new Socket(), host, address, null, context).close();
+
+      recorder.attach(context);
+      try {
+        dns.resolve("localhost");
+        sockets.connectSocket(0, new Socket(), host, address, null, context).close();
+      } finally {
+        recorder.detach();
+      }
+    }
+
+    RequestTiming timing = recorder.toTiming(System.nanoTime(), List.of());
+    assertEquals(
+      List.of(
+        RequestTiming.Phase.QUEUED,
+        RequestTiming.Phase.DNS,
+        RequestTiming.Phase.CONNECT
+      ),
+      phaseNames(timing)
+    );
+    double end = 0;
+    for (RequestTiming.Phase phase : timing.getPhases()) {
+      assertTrue(phase.getName(), phase.getStartMs() >= end);
+      end = phase.getStartMs() + phase.getDurationMs();
+    }
+    assertTrue(timing.getTotalMs() >= end);
+  }
+}
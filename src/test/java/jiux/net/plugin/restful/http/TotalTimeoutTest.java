@@ -0,0 +1,75 @@
+package jiux.net.plugin.restful.http;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.net.http.HttpTimeoutException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+
+public class TotalTimeoutTest {
+
+  private static RequestTimeouts total(int totalMs) {
+    return new RequestTimeouts(0, 0, totalMs);
+  }
+
+  @Test
+  public void abortsOnceTheTimeIsOver() throws InterruptedException {
+    CountDownLatch aborted = new CountDownLatch(1);
+    long start = System.nanoTime();
+    try (TotalTimeout timeout = new TotalTimeout(total(100))) {
+      timeout.abortWith(aborted::countDown);
+
+      assertTrue(aborted.await(10, TimeUnit.SECONDS));
+      assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(100));
+      assertTrue(timeout.isExpired());
+
+      IOException failure = new IOException("Socket closed");
+      IOException explained = timeout.explain(failure);
+      assertTrue(explained instanceof HttpTimeoutException);
+      assertEquals("No complete response within 100 ms", explained.getMessage());
+      assertSame(failure, explained.getCause());
+    }
+  }
+
+  @Test
+  public void laterAbortReplacesTheFirst() throws InterruptedException {
+    CountDownLatch first = new CountDownLatch(1);
+    CountDownLatch second = new CountDownLatch(1);
+    try (TotalTimeout timeout = new TotalTimeout(total(100))) {
+      timeout.abortWith(first::countDown);
+      timeout.abortWith(second::countDown);
+
+      assertTrue(second.await(10, TimeUnit.SECONDS));
+      assertEquals(1, first.getCount());
+    }
+  }
+
+  @Test
+  public void closingCancelsTheAbort() throws InterruptedException {
+    CountDownLatch aborted = new CountDownLatch(1);
+    TotalTimeout timeout = new TotalTimeout(total(50));
+    timeout.abortWith(aborted::countDown);
+    timeout.close();
+
+    assertFalse(aborted.await(200, TimeUnit.MILLISECONDS));
+    assertFalse(timeout.isExpired());
+    IOException failure = new IOException("Connection reset");
+    assertSame(failure, timeout.explain(failure));
+  }
+
+  @Test
+  public void neverAbortsWithoutTotalTimeout() throws InterruptedException {
+    CountDownLatch aborted = new CountDownLatch(1);
+    try (TotalTimeout timeout = new TotalTimeout(total(0))) {
+      timeout.abortWith(aborted::countDown);
+
+      assertFalse(aborted.await(100, TimeUnit.MILLISECONDS));
+      assertFalse(timeout.isExpired());
+    }
+  }
+}
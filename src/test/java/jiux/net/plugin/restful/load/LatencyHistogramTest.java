@@ -0,0 +1,172 @@
+package jiux.net.plugin.restful.load;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+  private static LatencyHistogram histogramOf(long... values) {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long value : values) {
+      histogram.record(value);
+    }
+    return histogram;
+  }
+
+  /**
+   * The counts of a compressed V2 HdrHistogram encoding, after checking its header.
+   */
+  private static long[] decodeCounts(byte[] encoded) throws DataFormatException {
+    ByteBuffer compressed = ByteBuffer.wrap(encoded);
+    assertEquals(0x1c849314, compressed.getInt());
+    int compressedLength = compressed.getInt();
+    assertEquals(encoded.length - 8, compressedLength);
+
+    Inflater inflater = new Inflater();
+    inflater.setInput(encoded, 8, compressedLength);
+    byte[] inflated = new byte[1 << 16];
+    int length = inflater.inflate(inflated);
+    assertTrue(inflater.finished());
+    inflater.end();
+
+    ByteBuffer header = ByteBuffer.wrap(inflated, 0, length);
+    assertEquals(0x1c849313, header.getInt());
+    int payloadLength = header.getInt();
+    assertEquals(0, header.getInt());
+    assertEquals(3, header.getInt());
+    assertEquals(1, header.getLong());
+    assertEquals((1L << 32) - 1, header.getLong());
+    assertEquals(1, header.getDouble(), 0);
+    assertEquals(length - header.position(), payloadLength);
+
+    long[] counts = new long[1 << 16];
+    int index = 0;
+    while (header.hasRemaining()) {
+      long count = getZigZag(header);
+      if (count < 0) {
+        index += (int) -count;
+      } else {
+        counts[index++] = count;
+      }
+    }
+    return Arrays.copyOf(counts, index);
+  }
+
+  private static long getZigZag(ByteBuffer buffer) {
+    long value = 0;
+    for (int shift = 0;; shift += 7) {
+      byte b = buffer.get();
+      if (shift == 56) {
+        value |= (long) (b & 0xff) << shift;
+        break;
+      }
+      value |= (long) (b & 0x7f) << shift;
+      if ((b & 0x80) == 0) {
+        break;
+      }
+    }
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  @Test
+  public void isExactBelow2048() {
+    LatencyHistogram histogram = histogramOf(1, 2, 3, 1000, 2047);
+
+    assertEquals(5, histogram.getTotalCount());
+    assertEquals(1, histogram.getMin());
+    assertEquals(2047, histogram.getMax());
+    assertEquals(610.6, histogram.getMean(), 1e-9);
+    assertEquals(3, histogram.getValueAtPercentile(50));
+    assertEquals(1000, histogram.getValueAtPercentile(80));
+    assertEquals(2047, histogram.getValueAtPercentile(100));
+  }
+
+  @Test
+  public void isOffByLessThanATenthOfAPercentAbove2048() {
+    for (long value = 2048; value < 1L << 32; value = value * 3 + 1) {
+      long recorded = histogramOf(value, 1L << 32).getValueAtPercentile(50);
+
+      assertTrue(value + " recorded as " + recorded, recorded >= value);
+      assertTrue(value + " recorded as " + recorded, recorded - value < value / 1000.0);
+    }
+  }
+
+  @Test
+  public void clampsToTheRecordableRange() {
+    LatencyHistogram histogram = histogramOf(-5, 1L << 40);
+
+    assertEquals(0, histogram.getMin());
+    assertEquals((1L << 32) - 1, histogram.getMax());
+    assertEquals((1L << 32) - 1, histogram.getValueAtPercentile(100));
+  }
+
+  @Test
+  public void isEmptyWithoutValues() {
+    LatencyHistogram histogram = new LatencyHistogram();
+
+    assertEquals(0, histogram.getMin());
+    assertEquals(0, histogram.getMean(), 0);
+    assertEquals(0, histogram.getValueAtPercentile(99));
+    assertEquals(List.of(100d), histogram.getPercentileLevels(5));
+  }
+
+  @Test
+  public void percentileLevelsHalveTheDistanceTo100() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 0; i < 8; i++) {
+      histogram.record(i);
+    }
+
+    assertEquals(List.of(0d, 50d, 75d, 87.5d, 100d), histogram.getPercentileLevels(1));
+  }
+
+  @Test
+  public void countsBetweenBothBoundsIncluded() {
+    LatencyHistogram histogram = histogramOf(10, 20, 20, 30, 5000);
+
+    assertEquals(3, histogram.getCountBetween(20, 30));
+    assertEquals(4, histogram.getCountBetween(0, 4999));
+    assertEquals(1, histogram.getCountBetween(4999, Long.MAX_VALUE));
+    assertEquals(0, histogram.getCountBetween(31, 4000));
+  }
+
+  @Test
+  public void encodesCountsAsCompressedHdrHistogram() throws DataFormatException {
+    LatencyHistogram histogram = histogramOf(0, 3, 3, 2047);
+    for (int i = 0; i < 300; i++) {
+      histogram.record(7);
+    }
+
+    long[] expected = new long[2048];
+    expected[0] = 1;
+    expected[3] = 2;
+    expected[7] = 300;
+    expected[2047] = 1;
+    assertArrayEquals(expected, decodeCounts(histogram.encodeCompressed()));
+  }
+
+  @Test
+  public void encodesCountsUpToTheBucketOfTheMax() throws DataFormatException {
+    LatencyHistogram histogram = histogramOf(5, 100_000);
+
+    long[] counts = decodeCounts(histogram.encodeCompressed());
+    assertEquals(1, counts[5]);
+    assertEquals(1, counts[counts.length - 1]);
+    assertEquals(2, Arrays.stream(counts).sum());
+  }
+
+  @Test
+  public void encodesAnEmptyHistogram() throws DataFormatException {
+    byte[] encoded = new LatencyHistogram().encodeCompressed();
+
+    assertArrayEquals(new long[] { 0 }, decodeCounts(encoded));
+  }
+}
@@ -0,0 +1,118 @@
+package jiux.net.plugin.restful.load;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.intellij.openapi.progress.EmptyProgressIndicator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import jiux.net.plugin.restful.http.HttpEngine;
+import jiux.net.plugin.restful.http.HttpSession;
+import jiux.net.plugin.restful.http.RequestTimeouts;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+
+public class LoadRunnerTest {
+
+  private static final HttpGet TEMPLATE = new HttpGet("http://localhost/");
+  private static final RequestTimeouts TIMEOUTS = new RequestTimeouts(0, 0, 0);
+  private static final long STALL_MS = 500;
+
+  /**
+   * Answers at once, but the first request stalls as a server pausing for a GC would.
+   */
+  private static final class StallingSession implements HttpSession {
+
+    final List<Long> sendTimes = new CopyOnWriteArrayList<>();
+    final AtomicInteger sent = new AtomicInteger();
+    final long stallMs;
+    volatile boolean closed;
+
+    StallingSession(long stallMs) {
+      this.stallMs = stallMs;
+    }
+
+    @NotNull
+    @Override
+    public Response send(
+      @NotNull HttpRequestBase request,
+      @NotNull RequestTimeouts timeouts
+    ) {
+      sendTimes.add(System.nanoTime());
+      if (sent.getAndIncrement() == 0 && stallMs > 0) {
+        try {
+          Thread.sleep(stallMs);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      return new Response(200, 0);
+    }
+
+    @Override
+    public void close() {
+      closed = true;
+    }
+  }
+
+  private static long millis(long ms) {
+    return TimeUnit.MILLISECONDS.toMicros(ms);
+  }
+
+  @Test
+  public void sendsTheOpenModelRequestsAtTheTargetRate() {
+    StallingSession session = new StallingSession(0);
+
+    LoadResult result = LoadRunner
+      .open(TEMPLATE, TIMEOUTS, HttpEngine.APACHE, 100, 1, 4)
+      .run(new EmptyProgressIndicator(), session);
+
+    assertTrue(result.isOpenModel());
+    assertEquals(100, result.getResponseCount());
+    assertEquals(100, (long) result.getStatusCounts().get(200));
+    assertTrue(session.closed);
+    // none is sent before it is due, the last one 99 periods of 10 ms after the first
+    assertTrue(result.getElapsedNanos() >= TimeUnit.MILLISECONDS.toNanos(990));
+    long first = session.sendTimes.stream().min(Long::compare).orElseThrow();
+    long last = session.sendTimes.stream().max(Long::compare).orElseThrow();
+    assertTrue(last - first >= TimeUnit.MILLISECONDS.toNanos(980));
+  }
+
+  @Test
+  public void openModelCountsTheWaitBehindAStalledRequest() {
+    StallingSession session = new StallingSession(STALL_MS);
+
+    // due every 50 ms while the only connection is stalled
+    LoadResult result = LoadRunner
+      .open(TEMPLATE, TIMEOUTS, HttpEngine.APACHE, 20, 1, 1)
+      .run(new EmptyProgressIndicator(), session);
+
+    LatencyHistogram histogram = result.getHistogram();
+    assertEquals(20, histogram.getTotalCount());
+    // the k-th request, due at 50k ms, was sent after 500 ms at the earliest
+    assertTrue(histogram.getMax() >= millis(STALL_MS));
+    assertTrue(histogram.getCountBetween(millis(50), Long.MAX_VALUE) >= 10);
+    assertTrue(histogram.getValueAtPercentile(75) >= millis(STALL_MS - 5 * 50));
+  }
+
+  @Test
+  public void closedModelOmitsTheWaitBehindAStalledRequest() {
+    StallingSession session = new StallingSession(STALL_MS);
+
+    LoadResult result = LoadRunner
+      .closed(TEMPLATE, TIMEOUTS, HttpEngine.APACHE, 20, 1)
+      .run(new EmptyProgressIndicator(), session);
+
+    LatencyHistogram histogram = result.getHistogram();
+    assertFalse(result.isOpenModel());
+    assertEquals(20, histogram.getTotalCount());
+    assertTrue(histogram.getMax() >= millis(STALL_MS));
+    // only the stalled request is slow
+    assertTrue(histogram.getValueAtPercentile(75) < millis(100));
+  }
+}
@@ -0,0 +1,128 @@
+package jiux.net.plugin.restful.navigator;
+
+import com.intellij.testFramework.PlatformTestUtil;
+import com.intellij.testFramework.fixtures.BasePlatformTestCase;
+import com.intellij.ui.treeStructure.SimpleTree;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import jiux.net.plugin.restful.navigation.action.RestServiceItem;
+import org.jetbrains.concurrency.CancellablePromise;
+
+public class RestServiceStructureTest extends BasePlatformTestCase {
+
+  private static final int TIMEOUT_SECONDS = 60;
+
+  private static final String[] ANNOTATIONS = {
+    "RestController",
+    "RequestMapping",
+    "GetMapping",
+    "PostMapping",
+    "PathVariable",
+    "RequestParam",
+    "RequestBody",
+  };
+
+  private RestServiceStructure myStructure;
+
+  @Override
+  protected void setUp() throws Exception {
+    super.setUp();
+    for (String annotation : ANNOTATIONS) {
+      myFixture.addClass(
+        "package org.springframework.web.bind.annotation;\n" +
+        "public @interface " +
+        annotation +
+        " {\n" +
+        "  String[] value() default {};\n" +
+        "  String[] path() default {};\n" +
+        "}"
+      );
+    }
+    myFixture.addClass(
+      "package com.example.api;\n" +
+      "public class Order {\n" +
+      "  public Long id;\n" +
+      "  public String customer;\n" +
+      "}"
+    );
+    myFixture.addClass(
+      "package com.example.api;\n" +
+      "import org.springframework.web.bind.annotation.*;\n" +
+      "@RestController\n" +
+      "@RequestMapping(\"/api/orders\")\n" +
+      "public class OrderController {\n" +
+      "  @GetMapping\n" +
+      "  public java.util.List<Order> list(@RequestParam(\"page\") int page) {\n" +
+      "    return null;\n" +
+      "  }\n" +
+      "  @GetMapping(\"/{id}\")\n" +
+      "  public Order get(@PathVariable(\"id\") Long id) { return null; }\n" +
+      "  @PostMapping\n" +
+      "  public Order create(@RequestBody Order order) { return null; }\n" +
+      "}"
+    );
+    myStructure = new RestServiceStructure(getProject(), new SimpleTree());
+  }
+
+  private List<RestServiceStructure.ServiceNode> serviceNodes() {
+    AtomicBoolean updated = new AtomicBoolean();
+    myStructure.update(() -> updated.set(true));
+    PlatformTestUtil.waitWithEventsDispatching(
+      "endpoints not loaded",
+      updated::get,
+      TIMEOUT_SECONDS
+    );
+
+    RestServiceStructure.ProjectNode node = myStructure
+      .getRootElement()
+      .findProjectNode(getModule());
+    assertNotNull("no endpoints found", node);
+    assertEquals(3, node.serviceNodes.size());
+    return node.serviceNodes;
+  }
+
+  private RestServiceItem findItem(String method, String url) {
+    for (RestServiceStructure.ServiceNode node : serviceNodes()) {
+      RestServiceItem item = node.myServiceItem;
+      if (method.equals(String.valueOf(item.getMethod())) && url.equals(item.getUrl())) {
+        return item;
+      }
+    }
+    throw new AssertionError("no " + method + " " + url);
+  }
+
+  private static void waitForDetail(CancellablePromise<?> promise) {
+    PlatformTestUtil.waitForPromise(promise);
+    // computeServiceDetail fails when called on EDT
+    assertTrue(promise.isSucceeded());
+  }
+
+  public void testComputesTheDetailInTheBackground() {
+    RestServiceItem item = findItem("POST", "/api/orders");
+
+    myStructure.showServiceDetail(item, null);
+    RestServiceDetail detail = myStructure.myRestServiceDetail;
+    // shown at once, before the full url and the body are computed
+    assertEquals(item.getUrl(), detail.urlField.getText());
+    assertEquals(-1, detail.requestTabbedPane.indexOfTab("RequestBody"));
+
+    waitForDetail(myStructure.myDetailPromise);
+    assertEquals(item.getFullUrl(), detail.urlField.getText());
+    assertTrue(detail.requestTabbedPane.indexOfTab("RequestParams") >= 0);
+    assertTrue(detail.requestTabbedPane.indexOfTab("RequestBody") >= 0);
+  }
+
+  public void testNewerSelectionCancelsTheDetail() {
+    RestServiceItem first = findItem("GET", "/api/orders");
+    RestServiceItem second = findItem("GET", "/api/orders/{id}");
+
+    myStructure.showServiceDetail(first, null);
+    CancellablePromise<?> firstDetail = myStructure.myDetailPromise;
+    myStructure.showServiceDetail(second, null);
+
+    assertTrue(firstDetail.isCancelled());
+    waitForDetail(myStructure.myDetailPromise);
+    assertSame(second, myStructure.myRestServiceDetail.restServiceItem);
+    assertEquals(second.getFullUrl(), myStructure.myRestServiceDetail.urlField.getText());
+  }
+}
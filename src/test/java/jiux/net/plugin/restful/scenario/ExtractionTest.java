@@ -0,0 +1,101 @@
+package jiux.net.plugin.restful.scenario;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import java.util.List;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.message.BasicHttpResponse;
+import org.junit.Test;
+
+public class ExtractionTest {
+
+  private static final JsonElement BODY = JsonParser.parseString(
+    "{\"data\": {\"token\": \"abc\", \"user.name\": \"ann\", \"count\": 3, " +
+    "\"items\": [{\"id\": 1}, {\"id\": 2}, {\"id\": 3}], \"missing\": null}}"
+  );
+
+  private static HttpResponse response() {
+    HttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, 201, "Created");
+    response.addHeader("Location", "/orders/7");
+    return response;
+  }
+
+  private static String extract(String rule) {
+    List<Extraction> extractions = Extraction.parse(rule);
+    assertEquals(1, extractions.size());
+    return extractions.get(0).extract(response(), BODY);
+  }
+
+  private static void assertInvalid(String text, String message) {
+    try {
+      Extraction.parse(text);
+      fail(text);
+    } catch (IllegalArgumentException e) {
+      assertEquals(message, e.getMessage());
+    }
+  }
+
+  @Test
+  public void parsesOneRulePerLineSkippingBlankLinesAndComments() {
+    List<Extraction> extractions = Extraction.parse(
+      "// the session\n\ntoken = $.data.token\r\n  location = header:Location  \n"
+    );
+
+    assertEquals(2, extractions.size());
+    assertEquals("token", extractions.get(0).getVariable());
+    assertTrue(extractions.get(0).needsBody());
+    assertEquals("location", extractions.get(1).getVariable());
+    assertFalse(extractions.get(1).needsBody());
+    assertTrue(Extraction.parse(null).isEmpty());
+  }
+
+  @Test
+  public void extractsMembersAndIndexes() {
+    assertEquals("abc", extract("token = $.data.token"));
+    assertEquals("ann", extract("name = $.data['user.name']"));
+    assertEquals("3", extract("count = $[\"data\"].count"));
+    assertEquals("2", extract("id = $.data.items[1].id"));
+    assertEquals("3", extract("last = $.data.items[-1].id"));
+  }
+
+  @Test
+  public void extractsObjectsAndArraysAsJson() {
+    assertEquals("{\"id\":1}", extract("first = $.data.items[0]"));
+    assertEquals(BODY.toString(), extract("all = $"));
+  }
+
+  @Test
+  public void extractsNullWithoutSuchValue() {
+    assertNull(extract("x = $.data.unknown"));
+    assertNull(extract("x = $.data.missing"));
+    assertNull(extract("x = $.data.items[3]"));
+    assertNull(extract("x = $.data.token[0]"));
+    assertNull(extract("x = $.data.items.id"));
+    assertNull(Extraction.parse("x = $.data").get(0).extract(response(), null));
+  }
+
+  @Test
+  public void extractsHeadersByCaseInsensitiveName() {
+    assertEquals("/orders/7", extract("location = Header: location"));
+    assertNull(extract("etag = header:ETag"));
+  }
+
+  @Test
+  public void namesTheLineOfTheFirstInvalidRule() {
+    assertInvalid("a = $.a\nnothing", "Line 2: expected variable = source");
+    assertInvalid("1a = $.a", "Line 1: invalid variable name '1a'");
+    assertInvalid("a = header: ", "Line 1: missing header name");
+    assertInvalid("a = data.token", "Line 1: expected a path starting with $ or header:");
+    assertInvalid("a = $..token", "Line 1: missing member name at 1");
+    assertInvalid("a = $.items[0", "Line 1: missing ] after 7");
+    assertInvalid("a = $.items[first]", "Line 1: invalid index 'first'");
+    assertInvalid("a = $token", "Line 1: unexpected 't' at 1");
+  }
+}
@@ -0,0 +1,165 @@
+package jiux.net.plugin.restful.service;
+
+import static jiux.net.plugin.restful.service.RestEndpointSearchIndex.trigramsOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.intellij.psi.PsiElement;
+import com.intellij.psi.SmartPsiElementPointer;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import jiux.net.plugin.restful.method.HttpMethod;
+import jiux.net.plugin.restful.navigation.action.RestServiceItem;
+import jiux.net.plugin.restful.service.RestEndpointSearchIndex.ModuleIndex;
+import jiux.net.plugin.restful.service.RestEndpointSearchIndex.Posting;
+import org.junit.Test;
+
+public class RestEndpointSearchIndexTest {
+
+  @SuppressWarnings("unchecked")
+  private static final SmartPsiElementPointer<PsiElement> NO_ELEMENT =
+    (SmartPsiElementPointer<PsiElement>) Proxy.newProxyInstance(
+      RestEndpointSearchIndexTest.class.getClassLoader(),
+      new Class<?>[] { SmartPsiElementPointer.class },
+      (proxy, method, args) -> null
+    );
+
+  private static RestServiceItem item(String url, String className, String methodName) {
+    return new RestServiceItem(
+      NO_ELEMENT,
+      "app",
+      HttpMethod.GET,
+      "",
+      url,
+      false,
+      className,
+      methodName
+    );
+  }
+
+  private static RestServiceItem item(int i) {
+    return item("/items/" + i, "ItemController", "get" + i);
+  }
+
+  private static Posting posting(int... slots) {
+    Posting posting = new Posting();
+    for (int slot : slots) {
+      posting.add(slot);
+    }
+    return posting;
+  }
+
+  private static List<String> urls(List<RestServiceItem> items) {
+    List<String> urls = new ArrayList<>();
+    for (RestServiceItem item : items) {
+      urls.add(item.getUrl());
+    }
+    return urls;
+  }
+
+  @Test
+  public void postingKeepsAscendingSlotsOnce() {
+    Posting posting = posting(1, 1, 3, 8, 8, 13, 21);
+
+    assertEquals(5, posting.size);
+    assertTrue(posting.contains(1));
+    assertTrue(posting.contains(21));
+    assertFalse(posting.contains(0));
+    assertFalse(posting.contains(5));
+    assertFalse(posting.contains(22));
+  }
+
+  @Test
+  public void findsEndpointsInAtLeastMinHitsPostings() {
+    List<RestServiceItem> items = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      items.add(item(i));
+    }
+    ModuleIndex index = new ModuleIndex(items, 0);
+
+    List<Posting> postings = List.of(posting(0, 1, 2), posting(1, 2, 3), posting(2, 4));
+    assertEquals(
+      List.of("/items/0", "/items/1", "/items/2", "/items/3", "/items/4"),
+      urls(index.find(new ArrayList<>(postings), 1))
+    );
+    assertEquals(
+      List.of("/items/1", "/items/2"),
+      urls(index.find(new ArrayList<>(postings), 2))
+    );
+    assertEquals(List.of("/items/2"), urls(index.find(new ArrayList<>(postings), 3)));
+    assertTrue(index.find(new ArrayList<>(postings), 4).isEmpty());
+
+    // a cleared slot is skipped
+    index.apply(List.of(item(2)), List.of());
+    assertEquals(List.of("/items/1"), urls(index.find(new ArrayList<>(postings), 2)));
+  }
+
+  @Test
+  public void findsByEveryLetterAndDigitInAnyOrder() {
+    ModuleIndex index = new ModuleIndex(
+      List.of(
+        item("/users/{id}", "UserController", "get"),
+        item("/orders", "OrderController", "list")
+      ),
+      0
+    );
+
+    // camel hump and sparse patterns share no trigram with the names
+    assertEquals(List.of("/users/{id}"), urls(index.findByChars("uCtl")));
+    assertEquals(List.of("/users/{id}"), urls(index.findByChars("usr id")));
+    assertEquals(2, index.findByChars("Ctrl").size());
+    assertTrue(index.findByChars("userz").isEmpty());
+    // nothing to filter by
+    assertEquals(2, index.findByChars("/*").size());
+    assertEquals(2, index.findByChars("гет").size());
+  }
+
+  @Test
+  public void countsTheTrigramsAnEndpointHolds() {
+    RestServiceItem users = item("/users", "UserController", "list");
+    ModuleIndex index = new ModuleIndex(List.of(users), 0);
+
+    assertEquals(3, index.countTrigrams(users, trigramsOf("users")));
+    assertEquals(1, index.countTrigrams(users, trigramsOf("xuse")));
+    assertEquals(0, index.countTrigrams(item("/orders", null, null), trigramsOf("ord")));
+  }
+
+  @Test
+  public void replacedEndpointTakesANewSlot() {
+    RestServiceItem users = item("/users", "UserController", "list");
+    RestServiceItem orders = item("/orders", "OrderController", "list");
+    ModuleIndex index = new ModuleIndex(List.of(users, orders), 0);
+
+    RestServiceItem renamed = item("/users", "UserController", "findAll");
+    index.apply(List.of(), List.of(renamed));
+
+    assertEquals(3, index.getSlotCount());
+    List<RestServiceItem> found = index.findByChars("users");
+    assertEquals(1, found.size());
+    assertSame(renamed, found.get(0));
+    assertEquals(List.of("/users"), urls(index.findByChars("findAll")));
+  }
+
+  @Test
+  public void compactsOnceMostSlotsAreCleared() {
+    List<RestServiceItem> items = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      items.add(item(i));
+    }
+    ModuleIndex index = new ModuleIndex(items, 0);
+
+    index.apply(items.subList(0, 60), List.of());
+    assertEquals(100, index.getSlotCount());
+    index.apply(items.subList(60, 80), List.of());
+    assertEquals(20, index.getSlotCount());
+
+    assertEquals(20, index.findByChars("items").size());
+    assertEquals(List.of("/items/85"), urls(index.findByChars("get85")));
+    assertTrue(index.findByChars("get75").isEmpty());
+    index.apply(List.of(), List.of(item(75)));
+    assertEquals(List.of("/items/75"), urls(index.findByChars("get75")));
+  }
+}